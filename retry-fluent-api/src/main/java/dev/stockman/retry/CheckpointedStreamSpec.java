@@ -0,0 +1,181 @@
+package dev.stockman.retry;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Default {@link Retry.StreamSpec} built on top of {@link Retry.RetrySpec#call}.
+ * Elements are read straight from the source; only a failed read starts a retryable call. Its first attempt is the
+ * failed read, the following ones re-open the source from the last checkpoint. An attempt succeeds once it has read
+ * the element that failed and the one after it, so a source that fails again right after recovering keeps using up
+ * the same attempts instead of starting over. Nothing but the current element and the one read ahead is held in
+ * memory.
+ */
+final class CheckpointedStreamSpec<T> implements Retry.StreamSpec<T> {
+
+    private final Retry.RetrySpec retry;
+    private final Function<Retry.Checkpoint<T>, Stream<T>> source;
+
+    CheckpointedStreamSpec(Retry.RetrySpec retry, Function<Retry.Checkpoint<T>, Stream<T>> source) {
+        this.retry = retry;
+        this.source = source;
+    }
+
+    @Override
+    public Stream<T> execute() {
+        return toStream(new CheckpointedIterator(null));
+    }
+
+    @Override
+    public Stream<T> fallback(Function<Throwable, Stream<T>> fallback) {
+        return toStream(new CheckpointedIterator(fallback));
+    }
+
+    private Stream<T> toStream(CheckpointedIterator iterator) {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false)
+                .onClose(iterator::close);
+    }
+
+    private final class CheckpointedIterator implements Iterator<T> {
+
+        private final Function<Throwable, Stream<T>> fallback;
+        private Retry.Checkpoint<T> checkpoint = Retry.Checkpoint.start();
+        private Stream<T> current;
+        private Iterator<T> iterator;
+        private boolean fallingBack;
+        private boolean fetched;
+        private boolean finished;
+        private T next;
+        private boolean readAhead;
+        private T ahead;
+
+        CheckpointedIterator(Function<Throwable, Stream<T>> fallback) {
+            this.fallback = fallback;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (!fetched && !finished) {
+                if (readAhead) {
+                    readAhead = false;
+                    next = ahead;
+                    ahead = null;
+                    fetched = true;
+                } else {
+                    fetched = fallingBack ? fetch() : fetchOrRecover();
+                }
+                finished = !fetched;
+                if (finished) {
+                    close();
+                }
+            }
+            return fetched;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            fetched = false;
+            T element = next;
+            next = null;
+            checkpoint = checkpoint.next(element);
+            return element;
+        }
+
+        void close() {
+            if (current != null) {
+                Stream<T> stream = current;
+                current = null;
+                iterator = null;
+                stream.close();
+            }
+        }
+
+        private boolean fetchOrRecover() {
+            try {
+                return fetch();
+            } catch (RuntimeException e) {
+                return recover(e);
+            }
+        }
+
+        /**
+         * Retries the failed read. The source is already closed, so every attempt after the first re-opens it.
+         */
+        private boolean recover(RuntimeException failure) {
+            RuntimeException[] pending = {failure};
+            try {
+                return retry.call(() -> {
+                    RuntimeException first = pending[0];
+                    if (first != null) {
+                        pending[0] = null;
+                        throw first;
+                    }
+                    return fetchRecovered();
+                }).execute();
+            } catch (Throwable e) {
+                close();
+                if (fallback == null) {
+                    throw rethrow(e);
+                }
+                fallingBack = true;
+                current = fallback.apply(e);
+                iterator = current.iterator();
+                return fetch();
+            }
+        }
+
+        /**
+         * Reads the element that failed and the one after it, which is kept until the consumer asks for it.
+         * Returns false if the source ended before the element that failed.
+         */
+        private boolean fetchRecovered() {
+            if (!fetch()) {
+                return false;
+            }
+            T recovered = next;
+            if (fetch()) {
+                ahead = next;
+                readAhead = true;
+            }
+            next = recovered;
+            return true;
+        }
+
+        private boolean fetch() {
+            try {
+                if (iterator == null) {
+                    current = source.apply(checkpoint);
+                    iterator = current.iterator();
+                }
+                if (iterator.hasNext()) {
+                    next = iterator.next();
+                    return true;
+                }
+                return false;
+            } catch (RuntimeException e) {
+                if (!fallingBack) {
+                    close();
+                }
+                throw e;
+            }
+        }
+
+        private RuntimeException rethrow(Throwable throwable) {
+            if (throwable instanceof RuntimeException runtimeException) {
+                return runtimeException;
+            }
+            if (throwable instanceof Error error) {
+                throw error;
+            }
+            return new IllegalStateException(throwable);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package dev.stockman.retry;
+
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Default {@link Retry.CallSpec} behind {@link Retry.CallSpec#retryIf} for implementations that cannot retry on
+ * results. The result of {@link Retry.CallSpec#execute()} is checked once, after the retries on failures: a matching
+ * result is returned like an exhausted retry, and it runs the {@link Retry.CallSpec#fallbackTo} stages.
+ *
+ * @param <R> The type of the result.
+ */
+final class ConditionalCallSpec<R> implements Retry.CallSpec<R> {
+
+    private final Retry.CallSpec<R> spec;
+    private final Predicate<? super R> condition;
+
+    ConditionalCallSpec(Retry.CallSpec<R> spec, Predicate<? super R> condition) {
+        this.spec = spec;
+        this.condition = condition;
+    }
+
+    @Override
+    public R execute() throws Throwable {
+        return spec.execute();
+    }
+
+    @Override
+    public R fallback(Function<Throwable, R> fallback) {
+        return spec.fallback(fallback);
+    }
+
+    @Override
+    public Retry.CallSpec<R> retryIf(Predicate<? super R> condition) {
+        return new ConditionalCallSpec<>(spec, ResultCondition.or(this.condition, condition));
+    }
+
+    @Override
+    public Retry.CallSpec<R> fallbackTo(Supplier<R> secondary, Retry.FallbackPolicy policy) {
+        return new FallbackChain<>(this, this::outcome).fallbackTo(secondary, policy);
+    }
+
+    /**
+     * Runs the specification through a {@link ResultCondition} and reports whether its result was rejected.
+     */
+    private FallbackChain.Outcome<R> outcome() throws Throwable {
+        R result = spec.execute();
+        var check = new ResultCondition<>(() -> result, condition);
+        try {
+            return new FallbackChain.Outcome<>(check.get(), false);
+        } catch (RejectedResultException e) {
+            return new FallbackChain.Outcome<>(check.rejected(), true);
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package dev.stockman.retry;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Immutable retryable/non-retryable exception table, built once per set of retry settings and shared by the retry
+ * policy and the listeners of an adapter.
+ * <p>
+ * Entries are either fully qualified class names, resolved eagerly so that typos fail at startup, or package
+ * patterns: {@code com.acme.*} matches the classes of one package, {@code com.acme.**} also matches its
+ * sub-packages. By default the nearest match in the class hierarchy wins and on a tie the non-retryable entry
+ * wins; {@link Builder#nonRetryableFirst()} makes any non-retryable match win. If nothing matches, the cause chain
+ * is followed up to {@code causeDepth} levels.
+ * <p>
+ * Lookups only use {@link Object#getClass()}, {@link Class#getSuperclass()} and {@link Class#getName()},
+ * and the decision per exception type is cached in a {@link ClassValue}, so classification needs no reflection
+ * and no locking after the first lookup of a type.
+ */
+public final class ExceptionClassifier {
+
+    private final Map<Class<? extends Throwable>, Boolean> exceptions;
+    private final List<Pattern> patterns;
+    private final boolean nonRetryableFirst;
+    private final boolean defaultValue;
+    private final int causeDepth;
+    private final ClassValue<Optional<Boolean>> decisions = new ClassValue<>() {
+        @Override
+        protected Optional<Boolean> computeValue(Class<?> type) {
+            return Optional.ofNullable(decide(type));
+        }
+    };
+
+    private ExceptionClassifier(Builder builder, Map<Class<? extends Throwable>, Boolean> exceptions, List<Pattern> patterns) {
+        this.exceptions = Map.copyOf(exceptions);
+        this.patterns = List.copyOf(patterns);
+        this.nonRetryableFirst = builder.nonRetryableFirst;
+        this.defaultValue = builder.defaultValue;
+        this.causeDepth = builder.causeDepth;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns true if the exception, or one of its causes within the depth limit, is classified as retryable.
+     */
+    public boolean isRetryable(Throwable throwable) {
+        Boolean decision = classify(throwable);
+        return decision == null ? defaultValue : decision;
+    }
+
+    /**
+     * Returns true if the exception, or one of its causes within the depth limit, is explicitly non-retryable.
+     */
+    public boolean isNonRetryable(Throwable throwable) {
+        return Boolean.FALSE.equals(classify(throwable));
+    }
+
+    /**
+     * Returns true if the entry is a package pattern rather than a class name.
+     */
+    public static boolean isPattern(String entry) {
+        String name = entry.strip();
+        return name.endsWith(".*") || name.endsWith(".**");
+    }
+
+    /**
+     * Resolves a class name to a Throwable class through the given class loader.
+     * Throws IllegalArgumentException if the class is not found or not a Throwable.
+     */
+    public static Class<? extends Throwable> throwableClass(String className, ClassLoader classLoader) {
+        try {
+            Class<?> clazz = Class.forName(className, false, classLoader);
+            if (Throwable.class.isAssignableFrom(clazz)) {
+                return clazz.asSubclass(Throwable.class);
+            } else {
+                throw new IllegalArgumentException(
+                        "Class " + className + " is not a subclass of java.lang.Throwable");
+            }
+        } catch (ClassNotFoundException e) {
+            throw new IllegalArgumentException("Class " + className + " not found", e);
+        }
+    }
+
+    /**
+     * Returns the decision of the first matching entry, or null if no entry matches.
+     */
+    Boolean classify(Throwable throwable) {
+        Throwable current = throwable;
+        for (int depth = 0; current != null && depth <= causeDepth; depth++) {
+            Optional<Boolean> decision = decisions.get(current.getClass());
+            if (decision.isPresent()) {
+                return decision.get();
+            }
+            current = current.getCause() == current ? null : current.getCause();
+        }
+        return null;
+    }
+
+    private Boolean decide(Class<?> type) {
+        Boolean nearest = null;
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            Boolean decision = exceptions.get(current);
+            if (decision == null || nonRetryableFirst && decision) {
+                String className = current.getName();
+                for (Pattern pattern : patterns) {
+                    if (pattern.matches(className) && (decision == null || !pattern.retryable())) {
+                        decision = pattern.retryable();
+                    }
+                }
+            }
+            if (decision == null) {
+                continue;
+            }
+            if (!nonRetryableFirst || !decision) {
+                return decision;
+            }
+            nearest = Boolean.TRUE;
+        }
+        return nearest;
+    }
+
+    /**
+     * Collects the entries of a classifier. Class names are resolved when the classifier is built.
+     */
+    public static final class Builder {
+
+        private final List<String> retryable = new ArrayList<>();
+        private final List<String> nonRetryable = new ArrayList<>();
+        private boolean nonRetryableFirst;
+        private boolean defaultValue;
+        private int causeDepth;
+        private ClassLoader classLoader = ExceptionClassifier.class.getClassLoader();
+
+        private Builder() {
+        }
+
+        /**
+         * Adds class names or package patterns to retry. A null list adds nothing.
+         */
+        public Builder retryable(List<String> entries) {
+            if (entries != null) {
+                retryable.addAll(entries);
+            }
+            return this;
+        }
+
+        /**
+         * Adds class names or package patterns that are never retried. A null list adds nothing.
+         */
+        public Builder nonRetryable(List<String> entries) {
+            if (entries != null) {
+                nonRetryable.addAll(entries);
+            }
+            return this;
+        }
+
+        /**
+         * Makes a non-retryable match anywhere in the class hierarchy win over a nearer retryable one.
+         */
+        public Builder nonRetryableFirst() {
+            this.nonRetryableFirst = true;
+            return this;
+        }
+
+        /**
+         * Sets the decision for exceptions that match no entry. Defaults to false.
+         */
+        public Builder defaultValue(boolean defaultValue) {
+            this.defaultValue = defaultValue;
+            return this;
+        }
+
+        /**
+         * Sets how many causes to inspect when the exception itself matches no entry. Defaults to 0.
+         */
+        public Builder causeDepth(int causeDepth) {
+            if (causeDepth < 0) {
+                throw new IllegalArgumentException("causeDepth must not be negative");
+            }
+            this.causeDepth = causeDepth;
+            return this;
+        }
+
+        /**
+         * Sets the class loader the class names are resolved through.
+         */
+        public Builder classLoader(ClassLoader classLoader) {
+            this.classLoader = classLoader;
+            return this;
+        }
+
+        /**
+         * Builds the classification table.
+         * Throws IllegalArgumentException if a class name cannot be resolved or is not a Throwable.
+         */
+        public ExceptionClassifier build() {
+            List<Pattern> patterns = new ArrayList<>();
+            Map<Class<? extends Throwable>, Boolean> exceptions = new HashMap<>();
+            split(retryable, patterns, true).forEach(className -> exceptions.put(throwableClass(className, classLoader), Boolean.TRUE));
+            split(nonRetryable, patterns, false).forEach(className -> exceptions.put(throwableClass(className, classLoader), Boolean.FALSE));
+            return new ExceptionClassifier(this, exceptions, patterns);
+        }
+
+        private static List<String> split(List<String> entries, List<Pattern> patterns, boolean retryable) {
+            List<String> classNames = new ArrayList<>();
+            for (String entry : entries) {
+                String name = entry.strip();
+                if (isPattern(name)) {
+                    patterns.add(Pattern.of(name, retryable));
+                } else if (!name.isEmpty()) {
+                    classNames.add(name);
+                }
+            }
+            return classNames;
+        }
+    }
+
+    /**
+     * A package pattern. The prefix includes the trailing dot, e.g. {@code com.acme.}.
+     */
+    private record Pattern(String prefix, boolean subPackages, boolean retryable) {
+        static Pattern of(String name, boolean retryable) {
+            boolean subPackages = name.endsWith(".**");
+            return new Pattern(name.substring(0, name.lastIndexOf('.') + 1), subPackages, retryable);
+        }
+
+        boolean matches(String className) {
+            return className.startsWith(prefix) && (subPackages || className.indexOf('.', prefix.length()) < 0);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package dev.stockman.retry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Default {@link Retry.CallSpec} behind {@link Retry.CallSpec#fallbackTo}. The action runs through the retry
+ * specification it was defined on; the stages run in a plain loop of their own, without re-entering the retry
+ * template or creating a specification per stage, so no stage is ever retried by a full retry schedule.
+ * <p>
+ * Each stage stops retrying once its {@link Retry.FallbackPolicy#retryWindow()} has passed, but attempts are not
+ * interrupted: an attempt that hangs blocks the chain until the client it calls times out.
+ * <p>
+ * A result of the action that the specification reports as rejected by its {@link Retry.CallSpec#retryIf}
+ * condition falls through to the stages like a failure. If all stages fail, that result is returned. The chain does
+ * not test the condition itself; adapters create it with an {@link Action} that tells whether the retries ended
+ * with a rejected result.
+ *
+ * @param <R> The type of the result.
+ */
+public final class FallbackChain<R> implements Retry.CallSpec<R> {
+
+    private final Retry.CallSpec<R> primary;
+    private final Action<R> action;
+    private final List<Stage<R>> stages;
+
+    /**
+     * Creates a chain without stages, to which {@link #fallbackTo} adds them.
+     *
+     * @param primary The specification of the action, to which {@link #retryIf} adds conditions.
+     * @param action  Executes the specification and reports whether its result was rejected.
+     */
+    public FallbackChain(Retry.CallSpec<R> primary, Action<R> action) {
+        this(primary, action, List.of());
+    }
+
+    private FallbackChain(Retry.CallSpec<R> primary, Action<R> action, List<Stage<R>> stages) {
+        this.primary = primary;
+        this.action = action;
+        this.stages = stages;
+    }
+
+    /**
+     * Runs the action, then the stages in order until one returns a result. Throws a
+     * {@link FallbackFailedException} if all of them failed.
+     */
+    @Override
+    public R execute() throws Throwable {
+        Outcome<R> outcome = null;
+        Throwable failure = null;
+        try {
+            outcome = action.execute();
+            if (!outcome.rejected()) {
+                return outcome.result();
+            }
+        } catch (Throwable e) {
+            if (stages.isEmpty()) {
+                throw e;
+            }
+            failure = e;
+        }
+        List<Throwable> failures = new ArrayList<>(stages.size() + 1);
+        if (failure != null) {
+            failures.add(failure);
+        }
+        for (Stage<R> stage : stages) {
+            try {
+                return stage.run();
+            } catch (RuntimeException e) {
+                failures.add(e);
+            }
+        }
+        if (outcome != null) {
+            return outcome.result();
+        }
+        throw new FallbackFailedException(failures);
+    }
+
+    @Override
+    public R fallback(Function<Throwable, R> fallback) {
+        try {
+            return execute();
+        } catch (Throwable e) {
+            return fallback.apply(e);
+        }
+    }
+
+    /**
+     * Adds the condition to the action and adds the stages again to the result. The stages are not retried on their
+     * results.
+     */
+    @Override
+    public Retry.CallSpec<R> retryIf(Predicate<? super R> condition) {
+        Retry.CallSpec<R> spec = primary.retryIf(condition);
+        for (Stage<R> stage : stages) {
+            spec = spec.fallbackTo(stage.action(), stage.policy());
+        }
+        return spec;
+    }
+
+    @Override
+    public Retry.CallSpec<R> fallbackTo(Supplier<R> secondary, Retry.FallbackPolicy policy) {
+        List<Stage<R>> extended = new ArrayList<>(stages.size() + 1);
+        extended.addAll(stages);
+        extended.add(new Stage<>(secondary, policy));
+        return new FallbackChain<>(primary, action, List.copyOf(extended));
+    }
+
+    /**
+     * Executes the specification of the action.
+     *
+     * @param <R> The type of the result.
+     */
+    @FunctionalInterface
+    public interface Action<R> {
+
+        /**
+         * Runs the action with its retries.
+         *
+         * @return The last result, and whether it was still rejected by a {@code retryIf} condition.
+         * @throws Throwable The failure of the last attempt.
+         */
+        Outcome<R> execute() throws Throwable;
+    }
+
+    /**
+     * The result of the action after its retries.
+     *
+     * @param result   The result of the last attempt.
+     * @param rejected True if the result still matched a {@code retryIf} condition when the retries were exhausted.
+     * @param <R>      The type of the result.
+     */
+    public record Outcome<R>(R result, boolean rejected) {
+    }
+
+    /**
+     * A fallback action and its policy.
+     */
+    private record Stage<R>(Supplier<R> action, Retry.FallbackPolicy policy) {
+
+        /**
+         * Runs the action until it succeeds, the attempts are used up or the next backoff would end outside the
+         * retry window. Rethrows the last failure. Errors other than runtime exceptions are not retried.
+         */
+        R run() {
+            long start = policy.clock().millis();
+            long backoff = policy.backoff().toMillis();
+            long window = policy.retryWindow().toMillis();
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    return action.get();
+                } catch (RuntimeException e) {
+                    if (attempt >= policy.maxAttempts() || policy.clock().millis() - start + backoff > window) {
+                        throw e;
+                    }
+                    try {
+                        policy.sleeper().sleep(backoff);
+                    } catch (InterruptedException _) {
+                        Thread.currentThread().interrupt();
+                        throw e;
+                    }
+                }
+            }
+        }
+    }
+}
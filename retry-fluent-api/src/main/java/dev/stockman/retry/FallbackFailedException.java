@@ -0,0 +1,19 @@
+package dev.stockman.retry;
+
+import java.util.List;
+
+/**
+ * Thrown by {@link Retry.CallSpec#execute()} when the action and all its fallback stages failed. The cause is the
+ * failure of the last stage; the failures of the action and of the earlier stages are suppressed, in order. The
+ * failures themselves are left unchanged, so an exception that is thrown repeatedly, e.g. a cached one, does not
+ * collect the failures of other calls.
+ */
+public final class FallbackFailedException extends RuntimeException {
+
+    FallbackFailedException(List<Throwable> failures) {
+        super("The action and " + (failures.size() - 1) + " fallback stages failed", failures.getLast(), true, false);
+        for (int i = 0; i < failures.size() - 1; i++) {
+            addSuppressed(failures.get(i));
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package dev.stockman.retry;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Interns per-operation state, keyed by the name passed to {@code Retry.named(..)}, with a hard cap on the number of
+ * operations. Callers that pass dynamic names, such as entity ids, or that use {@code anonymous()} would otherwise
+ * grow per-operation state without limit.
+ * <p>
+ * When the registry is full, a new operation takes the place of the least recently used one if that one has been
+ * idle for at least the idle timeout. Otherwise it shares the state of the {@value #OVERFLOW} operation, which is
+ * never evicted. An evicted operation that comes back starts with fresh state; callers still holding the evicted
+ * state keep updating it unseen.
+ * <p>
+ * Lookups of known operations are lock-free: a concurrent map read and a volatile write of the last use, at most
+ * once per millisecond. Adding an operation to a full registry scans the entries for the least recently used one,
+ * but only once the oldest entry can have become idle, so a registry that overflows under load does not rescan on
+ * every new name. Keep the cap in the thousands.
+ *
+ * @param <V> The type of the per-operation state.
+ */
+public final class OperationRegistry<V> {
+
+    /**
+     * The name of the operation that collects the state of operations that did not fit.
+     */
+    public static final String OVERFLOW = "other";
+
+    private final int maxOperations;
+    private final long idleMillis;
+    private final Clock clock;
+    private final Function<String, ? extends V> factory;
+    private final ConcurrentMap<String, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder overflows = new LongAdder();
+    private final Entry<V> overflow;
+    private volatile long noIdleEntryBefore;
+
+    /**
+     * @param maxOperations The maximum number of operations, not counting {@value #OVERFLOW}.
+     * @param idleTimeout   How long an operation must be unused before it can be evicted.
+     * @param clock         The clock the idle time is measured on.
+     * @param factory       Creates the state of an operation from its name. May be called more than once for the
+     *                      same name when threads add it concurrently; only one result is kept.
+     */
+    public OperationRegistry(int maxOperations, Duration idleTimeout, Clock clock, Function<String, ? extends V> factory) {
+        if (maxOperations < 1 || idleTimeout.isNegative()) {
+            throw new IllegalArgumentException("Invalid operation registry settings");
+        }
+        this.maxOperations = maxOperations;
+        this.idleMillis = idleTimeout.toMillis();
+        this.clock = clock;
+        this.factory = factory;
+        this.overflow = new Entry<>(OVERFLOW, factory.apply(OVERFLOW), clock.millis());
+    }
+
+    /**
+     * Returns the state of an operation, adding the operation if it is new, or the state of {@value #OVERFLOW} if
+     * it does not fit.
+     */
+    public V get(String operation) {
+        return entry(operation).value;
+    }
+
+    /**
+     * Returns the interned name of an operation: the given name if the operation fits, {@value #OVERFLOW} if not.
+     * Adds the operation like {@link #get(String)}.
+     */
+    public String intern(String operation) {
+        return entry(operation).name;
+    }
+
+    /**
+     * Returns the state of a known operation without adding it or counting it as used, null if it is unknown.
+     */
+    public V peek(String operation) {
+        if (OVERFLOW.equals(operation)) {
+            return overflow.value;
+        }
+        Entry<V> entry = entries.get(operation);
+        return entry == null ? null : entry.value;
+    }
+
+    /**
+     * Passes every operation and its state to the consumer, {@value #OVERFLOW} included, in no particular order.
+     */
+    public void forEach(BiConsumer<String, ? super V> consumer) {
+        entries.forEach((name, entry) -> consumer.accept(name, entry.value));
+        consumer.accept(OVERFLOW, overflow.value);
+    }
+
+    /**
+     * Returns the number of operations, not counting {@value #OVERFLOW}.
+     */
+    public int size() {
+        return size.get();
+    }
+
+    /**
+     * Returns how many idle operations were evicted to make room for new ones.
+     */
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Returns how many new operations were refused and got the state of {@value #OVERFLOW} instead.
+     */
+    public long overflows() {
+        return overflows.sum();
+    }
+
+    /**
+     * Removes all operations and zeroes the eviction and overflow counts. The state of {@value #OVERFLOW} is kept.
+     */
+    public void clear() {
+        evictions.reset();
+        overflows.reset();
+        for (String name : entries.keySet()) {
+            if (entries.remove(name) != null) {
+                size.decrementAndGet();
+            }
+        }
+        noIdleEntryBefore = 0;
+    }
+
+    private Entry<V> entry(String operation) {
+        long now = clock.millis();
+        Entry<V> entry = entries.get(operation);
+        if (entry == null) {
+            entry = OVERFLOW.equals(operation) ? overflow : add(operation, now);
+        }
+        entry.touch(now);
+        return entry;
+    }
+
+    /**
+     * Reserves a slot, evicting an idle operation if the registry is full, then adds the operation. Returns the
+     * overflow entry if no slot can be had.
+     */
+    private Entry<V> add(String operation, long now) {
+        while (true) {
+            int current = size.get();
+            if (current < maxOperations) {
+                if (size.compareAndSet(current, current + 1)) {
+                    break;
+                }
+            } else if (!evictIdle(now)) {
+                overflows.increment();
+                return overflow;
+            }
+        }
+        Entry<V> created = new Entry<>(operation, factory.apply(operation), now);
+        Entry<V> existing = entries.putIfAbsent(operation, created);
+        if (existing != null) {
+            size.decrementAndGet();
+            return existing;
+        }
+        return created;
+    }
+
+    /**
+     * Evicts the least recently used operation if it is idle. Returns false if no operation is idle, remembering
+     * when the oldest one can become idle at the earliest.
+     */
+    private boolean evictIdle(long now) {
+        if (now < noIdleEntryBefore) {
+            return false;
+        }
+        Entry<V> oldest = null;
+        for (Entry<V> entry : entries.values()) {
+            if (oldest == null || entry.lastUsed < oldest.lastUsed) {
+                oldest = entry;
+            }
+        }
+        if (oldest == null) {
+            // All slots are reserved by operations that are being added.
+            return false;
+        }
+        if (now - oldest.lastUsed < idleMillis) {
+            noIdleEntryBefore = oldest.lastUsed + idleMillis;
+            return false;
+        }
+        if (entries.remove(oldest.name, oldest)) {
+            size.decrementAndGet();
+            evictions.increment();
+        }
+        return true;
+    }
+
+    private static final class Entry<V> {
+        final String name;
+        final V value;
+        volatile long lastUsed;
+
+        Entry(String name, V value, long lastUsed) {
+            this.name = name;
+            this.value = value;
+            this.lastUsed = lastUsed;
+        }
+
+        /**
+         * Writes the last use only when it changed, so hot operations do not write the shared field on every call.
+         */
+        void touch(long now) {
+            if (lastUsed != now) {
+                lastUsed = now;
+            }
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package dev.stockman.retry;
+
+/**
+ * Thrown inside an attempt whose result matched the condition of {@link Retry.CallSpec#retryIf}, so that retry
+ * engines that only retry on exceptions retry the attempt. There is a single shared instance without stack trace,
+ * so rejecting a result allocates nothing. It is always retryable, and adapters catch it when the retries are
+ * exhausted and return the last rejected result instead.
+ */
+public final class RejectedResultException extends RuntimeException {
+
+    /**
+     * The shared instance.
+     */
+    public static final RejectedResultException INSTANCE = new RejectedResultException();
+
+    private RejectedResultException() {
+        super("Result matched the retry condition", null, false, false);
+    }
+}
@@ -0,0 +1,54 @@
+package dev.stockman.retry;
+
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Wraps the action of one execution for {@link Retry.CallSpec#retryIf}: a result that matches the condition is kept
+ * and rejected with {@link RejectedResultException#INSTANCE}. Adapters create one per execution, run it as the action
+ * and return {@link #rejected()} if the retries are exhausted with the rejection.
+ *
+ * @param <R> The type of the result.
+ */
+public final class ResultCondition<R> implements Supplier<R> {
+
+    private final Supplier<R> action;
+    private final Predicate<? super R> condition;
+    private volatile R rejected;
+
+    /**
+     * @param action    The action of the execution.
+     * @param condition Returns true for results that should be retried.
+     */
+    public ResultCondition(Supplier<R> action, Predicate<? super R> condition) {
+        this.action = action;
+        this.condition = condition;
+    }
+
+    /**
+     * Combines two conditions, either of which rejects a result. The first may be null.
+     */
+    public static <R> Predicate<? super R> or(Predicate<? super R> first, Predicate<? super R> second) {
+        if (first == null) {
+            return second;
+        }
+        return result -> first.test(result) || second.test(result);
+    }
+
+    @Override
+    public R get() {
+        R result = action.get();
+        if (condition.test(result)) {
+            rejected = result;
+            throw RejectedResultException.INSTANCE;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the last rejected result.
+     */
+    public R rejected() {
+        return rejected;
+    }
+}
@@ -1,8 +1,13 @@
 package dev.stockman.retry;
 
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Optional;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 /**
  * Entry point for the fluent retry API. This interface abstracts the underlying
@@ -47,6 +52,51 @@ public interface Retry {
          * @return A specification to finalize execution or add a fallback.
          */
         RunSpec run(Runnable action);
+
+        /**
+         * Defines a retryable source that is consumed lazily, one element at a time.
+         * If the source fails partway through, it is re-opened from the last {@link Checkpoint}
+         * instead of from the beginning. Every element handed to the consumer of the resulting
+         * stream counts as acknowledged.
+         *
+         * @param source Opens the source positioned right after the given checkpoint.
+         * @param <T>    The type of the elements.
+         * @return A specification to finalize execution or add a fallback.
+         */
+        default <T> StreamSpec<T> stream(Function<Checkpoint<T>, Stream<T>> source) {
+            return new CheckpointedStreamSpec<>(this, source);
+        }
+    }
+
+    /**
+     * Position of the last element acknowledged by the consumer of a retryable stream.
+     *
+     * @param position The number of elements acknowledged so far. Usable as an offset.
+     * @param last     The last acknowledged element, or {@code null} at the start. Usable as a keyset cursor.
+     * @param <T>      The type of the elements.
+     */
+    record Checkpoint<T>(long position, T last) {
+
+        /**
+         * The checkpoint before the first element.
+         */
+        public static <T> Checkpoint<T> start() {
+            return new Checkpoint<>(0, null);
+        }
+
+        /**
+         * Returns the checkpoint after acknowledging the given element.
+         */
+        public Checkpoint<T> next(T element) {
+            return new Checkpoint<>(position + 1, element);
+        }
+
+        /**
+         * Returns the last acknowledged element, empty at the start.
+         */
+        public Optional<T> lastElement() {
+            return Optional.ofNullable(last);
+        }
     }
 
     /**
@@ -72,6 +122,97 @@ public interface Retry {
          * @return The result of the action, or the result of the fallback if retries failed.
          */
         R fallback(Function<Throwable, R> fallback);
+
+        /**
+         * Retries the action when it returns a result matching the condition, with the same backoff and attempt
+         * limit as failures, but without creating an exception. When the retries are exhausted, {@link #execute()}
+         * and {@link #fallback(Function)} return the last result. Several conditions retry if any matches.
+         *
+         * <p>
+         * The default implementation is for implementations that only retry on failures: it does not retry on the
+         * result, but a matching result of {@link #execute()} runs the {@link #fallbackTo} stages. Implementations
+         * that can retry should override it and run the action through a {@link ResultCondition}.
+         *
+         * @param condition Returns true for results that should be retried, e.g. an empty page or stale data.
+         * @return A specification to finalize execution or add a fallback.
+         * @see ResultCondition
+         */
+        default CallSpec<R> retryIf(Predicate<? super R> condition) {
+            return new ConditionalCallSpec<>(this, condition);
+        }
+
+        /**
+         * Adds a fallback stage with the {@link FallbackPolicy#DEFAULT} policy.
+         *
+         * @see #fallbackTo(Supplier, FallbackPolicy)
+         */
+        default CallSpec<R> fallbackTo(Supplier<R> secondary) {
+            return fallbackTo(secondary, FallbackPolicy.DEFAULT);
+        }
+
+        /**
+         * Adds a fallback stage that runs when the action and all stages added before it failed for good. The stage
+         * is retried by its own policy, not by the retry policy of the action. Stages run in the order they were
+         * added; the first result wins. If all stages fail, {@link #execute()} throws a {@link FallbackFailedException}
+         * and {@link #fallback(Function)} passes it to the fallback. A result of the action that still matches a
+         * {@link #retryIf} condition runs the stages too, and is returned if they all fail.
+         * <pre>
+         * retry.named("FetchPrice")
+         *      .call(() -> pricing.price(sku))
+         *      .fallbackTo(() -> replica.price(sku))
+         *      .fallbackTo(() -> cache.price(sku), FallbackPolicy.of(1, Duration.ZERO, Duration.ZERO))
+         *      .fallback(_ -> Price.UNKNOWN);
+         * </pre>
+         *
+         * @param secondary The action of the stage, e.g. a replica or a cache lookup.
+         * @param policy    The attempts and retry window of the stage.
+         * @return A specification to add further stages or finalize execution.
+         */
+        default CallSpec<R> fallbackTo(Supplier<R> secondary, FallbackPolicy policy) {
+            FallbackChain.Action<R> action = () -> new FallbackChain.Outcome<>(execute(), false);
+            return new FallbackChain<>(this, action).fallbackTo(secondary, policy);
+        }
+    }
+
+    /**
+     * The retry policy of a fallback stage: a few attempts with a fixed backoff, within a retry window measured from
+     * the start of the stage. A retry is only made if its backoff ends within the window. The window does not bound
+     * the duration of the stage: attempts are not interrupted, so bound them with the timeouts of the clients they
+     * call.
+     *
+     * @param maxAttempts The maximum number of attempts, the first one included.
+     * @param backoff     The backoff before each retry.
+     * @param retryWindow The time after which the stage is not retried anymore.
+     * @param clock       The clock the retry window is measured on.
+     * @param sleeper     The sleeper to wait through.
+     */
+    record FallbackPolicy(int maxAttempts, Duration backoff, Duration retryWindow, Clock clock, Sleeper sleeper) {
+
+        /**
+         * Two attempts, 50 milliseconds apart, within a retry window of 500 milliseconds.
+         */
+        public static final FallbackPolicy DEFAULT = of(2, Duration.ofMillis(50), Duration.ofMillis(500));
+
+        public FallbackPolicy {
+            if (maxAttempts < 1 || backoff.isNegative() || retryWindow.isNegative() || clock == null || sleeper == null) {
+                throw new IllegalArgumentException("Invalid fallback policy");
+            }
+        }
+
+        /**
+         * Returns a policy measuring the retry window on the system clock and sleeping with {@link Sleeper#system()}.
+         */
+        public static FallbackPolicy of(int maxAttempts, Duration backoff, Duration retryWindow) {
+            return new FallbackPolicy(maxAttempts, backoff, retryWindow, Clock.systemUTC(), Sleeper.system());
+        }
+
+        /**
+         * Returns this policy measuring the retry window on the given clock and sleeping with the given sleeper, e.g.
+         * a virtual clock in tests.
+         */
+        public FallbackPolicy using(Clock clock, Sleeper sleeper) {
+            return new FallbackPolicy(maxAttempts, backoff, retryWindow, clock, sleeper);
+        }
     }
 
     /**
@@ -94,4 +235,29 @@ public interface Retry {
          */
         void fallback(Consumer<Throwable> fallback);
     }
+
+    /**
+     * Finalizing specification for retryable streams.
+     *
+     * @param <T> The type of the elements.
+     */
+    interface StreamSpec<T> {
+        /**
+         * Returns a lazy stream over the source. Reading the next element is retried on failure.
+         * If the retry policy is exhausted, the last exception encountered will be thrown from the
+         * terminal operation. Close the stream to release the currently open source.
+         *
+         * @return The resumable stream.
+         */
+        Stream<T> execute();
+
+        /**
+         * Returns a lazy stream over the source. If the retry policy is exhausted, the remaining
+         * elements are taken from the stream returned by the fallback function.
+         *
+         * @param fallback A function that accepts the final exception and returns the stream to continue with.
+         * @return The resumable stream.
+         */
+        Stream<T> fallback(Function<Throwable, Stream<T>> fallback);
+    }
 }
@@ -0,0 +1,60 @@
+package dev.stockman.retry;
+
+import java.time.Duration;
+
+/**
+ * Implemented by exceptions that carry the delay a server asked for before the next attempt, e.g. from a
+ * {@code Retry-After} header of a 429 or 503 response. When an attempt fails with such an exception, or with an
+ * exception caused by one, the adapters wait for the suggested delay instead of the next exponential backoff. The
+ * delay is capped by the maximum interval of the policy, and the attempt still counts against the maximum attempts.
+ * <pre>
+ * class RateLimitedException extends RuntimeException implements RetryAfterHint {
+ *     private final Duration retryAfter;
+ *     ...
+ *     public Duration retryAfter() { return retryAfter; }
+ * }
+ * </pre>
+ */
+public interface RetryAfterHint {
+
+    /**
+     * The number of causes searched for a hint below the exception itself.
+     */
+    int CAUSE_DEPTH = 4;
+
+    /**
+     * Returns the delay the server asked for, or null if it did not ask for one.
+     */
+    Duration retryAfter();
+
+    /**
+     * Returns the suggested delay in milliseconds of an exception or of one of its first {@value #CAUSE_DEPTH}
+     * causes, or -1 if none of them carries a hint. Negative delays count as zero.
+     */
+    static long retryAfterMillis(Throwable failure) {
+        Throwable current = failure;
+        for (int depth = 0; current != null && depth <= CAUSE_DEPTH; depth++) {
+            if (current instanceof RetryAfterHint hint) {
+                Duration retryAfter = hint.retryAfter();
+                if (retryAfter != null) {
+                    return retryAfter.isNegative() ? 0 : retryAfter.toMillis();
+                }
+            }
+            current = current.getCause() == current ? null : current.getCause();
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the backoff in milliseconds after a failed attempt: the suggested delay of the failure, capped at
+     * {@code maxInterval}, or the scheduled backoff if the failure carries no hint.
+     *
+     * @param failure     The exception of the failed attempt.
+     * @param scheduled   The backoff of the policy's schedule.
+     * @param maxInterval The longest backoff of the policy.
+     */
+    static long backoffMillis(Throwable failure, long scheduled, long maxInterval) {
+        long retryAfter = retryAfterMillis(failure);
+        return retryAfter < 0 ? scheduled : Math.min(retryAfter, maxInterval);
+    }
+}
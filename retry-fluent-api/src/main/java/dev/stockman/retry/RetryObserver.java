@@ -0,0 +1,154 @@
+package dev.stockman.retry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Observes the executions of retried operations, e.g. to trace them. Adapters call {@link #start(String)} once per
+ * execution and report every attempt to the returned {@link Execution}. The attempts of an execution never overlap,
+ * but they may run on different threads.
+ * <p>
+ * {@link #NOOP} observes nothing and allocates nothing; adapters use it unless another observer is configured.
+ */
+public interface RetryObserver {
+
+    /**
+     * The observer that observes nothing.
+     */
+    RetryObserver NOOP = _ -> Execution.NOOP;
+
+    /**
+     * Starts observing an execution. Called on the thread that starts the execution.
+     *
+     * @param operation The name of the operation.
+     * @return The observation of the execution, {@link Execution#NOOP} if it is not observed.
+     */
+    Execution start(String operation);
+
+    /**
+     * Returns an observer reporting to all given observers, in order. No-op observers are left out.
+     */
+    static RetryObserver composite(RetryObserver... observers) {
+        List<RetryObserver> active = new ArrayList<>();
+        for (RetryObserver observer : observers) {
+            if (observer != NOOP) {
+                active.add(observer);
+            }
+        }
+        if (active.isEmpty()) {
+            return NOOP;
+        }
+        if (active.size() == 1) {
+            return active.getFirst();
+        }
+        return operation -> {
+            List<Execution> executions = new ArrayList<>(active.size());
+            for (RetryObserver observer : active) {
+                Execution execution = observer.start(operation);
+                if (execution != Execution.NOOP) {
+                    executions.add(execution);
+                }
+            }
+            return switch (executions.size()) {
+                case 0 -> Execution.NOOP;
+                case 1 -> executions.getFirst();
+                default -> new CompositeExecution(executions);
+            };
+        };
+    }
+
+    /**
+     * The observation of one execution of a retried operation.
+     */
+    interface Execution {
+
+        /**
+         * The observation that observes nothing.
+         */
+        Execution NOOP = new Execution() {
+        };
+
+        /**
+         * Runs the code that performs an attempt, or starts it if the attempt is asynchronous. An observer may run it
+         * with some context of the attempt made current, e.g. the trace context.
+         *
+         * @param attempt The number of the attempt, starting at 1.
+         * @param action  The code of the attempt.
+         * @return The result of the code.
+         */
+        default <R> R attempt(int attempt, Supplier<? extends R> action) {
+            return action.get();
+        }
+
+        /**
+         * Called when an attempt succeeded or failed. A failed attempt is followed by the backoff and the next
+         * attempt, or by {@link #ended(int, Throwable)}.
+         *
+         * @param attempt The number of the attempt.
+         * @param failure The exception the attempt failed with, or null if it succeeded.
+         */
+        default void attemptEnded(int attempt, Throwable failure) {
+        }
+
+        /**
+         * Called instead of {@link #attemptEnded(int, Throwable)} when an attempt returned a result that a
+         * {@link Retry.CallSpec#retryIf} condition rejected. Like a failed attempt, it is followed by the backoff and
+         * the next attempt, or by {@link #ended(int, Throwable)} without a failure if the attempts are exhausted.
+         * Reports the attempt as succeeded by default.
+         *
+         * @param attempt The number of the attempt.
+         */
+        default void attemptRejected(int attempt) {
+            attemptEnded(attempt, null);
+        }
+
+        /**
+         * Called once when the execution succeeded or failed for good.
+         *
+         * @param attempts The number of attempts made.
+         * @param failure  The exception of the last attempt, or null if the execution succeeded.
+         */
+        default void ended(int attempts, Throwable failure) {
+        }
+    }
+
+    /**
+     * Reports an execution to several observations. Attempts run nested inside the attempts of all of them.
+     */
+    record CompositeExecution(List<Execution> executions) implements Execution {
+
+        @Override
+        public <R> R attempt(int attempt, Supplier<? extends R> action) {
+            return attempt(0, attempt, action);
+        }
+
+        private <R> R attempt(int index, int attempt, Supplier<? extends R> action) {
+            if (index == executions.size()) {
+                return action.get();
+            }
+            return executions.get(index).attempt(attempt, () -> attempt(index + 1, attempt, action));
+        }
+
+        @Override
+        public void attemptEnded(int attempt, Throwable failure) {
+            for (Execution execution : executions) {
+                execution.attemptEnded(attempt, failure);
+            }
+        }
+
+        @Override
+        public void attemptRejected(int attempt) {
+            for (Execution execution : executions) {
+                execution.attemptRejected(attempt);
+            }
+        }
+
+        @Override
+        public void ended(int attempts, Throwable failure) {
+            for (Execution execution : executions) {
+                execution.ended(attempts, failure);
+            }
+        }
+    }
+}
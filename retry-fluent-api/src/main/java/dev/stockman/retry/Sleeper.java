@@ -0,0 +1,24 @@
+package dev.stockman.retry;
+
+/**
+ * Waits between retry attempts. Adapters use {@link #system()} unless another sleeper is configured,
+ * e.g. a virtual clock that lets tests run through backoffs without waiting.
+ */
+@FunctionalInterface
+public interface Sleeper {
+
+    /**
+     * Waits for the given backoff.
+     *
+     * @param millis The backoff in milliseconds.
+     * @throws InterruptedException If the thread is interrupted while waiting.
+     */
+    void sleep(long millis) throws InterruptedException;
+
+    /**
+     * Returns the sleeper that blocks the current thread with {@link Thread#sleep(long)}.
+     */
+    static Sleeper system() {
+        return Thread::sleep;
+    }
+}
@@ -0,0 +1,131 @@
+package dev.stockman.retry.jfr;
+
+import dev.stockman.retry.RejectedResultException;
+import dev.stockman.retry.RetryObserver;
+
+import java.util.function.Supplier;
+
+/**
+ * Emits the JDK Flight Recorder events of one execution of a retried operation: a {@link RetryAttemptEvent} per
+ * attempt, a {@link RetryBackoffEvent} per wait between attempts and a {@link RetryExhaustedEvent} if the execution
+ * fails. The attempts are also reported to a {@link RetryObserver}. Adapters create one recorder per execution, run
+ * every attempt through {@link #attempt(Supplier)} and finish with {@link #succeeded()} or {@link #exhausted(Throwable)}.
+ * <p>
+ * The backoff is measured from the end of a failed attempt to the start of the next one, so it is recorded
+ * whatever back-off policy the retry engine applies. While the events are disabled, a recorder only counts attempts.
+ * Not thread-safe: the attempts of an execution must not overlap.
+ */
+public final class AttemptRecorder {
+
+    private final String operation;
+    private final RetryObserver.Execution execution;
+    private int attempts;
+    private RetryBackoffEvent backoff;
+
+    /**
+     * @param operation The name of the operation.
+     */
+    public AttemptRecorder(String operation) {
+        this(operation, RetryObserver.NOOP);
+    }
+
+    /**
+     * @param operation The name of the operation.
+     * @param observer  The observer to report the execution to.
+     */
+    public AttemptRecorder(String operation, RetryObserver observer) {
+        this.operation = operation;
+        this.execution = observer.start(operation);
+    }
+
+    /**
+     * Runs one attempt. An attempt whose result was rejected through {@link RejectedResultException} is reported to
+     * the observer as rejected, not as failed, and its attempt event carries no exception. The backoff after it is
+     * recorded like the backoff after a failure.
+     */
+    public <R> R attempt(Supplier<R> action) {
+        int attempt = ++attempts;
+        if (backoff != null) {
+            backoff.attempt = attempt;
+            backoff.commit();
+            backoff = null;
+        }
+        RetryAttemptEvent event = new RetryAttemptEvent();
+        event.begin();
+        try {
+            R result = execution.attempt(attempt, action);
+            execution.attemptEnded(attempt, null);
+            if (event.shouldCommit()) {
+                event.operation = operation;
+                event.attempt = attempt;
+                event.commit();
+            }
+            return result;
+        } catch (RejectedResultException e) {
+            execution.attemptRejected(attempt);
+            if (event.shouldCommit()) {
+                event.operation = operation;
+                event.attempt = attempt;
+                event.commit();
+            }
+            startBackoff(e);
+            throw e;
+        } catch (RuntimeException | Error e) {
+            execution.attemptEnded(attempt, e);
+            if (event.shouldCommit()) {
+                event.operation = operation;
+                event.attempt = attempt;
+                event.exceptionClass = e.getClass();
+                event.commit();
+            }
+            startBackoff(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Records that the execution succeeded.
+     */
+    public void succeeded() {
+        execution.ended(attempts, null);
+    }
+
+    /**
+     * Records that the execution failed for good. Adapters that return the last rejected result call
+     * {@link #succeeded()} instead when the last attempt ended with a {@link RejectedResultException}.
+     *
+     * @param failure The exception of the last attempt.
+     */
+    public void exhausted(Throwable failure) {
+        backoff = null;
+        execution.ended(attempts, failure);
+        RetryExhaustedEvent event = new RetryExhaustedEvent();
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            event.attempts = attempts;
+            event.exceptionClass = failure.getClass();
+            event.commit();
+        }
+    }
+
+    /**
+     * Returns the number of attempts started so far.
+     */
+    public int attempts() {
+        return attempts;
+    }
+
+    /**
+     * Starts timing the backoff after a failed attempt. It is committed when the next attempt starts and dropped
+     * if there is none.
+     */
+    private void startBackoff(Throwable failure) {
+        RetryBackoffEvent event = new RetryBackoffEvent();
+        if (event.isEnabled()) {
+            event.operation = operation;
+            event.exceptionClass = failure.getClass();
+            event.begin();
+            backoff = event;
+        }
+    }
+}
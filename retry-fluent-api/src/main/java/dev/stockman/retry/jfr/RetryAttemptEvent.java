@@ -0,0 +1,30 @@
+package dev.stockman.retry.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One attempt of a retried operation. The duration of the event is the duration of the attempt.
+ */
+@Name("dev.stockman.retry.RetryAttempt")
+@Label("Retry Attempt")
+@Category("Retry")
+@Description("One attempt of a retried operation")
+@StackTrace(false)
+public final class RetryAttemptEvent extends Event {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Attempt")
+    @Description("The number of the attempt, starting at 1")
+    int attempt;
+
+    @Label("Exception Class")
+    @Description("The class of the exception the attempt failed with, empty if it succeeded")
+    Class<?> exceptionClass;
+}
@@ -0,0 +1,30 @@
+package dev.stockman.retry.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The wait between a failed attempt and the next one. The duration of the event is the backoff.
+ */
+@Name("dev.stockman.retry.RetryBackoff")
+@Label("Retry Backoff")
+@Category("Retry")
+@Description("The wait between a failed attempt and the next one")
+@StackTrace(false)
+public final class RetryBackoffEvent extends Event {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Attempt")
+    @Description("The number of the attempt that follows the backoff")
+    int attempt;
+
+    @Label("Exception Class")
+    @Description("The class of the exception of the failed attempt")
+    Class<?> exceptionClass;
+}
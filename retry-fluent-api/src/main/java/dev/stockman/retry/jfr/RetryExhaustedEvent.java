@@ -0,0 +1,29 @@
+package dev.stockman.retry.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A retried operation that failed for good, because its attempts were used up or it hit a non-retryable exception.
+ */
+@Name("dev.stockman.retry.RetryExhausted")
+@Label("Retry Exhausted")
+@Category("Retry")
+@Description("A retried operation that failed after its last attempt")
+@StackTrace(false)
+public final class RetryExhaustedEvent extends Event {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Attempts")
+    int attempts;
+
+    @Label("Exception Class")
+    @Description("The class of the exception of the last attempt")
+    Class<?> exceptionClass;
+}
@@ -0,0 +1,172 @@
+package dev.stockman.retry.settings;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Supplies a retry template built from the current {@link RetrySettings}, which can be changed at runtime: through
+ * {@link #update(UnaryOperator)}, by reading the settings again with {@link #reload()}, e.g. after a configuration
+ * refresh, or over JMX. Every change builds a new template and swaps it in atomically. Adapters take the template
+ * once per execution, so executions that already started keep their settings and new ones get the new settings.
+ * <p>
+ * Settings that cannot be applied, such as an unknown exception class, are rejected and the current template stays.
+ * Each adapter module extends this class with the factory of its own template type.
+ *
+ * @param <T> The type of the retry template.
+ */
+public class ReloadableRetrySettings<T> implements Supplier<T>, RetrySettingsMXBean {
+
+    /**
+     * The default object name of the MXBean.
+     */
+    public static final String OBJECT_NAME = "dev.stockman.retry:type=RetrySettings";
+
+    private final Supplier<RetrySettings> source;
+    private final Function<RetrySettings, ? extends T> factory;
+    private final AtomicReference<Snapshot<T>> current = new AtomicReference<>();
+
+    /**
+     * @param source  Reads the settings, now and on {@link #reload()}.
+     * @param factory Builds a template from the settings. Throws IllegalArgumentException if they cannot be applied.
+     */
+    public ReloadableRetrySettings(Supplier<RetrySettings> source, Function<RetrySettings, ? extends T> factory) {
+        this(Objects.requireNonNull(source), source.get(), factory);
+    }
+
+    /**
+     * @param settings The initial settings. {@link #reload()} is not supported.
+     * @param factory  Builds a template from the settings. Throws IllegalArgumentException if they cannot be applied.
+     */
+    public ReloadableRetrySettings(RetrySettings settings, Function<RetrySettings, ? extends T> factory) {
+        this(null, settings, factory);
+    }
+
+    private ReloadableRetrySettings(Supplier<RetrySettings> source, RetrySettings settings, Function<RetrySettings, ? extends T> factory) {
+        this.source = source;
+        this.factory = Objects.requireNonNull(factory);
+        reconfigure(settings);
+    }
+
+    /**
+     * Returns the template of the current settings.
+     */
+    @Override
+    public T get() {
+        return current.get().retryTemplate();
+    }
+
+    @Override
+    public RetrySettings getSettings() {
+        return current.get().settings();
+    }
+
+    /**
+     * Replaces the settings.
+     *
+     * @throws IllegalArgumentException If the settings cannot be applied.
+     */
+    public void reconfigure(RetrySettings settings) {
+        current.set(new Snapshot<>(settings, factory.apply(settings)));
+    }
+
+    /**
+     * Changes the current settings. Concurrent updates are applied one after the other.
+     *
+     * @throws IllegalArgumentException If the changed settings cannot be applied.
+     */
+    public void update(UnaryOperator<RetrySettings> change) {
+        while (true) {
+            Snapshot<T> snapshot = current.get();
+            RetrySettings settings = change.apply(snapshot.settings());
+            Snapshot<T> changed = new Snapshot<>(settings, factory.apply(settings));
+            if (current.compareAndSet(snapshot, changed)) {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void reload() {
+        if (source == null) {
+            throw new IllegalStateException("No properties to reload the retry settings from");
+        }
+        reconfigure(source.get());
+    }
+
+    @Override
+    public int getMaxAttempts() {
+        return getSettings().maxAttempts();
+    }
+
+    @Override
+    public void setMaxAttempts(int maxAttempts) {
+        update(settings -> settings.withMaxAttempts(maxAttempts));
+    }
+
+    @Override
+    public int getInitialInterval() {
+        return getSettings().initialInterval();
+    }
+
+    @Override
+    public void setInitialInterval(int initialInterval) {
+        update(settings -> settings.withIntervals(initialInterval, settings.multiplier(), settings.maxInterval()));
+    }
+
+    @Override
+    public int getMultiplier() {
+        return getSettings().multiplier();
+    }
+
+    @Override
+    public void setMultiplier(int multiplier) {
+        update(settings -> settings.withIntervals(settings.initialInterval(), multiplier, settings.maxInterval()));
+    }
+
+    @Override
+    public int getMaxInterval() {
+        return getSettings().maxInterval();
+    }
+
+    @Override
+    public void setMaxInterval(int maxInterval) {
+        update(settings -> settings.withIntervals(settings.initialInterval(), settings.multiplier(), maxInterval));
+    }
+
+    @Override
+    public int getJitter() {
+        return getSettings().jitter();
+    }
+
+    @Override
+    public void setJitter(int jitter) {
+        update(settings -> settings.withJitter(jitter));
+    }
+
+    @Override
+    public List<String> getRetryableExceptions() {
+        return getSettings().retryableExceptions();
+    }
+
+    @Override
+    public void setRetryableExceptions(List<String> retryableExceptions) {
+        update(settings -> settings.withExceptions(retryableExceptions, settings.nonRetryableExceptions()));
+    }
+
+    @Override
+    public List<String> getNonRetryableExceptions() {
+        return getSettings().nonRetryableExceptions();
+    }
+
+    @Override
+    public void setNonRetryableExceptions(List<String> nonRetryableExceptions) {
+        update(settings -> settings.withExceptions(settings.retryableExceptions(), nonRetryableExceptions));
+    }
+
+    private record Snapshot<T>(RetrySettings settings, T retryTemplate) {
+    }
+}
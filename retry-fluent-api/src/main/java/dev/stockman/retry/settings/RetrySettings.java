@@ -0,0 +1,102 @@
+package dev.stockman.retry.settings;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * An immutable snapshot of the {@code retry.*} properties, shared by all adapters.
+ *
+ * @param maxAttempts            The {@code retry.maxAttempts} property. The Spring 7 adapter counts the retries after
+ *                               the first attempt, the Spring 6 and reactive adapters count all attempts.
+ * @param initialInterval        The first backoff in milliseconds.
+ * @param multiplier             The factor each backoff grows by.
+ * @param maxInterval            The longest backoff in milliseconds.
+ * @param jitter                 The jitter of the backoffs in milliseconds, ignored by adapters without jitter.
+ * @param retryableExceptions    Class names or package patterns to retry.
+ * @param nonRetryableExceptions Class names or package patterns that are never retried.
+ * @param causeDepth             How many causes to inspect when the exception itself matches no entry.
+ */
+public record RetrySettings(
+        int maxAttempts,
+        int initialInterval,
+        int multiplier,
+        int maxInterval,
+        int jitter,
+        List<String> retryableExceptions,
+        List<String> nonRetryableExceptions,
+        int causeDepth
+) {
+
+    public RetrySettings {
+        if (maxAttempts < 0 || initialInterval < 0 || multiplier < 1 || maxInterval < initialInterval || jitter < 0 || causeDepth < 0) {
+            throw new IllegalArgumentException("Invalid retry settings");
+        }
+        retryableExceptions = List.copyOf(retryableExceptions);
+        nonRetryableExceptions = List.copyOf(nonRetryableExceptions);
+    }
+
+    /**
+     * Reads the settings from the {@code retry.*} properties, with the defaults of the adapters. Lists are comma
+     * separated.
+     *
+     * @param properties Returns the value of a property, or null if it is not set, e.g.
+     *                   {@code environment::getProperty}.
+     * @throws IllegalArgumentException If a value is not a number or the settings are invalid.
+     */
+    public static RetrySettings from(Function<String, String> properties) {
+        return new RetrySettings(
+                intProperty(properties, "retry.maxAttempts", 3),
+                intProperty(properties, "retry.initialInterval", 100),
+                intProperty(properties, "retry.multiplier", 2),
+                intProperty(properties, "retry.maxInterval", 5000),
+                intProperty(properties, "retry.jitter", 10),
+                listProperty(properties, "retry.retryableExceptions"),
+                listProperty(properties, "retry.nonRetryableExceptions"),
+                intProperty(properties, "retry.causeDepth", 0)
+        );
+    }
+
+    public RetrySettings withMaxAttempts(int maxAttempts) {
+        return new RetrySettings(maxAttempts, initialInterval, multiplier, maxInterval, jitter, retryableExceptions, nonRetryableExceptions, causeDepth);
+    }
+
+    public RetrySettings withIntervals(int initialInterval, int multiplier, int maxInterval) {
+        return new RetrySettings(maxAttempts, initialInterval, multiplier, maxInterval, jitter, retryableExceptions, nonRetryableExceptions, causeDepth);
+    }
+
+    public RetrySettings withJitter(int jitter) {
+        return new RetrySettings(maxAttempts, initialInterval, multiplier, maxInterval, jitter, retryableExceptions, nonRetryableExceptions, causeDepth);
+    }
+
+    public RetrySettings withExceptions(List<String> retryableExceptions, List<String> nonRetryableExceptions) {
+        return new RetrySettings(maxAttempts, initialInterval, multiplier, maxInterval, jitter, retryableExceptions, nonRetryableExceptions, causeDepth);
+    }
+
+    public RetrySettings withCauseDepth(int causeDepth) {
+        return new RetrySettings(maxAttempts, initialInterval, multiplier, maxInterval, jitter, retryableExceptions, nonRetryableExceptions, causeDepth);
+    }
+
+    private static int intProperty(Function<String, String> properties, String name, int defaultValue) {
+        String value = properties.apply(name);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.strip());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Property " + name + " is not a number: " + value, e);
+        }
+    }
+
+    private static List<String> listProperty(Function<String, String> properties, String name) {
+        String value = properties.apply(name);
+        if (value == null) {
+            return List.of();
+        }
+        return Arrays.stream(value.split(","))
+                .map(String::strip)
+                .filter(entry -> !entry.isEmpty())
+                .toList();
+    }
+}
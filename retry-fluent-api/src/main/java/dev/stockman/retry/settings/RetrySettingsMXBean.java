@@ -0,0 +1,45 @@
+package dev.stockman.retry.settings;
+
+import java.util.List;
+
+/**
+ * The management interface of {@link ReloadableRetrySettings}. Every setter swaps in a new retry template; executions
+ * that already started keep the settings they started with.
+ */
+public interface RetrySettingsMXBean {
+
+    RetrySettings getSettings();
+
+    int getMaxAttempts();
+
+    void setMaxAttempts(int maxAttempts);
+
+    int getInitialInterval();
+
+    void setInitialInterval(int initialInterval);
+
+    int getMultiplier();
+
+    void setMultiplier(int multiplier);
+
+    int getMaxInterval();
+
+    void setMaxInterval(int maxInterval);
+
+    int getJitter();
+
+    void setJitter(int jitter);
+
+    List<String> getRetryableExceptions();
+
+    void setRetryableExceptions(List<String> retryableExceptions);
+
+    List<String> getNonRetryableExceptions();
+
+    void setNonRetryableExceptions(List<String> nonRetryableExceptions);
+
+    /**
+     * Reads the settings from the {@code retry.*} properties again.
+     */
+    void reload();
+}
@@ -0,0 +1,33 @@
+package dev.stockman.retry.statistics;
+
+/**
+ * The retry statistics of one operation. The totals count since the statistics were created or reset; the recent
+ * values cover the last minute, approximately.
+ *
+ * @param operation           The name of the operation.
+ * @param executions          The executions started.
+ * @param attempts            The attempts started, including the first attempt of every execution.
+ * @param retries             The attempts after the first, i.e. {@code attempts - executions} once all have ended.
+ * @param failures            The executions that failed for good.
+ * @param backoffMillis       The time spent waiting between attempts.
+ * @param recentRetries       The retries in the last minute.
+ * @param recentBackoffMillis The time spent waiting between attempts in the last minute.
+ */
+public record OperationStatistics(
+        String operation,
+        long executions,
+        long attempts,
+        long retries,
+        long failures,
+        long backoffMillis,
+        long recentRetries,
+        long recentBackoffMillis
+) {
+
+    /**
+     * Returns the retries per execution, 0 without executions.
+     */
+    public double retryRate() {
+        return executions == 0 ? 0 : (double) retries / executions;
+    }
+}
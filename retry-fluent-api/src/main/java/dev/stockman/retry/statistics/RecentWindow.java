@@ -0,0 +1,49 @@
+package dev.stockman.retry.statistics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A lock-free sum over a sliding window of one minute, kept in six buckets of ten seconds. A bucket is cleared by the
+ * first add after its ten seconds came round again. An add racing with the clearing may be lost, so the sum is
+ * approximate, which is good enough to rank operations.
+ */
+final class RecentWindow {
+
+    static final long BUCKET_MILLIS = 10_000;
+    static final int BUCKETS = 6;
+
+    private final AtomicLongArray sums = new AtomicLongArray(BUCKETS);
+    private final AtomicLongArray epochs = new AtomicLongArray(BUCKETS);
+
+    RecentWindow() {
+        clear();
+    }
+
+    void clear() {
+        for (int i = 0; i < BUCKETS; i++) {
+            epochs.set(i, Long.MIN_VALUE);
+        }
+    }
+
+    void add(long nowMillis, long amount) {
+        long epoch = Math.floorDiv(nowMillis, BUCKET_MILLIS);
+        int bucket = Math.floorMod(epoch, BUCKETS);
+        long seen = epochs.get(bucket);
+        if (seen != epoch && epochs.compareAndSet(bucket, seen, epoch)) {
+            sums.set(bucket, 0);
+        }
+        sums.addAndGet(bucket, amount);
+    }
+
+    long sum(long nowMillis) {
+        long epoch = Math.floorDiv(nowMillis, BUCKET_MILLIS);
+        long sum = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            long seen = epochs.get(i);
+            if (seen > epoch - BUCKETS && seen <= epoch) {
+                sum += sums.get(i);
+            }
+        }
+        return sum;
+    }
+}
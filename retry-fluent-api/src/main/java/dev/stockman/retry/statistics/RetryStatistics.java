@@ -0,0 +1,224 @@
+package dev.stockman.retry.statistics;
+
+import dev.stockman.retry.OperationRegistry;
+import dev.stockman.retry.RetryObserver;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * {@link RetryObserver} that counts executions, attempts, retries, failures and the time spent in backoff per
+ * operation, keyed by the name passed to {@code Retry.named(..)}. Besides the totals it keeps the retries and the
+ * backoff of the last minute, so {@link #topByRetries(int)} and {@link #topByBackoff(int)} show the operations that
+ * retry the most right now rather than since startup.
+ * <p>
+ * Recording is lock-free: the counters of an operation are striped {@link LongAdder}s and windows of atomic buckets,
+ * interned in an {@link OperationRegistry}. The registry caps the number of operations, by default at
+ * {@value #DEFAULT_MAX_OPERATIONS}, and counts the executions of operations that do not fit under
+ * {@value OperationRegistry#OVERFLOW}, so dynamic operation names cannot exhaust memory. The backoff is measured from the end of a
+ * failed or rejected attempt to the start of the next one on the given clock. Register the statistics as an MXBean under
+ * {@value #OBJECT_NAME} to read them over JMX.
+ */
+public class RetryStatistics implements RetryObserver, RetryStatisticsMXBean {
+
+    /**
+     * The default object name of the MXBean.
+     */
+    public static final String OBJECT_NAME = "dev.stockman.retry:type=RetryStatistics";
+
+    /**
+     * The default maximum number of operations.
+     */
+    public static final int DEFAULT_MAX_OPERATIONS = 1000;
+
+    /**
+     * The default time, in milliseconds, after which an unused operation can make room for a new one.
+     */
+    public static final long DEFAULT_IDLE_TIMEOUT_MILLIS = 600_000;
+
+    /**
+     * The default time after which an unused operation can make room for a new one.
+     */
+    public static final Duration DEFAULT_IDLE_TIMEOUT = Duration.ofMillis(DEFAULT_IDLE_TIMEOUT_MILLIS);
+
+    private final Clock clock;
+    private final OperationRegistry<Counters> operations;
+
+    public RetryStatistics() {
+        this(Clock.systemUTC());
+    }
+
+    /**
+     * @param clock The clock the backoff and the recent window are measured on.
+     */
+    public RetryStatistics(Clock clock) {
+        this(clock, DEFAULT_MAX_OPERATIONS, DEFAULT_IDLE_TIMEOUT);
+    }
+
+    /**
+     * @param clock         The clock the backoff, the recent window and the idle time are measured on.
+     * @param maxOperations The maximum number of operations counted separately.
+     * @param idleTimeout   How long an operation must be unused before it can make room for a new one.
+     */
+    public RetryStatistics(Clock clock, int maxOperations, Duration idleTimeout) {
+        this.clock = clock;
+        this.operations = new OperationRegistry<>(maxOperations, idleTimeout, clock, _ -> new Counters());
+    }
+
+    @Override
+    public Execution start(String operation) {
+        Counters counters = operations.get(operation);
+        counters.executions.increment();
+        return new CountedExecution(counters);
+    }
+
+    /**
+     * Returns the statistics of an operation, or null if it was not executed since the last reset.
+     */
+    public OperationStatistics operation(String operation) {
+        Counters counters = operations.peek(operation);
+        return counters == null || counters.executions.sum() == 0 ? null : counters.snapshot(operation, clock.millis());
+    }
+
+    @Override
+    public List<OperationStatistics> getOperations() {
+        long now = clock.millis();
+        List<OperationStatistics> statistics = new ArrayList<>();
+        operations.forEach((operation, counters) -> {
+            if (counters.executions.sum() > 0) {
+                statistics.add(counters.snapshot(operation, now));
+            }
+        });
+        statistics.sort(Comparator.comparing(OperationStatistics::operation));
+        return statistics;
+    }
+
+    @Override
+    public long getEvictedOperations() {
+        return operations.evictions();
+    }
+
+    @Override
+    public long getOverflowedOperations() {
+        return operations.overflows();
+    }
+
+    @Override
+    public List<OperationStatistics> topByRetries(int limit) {
+        return top(limit, OperationStatistics::recentRetries);
+    }
+
+    @Override
+    public List<OperationStatistics> topByBackoff(int limit) {
+        return top(limit, OperationStatistics::recentBackoffMillis);
+    }
+
+    @Override
+    public void reset() {
+        operations.clear();
+        operations.peek(OperationRegistry.OVERFLOW).clear();
+    }
+
+    /**
+     * Returns up to {@code limit} operations with a positive recent value, highest first.
+     */
+    private List<OperationStatistics> top(int limit, ToLongFunction<OperationStatistics> recent) {
+        return getOperations().stream()
+                .filter(statistics -> recent.applyAsLong(statistics) > 0)
+                .sorted(Comparator.comparingLong(recent).reversed())
+                .limit(Math.max(limit, 0))
+                .toList();
+    }
+
+    private static final class Counters {
+        final LongAdder executions = new LongAdder();
+        final LongAdder attempts = new LongAdder();
+        final LongAdder retries = new LongAdder();
+        final LongAdder failures = new LongAdder();
+        final LongAdder backoffMillis = new LongAdder();
+        final RecentWindow recentRetries = new RecentWindow();
+        final RecentWindow recentBackoffMillis = new RecentWindow();
+
+        /**
+         * Zeroes the counters. Only used for the overflow counters, which outlive a reset.
+         */
+        void clear() {
+            executions.reset();
+            attempts.reset();
+            retries.reset();
+            failures.reset();
+            backoffMillis.reset();
+            recentRetries.clear();
+            recentBackoffMillis.clear();
+        }
+
+        OperationStatistics snapshot(String operation, long now) {
+            return new OperationStatistics(
+                    operation,
+                    executions.sum(),
+                    attempts.sum(),
+                    retries.sum(),
+                    failures.sum(),
+                    backoffMillis.sum(),
+                    recentRetries.sum(now),
+                    recentBackoffMillis.sum(now)
+            );
+        }
+    }
+
+    /**
+     * Counts one execution. The attempts of an execution do not overlap; the field is volatile because consecutive
+     * attempts may run on different threads.
+     */
+    private final class CountedExecution implements Execution {
+        private final Counters counters;
+        private volatile long failedAt = -1;
+
+        CountedExecution(Counters counters) {
+            this.counters = counters;
+        }
+
+        @Override
+        public <R> R attempt(int attempt, Supplier<? extends R> action) {
+            counters.attempts.increment();
+            if (attempt > 1) {
+                long now = clock.millis();
+                counters.retries.increment();
+                counters.recentRetries.add(now, 1);
+                long backoffStart = failedAt;
+                if (backoffStart >= 0) {
+                    failedAt = -1;
+                    long backoff = Math.max(now - backoffStart, 0);
+                    counters.backoffMillis.add(backoff);
+                    counters.recentBackoffMillis.add(now, backoff);
+                }
+            }
+            return action.get();
+        }
+
+        @Override
+        public void attemptEnded(int attempt, Throwable failure) {
+            if (failure != null) {
+                failedAt = clock.millis();
+            }
+        }
+
+        @Override
+        public void attemptRejected(int attempt) {
+            failedAt = clock.millis();
+        }
+
+        @Override
+        public void ended(int attempts, Throwable failure) {
+            if (failure != null) {
+                counters.failures.increment();
+            }
+        }
+    }
+}
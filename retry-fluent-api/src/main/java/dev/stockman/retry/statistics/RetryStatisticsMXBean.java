@@ -0,0 +1,43 @@
+package dev.stockman.retry.statistics;
+
+import java.util.List;
+
+/**
+ * The management interface of {@link RetryStatistics}, registered as {@value RetryStatistics#OBJECT_NAME} by default.
+ */
+public interface RetryStatisticsMXBean {
+
+    /**
+     * Returns the statistics of all operations, ordered by name.
+     */
+    List<OperationStatistics> getOperations();
+
+    /**
+     * Returns how many idle operations were forgotten to make room for new ones.
+     */
+    long getEvictedOperations();
+
+    /**
+     * Returns how many new operations did not fit and were counted under {@code other} instead.
+     */
+    long getOverflowedOperations();
+
+    /**
+     * Returns the operations with the most retries in the last minute, most first.
+     *
+     * @param limit The maximum number of operations.
+     */
+    List<OperationStatistics> topByRetries(int limit);
+
+    /**
+     * Returns the operations that spent the most time in backoff in the last minute, most first.
+     *
+     * @param limit The maximum number of operations.
+     */
+    List<OperationStatistics> topByBackoff(int limit);
+
+    /**
+     * Forgets all operations and zeroes all counters.
+     */
+    void reset();
+}
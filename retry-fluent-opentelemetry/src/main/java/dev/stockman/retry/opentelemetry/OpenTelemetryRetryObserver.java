@@ -0,0 +1,171 @@
+package dev.stockman.retry.opentelemetry;
+
+import dev.stockman.retry.RetryObserver;
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.api.trace.TracerProvider;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.Scope;
+
+import java.time.Instant;
+import java.util.function.Supplier;
+
+/**
+ * {@link RetryObserver} that traces retried operations with OpenTelemetry. Every execution gets a
+ * {@value #EXECUTION_SPAN} span, with a {@value #ATTEMPT_SPAN} child span per attempt and a {@value #BACKOFF_SPAN}
+ * child span per backoff. The span names are fixed, so that dynamic or {@code anonymous()} operation names cannot grow
+ * the set of span names; all spans carry the operation name in the {@code retry.operation} attribute. The span of an
+ * attempt is current while the attempt runs, so spans of downstream calls made by the attempt become its children.
+ * <p>
+ * The spans of an execution are parented explicitly on the context that was current when the execution started,
+ * so attempts that run on scheduler threads or virtual threads after a backoff stay in the same trace. Under a no-op
+ * tracer provider the observer is {@link RetryObserver#NOOP} and allocates nothing. Otherwise the sampling decision
+ * is only known once the execution span is started, so an unsampled execution costs one span builder and one
+ * non-recording span; its attempts are not observed and allocate nothing.
+ */
+public class OpenTelemetryRetryObserver implements RetryObserver {
+
+    /**
+     * The instrumentation scope of the tracer.
+     */
+    public static final String INSTRUMENTATION_NAME = "dev.stockman.retry";
+
+    /**
+     * The name of the span of an execution.
+     */
+    public static final String EXECUTION_SPAN = "retry";
+
+    /**
+     * The name of the span of an attempt.
+     */
+    public static final String ATTEMPT_SPAN = "retry attempt";
+
+    /**
+     * The name of the span of a backoff.
+     */
+    public static final String BACKOFF_SPAN = "retry backoff";
+
+    static final AttributeKey<String> OPERATION = AttributeKey.stringKey("retry.operation");
+    static final AttributeKey<Long> ATTEMPT = AttributeKey.longKey("retry.attempt");
+    static final AttributeKey<Long> ATTEMPTS = AttributeKey.longKey("retry.attempts");
+    static final AttributeKey<Boolean> REJECTED = AttributeKey.booleanKey("retry.rejected");
+
+    private final Tracer tracer;
+
+    private OpenTelemetryRetryObserver(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    /**
+     * Returns an observer tracing with the given OpenTelemetry instance, or {@link RetryObserver#NOOP} if its
+     * tracer provider is the no-op provider.
+     */
+    public static RetryObserver create(OpenTelemetry openTelemetry) {
+        TracerProvider tracerProvider = openTelemetry.getTracerProvider();
+        if (tracerProvider == TracerProvider.noop()) {
+            return RetryObserver.NOOP;
+        }
+        return new OpenTelemetryRetryObserver(tracerProvider.get(INSTRUMENTATION_NAME));
+    }
+
+    @Override
+    public Execution start(String operation) {
+        Context parent = Context.current();
+        Span span = tracer.spanBuilder(EXECUTION_SPAN)
+                .setParent(parent)
+                .setAttribute(OPERATION, operation)
+                .startSpan();
+        if (!span.isRecording()) {
+            span.end();
+            return Execution.NOOP;
+        }
+        return new TracedExecution(operation, span, parent.with(span));
+    }
+
+    /**
+     * The spans of one execution. The attempts of an execution do not overlap; the fields are volatile because
+     * consecutive attempts may run on different threads.
+     */
+    private final class TracedExecution implements Execution {
+        private final String operation;
+        private final Span span;
+        private final Context context;
+        private volatile Span attemptSpan;
+        private volatile Instant failedAt;
+
+        TracedExecution(String operation, Span span, Context context) {
+            this.operation = operation;
+            this.span = span;
+            this.context = context;
+        }
+
+        @Override
+        public <R> R attempt(int attempt, Supplier<? extends R> action) {
+            Instant backoffStart = failedAt;
+            if (backoffStart != null) {
+                failedAt = null;
+                tracer.spanBuilder(BACKOFF_SPAN)
+                        .setParent(context)
+                        .setStartTimestamp(backoffStart)
+                        .setAttribute(OPERATION, operation)
+                        .setAttribute(ATTEMPT, (long) attempt)
+                        .startSpan()
+                        .end();
+            }
+            Span current = tracer.spanBuilder(ATTEMPT_SPAN)
+                    .setParent(context)
+                    .setAttribute(OPERATION, operation)
+                    .setAttribute(ATTEMPT, (long) attempt)
+                    .startSpan();
+            attemptSpan = current;
+            try (Scope _ = context.with(current).makeCurrent()) {
+                return action.get();
+            }
+        }
+
+        @Override
+        public void attemptEnded(int attempt, Throwable failure) {
+            Span current = attemptSpan;
+            if (current == null) {
+                return;
+            }
+            attemptSpan = null;
+            if (failure != null) {
+                current.recordException(failure);
+                current.setStatus(StatusCode.ERROR);
+                failedAt = Instant.now();
+            }
+            current.end();
+        }
+
+        @Override
+        public void attemptRejected(int attempt) {
+            Span current = attemptSpan;
+            if (current == null) {
+                return;
+            }
+            attemptSpan = null;
+            current.setAttribute(REJECTED, true);
+            failedAt = Instant.now();
+            current.end();
+        }
+
+        @Override
+        public void ended(int attempts, Throwable failure) {
+            Span open = attemptSpan;
+            if (open != null) {
+                attemptSpan = null;
+                open.end();
+            }
+            span.setAttribute(ATTEMPTS, (long) attempts);
+            if (failure != null) {
+                span.recordException(failure);
+                span.setStatus(StatusCode.ERROR);
+            }
+            span.end();
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package dev.stockman.retry.opentelemetry;
+
+import dev.stockman.retry.RejectedResultException;
+import dev.stockman.retry.RetryObserver;
+import dev.stockman.retry.jfr.AttemptRecorder;
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.sdk.OpenTelemetrySdk;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+@DisplayNameGeneration(CamelCaseToSentences.class)
+public class OpenTelemetryRetryObserverTest {
+
+    private final InMemorySpanExporter exporter = InMemorySpanExporter.create();
+    private final SdkTracerProvider tracerProvider = SdkTracerProvider.builder()
+            .addSpanProcessor(SimpleSpanProcessor.create(exporter))
+            .build();
+    private final RetryObserver observer = OpenTelemetryRetryObserver.create(OpenTelemetrySdk.builder().setTracerProvider(tracerProvider).build());
+
+    @AfterEach
+    void tearDown() {
+        tracerProvider.close();
+    }
+
+    @Test
+    void testSpanPerAttemptAndBackoff() {
+        var recorder = new AttemptRecorder("fetchInvoice", observer);
+        var calls = new AtomicInteger();
+
+        Assertions.assertThrows(IllegalStateException.class, () -> recorder.attempt(() -> fail(calls)));
+        Assertions.assertEquals("Invoice", recorder.attempt(() -> {
+            calls.incrementAndGet();
+            return "Invoice";
+        }));
+        recorder.succeeded();
+
+        var operation = span(OpenTelemetryRetryObserver.EXECUTION_SPAN);
+        var attempts = spans(OpenTelemetryRetryObserver.ATTEMPT_SPAN);
+        var backoff = span(OpenTelemetryRetryObserver.BACKOFF_SPAN);
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(2L, operation.getAttributes().get(OpenTelemetryRetryObserver.ATTEMPTS)),
+                () -> Assertions.assertEquals("fetchInvoice", operation.getAttributes().get(OpenTelemetryRetryObserver.OPERATION)),
+                () -> Assertions.assertEquals(StatusCode.UNSET, operation.getStatus().getStatusCode()),
+                () -> Assertions.assertEquals(2, attempts.size()),
+                () -> Assertions.assertEquals(StatusCode.ERROR, attempts.get(0).getStatus().getStatusCode()),
+                () -> Assertions.assertEquals(StatusCode.UNSET, attempts.get(1).getStatus().getStatusCode()),
+                () -> Assertions.assertEquals(2L, backoff.getAttributes().get(OpenTelemetryRetryObserver.ATTEMPT)),
+                () -> Assertions.assertTrue(attempts.stream().allMatch(span -> span.getParentSpanId().equals(operation.getSpanId()))),
+                () -> Assertions.assertEquals(operation.getSpanId(), backoff.getParentSpanId()),
+                () -> Assertions.assertEquals("fetchInvoice", backoff.getAttributes().get(OpenTelemetryRetryObserver.OPERATION)),
+                () -> Assertions.assertTrue(attempts.stream().allMatch(span -> "fetchInvoice".equals(span.getAttributes().get(OpenTelemetryRetryObserver.OPERATION))))
+        );
+    }
+
+    @Test
+    void testSpanNamesDoNotDependOnOperation() {
+        for (String operation : List.of("fetchInvoice", "9b2e7c4a-0d1f-4a5e-8c3b-2f6d1e0a7b94")) {
+            var recorder = new AttemptRecorder(operation, observer);
+            recorder.attempt(() -> "Invoice");
+            recorder.succeeded();
+        }
+
+        Assertions.assertEquals(
+                List.of(OpenTelemetryRetryObserver.EXECUTION_SPAN, OpenTelemetryRetryObserver.ATTEMPT_SPAN),
+                exporter.getFinishedSpanItems().stream().map(SpanData::getName).distinct().sorted().toList());
+    }
+
+    @Test
+    void testAttemptSpanIsCurrentDuringAttempt() {
+        var recorder = new AttemptRecorder("fetchInvoice", observer);
+        var current = new AtomicReference<String>();
+
+        recorder.attempt(() -> {
+            current.set(Span.current().getSpanContext().getSpanId());
+            return null;
+        });
+        recorder.succeeded();
+
+        Assertions.assertEquals(span(OpenTelemetryRetryObserver.ATTEMPT_SPAN).getSpanId(), current.get());
+        Assertions.assertFalse(Span.current().getSpanContext().isValid());
+    }
+
+    @Test
+    void testExhaustedExecutionIsError() {
+        var recorder = new AttemptRecorder("fetchInvoice", observer);
+        var calls = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertThrows(IllegalStateException.class, () -> recorder.attempt(() -> fail(calls)));
+        }
+        recorder.exhausted(new IllegalStateException("Test exception"));
+
+        var operation = span(OpenTelemetryRetryObserver.EXECUTION_SPAN);
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(StatusCode.ERROR, operation.getStatus().getStatusCode()),
+                () -> Assertions.assertEquals(3L, operation.getAttributes().get(OpenTelemetryRetryObserver.ATTEMPTS)),
+                () -> Assertions.assertEquals(3, spans(OpenTelemetryRetryObserver.ATTEMPT_SPAN).size()),
+                () -> Assertions.assertEquals(2, spans(OpenTelemetryRetryObserver.BACKOFF_SPAN).size())
+        );
+    }
+
+    @Test
+    void testRejectedAttemptIsFollowedByBackoff() {
+        var recorder = new AttemptRecorder("fetchInvoice", observer);
+
+        Assertions.assertThrows(RejectedResultException.class, () -> recorder.attempt(() -> {
+            throw RejectedResultException.INSTANCE;
+        }));
+        recorder.attempt(() -> "Invoice");
+        recorder.succeeded();
+
+        var attempts = spans(OpenTelemetryRetryObserver.ATTEMPT_SPAN);
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(StatusCode.UNSET, attempts.get(0).getStatus().getStatusCode()),
+                () -> Assertions.assertEquals(true, attempts.get(0).getAttributes().get(OpenTelemetryRetryObserver.REJECTED)),
+                () -> Assertions.assertTrue(attempts.get(0).getEvents().isEmpty()),
+                () -> Assertions.assertEquals(2L, span(OpenTelemetryRetryObserver.BACKOFF_SPAN).getAttributes().get(OpenTelemetryRetryObserver.ATTEMPT))
+        );
+    }
+
+    @Test
+    void testAttemptsOnOtherThreadsStayInTrace() throws Exception {
+        var parent = tracerProvider.get("test").spanBuilder("request").startSpan();
+        RetryObserver.Execution execution;
+        try (var _ = parent.makeCurrent()) {
+            execution = observer.start("fetchInvoice");
+        }
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int attempt = 1; attempt <= 2; attempt++) {
+                int number = attempt;
+                executor.submit(() -> {
+                    execution.attempt(number, () -> null);
+                    execution.attemptEnded(number, number == 1 ? new IllegalStateException("Test exception") : null);
+                }).get();
+            }
+        }
+        execution.ended(2, null);
+        parent.end();
+
+        var operation = span(OpenTelemetryRetryObserver.EXECUTION_SPAN);
+        Assertions.assertEquals(parent.getSpanContext().getSpanId(), operation.getParentSpanId());
+        Assertions.assertTrue(exporter.getFinishedSpanItems().stream()
+                .allMatch(span -> span.getTraceId().equals(parent.getSpanContext().getTraceId())));
+        Assertions.assertTrue(spans(OpenTelemetryRetryObserver.ATTEMPT_SPAN).stream()
+                .allMatch(span -> span.getParentSpanId().equals(operation.getSpanId())));
+    }
+
+    @Test
+    void testNoopTracerIsNotObserved() {
+        Assertions.assertSame(RetryObserver.NOOP, OpenTelemetryRetryObserver.create(OpenTelemetry.noop()));
+    }
+
+    @Test
+    void testUnsampledExecutionIsNotObserved() {
+        var unsampled = SdkTracerProvider.builder().setSampler(Sampler.alwaysOff()).build();
+        var observer = OpenTelemetryRetryObserver.create(OpenTelemetrySdk.builder().setTracerProvider(unsampled).build());
+
+        Assertions.assertSame(RetryObserver.Execution.NOOP, observer.start("fetchInvoice"));
+        unsampled.close();
+    }
+
+    private static String fail(AtomicInteger calls) {
+        calls.incrementAndGet();
+        throw new IllegalStateException("Test exception");
+    }
+
+    private SpanData span(String name) {
+        var spans = spans(name);
+        Assertions.assertEquals(1, spans.size(), name);
+        return spans.getFirst();
+    }
+
+    private List<SpanData> spans(String name) {
+        return exporter.getFinishedSpanItems().stream().filter(span -> span.getName().equals(name)).toList();
+    }
+}
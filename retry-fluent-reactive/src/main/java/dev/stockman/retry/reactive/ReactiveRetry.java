@@ -0,0 +1,103 @@
+package dev.stockman.retry.reactive;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Non-blocking counterpart of {@link dev.stockman.retry.Retry}. Instead of sleeping on the calling thread,
+ * backoff delays are scheduled on a timer and the next attempt is started when the timer fires.
+ * Any {@code Mono}/{@code Flux} can be used through the {@link Flow.Publisher} adapters of the reactive library.
+ */
+public interface ReactiveRetry {
+
+    /**
+     * Starts a retry specification with a specific name.
+     * The name is used for logging, metrics, and debugging context.
+     *
+     * @param operationName The descriptive name of the operation being retried.
+     * @return A specification to continue building the retry task.
+     */
+    RetrySpec named(String operationName);
+
+    /**
+     * Starts a retry specification without a specific name.
+     * Use this for simple or internal operations where context is not required.
+     *
+     * @return A specification to continue building the retry task.
+     */
+    RetrySpec anonymous();
+
+    /**
+     * A specification that defines the asynchronous action to be retried.
+     */
+    interface RetrySpec {
+        /**
+         * Defines a retryable publisher. Every attempt subscribes to a fresh publisher obtained from the source.
+         *
+         * @param source Supplies the publisher to subscribe to on each attempt.
+         * @param <R>    The type of the items emitted by the publisher.
+         * @return A specification to finalize execution or add a fallback.
+         */
+        <R> PublisherSpec<R> publisher(Supplier<? extends Flow.Publisher<R>> source);
+
+        /**
+         * Defines a retryable action that completes asynchronously.
+         *
+         * @param action Starts one attempt and returns the stage that completes with its outcome.
+         * @param <R>    The type of the result returned by the action.
+         * @return A specification to finalize execution or add a fallback.
+         */
+        <R> StageSpec<R> stage(Supplier<? extends CompletionStage<R>> action);
+    }
+
+    /**
+     * Finalizing specification for publishers.
+     *
+     * @param <R> The type of the emitted items.
+     */
+    interface PublisherSpec<R> {
+        /**
+         * Returns a publisher that resubscribes to the source on retryable errors.
+         * If the retry policy is exhausted, the last error is signalled downstream.
+         *
+         * @return The retrying publisher. Nothing happens until it is subscribed.
+         */
+        Flow.Publisher<R> execute();
+
+        /**
+         * Returns a publisher that resubscribes to the source on retryable errors. If the retry policy
+         * is exhausted, the subscriber is switched over to the publisher returned by the fallback.
+         *
+         * @param fallback A function that accepts the final error and returns the publisher to continue with.
+         * @return The retrying publisher. Nothing happens until it is subscribed.
+         */
+        Flow.Publisher<R> fallback(Function<Throwable, ? extends Flow.Publisher<R>> fallback);
+    }
+
+    /**
+     * Finalizing specification for asynchronous actions.
+     *
+     * @param <R> The type of the result.
+     */
+    interface StageSpec<R> {
+        /**
+         * Starts the first attempt and returns immediately.
+         * If the retry policy is exhausted, the future completes with the last exception encountered.
+         *
+         * @return A future completed with the result of the successful attempt.
+         */
+        CompletableFuture<R> execute();
+
+        /**
+         * Starts the first attempt and returns immediately. If the retry policy is exhausted,
+         * the provided fallback function is invoked to provide a default value.
+         *
+         * @param fallback A function that accepts the final exception and returns a result of type {@code R}.
+         * @return A future completed with the result of the action, or the result of the fallback if retries failed.
+         */
+        CompletableFuture<R> fallback(Function<Throwable, R> fallback);
+    }
+}
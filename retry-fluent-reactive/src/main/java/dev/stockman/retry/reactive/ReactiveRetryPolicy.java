@@ -0,0 +1,89 @@
+package dev.stockman.retry.reactive;
+
+import dev.stockman.retry.ExceptionClassifier;
+import dev.stockman.retry.RetryAfterHint;
+import dev.stockman.retry.settings.RetrySettings;
+
+/**
+ * Immutable retry and exponential backoff settings for {@link ScheduledRetryAdapter}, usually built
+ * {@link #from(RetrySettings) from} the same {@code retry.*} properties as the Spring adapters.
+ *
+ * @param maxAttempts            Total number of attempts, including the first one.
+ * @param initialInterval        Delay in milliseconds before the second attempt.
+ * @param multiplier             Factor applied to the delay after every failed attempt.
+ * @param maxInterval            Upper bound in milliseconds for a single delay.
+ * @param exceptionClassifier    Decides which exceptions are retried, like the classifier of the Spring adapters.
+ */
+public record ReactiveRetryPolicy(
+        int maxAttempts,
+        long initialInterval,
+        double multiplier,
+        long maxInterval,
+        ExceptionClassifier exceptionClassifier
+) {
+
+    public ReactiveRetryPolicy {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("maxAttempts must be at least 1");
+        }
+        if (initialInterval < 0 || maxInterval < 0) {
+            throw new IllegalArgumentException("Intervals must not be negative");
+        }
+        if (multiplier < 1) {
+            throw new IllegalArgumentException("multiplier must be at least 1");
+        }
+        if (exceptionClassifier == null) {
+            throw new IllegalArgumentException("exceptionClassifier must not be null");
+        }
+    }
+
+    /**
+     * Three attempts, starting at 100 ms and doubling up to 5 s, retrying every exception: the defaults of the
+     * {@code retry.*} properties.
+     */
+    public static ReactiveRetryPolicy defaults() {
+        return from(RetrySettings.from(_ -> null));
+    }
+
+    /**
+     * Builds the policy from the {@code retry.*} settings, e.g. {@code from(RetrySettings.from(environment::getProperty))}.
+     * The exceptions are classified like the Spring 7 adapter does: a non-retryable match always wins, and without
+     * retryable entries every other exception is retried. {@code maxAttempts} counts all attempts and the jitter is
+     * ignored.
+     *
+     * @throws IllegalArgumentException If an exception class cannot be resolved or the settings ask for no attempt.
+     */
+    public static ReactiveRetryPolicy from(RetrySettings settings) {
+        ExceptionClassifier exceptionClassifier = ExceptionClassifier.builder()
+                .retryable(settings.retryableExceptions())
+                .nonRetryable(settings.nonRetryableExceptions())
+                .nonRetryableFirst()
+                .defaultValue(settings.retryableExceptions().isEmpty())
+                .causeDepth(settings.causeDepth())
+                .build();
+        return new ReactiveRetryPolicy(settings.maxAttempts(), settings.initialInterval(), settings.multiplier(), settings.maxInterval(), exceptionClassifier);
+    }
+
+    /**
+     * Returns true if the given exception may be retried, regardless of the attempts left.
+     */
+    public boolean shouldRetry(Throwable throwable) {
+        return exceptionClassifier.isRetryable(throwable);
+    }
+
+    /**
+     * Returns the delay in milliseconds to wait after the given failed attempt (starting at 1).
+     */
+    public long delayAfter(int attempt) {
+        double delay = initialInterval * Math.pow(multiplier, attempt - 1);
+        return (long) Math.min(delay, maxInterval);
+    }
+
+    /**
+     * Returns the delay in milliseconds to wait after the given failed attempt: the delay suggested by a
+     * {@link RetryAfterHint} of the failure, capped at {@code maxInterval}, otherwise {@link #delayAfter(int)}.
+     */
+    public long delayAfter(int attempt, Throwable failure) {
+        return RetryAfterHint.backoffMillis(failure, delayAfter(attempt), maxInterval);
+    }
+}
@@ -0,0 +1,212 @@
+package dev.stockman.retry.reactive;
+
+import dev.stockman.retry.RetryObserver;
+
+import java.util.Objects;
+import java.util.concurrent.Flow;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Publisher that resubscribes to a fresh source publisher after retryable errors.
+ * Outstanding demand is carried over to every new subscription, so items already delivered are not requested again.
+ * Once the subscriber cancels, signals that the source still sends are dropped.
+ */
+final class RetryingPublisher<R> implements Flow.Publisher<R> {
+
+    private final ScheduledRetryAdapter adapter;
+    private final String name;
+    private final Supplier<? extends Flow.Publisher<R>> source;
+    private final Function<Throwable, ? extends Flow.Publisher<R>> fallback;
+
+    RetryingPublisher(ScheduledRetryAdapter adapter, String name, Supplier<? extends Flow.Publisher<R>> source, Function<Throwable, ? extends Flow.Publisher<R>> fallback) {
+        this.adapter = adapter;
+        this.name = name;
+        this.source = source;
+        this.fallback = fallback;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super R> subscriber) {
+        Objects.requireNonNull(subscriber);
+        var subscription = new RetrySubscription(subscriber);
+        subscriber.onSubscribe(subscription);
+        subscription.subscribeNext();
+    }
+
+    private final class RetrySubscription implements Flow.Subscription, Flow.Subscriber<R> {
+
+        private final Flow.Subscriber<? super R> downstream;
+        private final RetryObserver.Execution execution;
+        private Flow.Subscription upstream;
+        private long requested;
+        private int attempt;
+        private boolean cancelled;
+        private boolean fallingBack;
+        private boolean ended;
+
+        RetrySubscription(Flow.Subscriber<? super R> downstream) {
+            this.downstream = downstream;
+            this.execution = adapter.observe(name);
+        }
+
+        void subscribeNext() {
+            int next;
+            synchronized (this) {
+                if (cancelled) {
+                    return;
+                }
+                next = ++attempt;
+            }
+            try {
+                execution.attempt(next, () -> {
+                    source.get().subscribe(this);
+                    return null;
+                });
+            } catch (Throwable e) {
+                onError(e);
+            }
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                cancel();
+                downstream.onError(new IllegalArgumentException("Requested " + n + " items, must be positive"));
+                return;
+            }
+            Flow.Subscription current;
+            synchronized (this) {
+                if (cancelled) {
+                    return;
+                }
+                requested = requested + n < 0 ? Long.MAX_VALUE : requested + n;
+                current = upstream;
+            }
+            if (current != null) {
+                current.request(n);
+            }
+        }
+
+        @Override
+        public void cancel() {
+            Flow.Subscription current;
+            synchronized (this) {
+                cancelled = true;
+                current = upstream;
+                upstream = null;
+            }
+            if (current != null) {
+                current.cancel();
+            }
+            end(null);
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            long demand;
+            synchronized (this) {
+                if (cancelled) {
+                    demand = -1;
+                } else {
+                    upstream = subscription;
+                    demand = requested;
+                }
+            }
+            if (demand < 0) {
+                subscription.cancel();
+            } else if (demand > 0) {
+                subscription.request(demand);
+            }
+        }
+
+        @Override
+        public void onNext(R item) {
+            synchronized (this) {
+                if (cancelled) {
+                    return;
+                }
+                if (requested != Long.MAX_VALUE) {
+                    requested--;
+                }
+            }
+            downstream.onNext(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            int failedAttempt;
+            boolean finalError;
+            synchronized (this) {
+                upstream = null;
+                if (cancelled) {
+                    return;
+                }
+                failedAttempt = attempt;
+                finalError = fallingBack;
+            }
+            if (finalError) {
+                downstream.onError(throwable);
+                return;
+            }
+            execution.attemptEnded(failedAttempt, throwable);
+            long delay = adapter.onAttemptFailed(name, failedAttempt, throwable);
+            if (delay >= 0) {
+                adapter.schedule(this::subscribeNext, delay);
+                return;
+            }
+            end(throwable);
+            if (fallback != null) {
+                switchToFallback(throwable);
+            } else {
+                downstream.onError(throwable);
+            }
+        }
+
+        @Override
+        public void onComplete() {
+            int succeededAttempt;
+            boolean fromSource;
+            synchronized (this) {
+                upstream = null;
+                if (cancelled) {
+                    return;
+                }
+                succeededAttempt = attempt;
+                fromSource = !fallingBack;
+            }
+            if (fromSource) {
+                adapter.onAttemptSucceeded(name, succeededAttempt);
+                execution.attemptEnded(succeededAttempt, null);
+                end(null);
+            }
+            downstream.onComplete();
+        }
+
+        /**
+         * Ends the observation of the execution once: on the final outcome of the source, or on cancellation.
+         */
+        private void end(Throwable failure) {
+            int attempts;
+            synchronized (this) {
+                if (ended) {
+                    return;
+                }
+                ended = true;
+                attempts = attempt;
+            }
+            execution.ended(attempts, failure);
+        }
+
+        private void switchToFallback(Throwable throwable) {
+            synchronized (this) {
+                fallingBack = true;
+            }
+            try {
+                fallback.apply(throwable).subscribe(this);
+            } catch (Throwable e) {
+                downstream.onError(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package dev.stockman.retry.reactive;
+
+import dev.stockman.retry.RetryObserver;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * {@link ReactiveRetry} implementation that schedules every backoff on a {@link ScheduledExecutorService}.
+ * No thread is blocked while waiting for the next attempt, which makes it safe to use on event loops.
+ */
+public class ScheduledRetryAdapter implements ReactiveRetry {
+
+    private static final System.Logger log = System.getLogger(ScheduledRetryAdapter.class.getName());
+
+    private final ReactiveRetryPolicy policy;
+    private final ScheduledExecutorService scheduler;
+    private final RetryObserver observer;
+
+    public ScheduledRetryAdapter(ReactiveRetryPolicy policy, ScheduledExecutorService scheduler) {
+        this(policy, scheduler, RetryObserver.NOOP);
+    }
+
+    /**
+     * @param policy    The retry policy.
+     * @param scheduler Runs the attempts after a backoff.
+     * @param observer  Observes every execution, e.g. to trace it. Attempts after a backoff are reported from the
+     *                  scheduler threads.
+     */
+    public ScheduledRetryAdapter(ReactiveRetryPolicy policy, ScheduledExecutorService scheduler, RetryObserver observer) {
+        this.policy = policy;
+        this.scheduler = scheduler;
+        this.observer = observer;
+    }
+
+    @Override
+    public RetrySpec named(String operationName) {
+        return new ScheduledRetrySpec(operationName);
+    }
+
+    @Override
+    public RetrySpec anonymous() {
+        return new ScheduledRetrySpec(UUID.randomUUID().toString());
+    }
+
+    /**
+     * Decides what happens after a failed attempt. Returns the delay in milliseconds before the next attempt,
+     * or a negative value if the error is final.
+     */
+    long onAttemptFailed(String name, int attempt, Throwable throwable) {
+        log.log(System.Logger.Level.INFO, "Try attempt {0}/{1} failed. Last exception: {2} -- {3}", attempt, policy.maxAttempts(), throwable, name);
+        if (!policy.shouldRetry(throwable)) {
+            log.log(System.Logger.Level.INFO, "Retry policy terminated after {0}/{1} attempts failed. Non-retryable exception encountered: {2} -- {3}", attempt, policy.maxAttempts(), throwable, name);
+            return -1;
+        }
+        if (attempt >= policy.maxAttempts()) {
+            log.log(System.Logger.Level.INFO, "Retry policy exhausted after {0}/{1} max attempts failed. Last exception: {2} -- {3}", attempt, policy.maxAttempts(), throwable, name);
+            return -1;
+        }
+        return policy.delayAfter(attempt, throwable);
+    }
+
+    RetryObserver.Execution observe(String name) {
+        return observer.start(name);
+    }
+
+    void onAttemptSucceeded(String name, int attempt) {
+        log.log(System.Logger.Level.INFO, "Try attempt {0}/{1} succeeded. -- {2}", attempt, policy.maxAttempts(), name);
+    }
+
+    void schedule(Runnable attempt, long delay) {
+        if (delay == 0) {
+            scheduler.execute(attempt);
+        } else {
+            scheduler.schedule(attempt, delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private class ScheduledRetrySpec implements RetrySpec {
+
+        private final String operationName;
+
+        ScheduledRetrySpec(String operationName) {
+            this.operationName = operationName;
+        }
+
+        @Override
+        public <R> PublisherSpec<R> publisher(Supplier<? extends Flow.Publisher<R>> source) {
+            return new ScheduledPublisherSpec<>(operationName, source);
+        }
+
+        @Override
+        public <R> StageSpec<R> stage(Supplier<? extends CompletionStage<R>> action) {
+            return new ScheduledStageSpec<>(operationName, action);
+        }
+    }
+
+    private class ScheduledPublisherSpec<R> implements PublisherSpec<R> {
+        private final String name;
+        private final Supplier<? extends Flow.Publisher<R>> source;
+
+        ScheduledPublisherSpec(String name, Supplier<? extends Flow.Publisher<R>> source) {
+            this.name = name;
+            this.source = source;
+        }
+
+        @Override
+        public Flow.Publisher<R> execute() {
+            return new RetryingPublisher<>(ScheduledRetryAdapter.this, name, source, null);
+        }
+
+        @Override
+        public Flow.Publisher<R> fallback(Function<Throwable, ? extends Flow.Publisher<R>> fallback) {
+            return new RetryingPublisher<>(ScheduledRetryAdapter.this, name, source, fallback);
+        }
+    }
+
+    private class ScheduledStageSpec<R> implements StageSpec<R> {
+        private final String name;
+        private final Supplier<? extends CompletionStage<R>> action;
+
+        ScheduledStageSpec(String name, Supplier<? extends CompletionStage<R>> action) {
+            this.name = name;
+            this.action = action;
+        }
+
+        @Override
+        public CompletableFuture<R> execute() {
+            CompletableFuture<R> result = new CompletableFuture<>();
+            attempt(1, result, observe(name));
+            return result;
+        }
+
+        @Override
+        public CompletableFuture<R> fallback(Function<Throwable, R> fallback) {
+            return execute().handle((value, throwable) -> throwable == null ? value : fallback.apply(throwable));
+        }
+
+        private void attempt(int attempt, CompletableFuture<R> result, RetryObserver.Execution execution) {
+            if (result.isDone()) {
+                return;
+            }
+            CompletionStage<R> stage;
+            try {
+                stage = execution.attempt(attempt, action);
+            } catch (Throwable e) {
+                stage = CompletableFuture.failedFuture(e);
+            }
+            stage.whenComplete((value, throwable) -> {
+                if (throwable == null) {
+                    onAttemptSucceeded(name, attempt);
+                    execution.attemptEnded(attempt, null);
+                    execution.ended(attempt, null);
+                    result.complete(value);
+                    return;
+                }
+                Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+                execution.attemptEnded(attempt, cause);
+                long delay = onAttemptFailed(name, attempt, cause);
+                if (delay < 0) {
+                    execution.ended(attempt, cause);
+                    result.completeExceptionally(cause);
+                } else {
+                    schedule(() -> attempt(attempt + 1, result, execution), delay);
+                }
+            });
+        }
+    }
+}
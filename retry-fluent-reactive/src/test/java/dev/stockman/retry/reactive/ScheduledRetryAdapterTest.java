@@ -0,0 +1,377 @@
+package dev.stockman.retry.reactive;
+
+import dev.stockman.retry.RetryAfterHint;
+import dev.stockman.retry.RetryObserver;
+import dev.stockman.retry.settings.RetrySettings;
+import dev.stockman.retry.test.VirtualClock;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+@DisplayNameGeneration(CamelCaseToSentences.class)
+public class ScheduledRetryAdapterTest {
+
+    private final ReactiveRetryPolicy policy = ReactiveRetryPolicy.from(new RetrySettings(3, 10, 2, 100, 0,
+            List.of("java.lang.RuntimeException"), List.of("java.lang.IllegalArgumentException"), 0));
+
+    private final VirtualClock clock = new VirtualClock();
+    private final ReactiveRetry retry = new ScheduledRetryAdapter(policy, clock.scheduler());
+
+    @Nested
+    class RetryableStage {
+
+        @Test
+        void testRetryThenSuccess() {
+            AtomicInteger attempts = new AtomicInteger();
+
+            var result = retry.named("testRetryThenSuccess").stage(() -> attempts.incrementAndGet() < 3
+                    ? CompletableFuture.<String>failedFuture(new RuntimeException("Test exception"))
+                    : CompletableFuture.completedFuture("Retry twice, then succeed")).execute();
+            clock.advance(Duration.ofMillis(10 + 20));
+
+            Assertions.assertEquals("Retry twice, then succeed", result.join());
+            Assertions.assertEquals(3, attempts.get());
+        }
+
+        @Test
+        void testRetryableException() {
+            AtomicInteger attempts = new AtomicInteger();
+
+            var result = retry.anonymous().stage(() -> {
+                attempts.incrementAndGet();
+                throw new RuntimeException("Test exception");
+            }).execute();
+            clock.advance(Duration.ofMillis(10 + 20));
+
+            var exception = Assertions.assertThrows(CompletionException.class, result::join);
+            Assertions.assertInstanceOf(RuntimeException.class, exception.getCause());
+            Assertions.assertEquals(3, attempts.get());
+        }
+
+        @Test
+        void testNonRetryableExceptionWithFallback() {
+            AtomicInteger attempts = new AtomicInteger();
+
+            var result = retry.anonymous().stage(() -> {
+                attempts.incrementAndGet();
+                return CompletableFuture.<String>failedFuture(new IllegalArgumentException("Test exception"));
+            }).fallback(_ -> "Fallback");
+
+            Assertions.assertEquals("Fallback", result.join());
+            Assertions.assertEquals(1, attempts.get());
+        }
+
+        @Test
+        void testBackoffDoesNotBlockCaller() {
+            AtomicInteger attempts = new AtomicInteger();
+
+            var result = retry.anonymous().stage(() -> {
+                attempts.incrementAndGet();
+                return CompletableFuture.<String>failedFuture(new RuntimeException("Test exception"));
+            }).execute();
+
+            Assertions.assertFalse(result.isDone());
+            Assertions.assertEquals(1, attempts.get());
+
+            clock.advance(Duration.ofMillis(10));
+
+            Assertions.assertFalse(result.isDone());
+            Assertions.assertEquals(2, attempts.get());
+        }
+    }
+
+    @Nested
+    class RetryablePublisher {
+
+        @Test
+        void testResubscribeOnRetryableError() {
+            AtomicInteger attempts = new AtomicInteger();
+            var subscriber = new TestSubscriber<Integer>(Long.MAX_VALUE);
+
+            retry.named("testResubscribeOnRetryableError").publisher(() -> attempts.incrementAndGet() < 2
+                    ? new ListPublisher<>(List.of(1), new RuntimeException("Test exception"))
+                    : new ListPublisher<>(List.of(1, 2, 3), null)).execute().subscribe(subscriber);
+            clock.advance(Duration.ofMillis(10));
+
+            Assertions.assertTrue(subscriber.done());
+            Assertions.assertEquals(List.of(1, 1, 2, 3), subscriber.items);
+            Assertions.assertNull(subscriber.error);
+            Assertions.assertEquals(2, attempts.get());
+        }
+
+        @Test
+        void testRemainingDemandCarriedOver() {
+            AtomicInteger attempts = new AtomicInteger();
+            var subscriber = new TestSubscriber<Integer>(2);
+
+            retry.anonymous().publisher(() -> attempts.incrementAndGet() < 2
+                    ? new ListPublisher<>(List.of(1), new RuntimeException("Test exception"))
+                    : new ListPublisher<>(List.of(2, 3, 4), null)).execute().subscribe(subscriber);
+            clock.advance(Duration.ofMillis(10));
+
+            Assertions.assertEquals(List.of(1, 2), subscriber.items);
+            Assertions.assertFalse(subscriber.done());
+        }
+
+        @Test
+        void testNonRetryableErrorWithFallback() {
+            AtomicInteger attempts = new AtomicInteger();
+            var subscriber = new TestSubscriber<Integer>(Long.MAX_VALUE);
+
+            retry.anonymous().publisher(() -> {
+                attempts.incrementAndGet();
+                return new ListPublisher<Integer>(List.of(), new IllegalArgumentException("Test exception"));
+            }).fallback(_ -> new ListPublisher<>(List.of(-1), null)).subscribe(subscriber);
+
+            Assertions.assertTrue(subscriber.done());
+            Assertions.assertEquals(List.of(-1), subscriber.items);
+            Assertions.assertEquals(1, attempts.get());
+        }
+
+        @Test
+        void testNoSignalsAfterCancel() {
+            TestSubscriber<Integer> subscriber = new TestSubscriber<>(3) {
+                @Override
+                public void onNext(Integer item) {
+                    super.onNext(item);
+                    subscription.cancel();
+                }
+            };
+
+            retry.anonymous().publisher(() -> new ListPublisher<>(List.of(1, 2, 3), null)).execute().subscribe(subscriber);
+
+            Assertions.assertEquals(List.of(1), subscriber.items);
+            Assertions.assertFalse(subscriber.done());
+        }
+
+        @Test
+        void testRetryableErrorExhausted() {
+            AtomicInteger attempts = new AtomicInteger();
+            var subscriber = new TestSubscriber<Integer>(Long.MAX_VALUE);
+
+            retry.anonymous().publisher(() -> {
+                attempts.incrementAndGet();
+                return new ListPublisher<Integer>(List.of(), new RuntimeException("Test exception"));
+            }).execute().subscribe(subscriber);
+            clock.advance(Duration.ofMillis(10 + 20));
+
+            Assertions.assertTrue(subscriber.done());
+            Assertions.assertInstanceOf(RuntimeException.class, subscriber.error);
+            Assertions.assertEquals(3, attempts.get());
+        }
+    }
+
+    @Nested
+    class ObservedExecution {
+
+        private final List<String> observed = new CopyOnWriteArrayList<>();
+        private final RetryObserver observer = operation -> {
+            observed.add("start " + operation);
+            return new RetryObserver.Execution() {
+                @Override
+                public <R> R attempt(int attempt, Supplier<? extends R> action) {
+                    observed.add("attempt " + attempt);
+                    return action.get();
+                }
+
+                @Override
+                public void attemptEnded(int attempt, Throwable failure) {
+                    observed.add("attempt " + attempt + (failure == null ? " succeeded" : " failed"));
+                }
+
+                @Override
+                public void ended(int attempts, Throwable failure) {
+                    observed.add("ended after " + attempts + (failure == null ? "" : " with " + failure.getClass().getSimpleName()));
+                }
+            };
+        };
+
+        @Test
+        void testStageAttemptsObserved() {
+            AtomicInteger attempts = new AtomicInteger();
+            var adapter = new ScheduledRetryAdapter(policy, clock.scheduler(), observer);
+
+            var result = adapter.named("fetchInvoice").stage(() -> attempts.incrementAndGet() < 2
+                    ? CompletableFuture.<String>failedFuture(new RuntimeException("Test exception"))
+                    : CompletableFuture.completedFuture("Invoice")).execute();
+            clock.advance(Duration.ofMillis(10));
+
+            Assertions.assertEquals("Invoice", result.join());
+            Assertions.assertEquals(List.of("start fetchInvoice", "attempt 1", "attempt 1 failed", "attempt 2", "attempt 2 succeeded", "ended after 2"), observed);
+        }
+
+        @Test
+        void testExhaustedStageObserved() {
+            var adapter = new ScheduledRetryAdapter(policy, clock.scheduler(), observer);
+
+            var result = adapter.named("fetchInvoice").stage(() -> CompletableFuture.<String>failedFuture(new IllegalArgumentException("Test exception"))).execute();
+
+            Assertions.assertThrows(CompletionException.class, result::join);
+            Assertions.assertEquals(List.of("start fetchInvoice", "attempt 1", "attempt 1 failed", "ended after 1 with IllegalArgumentException"), observed);
+        }
+
+        @Test
+        void testPublisherAttemptsObserved() {
+            AtomicInteger attempts = new AtomicInteger();
+            var subscriber = new TestSubscriber<Integer>(Long.MAX_VALUE);
+            var adapter = new ScheduledRetryAdapter(policy, clock.scheduler(), observer);
+
+            adapter.named("streamInvoices").publisher(() -> attempts.incrementAndGet() < 2
+                    ? new ListPublisher<>(List.of(1), new RuntimeException("Test exception"))
+                    : new ListPublisher<>(List.of(2), null)).execute().subscribe(subscriber);
+            clock.advance(Duration.ofMillis(10));
+
+            Assertions.assertTrue(subscriber.done());
+            Assertions.assertEquals(List.of("start streamInvoices", "attempt 1", "attempt 1 failed", "attempt 2", "attempt 2 succeeded", "ended after 2"), observed);
+        }
+    }
+
+    @Nested
+    class RetryProperties {
+
+        @Test
+        void testPolicyReadsRetryProperties() {
+            Map<String, String> properties = Map.of(
+                    "retry.maxAttempts", "4",
+                    "retry.initialInterval", "20",
+                    "retry.nonRetryableExceptions", "java.lang.IllegalStateException, java.io.*");
+
+            var policy = ReactiveRetryPolicy.from(RetrySettings.from(properties::get));
+
+            Assertions.assertAll(
+                    () -> Assertions.assertEquals(4, policy.maxAttempts()),
+                    () -> Assertions.assertEquals(40, policy.delayAfter(2)),
+                    () -> Assertions.assertTrue(policy.shouldRetry(new RuntimeException("Test exception"))),
+                    () -> Assertions.assertFalse(policy.shouldRetry(new IllegalStateException("Test exception"))),
+                    () -> Assertions.assertFalse(policy.shouldRetry(new IOException("Test exception")))
+            );
+        }
+    }
+
+    @Nested
+    class RetryAfter {
+
+        @Test
+        void testHintReplacesBackoff() {
+            Assertions.assertAll(
+                    () -> Assertions.assertEquals(20, policy.delayAfter(2, new RuntimeException("Test exception"))),
+                    () -> Assertions.assertEquals(70, policy.delayAfter(2, new RateLimitedException(Duration.ofMillis(70)))),
+                    () -> Assertions.assertEquals(70, policy.delayAfter(1, new RuntimeException(new RateLimitedException(Duration.ofMillis(70))))),
+                    () -> Assertions.assertEquals(100, policy.delayAfter(1, new RateLimitedException(Duration.ofSeconds(30))))
+            );
+        }
+
+        @Test
+        void testStageWaitsForHint() {
+            AtomicInteger attempts = new AtomicInteger();
+
+            var result = retry.named("fetchInvoice").stage(() -> attempts.incrementAndGet() < 2
+                    ? CompletableFuture.<String>failedFuture(new RateLimitedException(Duration.ofMillis(80)))
+                    : CompletableFuture.completedFuture("Invoice")).execute();
+            clock.advance(Duration.ofMillis(79));
+
+            Assertions.assertFalse(result.isDone());
+
+            clock.advance(Duration.ofMillis(1));
+
+            Assertions.assertEquals("Invoice", result.join());
+        }
+    }
+
+    private static class RateLimitedException extends RuntimeException implements RetryAfterHint {
+        private final Duration retryAfter;
+
+        RateLimitedException(Duration retryAfter) {
+            super("Rate limited", null, false, false);
+            this.retryAfter = retryAfter;
+        }
+
+        @Override
+        public Duration retryAfter() {
+            return retryAfter;
+        }
+    }
+
+    /**
+     * Emits the given items on demand, then completes or fails with the given error.
+     */
+    private record ListPublisher<T>(List<T> items, Throwable error) implements Flow.Publisher<T> {
+        @Override
+        public void subscribe(Flow.Subscriber<? super T> subscriber) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                private int index;
+                private boolean done;
+
+                @Override
+                public synchronized void request(long n) {
+                    for (long i = 0; i < n && index < items.size(); i++) {
+                        subscriber.onNext(items.get(index++));
+                    }
+                    if (index == items.size() && !done) {
+                        done = true;
+                        if (error == null) {
+                            subscriber.onComplete();
+                        } else {
+                            subscriber.onError(error);
+                        }
+                    }
+                }
+
+                @Override
+                public void cancel() {
+                    done = true;
+                }
+            });
+        }
+    }
+
+    private static class TestSubscriber<T> implements Flow.Subscriber<T> {
+        private final long demand;
+        private final List<T> items = new CopyOnWriteArrayList<>();
+        private volatile boolean done;
+        private volatile Throwable error;
+        Flow.Subscription subscription;
+
+        TestSubscriber(long demand) {
+            this.demand = demand;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(demand);
+        }
+
+        @Override
+        public void onNext(T item) {
+            items.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+            done = true;
+        }
+
+        @Override
+        public void onComplete() {
+            done = true;
+        }
+
+        boolean done() {
+            return done;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package dev.stockman.retry.spring;
+
+import dev.stockman.retry.statistics.RetryStatistics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jmx.export.MBeanExporter;
+import org.springframework.jmx.support.RegistrationPolicy;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Collects {@link RetryStatistics} and publishes them as an MXBean and, when Spring Boot Actuator is present, as the
+ * {@code retries} endpoint. Pass the statistics to the adapter to collect them:
+ * {@code new SpringRetryTemplateAdapter(retryTemplate, retryStatistics)}.
+ */
+@Configuration
+public class RetryStatisticsConfiguration {
+
+    @Bean
+    public RetryStatistics retryStatistics(
+            ObjectProvider<Clock> clock,
+            @Value("${retry.statistics.maxOperations:" + RetryStatistics.DEFAULT_MAX_OPERATIONS + "}") int maxOperations,
+            @Value("${retry.statistics.idleTimeout:" + RetryStatistics.DEFAULT_IDLE_TIMEOUT_MILLIS + "}") long idleTimeout
+    ) {
+        return new RetryStatistics(clock.getIfAvailable(Clock::systemUTC), maxOperations, Duration.ofMillis(idleTimeout));
+    }
+
+    @Bean
+    public MBeanExporter retryStatisticsExporter(
+            RetryStatistics retryStatistics,
+            @Value("${retry.statistics.objectName:" + RetryStatistics.OBJECT_NAME + "}") String objectName
+    ) {
+        var exporter = new MBeanExporter();
+        exporter.setBeans(Map.of(objectName, retryStatistics));
+        exporter.setRegistrationPolicy(RegistrationPolicy.REPLACE_EXISTING);
+        return exporter;
+    }
+
+    @Configuration
+    @ConditionalOnClass(name = "org.springframework.boot.actuate.endpoint.annotation.Endpoint")
+    static class EndpointConfiguration {
+
+        @Bean
+        public RetryStatisticsEndpoint retryStatisticsEndpoint(
+                RetryStatistics retryStatistics,
+                @Value("${retry.statistics.top:10}") int top
+        ) {
+            return new RetryStatisticsEndpoint(retryStatistics, top);
+        }
+    }
+}
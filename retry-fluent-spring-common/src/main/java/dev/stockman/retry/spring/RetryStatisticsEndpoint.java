@@ -0,0 +1,55 @@
+package dev.stockman.retry.spring;
+
+import dev.stockman.retry.statistics.OperationStatistics;
+import dev.stockman.retry.statistics.RetryStatistics;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+
+import java.util.List;
+
+/**
+ * Actuator endpoint {@code /actuator/retries} listing the operations that retried the most and that spent the most
+ * time in backoff in the last minute, followed by the totals of all operations. {@code /actuator/retries/{operation}}
+ * shows a single operation.
+ */
+@Endpoint(id = "retries")
+public class RetryStatisticsEndpoint {
+
+    private final RetryStatistics statistics;
+    private final int top;
+
+    /**
+     * @param statistics The statistics to publish.
+     * @param top        How many operations the rankings list.
+     */
+    public RetryStatisticsEndpoint(RetryStatistics statistics, int top) {
+        this.statistics = statistics;
+        this.top = top;
+    }
+
+    @ReadOperation
+    public RetriesReport retries() {
+        return new RetriesReport(statistics.topByRetries(top), statistics.topByBackoff(top), statistics.getOperations());
+    }
+
+    /**
+     * Returns the statistics of an operation, null (404) if it is unknown.
+     */
+    @ReadOperation
+    public OperationStatistics operation(@Selector String operation) {
+        return statistics.operation(operation);
+    }
+
+    /**
+     * @param topByRetries The operations with the most retries in the last minute.
+     * @param topByBackoff The operations with the most time in backoff in the last minute.
+     * @param operations   All operations, ordered by name.
+     */
+    public record RetriesReport(
+            List<OperationStatistics> topByRetries,
+            List<OperationStatistics> topByBackoff,
+            List<OperationStatistics> operations
+    ) {
+    }
+}
@@ -0,0 +1,39 @@
+package dev.stockman.retry.spring6;
+
+import dev.stockman.retry.Sleeper;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.retry.RetryListener;
+import org.springframework.jmx.export.MBeanExporter;
+import org.springframework.jmx.support.RegistrationPolicy;
+
+import java.util.Map;
+
+/**
+ * Provides a {@link ReloadableRetryTemplate} built from the {@code retry.*} properties and publishes it as an MXBean.
+ * Pass it to the adapter to pick up changed settings without a restart:
+ * {@code new SpringRetryTemplateAdapter(reloadableRetryTemplate, observer)}. Every template it builds notifies the
+ * {@code RetryListener} beans of the context.
+ */
+@Configuration
+public class ReloadableRetryConfiguration {
+
+    @Bean
+    public ReloadableRetryTemplate reloadableRetryTemplate(Environment environment, ObjectProvider<Sleeper> sleeper, ObjectProvider<RetryListener> listeners) {
+        return new ReloadableRetryTemplate(environment, sleeper.getIfAvailable(Sleeper::system), listeners.orderedStream().toList());
+    }
+
+    @Bean
+    public MBeanExporter reloadableRetryTemplateExporter(
+            ReloadableRetryTemplate reloadableRetryTemplate,
+            @Value("${retry.settings.objectName:" + ReloadableRetryTemplate.OBJECT_NAME + "}") String objectName
+    ) {
+        var exporter = new MBeanExporter();
+        exporter.setBeans(Map.of(objectName, reloadableRetryTemplate));
+        exporter.setRegistrationPolicy(RegistrationPolicy.REPLACE_EXISTING);
+        return exporter;
+    }
+}
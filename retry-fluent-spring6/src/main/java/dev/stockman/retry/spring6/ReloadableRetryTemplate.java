@@ -0,0 +1,36 @@
+package dev.stockman.retry.spring6;
+
+import dev.stockman.retry.Sleeper;
+import dev.stockman.retry.settings.ReloadableRetrySettings;
+import dev.stockman.retry.settings.RetrySettings;
+import org.springframework.core.env.PropertyResolver;
+import org.springframework.retry.RetryListener;
+import org.springframework.retry.support.RetryTemplate;
+
+import java.util.List;
+
+/**
+ * {@link ReloadableRetrySettings} of a {@link RetryTemplate}: every change of the {@code retry.*} settings builds a
+ * template like {@link RetryConfiguration} does and swaps it in atomically. Spring Retry has no jitter, so the jitter
+ * setting is ignored.
+ */
+public class ReloadableRetryTemplate extends ReloadableRetrySettings<RetryTemplate> {
+
+    /**
+     * @param properties The properties to read the settings from, now and on {@link #reload()}.
+     * @param sleeper    The sleeper to wait through, e.g. {@link Sleeper#system()}.
+     * @param listeners  The listeners of the application, notified by every template after the logging listener.
+     */
+    public ReloadableRetryTemplate(PropertyResolver properties, Sleeper sleeper, List<? extends RetryListener> listeners) {
+        super(() -> RetrySettings.from(properties::getProperty), settings -> RetryConfiguration.newRetryTemplate(settings, sleeper, listeners));
+    }
+
+    /**
+     * @param settings  The initial settings. {@link #reload()} is not supported.
+     * @param sleeper   The sleeper to wait through, e.g. {@link Sleeper#system()}.
+     * @param listeners The listeners of the application, notified by every template after the logging listener.
+     */
+    public ReloadableRetryTemplate(RetrySettings settings, Sleeper sleeper, List<? extends RetryListener> listeners) {
+        super(settings, changed -> RetryConfiguration.newRetryTemplate(changed, sleeper, listeners));
+    }
+}
@@ -0,0 +1,60 @@
+package dev.stockman.retry.spring6;
+
+import dev.stockman.retry.RetryAfterHint;
+import dev.stockman.retry.Sleeper;
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.backoff.BackOffContext;
+import org.springframework.retry.backoff.BackOffInterruptedException;
+import org.springframework.retry.backoff.BackOffPolicy;
+import org.springframework.retry.backoff.SleepingBackOffPolicy;
+
+/**
+ * Waits for the delay suggested by a {@link RetryAfterHint} of the last exception instead of the backoff of the
+ * wrapped policy, capped at {@code maxInterval}. The wrapped policy still advances without waiting, so the backoff
+ * after the next failure without a hint is the same as if the hint had not been there. The retry template registers
+ * the exception in the retry context before it backs off, so the hint is read from there.
+ */
+class RetryAfterBackOffPolicy implements BackOffPolicy {
+
+    private final BackOffPolicy backOffPolicy;
+    private final BackOffPolicy schedule;
+    private final long maxInterval;
+    private final Sleeper sleeper;
+
+    RetryAfterBackOffPolicy(SleepingBackOffPolicy<?> backOffPolicy, long maxInterval, Sleeper sleeper) {
+        this.backOffPolicy = backOffPolicy;
+        this.schedule = backOffPolicy.withSleeper(interval -> {
+        });
+        this.maxInterval = maxInterval;
+        this.sleeper = sleeper;
+    }
+
+    @Override
+    public BackOffContext start(RetryContext context) {
+        return new HintedBackOffContext(context, backOffPolicy.start(context));
+    }
+
+    @Override
+    public void backOff(BackOffContext backOffContext) throws BackOffInterruptedException {
+        HintedBackOffContext hinted = (HintedBackOffContext) backOffContext;
+        long retryAfter = RetryAfterHint.retryAfterMillis(hinted.retryContext().getLastThrowable());
+        if (retryAfter < 0) {
+            backOffPolicy.backOff(hinted.backOffContext());
+            return;
+        }
+        schedule.backOff(hinted.backOffContext());
+        long delay = Math.min(retryAfter, maxInterval);
+        if (delay == 0) {
+            return;
+        }
+        try {
+            sleeper.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BackOffInterruptedException("Thread interrupted while sleeping", e);
+        }
+    }
+
+    private record HintedBackOffContext(RetryContext retryContext, BackOffContext backOffContext) implements BackOffContext {
+    }
+}
@@ -1,5 +1,10 @@
 package dev.stockman.retry.spring6;
 
+import dev.stockman.retry.ExceptionClassifier;
+import dev.stockman.retry.RejectedResultException;
+import dev.stockman.retry.Sleeper;
+import dev.stockman.retry.settings.RetrySettings;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -7,6 +12,7 @@ import org.springframework.retry.RetryListener;
 import org.springframework.retry.RetryPolicy;
 import org.springframework.retry.backoff.BackOffPolicy;
 import org.springframework.retry.backoff.ExponentialBackOffPolicy;
+import org.springframework.retry.classify.BinaryExceptionClassifier;
 import org.springframework.retry.policy.SimpleRetryPolicy;
 import org.springframework.retry.support.RetryTemplate;
 
@@ -21,41 +27,102 @@ public class RetryConfiguration {
             BackOffPolicy backOffPolicy,
             RetryListener retryListener
     ) {
-        RetryTemplate retryTemplate = new RetryTemplate();
-        retryTemplate.setRetryPolicy(retryPolicy);
-        retryTemplate.setBackOffPolicy(backOffPolicy);
-        retryTemplate.registerListener(retryListener);
-        retryTemplate.setThrowLastExceptionOnExhausted(true);
-        return retryTemplate;
+        return newRetryTemplate(retryPolicy, backOffPolicy, retryListener);
+    }
+
+    @Bean
+    public ExceptionClassifier exceptionClassifier(
+            @Value("${retry.retryableExceptions:}") List<String> retryableExceptions,
+            @Value("${retry.nonRetryableExceptions:}") List<String> nonRetryableExceptions,
+            @Value("${retry.causeDepth:0}") int causeDepth
+    ) {
+        return newExceptionClassifier(retryableExceptions, nonRetryableExceptions, causeDepth);
     }
 
     @Bean
     public RetryPolicy retryPolicy(
             @Value("${retry.maxAttempts:3}") int maxAttempts,
-            @Value("${retry.retryableExceptions:}") List<String> retryableExceptions,
-            @Value("${retry.nonRetryableExceptions:}") List<String> nonRetryableExceptions
-    ) throws ClassNotFoundException {
-        return new SimpleRetryPolicy(maxAttempts, RetryUtils.retryableExceptions(retryableExceptions, nonRetryableExceptions));
+            ExceptionClassifier exceptionClassifier
+    ) {
+        return newRetryPolicy(maxAttempts, exceptionClassifier);
     }
 
     @Bean
     public BackOffPolicy backOffPolicy(
             @Value("${retry.initialInterval:100}") int initialInterval,
             @Value("${retry.multiplier:2}") int multiplier,
-            @Value("${retry.maxInterval:5000}") int maxInterval
+            @Value("${retry.maxInterval:5000}") int maxInterval,
+            ObjectProvider<Sleeper> sleeper
     ) {
-        ExponentialBackOffPolicy backOffPolicy = new ExponentialBackOffPolicy();
-        backOffPolicy.setInitialInterval(initialInterval);
-        backOffPolicy.setMultiplier(multiplier);
-        backOffPolicy.setMaxInterval(maxInterval);
-        return backOffPolicy;
+        return newBackOffPolicy(initialInterval, multiplier, maxInterval, sleeper.getIfAvailable(Sleeper::system));
     }
 
     @Bean
     public RetryListener retryListener(
             RetryPolicy retryPolicy,
-            @Value("${retry.nonRetryableExceptions:}") List<String> nonRetryableExceptions
+            ExceptionClassifier exceptionClassifier
     ) {
-        return new RetryLoggerListener(retryPolicy, RetryUtils.throwableList(nonRetryableExceptions));
+        return new RetryLoggerListener(retryPolicy, exceptionClassifier);
+    }
+
+    /**
+     * Builds a retry template like the beans above, from a snapshot of the settings.
+     *
+     * @param listeners Further listeners, registered after the logging listener. Logging listeners among them are
+     *                  left out, since they log the attempts of other settings.
+     * @throws IllegalArgumentException If the settings ask for less than one attempt.
+     */
+    static RetryTemplate newRetryTemplate(RetrySettings settings, Sleeper sleeper, List<? extends RetryListener> listeners) {
+        if (settings.maxAttempts() < 1) {
+            throw new IllegalArgumentException("maxAttempts must be at least 1");
+        }
+        ExceptionClassifier exceptionClassifier = newExceptionClassifier(settings.retryableExceptions(), settings.nonRetryableExceptions(), settings.causeDepth());
+        RetryPolicy retryPolicy = newRetryPolicy(settings.maxAttempts(), exceptionClassifier);
+        RetryTemplate retryTemplate = newRetryTemplate(
+                retryPolicy,
+                newBackOffPolicy(settings.initialInterval(), settings.multiplier(), settings.maxInterval(), sleeper),
+                new RetryLoggerListener(retryPolicy, exceptionClassifier)
+        );
+        listeners.stream().filter(listener -> !(listener instanceof RetryLoggerListener)).forEach(retryTemplate::registerListener);
+        return retryTemplate;
+    }
+
+    private static RetryTemplate newRetryTemplate(RetryPolicy retryPolicy, BackOffPolicy backOffPolicy, RetryListener retryListener) {
+        RetryTemplate retryTemplate = new RetryTemplate();
+        retryTemplate.setRetryPolicy(retryPolicy);
+        retryTemplate.setBackOffPolicy(backOffPolicy);
+        retryTemplate.registerListener(retryListener);
+        retryTemplate.setThrowLastExceptionOnExhausted(true);
+        return retryTemplate;
+    }
+
+    /**
+     * Builds a classifier with the semantics of Spring Retry's {@code BinaryExceptionClassifier}: the nearest match in
+     * the class hierarchy wins, and exceptions that match no entry are not retried.
+     */
+    static ExceptionClassifier newExceptionClassifier(List<String> retryableExceptions, List<String> nonRetryableExceptions, int causeDepth) {
+        return ExceptionClassifier.builder()
+                .retryable(retryableExceptions)
+                .nonRetryable(nonRetryableExceptions)
+                .causeDepth(causeDepth)
+                .build();
+    }
+
+    private static RetryPolicy newRetryPolicy(int maxAttempts, ExceptionClassifier exceptionClassifier) {
+        return new SimpleRetryPolicy(maxAttempts, new BinaryExceptionClassifier(false) {
+            @Override
+            public Boolean classify(Throwable classifiable) {
+                return classifiable instanceof RejectedResultException || exceptionClassifier.isRetryable(classifiable);
+            }
+        });
+    }
+
+    private static BackOffPolicy newBackOffPolicy(int initialInterval, int multiplier, int maxInterval, Sleeper sleeper) {
+        ExponentialBackOffPolicy backOffPolicy = new ExponentialBackOffPolicy();
+        backOffPolicy.setInitialInterval(initialInterval);
+        backOffPolicy.setMultiplier(multiplier);
+        backOffPolicy.setMaxInterval(maxInterval);
+        backOffPolicy.setSleeper(sleeper::sleep);
+        return new RetryAfterBackOffPolicy(backOffPolicy, maxInterval, sleeper);
     }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package dev.stockman.retry.spring6;
 
+import dev.stockman.retry.ExceptionClassifier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.retry.RetryCallback;
@@ -7,18 +8,16 @@ import org.springframework.retry.RetryContext;
 import org.springframework.retry.RetryListener;
 import org.springframework.retry.RetryPolicy;
 
-import java.util.List;
-
 class RetryLoggerListener implements RetryListener {
 
     private static final Logger log = LoggerFactory.getLogger(RetryLoggerListener.class);
 
     private final long maxAttempts;
-    private final List<Class<? extends Throwable>> nonRetryableExceptions;
+    private final ExceptionClassifier exceptionClassifier;
 
-    RetryLoggerListener(RetryPolicy retryPolicy, List<Class<? extends Throwable>> nonRetryableExceptions) {
+    RetryLoggerListener(RetryPolicy retryPolicy, ExceptionClassifier exceptionClassifier) {
         this.maxAttempts = retryPolicy.getMaxAttempts();
-        this.nonRetryableExceptions = nonRetryableExceptions;
+        this.exceptionClassifier = exceptionClassifier;
     }
 
     @Override
@@ -43,8 +42,7 @@ class RetryLoggerListener implements RetryListener {
             int attempts = context.getRetryCount();
 
             // Direct check: Is this specific exception type in our "do not retry" list?
-            boolean isExplicitlyNonRetryable = nonRetryableExceptions.stream()
-                    .anyMatch(type -> type.isInstance(throwable));
+            boolean isExplicitlyNonRetryable = exceptionClassifier.isNonRetryable(throwable);
 
             if (isExplicitlyNonRetryable) {
                 log.info("Retry policy terminated after {}/{} attempts failed. Non-retryable exception encountered: {} -- {}", attempts, maxAttempts, throwable, name);
@@ -1,21 +1,45 @@
 package dev.stockman.retry.spring6;
 
+import dev.stockman.retry.FallbackChain;
+import dev.stockman.retry.RejectedResultException;
+import dev.stockman.retry.ResultCondition;
 import dev.stockman.retry.Retry;
-import org.springframework.retry.RetryCallback;
+import dev.stockman.retry.RetryObserver;
+import dev.stockman.retry.jfr.AttemptRecorder;
 import org.springframework.retry.support.RetryTemplate;
 
 import java.util.UUID;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
 
 public class SpringRetryTemplateAdapter implements Retry {
 
     public static final String CONTEXT_NAME_KEY = "context.name";
-    private final RetryTemplate retryTemplate;
+    private final Supplier<RetryTemplate> retryTemplate;
+    private final RetryObserver observer;
 
     public SpringRetryTemplateAdapter(RetryTemplate retryTemplate) {
+        this(retryTemplate, RetryObserver.NOOP);
+    }
+
+    /**
+     * @param retryTemplate The retry template executing the operations.
+     * @param observer      Observes every execution, e.g. to trace it.
+     */
+    public SpringRetryTemplateAdapter(RetryTemplate retryTemplate, RetryObserver observer) {
+        this(() -> retryTemplate, observer);
+    }
+
+    /**
+     * @param retryTemplate Supplies the retry template of each execution, e.g. a {@link ReloadableRetryTemplate}.
+     *                      It is called once when an execution starts.
+     * @param observer      Observes every execution, e.g. to trace it.
+     */
+    public SpringRetryTemplateAdapter(Supplier<RetryTemplate> retryTemplate, RetryObserver observer) {
         this.retryTemplate = retryTemplate;
+        this.observer = observer;
     }
 
     @Override
@@ -38,7 +62,7 @@ public class SpringRetryTemplateAdapter implements Retry {
 
         @Override
         public <R> CallSpec<R> call(Supplier<R> action) {
-            return new SpringCallSpec<>(operationName, action);
+            return new SpringCallSpec<>(operationName, action, null);
         }
 
         @Override
@@ -50,31 +74,51 @@ public class SpringRetryTemplateAdapter implements Retry {
     private class SpringCallSpec<R> implements CallSpec<R> {
         private final String name;
         private final Supplier<R> action;
+        private final Predicate<? super R> condition;
 
-        SpringCallSpec(String name, Supplier<R> action) {
+        SpringCallSpec(String name, Supplier<R> action, Predicate<? super R> condition) {
             this.name = name;
             this.action = action;
+            this.condition = condition;
         }
 
         @Override
         public R execute() throws Throwable {
-            return retryTemplate.execute(createCallback());
+            return outcome().result();
+        }
+
+        /**
+         * Runs the action with its retries and reports whether the last result was rejected by the condition.
+         */
+        private FallbackChain.Outcome<R> outcome() throws Throwable {
+            if (condition == null) {
+                return new FallbackChain.Outcome<>(executeRecorded(name, action), false);
+            }
+            var check = new ResultCondition<>(action, condition);
+            try {
+                return new FallbackChain.Outcome<>(executeRecorded(name, check), false);
+            } catch (RejectedResultException e) {
+                return new FallbackChain.Outcome<>(check.rejected(), true);
+            }
         }
 
         @Override
         public R fallback(Function<Throwable, R> fallback) {
             try {
-                return retryTemplate.execute(createCallback());
+                return execute();
             } catch (Throwable e) {
                 return fallback.apply(e);
             }
         }
 
-        private RetryCallback<R, Throwable> createCallback() {
-            return context -> {
-                context.setAttribute(CONTEXT_NAME_KEY, name);
-                return action.get();
-            };
+        @Override
+        public CallSpec<R> retryIf(Predicate<? super R> condition) {
+            return new SpringCallSpec<>(name, action, ResultCondition.or(this.condition, condition));
+        }
+
+        @Override
+        public CallSpec<R> fallbackTo(Supplier<R> secondary, FallbackPolicy policy) {
+            return new FallbackChain<>(this, this::outcome).fallbackTo(secondary, policy);
         }
     }
 
@@ -89,24 +133,45 @@ public class SpringRetryTemplateAdapter implements Retry {
 
         @Override
         public void execute() throws Throwable {
-            retryTemplate.execute(createCallback());
+            executeRecorded(name, this::runAction);
         }
 
         @Override
         public void fallback(Consumer<Throwable> fallback) {
             try {
-                retryTemplate.execute(createCallback());
+                executeRecorded(name, this::runAction);
             } catch (Throwable e) {
                 fallback.accept(e);
             }
         }
 
-        private RetryCallback<Void, Throwable> createCallback() {
-            return context -> {
+        private Void runAction() {
+            action.run();
+            return null;
+        }
+    }
+
+    /**
+     * Executes the action through the retry template, emitting flight recorder events for its attempts and
+     * reporting them to the observer. An execution that ends with a rejected result is recorded as succeeded, since
+     * the caller returns that result.
+     */
+    private <R> R executeRecorded(String name, Supplier<R> action) throws Throwable {
+        var recorder = new AttemptRecorder(name, observer);
+        R result;
+        try {
+            result = retryTemplate.get().execute(context -> {
                 context.setAttribute(CONTEXT_NAME_KEY, name);
-                action.run();
-                return null;
-            };
+                return recorder.attempt(action);
+            });
+        } catch (RejectedResultException e) {
+            recorder.succeeded();
+            throw e;
+        } catch (Throwable e) {
+            recorder.exhausted(e);
+            throw e;
         }
+        recorder.succeeded();
+        return result;
     }
 }
@@ -0,0 +1,114 @@
+package dev.stockman.retry.spring6;
+
+import dev.stockman.retry.Retry;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.retry.support.RetryTemplate;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@DisplayNameGeneration(CamelCaseToSentences.class)
+@SpringJUnitConfig(classes = {RetryConfiguration.class, RetryTestConfiguration.class})
+public class FlightRecorderEventsTest {
+
+    @Autowired
+    private RetryTemplate retryTemplate;
+
+    @TempDir
+    private Path directory;
+
+    private Retry retry;
+    private Recording recording;
+
+    @BeforeEach
+    void setup() {
+        retry = new SpringRetryTemplateAdapter(retryTemplate);
+        recording = new Recording();
+        recording.enable("dev.stockman.retry.RetryAttempt").withThreshold(Duration.ZERO);
+        recording.enable("dev.stockman.retry.RetryBackoff").withThreshold(Duration.ZERO);
+        recording.enable("dev.stockman.retry.RetryExhausted");
+        recording.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        recording.close();
+    }
+
+    @Test
+    void testRetryThenSuccess() throws Throwable {
+        var calls = new AtomicInteger();
+        retry.named("fetchInvoice").call(() -> {
+            if (calls.incrementAndGet() == 1) {
+                throw new IllegalStateException("Test exception");
+            }
+            return "Succeeded";
+        }).execute();
+
+        var events = events();
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(List.of("RetryAttempt", "RetryBackoff", "RetryAttempt"), names(events)),
+                () -> Assertions.assertEquals("fetchInvoice", events.getFirst().getString("operation")),
+                () -> Assertions.assertEquals(IllegalStateException.class.getName(), events.getFirst().getClass("exceptionClass").getName()),
+                () -> Assertions.assertEquals(2, events.get(1).getInt("attempt")),
+                () -> Assertions.assertEquals(2, events.get(2).getInt("attempt")),
+                () -> Assertions.assertNull(events.get(2).getClass("exceptionClass"))
+        );
+    }
+
+    @Test
+    void testRetryExhausted() {
+        Assertions.assertEquals("Fallback", retry.named("fetchInvoice").call(() -> {
+            throw new IllegalStateException("Test exception");
+        }).fallback(_ -> "Fallback"));
+
+        var events = events();
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(List.of("RetryAttempt", "RetryBackoff", "RetryAttempt", "RetryBackoff", "RetryAttempt", "RetryExhausted"), names(events)),
+                () -> Assertions.assertEquals(3, events.getLast().getInt("attempts")),
+                () -> Assertions.assertEquals(IllegalStateException.class.getName(), events.getLast().getClass("exceptionClass").getName())
+        );
+    }
+
+    @Test
+    void testNonRetryableExceptionHasNoBackoff() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> retry.named("fetchInvoice").run(() -> {
+            throw new IllegalArgumentException("Test exception");
+        }).execute());
+
+        var events = events();
+        Assertions.assertEquals(List.of("RetryAttempt", "RetryExhausted"), names(events));
+        Assertions.assertEquals(1, events.getLast().getInt("attempts"));
+    }
+
+    private List<RecordedEvent> events() {
+        recording.stop();
+        try {
+            Path file = directory.resolve("retry.jfr");
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file).stream()
+                    .filter(event -> event.getEventType().getName().startsWith("dev.stockman.retry."))
+                    .sorted((a, b) -> a.getStartTime().compareTo(b.getStartTime()))
+                    .toList();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static List<String> names(List<RecordedEvent> events) {
+        return events.stream().map(event -> event.getEventType().getName().substring("dev.stockman.retry.".length())).toList();
+    }
+}
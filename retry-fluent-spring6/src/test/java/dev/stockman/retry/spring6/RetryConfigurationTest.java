@@ -14,8 +14,11 @@ import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 @DisplayNameGeneration(CamelCaseToSentences.class)
 @SpringJUnitConfig(classes = RetryConfiguration.class)
@@ -281,6 +284,92 @@ public class RetryConfigurationTest {
 
     }
 
+    @Nested
+    class RetryableStreamOutput {
+
+        @Test
+        void testResumeFromCheckpoint() {
+            List<Retry.Checkpoint<Integer>> opened = new ArrayList<>();
+            AtomicBoolean failed = new AtomicBoolean();
+
+            var result = retry.anonymous().<Integer>stream(checkpoint -> {
+                opened.add(checkpoint);
+                return IntStream.range((int) checkpoint.position(), 5).boxed().peek(i -> {
+                    if (i == 3 && failed.compareAndSet(false, true)) {
+                        throw new RuntimeException("Test exception");
+                    }
+                });
+            }).execute().toList();
+
+            Assertions.assertEquals(List.of(0, 1, 2, 3, 4), result);
+            Assertions.assertEquals(2, opened.size());
+            Assertions.assertEquals(Retry.Checkpoint.start(), opened.get(0));
+            Assertions.assertEquals(3, opened.get(1).position());
+            Assertions.assertEquals(2, opened.get(1).last());
+        }
+
+        @Test
+        void testRetryableException() {
+            List<Retry.Checkpoint<Integer>> opened = new ArrayList<>();
+
+            var stream = retry.anonymous().<Integer>stream(checkpoint -> {
+                opened.add(checkpoint);
+                return Stream.of(1, 2).skip(checkpoint.position()).peek(i -> {
+                    if (i == 2) {
+                        throw new RuntimeException("Test exception");
+                    }
+                });
+            }).execute();
+
+            Assertions.assertThrows(RuntimeException.class, stream::toList);
+            Assertions.assertEquals(3, opened.size());
+            opened.stream().skip(1).forEach(checkpoint -> Assertions.assertEquals(1, checkpoint.last()));
+        }
+
+        @Test
+        void testNoRetryWithoutFailure() {
+            RetryTemplate template = Mockito.spy(retryTemplate);
+            Retry spied = new SpringRetryTemplateAdapter(template);
+
+            var result = spied.anonymous().<Integer>stream(checkpoint -> IntStream.range((int) checkpoint.position(), 5).boxed()).execute().toList();
+
+            Assertions.assertEquals(List.of(0, 1, 2, 3, 4), result);
+            Mockito.verifyNoInteractions(template);
+        }
+
+        @Test
+        void testFailureRightAfterRecoveryUsesSameAttempts() {
+            List<Retry.Checkpoint<Integer>> opened = new ArrayList<>();
+            List<Integer> read = new ArrayList<>();
+
+            var stream = retry.anonymous().<Integer>stream(checkpoint -> {
+                opened.add(checkpoint);
+                return IntStream.range((int) checkpoint.position(), 5).boxed().peek(i -> {
+                    if (i > checkpoint.position()) {
+                        throw new RuntimeException("Test exception");
+                    }
+                });
+            }).execute();
+
+            Assertions.assertThrows(RuntimeException.class, () -> stream.forEach(read::add));
+            Assertions.assertEquals(List.of(0), read);
+            Assertions.assertEquals(3, opened.size());
+        }
+
+        @Test
+        void testNonRetryableExceptionWithFallback() {
+            List<Retry.Checkpoint<Integer>> opened = new ArrayList<>();
+
+            var result = retry.anonymous().<Integer>stream(checkpoint -> {
+                opened.add(checkpoint);
+                throw new IllegalArgumentException("Test exception");
+            }).fallback(_ -> Stream.of(-1)).toList();
+
+            Assertions.assertEquals(List.of(-1), result);
+            Assertions.assertEquals(1, opened.size());
+        }
+    }
+
     @Nested
     class RetryListener {
 
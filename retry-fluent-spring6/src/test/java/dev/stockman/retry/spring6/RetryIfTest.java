@@ -0,0 +1,152 @@
+package dev.stockman.retry.spring6;
+
+import dev.stockman.retry.RejectedResultException;
+import dev.stockman.retry.Retry;
+import dev.stockman.retry.RetryObserver;
+import dev.stockman.retry.test.VirtualClock;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.retry.support.RetryTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@DisplayNameGeneration(CamelCaseToSentences.class)
+@SpringJUnitConfig(classes = {RetryConfiguration.class, RetryTestConfiguration.class})
+@TestPropertySource(properties = {
+        "retry.retryableExceptions=java.lang.IllegalStateException"
+})
+public class RetryIfTest {
+
+    @Autowired
+    private RetryTemplate retryTemplate;
+
+    @Autowired
+    private VirtualClock clock;
+
+    private Retry retry;
+
+    @BeforeEach
+    void setup() {
+        retry = new SpringRetryTemplateAdapter(retryTemplate);
+        clock.clearSleeps();
+    }
+
+    @Test
+    void testMatchingResultIsRetriedWithBackoff() throws Throwable {
+        var calls = new AtomicInteger();
+
+        var result = retry.named("fetchPage").call(() -> calls.incrementAndGet() < 3 ? List.<String>of() : List.of("Invoice"))
+                .retryIf(List::isEmpty)
+                .execute();
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(List.of("Invoice"), result),
+                () -> Assertions.assertEquals(3, calls.get()),
+                () -> Assertions.assertEquals(List.of(Duration.ofMillis(50), Duration.ofMillis(100)), clock.sleeps())
+        );
+    }
+
+    @Test
+    void testExhaustedRetriesReturnLastResult() throws Throwable {
+        var calls = new AtomicInteger();
+
+        var result = retry.named("fetchStatus").call(() -> "Pending " + calls.incrementAndGet())
+                .retryIf(status -> status.startsWith("Pending"))
+                .fallback(_ -> "Fallback");
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals("Pending 3", result),
+                () -> Assertions.assertEquals(3, calls.get())
+        );
+    }
+
+    @Test
+    void testExceptionsAndResultsShareTheAttempts() throws Throwable {
+        var calls = new AtomicInteger();
+
+        var result = retry.named("fetchStatus").call(() -> switch (calls.incrementAndGet()) {
+                    case 1 -> throw new IllegalStateException("Test exception");
+                    case 2 -> "Stale";
+                    default -> "Fresh";
+                })
+                .retryIf("Stale"::equals)
+                .execute();
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals("Fresh", result),
+                () -> Assertions.assertEquals(3, calls.get())
+        );
+    }
+
+    @Test
+    void testNonRetryableExceptionStillEndsTheExecution() {
+        var calls = new AtomicInteger();
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> retry.named("fetchStatus").call(() -> {
+                    if (calls.incrementAndGet() == 1) {
+                        return "Stale";
+                    }
+                    throw new IllegalArgumentException("Test exception");
+                })
+                .retryIf("Stale"::equals)
+                .execute());
+
+        Assertions.assertEquals(2, calls.get());
+    }
+
+    @Test
+    void testConditionsAreCombined() throws Throwable {
+        var results = new ArrayList<>(List.of("", "Stale", "Fresh"));
+
+        var result = retry.named("fetchStatus").call(results::removeFirst)
+                .retryIf(String::isEmpty)
+                .retryIf("Stale"::equals)
+                .execute();
+
+        Assertions.assertEquals("Fresh", result);
+    }
+
+    @Test
+    void testRejectedAttemptsAreObservedAsRejected() throws Throwable {
+        var failures = new ArrayList<Throwable>();
+        var rejected = new ArrayList<Integer>();
+        var ended = new ArrayList<String>();
+        var observed = new SpringRetryTemplateAdapter(retryTemplate, _ -> new RetryObserver.Execution() {
+            @Override
+            public void attemptEnded(int attempt, Throwable failure) {
+                if (failure != null) {
+                    failures.add(failure);
+                }
+            }
+
+            @Override
+            public void attemptRejected(int attempt) {
+                rejected.add(attempt);
+            }
+
+            @Override
+            public void ended(int attempts, Throwable failure) {
+                ended.add(attempts + " " + failure);
+            }
+        });
+        var calls = new AtomicInteger();
+
+        var result = observed.named("fetchStatus").call(calls::incrementAndGet).retryIf(count -> count < 10).execute();
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(3, result),
+                () -> Assertions.assertEquals(List.of(), failures),
+                () -> Assertions.assertEquals(List.of(1, 2, 3), rejected),
+                () -> Assertions.assertEquals(List.of("3 null"), ended),
+                () -> Assertions.assertEquals(0, RejectedResultException.INSTANCE.getStackTrace().length)
+        );
+    }
+}
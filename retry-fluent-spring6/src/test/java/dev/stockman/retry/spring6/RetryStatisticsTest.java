@@ -0,0 +1,180 @@
+package dev.stockman.retry.spring6;
+
+import dev.stockman.retry.Retry;
+import dev.stockman.retry.spring.RetryStatisticsConfiguration;
+import dev.stockman.retry.spring.RetryStatisticsEndpoint;
+import dev.stockman.retry.statistics.OperationStatistics;
+import dev.stockman.retry.statistics.RetryStatistics;
+import dev.stockman.retry.test.VirtualClock;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.retry.support.RetryTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@DisplayNameGeneration(CamelCaseToSentences.class)
+@SpringJUnitConfig(classes = {RetryConfiguration.class, RetryStatisticsConfiguration.class, RetryTestConfiguration.class})
+@TestPropertySource(properties = {
+        "retry.initialInterval=100",
+        "retry.statistics.top=1",
+        "retry.statistics.maxOperations=3",
+        "retry.statistics.idleTimeout=600000"
+})
+public class RetryStatisticsTest {
+
+    @Autowired
+    private RetryTemplate retryTemplate;
+
+    @Autowired
+    private RetryStatistics statistics;
+
+    @Autowired
+    private RetryStatisticsEndpoint endpoint;
+
+    @Autowired
+    private VirtualClock clock;
+
+    private Retry retry;
+
+    @BeforeEach
+    void setup() {
+        retry = new SpringRetryTemplateAdapter(retryTemplate, statistics);
+        statistics.reset();
+    }
+
+    @Test
+    void testCountsAttemptsRetriesAndBackoff() throws Throwable {
+        succeedAfter("fetchInvoice", 1);
+        Assertions.assertThrows(RuntimeException.class, () -> retry.named("fetchInvoice").call(() -> {
+            throw new RuntimeException("Test exception");
+        }).execute());
+
+        Assertions.assertEquals(
+                new OperationStatistics("fetchInvoice", 2, 5, 3, 1, 400, 3, 400),
+                statistics.operation("fetchInvoice")
+        );
+    }
+
+    @Test
+    void testNonRetryableExceptionIsNotRetried() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> retry.named("fetchInvoice").call(() -> {
+            throw new IllegalArgumentException("Test exception");
+        }).execute());
+
+        Assertions.assertEquals(
+                new OperationStatistics("fetchInvoice", 1, 1, 0, 1, 0, 0, 0),
+                statistics.operation("fetchInvoice")
+        );
+    }
+
+    @Test
+    void testBackoffBeforeRetryOfRejectedResultIsCounted() throws Throwable {
+        var calls = new AtomicInteger();
+        retry.named("fetchInvoice").call(calls::incrementAndGet).retryIf(count -> count < 2).execute();
+
+        Assertions.assertEquals(
+                new OperationStatistics("fetchInvoice", 1, 2, 1, 0, 100, 1, 100),
+                statistics.operation("fetchInvoice")
+        );
+    }
+
+    @Test
+    void testTopOperationsOnlyCountTheLastMinute() throws Throwable {
+        succeedAfter("fetchInvoice", 1);
+        clock.advance(Duration.ofMinutes(2));
+        succeedAfter("chargeCard", 1);
+        succeedAfter("sendReceipt", 0);
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(List.of("chargeCard"), names(statistics.topByRetries(5))),
+                () -> Assertions.assertEquals(List.of("chargeCard"), names(statistics.topByBackoff(5))),
+                () -> Assertions.assertEquals(List.of("chargeCard", "fetchInvoice", "sendReceipt"), names(statistics.getOperations()))
+        );
+    }
+
+    @Test
+    void testOperationsBeyondTheCapAreCountedAsOther() throws Throwable {
+        succeedAfter("fetchInvoice", 0);
+        succeedAfter("chargeCard", 0);
+        succeedAfter("sendReceipt", 0);
+        succeedAfter("order-4711", 1);
+        succeedAfter("order-4712", 0);
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(List.of("chargeCard", "fetchInvoice", "other", "sendReceipt"), names(statistics.getOperations())),
+                () -> Assertions.assertEquals(new OperationStatistics("other", 2, 3, 1, 0, 100, 1, 100), statistics.operation("other")),
+                () -> Assertions.assertEquals(2, statistics.getOverflowedOperations())
+        );
+    }
+
+    @Test
+    void testIdleOperationMakesRoomForNewOne() throws Throwable {
+        succeedAfter("fetchInvoice", 0);
+        clock.advance(Duration.ofMinutes(5));
+        succeedAfter("chargeCard", 0);
+        succeedAfter("sendReceipt", 0);
+        clock.advance(Duration.ofMinutes(6));
+        succeedAfter("refundCard", 0);
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(List.of("chargeCard", "refundCard", "sendReceipt"), names(statistics.getOperations())),
+                () -> Assertions.assertNull(statistics.operation("fetchInvoice"))
+        );
+    }
+
+    @Test
+    void testEndpointRanksOperations() throws Throwable {
+        succeedAfter("fetchInvoice", 1);
+        succeedAfter("chargeCard", 1);
+        succeedAfter("chargeCard", 1);
+
+        var report = endpoint.retries();
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(List.of("chargeCard"), names(report.topByRetries())),
+                () -> Assertions.assertEquals(List.of("chargeCard"), names(report.topByBackoff())),
+                () -> Assertions.assertEquals(2, report.operations().size()),
+                () -> Assertions.assertEquals(2, endpoint.operation("chargeCard").retries()),
+                () -> Assertions.assertNull(endpoint.operation("unknown"))
+        );
+    }
+
+    @Test
+    void testStatisticsAreReadableOverJmx() throws Throwable {
+        succeedAfter("fetchInvoice", 1);
+
+        var server = ManagementFactory.getPlatformMBeanServer();
+        var name = new ObjectName(RetryStatistics.OBJECT_NAME);
+        var operations = (CompositeData[]) server.getAttribute(name, "Operations");
+        var top = (CompositeData[]) server.invoke(name, "topByBackoff", new Object[]{5}, new String[]{"int"});
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(1, operations.length),
+                () -> Assertions.assertEquals("fetchInvoice", operations[0].get("operation")),
+                () -> Assertions.assertEquals(100L, top[0].get("backoffMillis"))
+        );
+    }
+
+    private void succeedAfter(String operation, int failures) throws Throwable {
+        var calls = new AtomicInteger();
+        retry.named(operation).call(() -> {
+            if (calls.incrementAndGet() <= failures) {
+                throw new RuntimeException("Test exception");
+            }
+            return "Succeeded";
+        }).execute();
+    }
+
+    private static List<String> names(List<OperationStatistics> statistics) {
+        return statistics.stream().map(OperationStatistics::operation).toList();
+    }
+}
@@ -0,0 +1,21 @@
+package dev.stockman.retry.spring6;
+
+import dev.stockman.retry.test.VirtualClock;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.PropertySource;
+
+/**
+ * Test configuration shared by the adapter tests: a {@link VirtualClock}, so that backoffs are recorded instead of
+ * slept, and the retry properties in {@code retry-test.properties}. A test overrides single properties with its own
+ * {@code @TestPropertySource}.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+@PropertySource("classpath:retry-test.properties")
+public class RetryTestConfiguration {
+
+    @Bean
+    VirtualClock virtualClock() {
+        return new VirtualClock();
+    }
+}
@@ -0,0 +1,72 @@
+package dev.stockman.retry.spring6;
+
+import dev.stockman.retry.Retry;
+import dev.stockman.retry.test.VirtualClock;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.retry.support.RetryTemplate;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@DisplayNameGeneration(CamelCaseToSentences.class)
+@SpringJUnitConfig(classes = {RetryConfiguration.class, RetryTestConfiguration.class})
+public class VirtualClockBackOffTest {
+
+    @Autowired
+    private RetryTemplate retryTemplate;
+
+    @Autowired
+    private VirtualClock clock;
+
+    private Retry retry;
+
+    @BeforeEach
+    void setup() {
+        retry = new SpringRetryTemplateAdapter(retryTemplate);
+        clock.clearSleeps();
+    }
+
+    @Test
+    void testBackOffsAreRecordedInsteadOfSlept() {
+        var start = clock.instant();
+        Assertions.assertThrows(RuntimeException.class, () -> retry.anonymous().call(() -> {
+            throw new RuntimeException("Test exception");
+        }).execute());
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(List.of(Duration.ofMillis(50), Duration.ofMillis(100)), clock.sleeps()),
+                () -> Assertions.assertEquals(start.plusMillis(150), clock.instant())
+        );
+    }
+
+    @Test
+    void testNonRetryableExceptionDoesNotBackOff() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> retry.anonymous().call(() -> {
+            throw new IllegalArgumentException("Test exception");
+        }).execute());
+
+        Assertions.assertEquals(List.of(), clock.sleeps());
+    }
+
+    @Test
+    void testSuccessAfterRetryBacksOffOnce() throws Throwable {
+        var calls = new AtomicInteger();
+        var result = retry.anonymous().call(() -> {
+            if (calls.incrementAndGet() == 1) {
+                throw new RuntimeException("Test exception");
+            }
+            return "Succeeded";
+        }).execute();
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals("Succeeded", result),
+                () -> Assertions.assertEquals(List.of(Duration.ofMillis(50)), clock.sleeps())
+        );
+    }
+}
@@ -1,5 +1,7 @@
 package dev.stockman.retry.spring7;
 
+import dev.stockman.retry.RetryObserver;
+import dev.stockman.retry.jfr.AttemptRecorder;
 import org.jspecify.annotations.NullMarked;
 import org.springframework.core.retry.Retryable;
 
@@ -9,15 +11,44 @@ class NamedRetryable<R> implements Retryable<R> {
 
     private final String name;
     private final Supplier<R> retryable;
+    private final AttemptRecorder recorder;
+    private Throwable lastFailure;
 
-    NamedRetryable(String name, Supplier<R> retryable) {
+    NamedRetryable(String name, Supplier<R> retryable, RetryObserver observer) {
         this.name = name;
         this.retryable = retryable;
+        this.recorder = new AttemptRecorder(name, observer);
     }
 
     @Override
     public R execute() {
-        return retryable.get();
+        try {
+            return recorder.attempt(retryable);
+        } catch (Throwable e) {
+            lastFailure = e;
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the exception of the last failed attempt, or null if no attempt failed yet.
+     */
+    Throwable lastFailure() {
+        return lastFailure;
+    }
+
+    /**
+     * Records that the retry template returned the result of this retryable.
+     */
+    void succeeded() {
+        recorder.succeeded();
+    }
+
+    /**
+     * Records that the retry template gave up on this retryable.
+     */
+    void exhausted(Throwable failure) {
+        recorder.exhausted(failure);
     }
 
     @Override
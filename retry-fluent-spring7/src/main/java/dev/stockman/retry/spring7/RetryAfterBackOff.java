@@ -0,0 +1,47 @@
+package dev.stockman.retry.spring7;
+
+import dev.stockman.retry.RetryAfterHint;
+import org.springframework.util.backoff.BackOff;
+import org.springframework.util.backoff.BackOffExecution;
+
+import java.util.function.Supplier;
+
+/**
+ * Replaces the next interval of a {@link BackOff} with the delay suggested by a {@link RetryAfterHint} of the last
+ * exception, capped at {@code maxInterval}. The wrapped execution still advances, so its attempt limit holds.
+ * <p>
+ * The back-off execution does not see the exception. The adapter binds {@link #LAST_FAILURE} to the
+ * {@link NamedRetryable} of an execution while the retry template runs it, and the retryable keeps the exception its
+ * last attempt failed with. Back-off executions started outside such a binding use the wrapped intervals as they are.
+ */
+class RetryAfterBackOff implements BackOff {
+
+    /**
+     * Supplies the exception of the last failed attempt of the current execution.
+     */
+    static final ScopedValue<Supplier<Throwable>> LAST_FAILURE = ScopedValue.newInstance();
+
+    private final BackOff backOff;
+    private final long maxInterval;
+
+    RetryAfterBackOff(BackOff backOff, long maxInterval) {
+        this.backOff = backOff;
+        this.maxInterval = maxInterval;
+    }
+
+    @Override
+    public BackOffExecution start() {
+        BackOffExecution execution = backOff.start();
+        if (!LAST_FAILURE.isBound()) {
+            return execution;
+        }
+        Supplier<Throwable> lastFailure = LAST_FAILURE.get();
+        return () -> {
+            long interval = execution.nextBackOff();
+            if (interval == BackOffExecution.STOP) {
+                return interval;
+            }
+            return RetryAfterHint.backoffMillis(lastFailure.get(), interval, maxInterval);
+        };
+    }
+}
@@ -1,14 +1,21 @@
 package dev.stockman.retry.spring7;
 
+import dev.stockman.retry.ExceptionClassifier;
+import dev.stockman.retry.RejectedResultException;
+import dev.stockman.retry.Sleeper;
+import dev.stockman.retry.settings.RetrySettings;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.retry.RetryListener;
 import org.springframework.core.retry.RetryPolicy;
 import org.springframework.core.retry.RetryTemplate;
+import org.springframework.core.retry.support.CompositeRetryListener;
 import org.springframework.util.backoff.BackOff;
 import org.springframework.util.backoff.ExponentialBackOff;
 
+import java.util.ArrayList;
 import java.util.List;
 
 @Configuration
@@ -19,10 +26,7 @@ public class RetryConfiguration {
             RetryPolicy retryPolicy,
             RetryListener retryListener
     ) {
-        var retryTemplate = new RetryTemplate();
-        retryTemplate.setRetryPolicy(retryPolicy);
-        retryTemplate.setRetryListener(retryListener);
-        return retryTemplate;
+        return newRetryTemplate(retryPolicy, retryListener);
     }
 
     @Bean
@@ -32,6 +36,56 @@ public class RetryConfiguration {
             @Value("${retry.maxInterval:5000}") int maxInterval,
             @Value("${retry.jitter:10}") int jitter,
             @Value("${retry.maxAttempts:3}") int maxAttempts) {
+        return newBackOff(initialInterval, multiplier, maxInterval, jitter, maxAttempts);
+    }
+
+    @Bean
+    public ExceptionClassifier exceptionClassifier(
+            @Value("${retry.retryableExceptions:}") List<String> retryableExceptions,
+            @Value("${retry.nonRetryableExceptions:}") List<String> nonRetryableExceptions,
+            @Value("${retry.causeDepth:0}") int causeDepth
+    ) {
+        return newExceptionClassifier(retryableExceptions, nonRetryableExceptions, causeDepth);
+    }
+
+    @Bean
+    public RetryPolicy retryPolicy(
+            BackOff backOffPolicy,
+            ExceptionClassifier exceptionClassifier,
+            ObjectProvider<Sleeper> sleeper
+    ) {
+        return newRetryPolicy(backOffPolicy, exceptionClassifier, sleeper.getIfAvailable());
+    }
+
+    @Bean
+    public RetryListener retryListener(ExponentialBackOff backOffPolicy) {
+        return new RetryLoggerListener(backOffPolicy);
+    }
+
+    /**
+     * Builds a retry template like the beans above, from a snapshot of the settings.
+     *
+     * @param sleeper   The sleeper to wait through, or null to let the template sleep.
+     * @param listeners Further listeners, notified after the logging listener. Logging listeners among them are
+     *                  left out, since they log the attempts of other settings.
+     */
+    static RetryTemplate newRetryTemplate(RetrySettings settings, Sleeper sleeper, List<? extends RetryListener> listeners) {
+        ExponentialBackOff backOff = newBackOff(settings.initialInterval(), settings.multiplier(), settings.maxInterval(), settings.jitter(), settings.maxAttempts());
+        ExceptionClassifier exceptionClassifier = newExceptionClassifier(settings.retryableExceptions(), settings.nonRetryableExceptions(), settings.causeDepth());
+        List<RetryListener> all = new ArrayList<>();
+        all.add(new RetryLoggerListener(backOff));
+        listeners.stream().filter(listener -> !(listener instanceof RetryLoggerListener)).forEach(all::add);
+        return newRetryTemplate(newRetryPolicy(backOff, exceptionClassifier, sleeper), all.size() == 1 ? all.getFirst() : new CompositeRetryListener(all));
+    }
+
+    private static RetryTemplate newRetryTemplate(RetryPolicy retryPolicy, RetryListener retryListener) {
+        var retryTemplate = new RetryTemplate();
+        retryTemplate.setRetryPolicy(retryPolicy);
+        retryTemplate.setRetryListener(retryListener);
+        return retryTemplate;
+    }
+
+    private static ExponentialBackOff newBackOff(int initialInterval, int multiplier, int maxInterval, int jitter, int maxAttempts) {
         var backOffPolicy = new ExponentialBackOff();
         backOffPolicy.setInitialInterval(initialInterval);
         backOffPolicy.setMultiplier(multiplier);
@@ -41,21 +95,26 @@ public class RetryConfiguration {
         return backOffPolicy;
     }
 
-    @Bean
-    public RetryPolicy retryPolicy(
-            BackOff backOffPolicy,
-            @Value("${retry.retryableExceptions:}") List<String> retryableExceptions,
-            @Value("${retry.nonRetryableExceptions:}") List<String> nonRetryableExceptions
-    ) {
-        return RetryPolicy.builder()
-                .backOff(backOffPolicy)
-                .includes(RetryUtils.throwableList(retryableExceptions))
-                .excludes(RetryUtils.throwableList(nonRetryableExceptions))
+    /**
+     * Builds a classifier with the semantics of {@code RetryPolicy.builder().includes(..).excludes(..)}: a
+     * non-retryable match always wins, and without retryable entries every other exception is retried.
+     */
+    static ExceptionClassifier newExceptionClassifier(List<String> retryableExceptions, List<String> nonRetryableExceptions, int causeDepth) {
+        return ExceptionClassifier.builder()
+                .retryable(retryableExceptions)
+                .nonRetryable(nonRetryableExceptions)
+                .nonRetryableFirst()
+                .defaultValue(retryableExceptions == null || retryableExceptions.isEmpty())
+                .causeDepth(causeDepth)
                 .build();
     }
 
-    @Bean
-    public RetryListener retryListener(ExponentialBackOff backOffPolicy) {
-        return new RetryLoggerListener(backOffPolicy);
+    private static RetryPolicy newRetryPolicy(BackOff backOffPolicy, ExceptionClassifier exceptionClassifier, Sleeper sleeper) {
+        long maxInterval = backOffPolicy instanceof ExponentialBackOff exponential ? exponential.getMaxInterval() : Long.MAX_VALUE;
+        BackOff hinted = new RetryAfterBackOff(backOffPolicy, maxInterval);
+        return RetryPolicy.builder()
+                .backOff(sleeper == null ? hinted : new SleeperBackOff(hinted, sleeper))
+                .predicate(throwable -> throwable instanceof RejectedResultException || exceptionClassifier.isRetryable(throwable))
+                .build();
     }
 }
@@ -0,0 +1,35 @@
+package dev.stockman.retry.spring7;
+
+import org.springframework.beans.factory.aot.BeanFactoryInitializationAotContribution;
+import org.springframework.beans.factory.aot.BeanFactoryInitializationAotProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads {@code retry.retryableExceptions} and {@code retry.nonRetryableExceptions} at build time and contributes
+ * {@link RetryRuntimeHints} for them. An unknown class name fails the AOT build instead of the native application.
+ * Registered through {@code META-INF/spring/aot.factories}.
+ */
+class RetryExceptionsAotProcessor implements BeanFactoryInitializationAotProcessor {
+
+    @Override
+    public BeanFactoryInitializationAotContribution processAheadOfTime(ConfigurableListableBeanFactory beanFactory) {
+        if (!beanFactory.containsBean(ConfigurableApplicationContext.ENVIRONMENT_BEAN_NAME)) {
+            return null;
+        }
+        Environment environment = beanFactory.getBean(ConfigurableApplicationContext.ENVIRONMENT_BEAN_NAME, Environment.class);
+        List<String> exceptionClassNames = new ArrayList<>();
+        exceptionClassNames.addAll(List.of(environment.getProperty("retry.retryableExceptions", String[].class, new String[0])));
+        exceptionClassNames.addAll(List.of(environment.getProperty("retry.nonRetryableExceptions", String[].class, new String[0])));
+        if (exceptionClassNames.isEmpty()) {
+            return null;
+        }
+        var runtimeHints = new RetryRuntimeHints(exceptionClassNames);
+        return (generationContext, beanFactoryInitializationCode) ->
+                runtimeHints.registerHints(generationContext.getRuntimeHints(), beanFactory.getBeanClassLoader());
+    }
+}
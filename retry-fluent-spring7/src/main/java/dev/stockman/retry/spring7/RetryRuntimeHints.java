@@ -0,0 +1,30 @@
+package dev.stockman.retry.spring7;
+
+import dev.stockman.retry.ExceptionClassifier;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+import java.util.List;
+
+/**
+ * Registers the configured exception classes for reflection, so that {@link ExceptionClassifier} can resolve
+ * them through the given class loader in a native image. Package patterns need no hints because they are matched
+ * by name.
+ */
+class RetryRuntimeHints implements RuntimeHintsRegistrar {
+
+    private final List<String> exceptionClassNames;
+
+    RetryRuntimeHints(List<String> exceptionClassNames) {
+        this.exceptionClassNames = exceptionClassNames;
+    }
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        exceptionClassNames.stream()
+                .map(String::strip)
+                .filter(className -> !className.isEmpty() && !ExceptionClassifier.isPattern(className))
+                .map(className -> ExceptionClassifier.throwableClass(className, classLoader))
+                .forEach(exceptionClass -> hints.reflection().registerType(exceptionClass));
+    }
+}
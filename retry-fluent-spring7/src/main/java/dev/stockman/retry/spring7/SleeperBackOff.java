@@ -0,0 +1,39 @@
+package dev.stockman.retry.spring7;
+
+import dev.stockman.retry.Sleeper;
+import org.springframework.util.backoff.BackOff;
+import org.springframework.util.backoff.BackOffExecution;
+
+/**
+ * Routes the backoffs of a {@link BackOff} through a {@link Sleeper}. The {@code RetryTemplate} sleeps itself
+ * for the interval returned by the back-off execution, so the wrapped execution waits through the sleeper and
+ * returns zero. An interrupted wait stops the retries.
+ */
+class SleeperBackOff implements BackOff {
+
+    private final BackOff backOff;
+    private final Sleeper sleeper;
+
+    SleeperBackOff(BackOff backOff, Sleeper sleeper) {
+        this.backOff = backOff;
+        this.sleeper = sleeper;
+    }
+
+    @Override
+    public BackOffExecution start() {
+        BackOffExecution execution = backOff.start();
+        return () -> {
+            long interval = execution.nextBackOff();
+            if (interval <= 0) {
+                return interval;
+            }
+            try {
+                sleeper.sleep(interval);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return BackOffExecution.STOP;
+            }
+            return 0;
+        };
+    }
+}
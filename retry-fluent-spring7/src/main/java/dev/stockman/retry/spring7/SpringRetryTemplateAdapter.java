@@ -1,20 +1,44 @@
 package dev.stockman.retry.spring7;
 
+import dev.stockman.retry.FallbackChain;
+import dev.stockman.retry.RejectedResultException;
+import dev.stockman.retry.ResultCondition;
 import dev.stockman.retry.Retry;
+import dev.stockman.retry.RetryObserver;
 import org.springframework.core.retry.RetryException;
 import org.springframework.core.retry.RetryTemplate;
 
 import java.util.UUID;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
 
 public class SpringRetryTemplateAdapter implements Retry {
 
-    private final RetryTemplate retryTemplate;
+    private final Supplier<RetryTemplate> retryTemplate;
+    private final RetryObserver observer;
 
     public SpringRetryTemplateAdapter(RetryTemplate retryTemplate) {
+        this(retryTemplate, RetryObserver.NOOP);
+    }
+
+    /**
+     * @param retryTemplate The retry template executing the operations.
+     * @param observer      Observes every execution, e.g. to trace it.
+     */
+    public SpringRetryTemplateAdapter(RetryTemplate retryTemplate, RetryObserver observer) {
+        this(() -> retryTemplate, observer);
+    }
+
+    /**
+     * @param retryTemplate Supplies the retry template of each execution, e.g. a {@link ReloadableRetryTemplate}.
+     *                      It is called once when an execution starts.
+     * @param observer      Observes every execution, e.g. to trace it.
+     */
+    public SpringRetryTemplateAdapter(Supplier<RetryTemplate> retryTemplate, RetryObserver observer) {
         this.retryTemplate = retryTemplate;
+        this.observer = observer;
     }
 
     @Override
@@ -37,7 +61,7 @@ public class SpringRetryTemplateAdapter implements Retry {
 
         @Override
         public <R> CallSpec<R> call(Supplier<R> action) {
-            return new SpringCallSpec<>(operationName, action);
+            return new SpringCallSpec<>(operationName, action, null);
         }
 
         @Override
@@ -49,29 +73,52 @@ public class SpringRetryTemplateAdapter implements Retry {
     private class SpringCallSpec<R> implements CallSpec<R> {
         private final String name;
         private final Supplier<R> action;
+        private final Predicate<? super R> condition;
 
-        SpringCallSpec(String name, Supplier<R> action) {
+        SpringCallSpec(String name, Supplier<R> action, Predicate<? super R> condition) {
             this.name = name;
             this.action = action;
+            this.condition = condition;
         }
 
         @Override
         public R execute() throws Throwable {
+            return outcome().result();
+        }
+
+        /**
+         * Runs the action with its retries and reports whether the last result was rejected by the condition.
+         */
+        private FallbackChain.Outcome<R> outcome() throws Throwable {
+            if (condition == null) {
+                return new FallbackChain.Outcome<>(executeRecorded(new NamedRetryable<>(name, action, observer)), false);
+            }
+            var check = new ResultCondition<>(action, condition);
             try {
-                return retryTemplate.execute(new NamedRetryable<>(name, action));
-            } catch (RetryException e) {
-                throw e.getCause();
+                return new FallbackChain.Outcome<>(executeRecorded(new NamedRetryable<>(name, check, observer)), false);
+            } catch (RejectedResultException e) {
+                return new FallbackChain.Outcome<>(check.rejected(), true);
             }
         }
 
         @Override
         public R fallback(Function<Throwable, R> fallback) {
             try {
-                return retryTemplate.execute(new NamedRetryable<>(name, action));
-            } catch (RetryException e) {
-                return fallback.apply(e.getCause());
+                return execute();
+            } catch (Throwable e) {
+                return fallback.apply(e);
             }
         }
+
+        @Override
+        public CallSpec<R> retryIf(Predicate<? super R> condition) {
+            return new SpringCallSpec<>(name, action, ResultCondition.or(this.condition, condition));
+        }
+
+        @Override
+        public CallSpec<R> fallbackTo(Supplier<R> secondary, FallbackPolicy policy) {
+            return new FallbackChain<>(this, this::outcome).fallbackTo(secondary, policy);
+        }
     }
 
     private class SpringRunSpec implements RunSpec {
@@ -85,26 +132,43 @@ public class SpringRetryTemplateAdapter implements Retry {
 
         @Override
         public void execute() throws Throwable {
-            try {
-                retryTemplate.execute(new NamedRetryable<>(name, () -> {
-                    action.run();
-                    return null;
-                }));
-            } catch (RetryException e) {
-                throw e.getCause();
-            }
+            executeRecorded(new NamedRetryable<>(name, this::runAction, observer));
         }
 
         @Override
         public void fallback(Consumer<Throwable> fallback) {
             try {
-                retryTemplate.execute(new NamedRetryable<>(name, () -> {
-                    action.run();
-                    return null;
-                }));
-            } catch (RetryException e) {
-                fallback.accept(e.getCause());
+                executeRecorded(new NamedRetryable<>(name, this::runAction, observer));
+            } catch (Throwable e) {
+                fallback.accept(e);
+            }
+        }
+
+        private Void runAction() {
+            action.run();
+            return null;
+        }
+    }
+
+    /**
+     * Executes the retryable through the retry template and unwraps the final exception, recording the execution
+     * as flight recorder events and reporting it to the observer. An execution that ends with a rejected result is
+     * recorded as succeeded, since the caller returns that result. The last failure of the retryable is bound for
+     * the back-off, so that it can honour a Retry-After hint of that failure.
+     */
+    private <R> R executeRecorded(NamedRetryable<R> retryable) throws Throwable {
+        try {
+            R result = ScopedValue.where(RetryAfterBackOff.LAST_FAILURE, retryable::lastFailure)
+                    .call(() -> retryTemplate.get().execute(retryable));
+            retryable.succeeded();
+            return result;
+        } catch (RetryException e) {
+            if (e.getCause() instanceof RejectedResultException) {
+                retryable.succeeded();
+            } else {
+                retryable.exhausted(e.getCause());
             }
+            throw e.getCause();
         }
     }
 }
@@ -0,0 +1,89 @@
+package dev.stockman.retry.spring7;
+
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.Test;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.SocketTimeoutException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayNameGeneration(CamelCaseToSentences.class)
+class ExceptionClassifierTest {
+
+    @Test
+    void testNearestRetryableMatch() {
+        var classifier = RetryConfiguration.newExceptionClassifier(List.of("java.lang.RuntimeException"), List.of("java.lang.IllegalArgumentException"), 0);
+
+        assertTrue(classifier.isRetryable(new IllegalStateException()));
+        assertFalse(classifier.isRetryable(new IllegalArgumentException()));
+        assertFalse(classifier.isRetryable(new NumberFormatException()));
+        assertTrue(classifier.isNonRetryable(new NumberFormatException()));
+        assertFalse(classifier.isNonRetryable(new IllegalStateException()));
+    }
+
+    @Test
+    void testNonRetryableSuperclassWins() {
+        var classifier = RetryConfiguration.newExceptionClassifier(List.of("java.lang.IllegalStateException"), List.of("java.lang.RuntimeException"), 0);
+
+        assertFalse(classifier.isRetryable(new IllegalStateException()));
+        assertTrue(classifier.isNonRetryable(new IllegalStateException()));
+    }
+
+    @Test
+    void testDefaultValue() {
+        assertTrue(RetryConfiguration.newExceptionClassifier(List.of(), List.of(), 0).isRetryable(new RuntimeException()));
+        assertFalse(RetryConfiguration.newExceptionClassifier(List.of("java.io.IOException"), List.of(), 0).isRetryable(new RuntimeException()));
+        assertFalse(RetryConfiguration.newExceptionClassifier(null, null, 0).isNonRetryable(new RuntimeException()));
+    }
+
+    @Test
+    void testPackagePattern() {
+        var classifier = RetryConfiguration.newExceptionClassifier(List.of("java.io.*"), List.of(), 0);
+
+        assertTrue(classifier.isRetryable(new FileNotFoundException()));
+        assertTrue(classifier.isRetryable(new SocketTimeoutException())); // extends java.io.InterruptedIOException
+        assertFalse(classifier.isRetryable(new IllegalStateException()));
+    }
+
+    @Test
+    void testSubPackagePattern() {
+        var classifier = RetryConfiguration.newExceptionClassifier(List.of("java.**"), List.of("java.net.*"), 0);
+
+        assertTrue(classifier.isRetryable(new IOException()));
+        assertFalse(classifier.isRetryable(new SocketTimeoutException()));
+    }
+
+    @Test
+    void testNonRetryablePatternWinsOverExactClass() {
+        var classifier = RetryConfiguration.newExceptionClassifier(List.of("java.net.SocketTimeoutException"), List.of("java.net.*"), 0);
+
+        assertFalse(classifier.isRetryable(new SocketTimeoutException()));
+    }
+
+    @Test
+    void testCauseDepth() {
+        var wrapped = new IllegalStateException(new UncheckedIOException(new IOException()));
+
+        assertFalse(RetryConfiguration.newExceptionClassifier(List.of("java.io.IOException"), List.of(), 1).isRetryable(wrapped));
+        assertTrue(RetryConfiguration.newExceptionClassifier(List.of("java.io.IOException"), List.of(), 2).isRetryable(wrapped));
+    }
+
+    @Test
+    void testInvalidClassName() {
+        Exception exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> RetryConfiguration.newExceptionClassifier(List.of("java.InvalidExceptionClass"), List.of(), 0)
+        );
+
+        assertTrue(exception.getMessage().contains("java.InvalidExceptionClass"));
+    }
+
+    @Test
+    void testNegativeCauseDepth() {
+        assertThrows(IllegalArgumentException.class, () -> RetryConfiguration.newExceptionClassifier(List.of(), List.of(), -1));
+    }
+}
@@ -0,0 +1,200 @@
+package dev.stockman.retry.spring7;
+
+import dev.stockman.retry.FallbackFailedException;
+import dev.stockman.retry.Retry;
+import dev.stockman.retry.test.VirtualClock;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.retry.RetryTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@DisplayNameGeneration(CamelCaseToSentences.class)
+@SpringJUnitConfig(classes = {RetryConfiguration.class, RetryTestConfiguration.class})
+@TestPropertySource(properties = {
+        "retry.retryableExceptions=java.lang.IllegalStateException"
+})
+public class FallbackChainTest {
+
+    @Autowired
+    private RetryTemplate retryTemplate;
+
+    @Autowired
+    private VirtualClock clock;
+
+    private Retry retry;
+
+    @BeforeEach
+    void setup() {
+        retry = new SpringRetryTemplateAdapter(retryTemplate);
+        clock.clearSleeps();
+    }
+
+    @Test
+    void testStagesRunInOrderWithTheirOwnPolicies() throws Throwable {
+        var primary = new AtomicInteger();
+        var replica = new AtomicInteger();
+
+        var result = retry.named("fetchPrice").call(() -> fail(primary, "Primary"))
+                .fallbackTo(() -> fail(replica, "Replica"), policy(2, 20, 500))
+                .fallbackTo(() -> "Cached", policy(1, 0, 0))
+                .execute();
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals("Cached", result),
+                () -> Assertions.assertEquals(3, primary.get()),
+                () -> Assertions.assertEquals(2, replica.get()),
+                () -> Assertions.assertEquals(List.of(Duration.ofMillis(50), Duration.ofMillis(100), Duration.ofMillis(20)), clock.sleeps())
+        );
+    }
+
+    @Test
+    void testRetryWindowBoundsTheRetriesOfAStage() {
+        var replica = new AtomicInteger();
+
+        Assertions.assertThrows(FallbackFailedException.class, () -> retry.named("fetchPrice").call(() -> fail(new AtomicInteger(), "Primary"))
+                .fallbackTo(() -> fail(replica, "Replica"), policy(10, 100, 250))
+                .execute());
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(3, replica.get()),
+                () -> Assertions.assertEquals(List.of(Duration.ofMillis(50), Duration.ofMillis(100), Duration.ofMillis(100), Duration.ofMillis(100)), clock.sleeps())
+        );
+    }
+
+    @Test
+    void testFallbackGetsAllFailuresWrapped() {
+        var result = retry.named("fetchPrice").call(() -> fail(new AtomicInteger(), "Primary"))
+                .fallbackTo(() -> fail(new AtomicInteger(), "Replica"), policy(1, 0, 0))
+                .fallbackTo(() -> fail(new AtomicInteger(), "Cache"), policy(1, 0, 0))
+                .fallback(failure -> failure.getCause().getMessage() + " after " + failure.getSuppressed()[1].getMessage()
+                        + " after " + failure.getSuppressed()[0].getMessage());
+
+        Assertions.assertEquals("Cache after Replica after Primary", result);
+    }
+
+    @Test
+    void testStageFailuresAreNotModified() {
+        var cached = new IllegalStateException("Cached failure");
+        var chain = retry.named("fetchPrice").call(() -> fail(new AtomicInteger(), "Primary"))
+                .fallbackTo(() -> {
+                    throw cached;
+                }, policy(1, 0, 0));
+
+        chain.fallback(_ -> "Unknown");
+        var failure = Assertions.assertThrows(FallbackFailedException.class, chain::execute);
+
+        Assertions.assertAll(
+                () -> Assertions.assertSame(cached, failure.getCause()),
+                () -> Assertions.assertEquals(0, cached.getSuppressed().length)
+        );
+    }
+
+    @Test
+    void testSuccessfulActionSkipsTheStages() throws Throwable {
+        var replica = new AtomicInteger();
+
+        var result = retry.named("fetchPrice").call(() -> "Live")
+                .fallbackTo(() -> fail(replica, "Replica"))
+                .execute();
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals("Live", result),
+                () -> Assertions.assertEquals(0, replica.get()),
+                () -> Assertions.assertEquals(List.of(), clock.sleeps())
+        );
+    }
+
+    @Test
+    void testNonRetryableFailureFallsBackAtOnce() throws Throwable {
+        var primary = new AtomicInteger();
+
+        var result = retry.named("fetchPrice").call(() -> {
+                    primary.incrementAndGet();
+                    throw new IllegalArgumentException("Test exception");
+                })
+                .fallbackTo(() -> "Replica")
+                .execute();
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals("Replica", result),
+                () -> Assertions.assertEquals(1, primary.get())
+        );
+    }
+
+    @Test
+    void testRetryIfAppliesToTheAction() throws Throwable {
+        var primary = new AtomicInteger();
+
+        var result = retry.named("fetchPrice").call(() -> primary.incrementAndGet() < 2 ? "Stale" : "Fresh")
+                .fallbackTo(() -> "Replica")
+                .retryIf("Stale"::equals)
+                .execute();
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals("Fresh", result),
+                () -> Assertions.assertEquals(2, primary.get())
+        );
+    }
+
+    @Test
+    void testRejectedResultFallsThroughToTheStages() throws Throwable {
+        var primary = new AtomicInteger();
+
+        var result = retry.named("fetchPrices").call(() -> {
+                    primary.incrementAndGet();
+                    return List.<String>of();
+                })
+                .retryIf(List::isEmpty)
+                .fallbackTo(() -> List.of("Replica"))
+                .execute();
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(List.of("Replica"), result),
+                () -> Assertions.assertEquals(3, primary.get())
+        );
+    }
+
+    @Test
+    void testRejectedResultReturnedWhenTheStagesFail() throws Throwable {
+        var result = retry.named("fetchPrices").call(List::<String>of)
+                .retryIf(List::isEmpty)
+                .fallbackTo(() -> {
+                    throw new IllegalStateException("Replica");
+                }, policy(1, 0, 0))
+                .execute();
+
+        Assertions.assertEquals(List.of(), result);
+    }
+
+    @Test
+    void testConditionIsTestedOncePerAttempt() throws Throwable {
+        var tests = new AtomicInteger();
+
+        var result = retry.named("fetchPrice").call(() -> "Fresh")
+                .retryIf(price -> tests.incrementAndGet() < 0)
+                .fallbackTo(() -> "Replica")
+                .execute();
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals("Fresh", result),
+                () -> Assertions.assertEquals(1, tests.get())
+        );
+    }
+
+    private Retry.FallbackPolicy policy(int maxAttempts, long backoff, long retryWindow) {
+        return Retry.FallbackPolicy.of(maxAttempts, Duration.ofMillis(backoff), Duration.ofMillis(retryWindow)).using(clock, clock);
+    }
+
+    private static String fail(AtomicInteger calls, String message) {
+        calls.incrementAndGet();
+        throw new IllegalStateException(message);
+    }
+}
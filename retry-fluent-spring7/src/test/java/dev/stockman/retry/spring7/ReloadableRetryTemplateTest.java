@@ -0,0 +1,170 @@
+package dev.stockman.retry.spring7;
+
+import dev.stockman.retry.Retry;
+import dev.stockman.retry.RetryObserver;
+import dev.stockman.retry.test.VirtualClock;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.retry.RetryException;
+import org.springframework.core.retry.RetryListener;
+import org.springframework.core.retry.RetryPolicy;
+import org.springframework.core.retry.Retryable;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import javax.management.Attribute;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@DisplayNameGeneration(CamelCaseToSentences.class)
+@SpringJUnitConfig(classes = {ReloadableRetryConfiguration.class, RetryTestConfiguration.class, ReloadableRetryTemplateTest.ListenerConfiguration.class})
+public class ReloadableRetryTemplateTest {
+
+    @Configuration
+    static class ListenerConfiguration {
+        @Bean
+        ExhaustionCounter exhaustionCounter() {
+            return new ExhaustionCounter();
+        }
+    }
+
+    static class ExhaustionCounter implements RetryListener {
+        private final AtomicInteger exhausted = new AtomicInteger();
+
+        @Override
+        public void onRetryPolicyExhaustion(RetryPolicy retryPolicy, Retryable<?> retryable, RetryException exception) {
+            exhausted.incrementAndGet();
+        }
+    }
+
+    @Autowired
+    private ReloadableRetryTemplate reloadableRetryTemplate;
+
+    @Autowired
+    private ExhaustionCounter exhaustionCounter;
+
+    @Autowired
+    private ConfigurableEnvironment environment;
+
+    @Autowired
+    private VirtualClock clock;
+
+    private Retry retry;
+
+    @BeforeEach
+    void setup() {
+        retry = new SpringRetryTemplateAdapter(reloadableRetryTemplate, RetryObserver.NOOP);
+        clock.clearSleeps();
+    }
+
+    @AfterEach
+    void tearDown() {
+        environment.getPropertySources().remove("override");
+        reloadableRetryTemplate.reload();
+    }
+
+    @Test
+    void testNewSettingsApplyToNewExecutions() {
+        Assertions.assertEquals(3, failingAttempts());
+
+        reloadableRetryTemplate.setMaxAttempts(0);
+
+        Assertions.assertEquals(1, failingAttempts());
+    }
+
+    @Test
+    void testRunningExecutionKeepsItsSettings() {
+        var calls = new AtomicInteger();
+        Assertions.assertThrows(RuntimeException.class, () -> retry.named("fetchInvoice").call(() -> {
+            if (calls.incrementAndGet() == 1) {
+                reloadableRetryTemplate.setMaxAttempts(0);
+            }
+            throw new RuntimeException("Test exception");
+        }).execute());
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(3, calls.get()),
+                () -> Assertions.assertEquals(1, failingAttempts())
+        );
+    }
+
+    @Test
+    void testWiderBackoffAppliesToNewExecutions() {
+        reloadableRetryTemplate.update(settings -> settings.withIntervals(200, 3, 1000));
+
+        failingAttempts();
+
+        Assertions.assertEquals(List.of(Duration.ofMillis(200), Duration.ofMillis(600)), clock.sleeps());
+    }
+
+    @Test
+    void testInvalidSettingsKeepCurrentTemplate() {
+        var current = reloadableRetryTemplate.get();
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> reloadableRetryTemplate.setRetryableExceptions(List.of("com.example.MissingException")));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> reloadableRetryTemplate.setMaxInterval(10));
+
+        Assertions.assertAll(
+                () -> Assertions.assertSame(current, reloadableRetryTemplate.get()),
+                () -> Assertions.assertEquals(List.of("java.lang.RuntimeException"), reloadableRetryTemplate.getRetryableExceptions())
+        );
+    }
+
+    @Test
+    void testReloadReadsChangedProperties() {
+        environment.getPropertySources().addFirst(new MapPropertySource("override", Map.of(
+                "retry.maxAttempts", "1",
+                "retry.nonRetryableExceptions", "java.lang.IllegalStateException"
+        )));
+
+        reloadableRetryTemplate.reload();
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(2, failingAttempts()),
+                () -> Assertions.assertEquals(List.of("java.lang.IllegalStateException"), reloadableRetryTemplate.getNonRetryableExceptions())
+        );
+    }
+
+    @Test
+    void testSettingsCanBeChangedOverJmx() throws Exception {
+        var server = ManagementFactory.getPlatformMBeanServer();
+        var name = new ObjectName(ReloadableRetryTemplate.OBJECT_NAME);
+
+        server.setAttribute(name, new Attribute("MaxAttempts", 0));
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(0, server.getAttribute(name, "MaxAttempts")),
+                () -> Assertions.assertEquals(1, failingAttempts())
+        );
+    }
+
+    @Test
+    void testReloadedTemplateNotifiesApplicationListeners() {
+        reloadableRetryTemplate.reload();
+        int before = exhaustionCounter.exhausted.get();
+
+        failingAttempts();
+
+        Assertions.assertEquals(before + 1, exhaustionCounter.exhausted.get());
+    }
+
+    private int failingAttempts() {
+        var calls = new AtomicInteger();
+        Assertions.assertThrows(RuntimeException.class, () -> retry.named("fetchInvoice").call(() -> {
+            calls.incrementAndGet();
+            throw new RuntimeException("Test exception");
+        }).execute());
+        return calls.get();
+    }
+}
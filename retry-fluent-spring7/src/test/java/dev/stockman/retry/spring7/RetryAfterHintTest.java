@@ -0,0 +1,135 @@
+package dev.stockman.retry.spring7;
+
+import dev.stockman.retry.Retry;
+import dev.stockman.retry.RetryAfterHint;
+import dev.stockman.retry.test.VirtualClock;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.retry.RetryTemplate;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+@DisplayNameGeneration(CamelCaseToSentences.class)
+@SpringJUnitConfig(classes = {RetryConfiguration.class, RetryTestConfiguration.class})
+public class RetryAfterHintTest {
+
+    static class RateLimitedException extends RuntimeException implements RetryAfterHint {
+        private final Duration retryAfter;
+
+        RateLimitedException(Duration retryAfter) {
+            super("Rate limited", null, false, false);
+            this.retryAfter = retryAfter;
+        }
+
+        @Override
+        public Duration retryAfter() {
+            return retryAfter;
+        }
+    }
+
+    static class RejectedWithRetryAfterException extends IllegalArgumentException implements RetryAfterHint {
+        @Override
+        public Duration retryAfter() {
+            return Duration.ofMillis(700);
+        }
+    }
+
+    @Autowired
+    private RetryTemplate retryTemplate;
+
+    @Autowired
+    private VirtualClock clock;
+
+    private Retry retry;
+
+    @BeforeEach
+    void setup() {
+        retry = new SpringRetryTemplateAdapter(retryTemplate);
+        clock.clearSleeps();
+    }
+
+    @Test
+    void testHintReplacesExponentialBackoff() throws Throwable {
+        var result = failThenSucceed(attempt -> attempt == 1
+                ? new RuntimeException("Test exception")
+                : new RateLimitedException(Duration.ofMillis(700)));
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals("Succeeded", result),
+                () -> Assertions.assertEquals(List.of(Duration.ofMillis(50), Duration.ofMillis(700)), clock.sleeps())
+        );
+    }
+
+    @Test
+    void testScheduleAdvancesDuringHint() throws Throwable {
+        failThenSucceed(attempt -> attempt == 1
+                ? new RateLimitedException(Duration.ofMillis(700))
+                : new RuntimeException("Test exception"));
+
+        Assertions.assertEquals(List.of(Duration.ofMillis(700), Duration.ofMillis(100)), clock.sleeps());
+    }
+
+    @Test
+    void testHintOfNonRetryableFailureIsNotKept() throws Throwable {
+        Assertions.assertThrows(RejectedWithRetryAfterException.class, () -> retry.named("fetchInvoice").call(() -> {
+            throw new RejectedWithRetryAfterException();
+        }).execute());
+
+        failThenSucceed(_ -> new RuntimeException("Test exception"));
+
+        Assertions.assertEquals(List.of(Duration.ofMillis(50), Duration.ofMillis(100)), clock.sleeps());
+    }
+
+    @Test
+    void testHintIsCappedAtMaxInterval() throws Throwable {
+        failThenSucceed(_ -> new RateLimitedException(Duration.ofSeconds(30)));
+
+        Assertions.assertEquals(List.of(Duration.ofMillis(1000), Duration.ofMillis(1000)), clock.sleeps());
+    }
+
+    @Test
+    void testHintOfCauseIsUsed() throws Throwable {
+        failThenSucceed(_ -> new RuntimeException(new RateLimitedException(Duration.ofMillis(300))));
+
+        Assertions.assertEquals(List.of(Duration.ofMillis(300), Duration.ofMillis(300)), clock.sleeps());
+    }
+
+    @Test
+    void testZeroHintRetriesAtOnce() throws Throwable {
+        failThenSucceed(_ -> new RateLimitedException(Duration.ZERO));
+
+        Assertions.assertEquals(List.of(), clock.sleeps());
+    }
+
+    @Test
+    void testHintDoesNotAddAttempts() {
+        var calls = new AtomicInteger();
+        Assertions.assertThrows(RateLimitedException.class, () -> retry.named("fetchInvoice").call(() -> {
+            calls.incrementAndGet();
+            throw new RateLimitedException(Duration.ofMillis(10));
+        }).execute());
+
+        Assertions.assertEquals(3, calls.get());
+    }
+
+    /**
+     * Fails the first two attempts with the given exceptions and succeeds on the third.
+     */
+    private String failThenSucceed(IntFunction<RuntimeException> failure) throws Throwable {
+        var calls = new AtomicInteger();
+        return retry.named("fetchInvoice").call(() -> {
+            int attempt = calls.incrementAndGet();
+            if (attempt <= 2) {
+                throw failure.apply(attempt);
+            }
+            return "Succeeded";
+        }).execute();
+    }
+}
@@ -0,0 +1,47 @@
+package dev.stockman.retry.spring7;
+
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayNameGeneration(CamelCaseToSentences.class)
+class RetryRuntimeHintsTest {
+
+    @Test
+    void testClassNamesRegistered() {
+        var hints = new RuntimeHints();
+
+        new RetryRuntimeHints(List.of("java.io.IOException", " java.lang.IllegalArgumentException")).registerHints(hints, getClass().getClassLoader());
+
+        assertTrue(RuntimeHintsPredicates.reflection().onType(IOException.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(IllegalArgumentException.class).test(hints));
+    }
+
+    @Test
+    void testPatternsSkipped() {
+        var hints = new RuntimeHints();
+
+        new RetryRuntimeHints(List.of("java.io.*", "java.**", "")).registerHints(hints, getClass().getClassLoader());
+
+        assertEquals(0, hints.reflection().typeHints().count());
+    }
+
+    @Test
+    void testInvalidClassName() {
+        var hints = new RuntimeHints();
+        var registrar = new RetryRuntimeHints(List.of("java.InvalidExceptionClass"));
+
+        Exception exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> registrar.registerHints(hints, getClass().getClassLoader())
+        );
+
+        assertTrue(exception.getMessage().contains("java.InvalidExceptionClass"));
+    }
+}
@@ -0,0 +1,84 @@
+package dev.stockman.retry.spring7;
+
+import dev.stockman.retry.Retry;
+import dev.stockman.retry.test.VirtualClock;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.retry.RetryTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@DisplayNameGeneration(CamelCaseToSentences.class)
+@SpringJUnitConfig(classes = {RetryConfiguration.class, RetryTestConfiguration.class})
+@TestPropertySource(properties = {
+        "retry.jitter=10"
+})
+public class VirtualClockBackOffTest {
+
+    @Autowired
+    private RetryTemplate retryTemplate;
+
+    @Autowired
+    private VirtualClock clock;
+
+    private Retry retry;
+
+    @BeforeEach
+    void setup() {
+        retry = new SpringRetryTemplateAdapter(retryTemplate);
+        clock.clearSleeps();
+    }
+
+    @Test
+    void testBackOffsAreRecordedInsteadOfSlept() {
+        var start = clock.instant();
+        Assertions.assertThrows(RuntimeException.class, () -> retry.anonymous().call(() -> {
+            throw new RuntimeException("Test exception");
+        }).execute());
+
+        var sleeps = clock.sleeps();
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(2, sleeps.size()),
+                () -> assertBetween(40, 60, sleeps.get(0)),
+                () -> assertBetween(80, 120, sleeps.get(1)),
+                () -> Assertions.assertEquals(start.plus(clock.slept()), clock.instant())
+        );
+    }
+
+    @Test
+    void testNonRetryableExceptionDoesNotBackOff() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> retry.anonymous().call(() -> {
+            throw new IllegalArgumentException("Test exception");
+        }).execute());
+
+        Assertions.assertEquals(List.of(), clock.sleeps());
+    }
+
+    @Test
+    void testSuccessAfterRetryBacksOffOnce() throws Throwable {
+        var calls = new AtomicInteger();
+        var result = retry.anonymous().call(() -> {
+            if (calls.incrementAndGet() == 1) {
+                throw new RuntimeException("Test exception");
+            }
+            return "Succeeded";
+        }).execute();
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals("Succeeded", result),
+                () -> Assertions.assertEquals(1, clock.sleeps().size()),
+                () -> assertBetween(40, 60, clock.sleeps().getFirst())
+        );
+    }
+
+    private static void assertBetween(long minMillis, long maxMillis, Duration actual) {
+        Assertions.assertTrue(actual.toMillis() >= minMillis && actual.toMillis() <= maxMillis, () -> "Unexpected backoff " + actual);
+    }
+}
@@ -0,0 +1,253 @@
+package dev.stockman.retry.test;
+
+import dev.stockman.retry.Sleeper;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Wraps the actions passed to {@code RetrySpec.call} and {@code RetrySpec.run} to simulate a misbehaving downstream.
+ * Every wrapped call first waits for a latency drawn from a {@link LatencyDistribution}, then fails with the
+ * configured probability, throwing one of the configured exception types, and otherwise runs the action.
+ * During an outage window every call fails, which simulates the correlated failures of an incident.
+ * <p>
+ * The randomness of a call depends only on the seed and on the number of calls before it, so a single-threaded run
+ * is reproducible. Latencies are waited through a {@link Sleeper} and outage windows are measured on a
+ * {@link Clock}; pass a {@link VirtualClock} as both to simulate without waiting.
+ * <pre>
+ * FaultInjector faults = FaultInjector.builder()
+ *         .failureRate(0.05)
+ *         .failWith(3, () -> new ServiceUnavailableException())
+ *         .failWith(1, () -> new SocketTimeoutException())
+ *         .latency(LatencyDistribution.logNormal(Duration.ofMillis(5), Duration.ofMillis(80)))
+ *         .outage(Duration.ofSeconds(10), Duration.ofSeconds(5))
+ *         .build();
+ * retry.named("fetch").call(faults.wrapCall(client::fetch)).execute();
+ * </pre>
+ */
+public class FaultInjector {
+
+    private final long seed;
+    private final double failureRate;
+    private final List<Fault> faults;
+    private final double totalWeight;
+    private final LatencyDistribution latency;
+    private final List<Window> outages;
+    private final Supplier<? extends RuntimeException> outageFault;
+    private final Clock clock;
+    private final Sleeper sleeper;
+    private final Instant start;
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    private FaultInjector(Builder builder) {
+        this.seed = builder.seed;
+        this.failureRate = builder.failureRate;
+        this.faults = builder.faults.isEmpty()
+                ? List.of(new Fault(1, () -> new InjectedFaultException("Injected failure")))
+                : List.copyOf(builder.faults);
+        this.totalWeight = faults.stream().mapToDouble(Fault::weight).sum();
+        this.latency = builder.latency;
+        this.outages = List.copyOf(builder.outages);
+        this.outageFault = builder.outageFault;
+        this.clock = builder.clock;
+        this.sleeper = builder.sleeper;
+        this.start = clock.instant();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns an action for {@code call} that injects faults before running the given one.
+     */
+    public <R> Supplier<R> wrapCall(Supplier<R> action) {
+        return () -> {
+            inject();
+            return action.get();
+        };
+    }
+
+    /**
+     * Returns an action for {@code run} that injects faults before running the given one.
+     */
+    public Runnable wrapRun(Runnable action) {
+        return () -> {
+            inject();
+            action.run();
+        };
+    }
+
+    /**
+     * Returns the number of wrapped calls so far, i.e. the load that reached the simulated downstream.
+     */
+    public long calls() {
+        return calls.get();
+    }
+
+    /**
+     * Returns the number of wrapped calls that failed with an injected fault.
+     */
+    public long failures() {
+        return failures.get();
+    }
+
+    /**
+     * Returns true if the clock is inside one of the outage windows.
+     */
+    public boolean inOutage() {
+        Duration elapsed = Duration.between(start, clock.instant());
+        for (Window outage : outages) {
+            if (outage.contains(elapsed)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void inject() {
+        SplittableRandom random = new SplittableRandom(seed + calls.getAndIncrement() * 0x9E3779B97F4A7C15L);
+        long delay = latency.sampleMillis(random);
+        if (delay > 0) {
+            try {
+                sleeper.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failures.incrementAndGet();
+                throw new InjectedFaultException("Interrupted during injected latency");
+            }
+        }
+        if (inOutage()) {
+            failures.incrementAndGet();
+            throw outageFault.get();
+        }
+        if (random.nextDouble() < failureRate) {
+            failures.incrementAndGet();
+            throw pick(random.nextDouble() * totalWeight).get();
+        }
+    }
+
+    private Supplier<? extends RuntimeException> pick(double point) {
+        for (Fault fault : faults) {
+            point -= fault.weight();
+            if (point < 0) {
+                return fault.exception();
+            }
+        }
+        return faults.getLast().exception();
+    }
+
+    private record Fault(double weight, Supplier<? extends RuntimeException> exception) {
+    }
+
+    /**
+     * An outage from {@code from} to {@code from + length} after the injector was built.
+     */
+    private record Window(Duration from, Duration length) {
+        boolean contains(Duration elapsed) {
+            return elapsed.compareTo(from) >= 0 && elapsed.compareTo(from.plus(length)) < 0;
+        }
+    }
+
+    public static final class Builder {
+        private long seed = 42;
+        private double failureRate;
+        private final List<Fault> faults = new ArrayList<>();
+        private LatencyDistribution latency = LatencyDistribution.none();
+        private final List<Window> outages = new ArrayList<>();
+        private Supplier<? extends RuntimeException> outageFault = () -> new InjectedFaultException("Injected outage");
+        private Clock clock = Clock.systemUTC();
+        private Sleeper sleeper = Sleeper.system();
+
+        private Builder() {
+        }
+
+        /**
+         * Seeds the randomness of the calls. Default 42.
+         */
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        /**
+         * Sets the probability, from 0 to 1, that a call outside an outage fails. Default 0.
+         */
+        public Builder failureRate(double failureRate) {
+            if (failureRate < 0 || failureRate > 1) {
+                throw new IllegalArgumentException("Failure rate " + failureRate + " is not between 0 and 1");
+            }
+            this.failureRate = failureRate;
+            return this;
+        }
+
+        /**
+         * Adds an exception type to fail with. Each failure picks one type at random, in proportion to the weights.
+         * Without any type, failures throw {@link InjectedFaultException}.
+         */
+        public Builder failWith(double weight, Supplier<? extends RuntimeException> exception) {
+            if (weight <= 0) {
+                throw new IllegalArgumentException("Weight must be positive");
+            }
+            faults.add(new Fault(weight, exception));
+            return this;
+        }
+
+        /**
+         * Sets the latency of every call, including failing calls. Default none.
+         */
+        public Builder latency(LatencyDistribution latency) {
+            this.latency = latency;
+            return this;
+        }
+
+        /**
+         * Adds an outage window during which every call fails.
+         *
+         * @param after  When the outage starts, measured from {@link #build()}.
+         * @param length How long the outage lasts.
+         */
+        public Builder outage(Duration after, Duration length) {
+            if (after.isNegative() || length.isNegative()) {
+                throw new IllegalArgumentException("Negative outage window");
+            }
+            outages.add(new Window(after, length));
+            return this;
+        }
+
+        /**
+         * Sets the exception thrown during outages. Default {@link InjectedFaultException}.
+         */
+        public Builder outageFault(Supplier<? extends RuntimeException> exception) {
+            this.outageFault = exception;
+            return this;
+        }
+
+        /**
+         * Sets the clock the outage windows are measured on. Default the system clock.
+         */
+        public Builder clock(Clock clock) {
+            this.clock = clock;
+            return this;
+        }
+
+        /**
+         * Sets how injected latencies are waited. Default {@link Sleeper#system()}.
+         */
+        public Builder sleeper(Sleeper sleeper) {
+            this.sleeper = sleeper;
+            return this;
+        }
+
+        public FaultInjector build() {
+            return new FaultInjector(this);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package dev.stockman.retry.test;
+
+/**
+ * The default failure thrown by a {@link FaultInjector}.
+ */
+public class InjectedFaultException extends RuntimeException {
+
+    public InjectedFaultException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -0,0 +1,75 @@
+package dev.stockman.retry.test;
+
+import java.time.Duration;
+import java.util.random.RandomGenerator;
+
+/**
+ * Distribution of the latency injected by a {@link FaultInjector}, in milliseconds.
+ */
+@FunctionalInterface
+public interface LatencyDistribution {
+
+    /**
+     * Draws a latency.
+     *
+     * @param random The source of randomness, seeded per call by the injector.
+     * @return The latency in milliseconds, not negative.
+     */
+    long sampleMillis(RandomGenerator random);
+
+    /**
+     * No latency.
+     */
+    static LatencyDistribution none() {
+        return _ -> 0;
+    }
+
+    /**
+     * The same latency for every call.
+     */
+    static LatencyDistribution fixed(Duration latency) {
+        long millis = requireNotNegative(latency);
+        return _ -> millis;
+    }
+
+    /**
+     * Latencies spread evenly between the bounds, both inclusive.
+     */
+    static LatencyDistribution uniform(Duration min, Duration max) {
+        long from = requireNotNegative(min);
+        long to = requireNotNegative(max);
+        if (to < from) {
+            throw new IllegalArgumentException("Maximum latency " + max + " is below minimum " + min);
+        }
+        return random -> random.nextLong(from, to + 1);
+    }
+
+    /**
+     * Exponentially distributed latencies, as for the service times of a busy server.
+     */
+    static LatencyDistribution exponential(Duration mean) {
+        double millis = requireNotNegative(mean);
+        return random -> Math.round(random.nextExponential() * millis);
+    }
+
+    /**
+     * Log-normally distributed latencies with the given median and 99th percentile: most calls are fast, a few are
+     * much slower. This is the usual shape of remote call latencies.
+     */
+    static LatencyDistribution logNormal(Duration median, Duration p99) {
+        long medianMillis = requireNotNegative(median);
+        if (medianMillis == 0 || p99.compareTo(median) < 0) {
+            throw new IllegalArgumentException("Invalid latency median " + median + " and p99 " + p99);
+        }
+        double mu = Math.log(medianMillis);
+        double sigma = Math.log((double) p99.toMillis() / medianMillis) / 2.3263478740408408;
+        return random -> Math.round(Math.exp(mu + sigma * random.nextGaussian()));
+    }
+
+    private static long requireNotNegative(Duration duration) {
+        if (duration.isNegative()) {
+            throw new IllegalArgumentException("Negative latency " + duration);
+        }
+        return duration.toMillis();
+    }
+}
@@ -0,0 +1,106 @@
+package dev.stockman.retry.test;
+
+import dev.stockman.retry.Retry;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Drives a fixed number of operations through a retry strategy against a {@link FaultInjector} and reports
+ * throughput, attempt amplification and latency percentiles. Use it to see, before a configuration change reaches
+ * production, how a retry strategy loads a failing downstream:
+ * <pre>
+ * LoadDriver driver = new LoadDriver(32, 20_000);
+ * driver.compare(Map.of(
+ *                 "current", current.named("fetch"),
+ *                 "proposed", proposed.named("fetch")),
+ *         () -> FaultInjector.builder().failureRate(0.02).outage(Duration.ofSeconds(2), Duration.ofSeconds(1)).build(),
+ *         () -> "ok")
+ *     .forEach(System.out::println);
+ * </pre>
+ * The load is closed: a fixed number of callers each start the next operation when the previous one completed.
+ * Latencies are measured in real time, so use {@link dev.stockman.retry.Sleeper#system()} (the default) for the
+ * injected latencies and scaled-down backoffs for short runs.
+ */
+public class LoadDriver {
+
+    private final int concurrency;
+    private final int operations;
+
+    /**
+     * @param concurrency The number of concurrent callers.
+     * @param operations  The number of operations per run.
+     */
+    public LoadDriver(int concurrency, int operations) {
+        if (concurrency <= 0 || operations <= 0) {
+            throw new IllegalArgumentException("Concurrency and operations must be positive");
+        }
+        this.concurrency = concurrency;
+        this.operations = operations;
+    }
+
+    /**
+     * Runs every strategy against a fresh fault injector, one after the other.
+     *
+     * @param strategies The retry strategies by name, reported in iteration order.
+     * @param faults     Creates the fault injector of a run. Outage windows start when it is built.
+     * @param action     The downstream call.
+     * @return The reports, in the order of the strategies.
+     */
+    public List<LoadReport> compare(Map<String, Retry.RetrySpec> strategies, Supplier<FaultInjector> faults, Supplier<?> action) {
+        List<LoadReport> reports = new ArrayList<>();
+        strategies.forEach((strategy, retry) -> reports.add(run(strategy, retry, faults.get(), action)));
+        return reports;
+    }
+
+    /**
+     * Runs the operations through one retry strategy.
+     *
+     * @param strategy The name reported for the strategy.
+     * @param retry    The retry specification every operation is executed with.
+     * @param faults   The fault injector wrapping the downstream call. Should not have been used before.
+     * @param action   The downstream call.
+     */
+    public LoadReport run(String strategy, Retry.RetrySpec retry, FaultInjector faults, Supplier<?> action) {
+        long[] latencies = new long[operations];
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        long attemptsBefore = faults.calls();
+        Supplier<?> call = faults.wrapCall(action);
+        long started = System.nanoTime();
+        try (ExecutorService callers = Executors.newFixedThreadPool(concurrency)) {
+            for (int i = 0; i < concurrency; i++) {
+                callers.execute(() -> {
+                    for (int operation = next.getAndIncrement(); operation < operations; operation = next.getAndIncrement()) {
+                        long start = System.nanoTime();
+                        try {
+                            retry.call(call).execute();
+                        } catch (Throwable e) {
+                            failed.incrementAndGet();
+                        }
+                        latencies[operation] = System.nanoTime() - start;
+                    }
+                });
+            }
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - started);
+        Arrays.sort(latencies);
+        return new LoadReport(strategy, operations, failed.get(), faults.calls() - attemptsBefore, elapsed,
+                percentile(latencies, 0.5), percentile(latencies, 0.99), percentile(latencies, 0.999));
+    }
+
+    /**
+     * Returns the nearest-rank percentile of sorted latencies.
+     */
+    static Duration percentile(long[] sorted, double quantile) {
+        int rank = (int) Math.ceil(quantile * sorted.length);
+        return Duration.ofNanos(sorted[Math.max(rank - 1, 0)]);
+    }
+}
@@ -0,0 +1,61 @@
+package dev.stockman.retry.test;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * The outcome of one {@link LoadDriver} run.
+ *
+ * @param strategy   The name of the retry strategy.
+ * @param operations The number of operations started by callers.
+ * @param failed     The number of operations that failed after all retries.
+ * @param attempts   The number of calls that reached the downstream, retries included.
+ * @param elapsed    The wall-clock time of the run.
+ * @param p50        The median latency of an operation, retries and backoffs included.
+ * @param p99        The 99th percentile latency.
+ * @param p999       The 99.9th percentile latency.
+ */
+public record LoadReport(String strategy, int operations, int failed, long attempts, Duration elapsed,
+                         Duration p50, Duration p99, Duration p999) {
+
+    /**
+     * Returns the completed operations per second.
+     */
+    public double throughput() {
+        return operations / seconds();
+    }
+
+    /**
+     * Returns the downstream calls per operation. 1 means no retries; during an incident this is the factor by which
+     * retries multiply the load on the failing downstream.
+     */
+    public double amplification() {
+        return operations == 0 ? 0 : (double) attempts / operations;
+    }
+
+    /**
+     * Returns the downstream calls per second.
+     */
+    public double attemptRate() {
+        return attempts / seconds();
+    }
+
+    /**
+     * Returns the share of operations that failed after all retries, from 0 to 1.
+     */
+    public double failureRate() {
+        return operations == 0 ? 0 : (double) failed / operations;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT,
+                "%s: %d ops in %d ms, %.1f ops/s, %.2f%% failed, amplification %.2f (%.1f calls/s), p50 %d ms, p99 %d ms, p999 %d ms",
+                strategy, operations, elapsed.toMillis(), throughput(), failureRate() * 100, amplification(), attemptRate(),
+                p50.toMillis(), p99.toMillis(), p999.toMillis());
+    }
+
+    private double seconds() {
+        return Math.max(elapsed.toNanos(), 1) / 1e9;
+    }
+}
@@ -0,0 +1,357 @@
+package dev.stockman.retry.test;
+
+import dev.stockman.retry.Sleeper;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deterministic clock for tests. Time only moves when a retry backs off through {@link #sleep(long)} or when the test
+ * calls {@link #advance(Duration)}; a backoff returns immediately and is recorded, so retry-heavy suites do not wait
+ * and can assert the exact delays that were requested.
+ * <p>
+ * Register it as the {@link Sleeper} of an adapter, pass it wherever a {@link Clock} is expected, and pass its
+ * {@link #scheduler()} wherever a {@link ScheduledExecutorService} is expected.
+ * Clocks derived with {@link #withZone(ZoneId)} share the time, the recorded delays and the scheduler.
+ */
+public class VirtualClock extends Clock implements Sleeper {
+
+    private final Timeline timeline;
+    private final ZoneId zone;
+
+    /**
+     * Starts at 2026-01-01T00:00:00Z.
+     */
+    public VirtualClock() {
+        this(Instant.parse("2026-01-01T00:00:00Z"));
+    }
+
+    public VirtualClock(Instant start) {
+        this(new Timeline(start), ZoneOffset.UTC);
+    }
+
+    private VirtualClock(Timeline timeline, ZoneId zone) {
+        this.timeline = timeline;
+        this.zone = zone;
+    }
+
+    /**
+     * Records the backoff and moves the time forward by it, without waiting.
+     *
+     * @throws InterruptedException If the thread is interrupted, like a real sleep.
+     */
+    @Override
+    public void sleep(long millis) throws InterruptedException {
+        if (millis < 0) {
+            throw new IllegalArgumentException("Negative backoff " + millis);
+        }
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+        timeline.sleep(Duration.ofMillis(millis));
+    }
+
+    /**
+     * Moves the time forward without recording a backoff, and runs the scheduled tasks that became due.
+     */
+    public void advance(Duration duration) {
+        timeline.advance(duration);
+    }
+
+    /**
+     * Returns an executor that runs its tasks on the virtual time, without threads of its own. Executed and submitted
+     * tasks run right away on the calling thread. Scheduled tasks run as soon as the time reaches them, on the thread
+     * that moves the time through {@link #sleep(long)} or {@link #advance(Duration)}: the time stops at every task
+     * that becomes due, so a task sees its own due time and the tasks it schedules run within the same move.
+     * Periodic tasks run once per period that passed. The delays are not recorded as backoffs.
+     * <p>
+     * After a shutdown, tasks that were already scheduled still run, but periodic tasks stop.
+     */
+    public ScheduledExecutorService scheduler() {
+        return timeline.scheduler;
+    }
+
+    /**
+     * Returns the backoffs requested so far, in order.
+     */
+    public List<Duration> sleeps() {
+        return timeline.sleeps();
+    }
+
+    /**
+     * Returns the sum of the backoffs requested so far.
+     */
+    public Duration slept() {
+        return sleeps().stream().reduce(Duration.ZERO, Duration::plus);
+    }
+
+    /**
+     * Forgets the recorded backoffs. The time is not reset.
+     */
+    public void clearSleeps() {
+        timeline.clearSleeps();
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+        return Objects.equals(this.zone, zone) ? this : new VirtualClock(timeline, zone);
+    }
+
+    @Override
+    public Instant instant() {
+        return timeline.now();
+    }
+
+    /**
+     * The time, recorded backoffs and scheduled tasks, shared by all zone views of a clock.
+     */
+    private static final class Timeline {
+        private final List<Duration> sleeps = new ArrayList<>();
+        private final PriorityQueue<Task<?>> tasks = new PriorityQueue<>();
+        private final Scheduler scheduler = new Scheduler(this);
+        private Instant now;
+        private Instant end;
+        private long sequence;
+        private boolean shutdown;
+
+        Timeline(Instant start) {
+            this.now = start;
+            this.end = start;
+        }
+
+        synchronized Instant now() {
+            return now;
+        }
+
+        void advance(Duration duration) {
+            synchronized (this) {
+                end = end.plus(duration);
+            }
+            runDue();
+        }
+
+        void sleep(Duration duration) {
+            synchronized (this) {
+                sleeps.add(duration);
+                end = end.plus(duration);
+            }
+            runDue();
+        }
+
+        synchronized List<Duration> sleeps() {
+            return List.copyOf(sleeps);
+        }
+
+        synchronized void clearSleeps() {
+            sleeps.clear();
+        }
+
+        synchronized void schedule(Task<?> task) {
+            if (shutdown) {
+                throw new RejectedExecutionException("Scheduler is shut down");
+            }
+            task.sequence = sequence++;
+            tasks.add(task);
+        }
+
+        synchronized void reschedule(Task<?> task) {
+            if (!shutdown) {
+                tasks.add(task);
+            }
+        }
+
+        synchronized void remove(Task<?> task) {
+            tasks.remove(task);
+        }
+
+        /**
+         * Moves the time to the end of the requested moves, stopping at every task that is due on the way. Concurrent
+         * moves add up. The tasks run outside the lock, so that they can read the time and schedule more tasks.
+         */
+        void runDue() {
+            while (true) {
+                Task<?> task;
+                synchronized (this) {
+                    task = tasks.peek();
+                    if (task == null || task.due.isAfter(end)) {
+                        now = end;
+                        return;
+                    }
+                    tasks.poll();
+                    if (task.due.isAfter(now)) {
+                        now = task.due;
+                    }
+                }
+                task.run();
+            }
+        }
+
+        synchronized void shutdown() {
+            shutdown = true;
+        }
+
+        synchronized List<Runnable> shutdownNow() {
+            shutdown = true;
+            List<Runnable> pending = new ArrayList<>(tasks);
+            tasks.clear();
+            return pending;
+        }
+
+        synchronized boolean isShutdown() {
+            return shutdown;
+        }
+
+        synchronized boolean isTerminated() {
+            return shutdown && tasks.isEmpty();
+        }
+    }
+
+    private static final class Scheduler extends AbstractExecutorService implements ScheduledExecutorService {
+        private final Timeline timeline;
+
+        Scheduler(Timeline timeline) {
+            this.timeline = timeline;
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            Objects.requireNonNull(command);
+            if (timeline.isShutdown()) {
+                throw new RejectedExecutionException("Scheduler is shut down");
+            }
+            command.run();
+        }
+
+        @Override
+        public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+            return schedule(Executors.callable(command), delay, unit);
+        }
+
+        @Override
+        public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
+            return schedule(new Task<>(timeline, callable, due(delay, unit), Duration.ZERO));
+        }
+
+        @Override
+        public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit) {
+            if (period <= 0) {
+                throw new IllegalArgumentException("Period must be positive");
+            }
+            return schedule(new Task<>(timeline, Executors.callable(command), due(initialDelay, unit), Duration.of(period, unit.toChronoUnit())));
+        }
+
+        /**
+         * Same as {@link #scheduleAtFixedRate}: the tasks take no virtual time.
+         */
+        @Override
+        public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay, TimeUnit unit) {
+            return scheduleAtFixedRate(command, initialDelay, delay, unit);
+        }
+
+        private Instant due(long delay, TimeUnit unit) {
+            return timeline.now().plus(Duration.of(Math.max(delay, 0), unit.toChronoUnit()));
+        }
+
+        private <V> ScheduledFuture<V> schedule(Task<V> task) {
+            timeline.schedule(task);
+            timeline.runDue();
+            return task;
+        }
+
+        @Override
+        public void shutdown() {
+            timeline.shutdown();
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return timeline.shutdownNow();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return timeline.isShutdown();
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return timeline.isTerminated();
+        }
+
+        /**
+         * Returns right away: the tasks only run when the time moves.
+         */
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+            return isTerminated();
+        }
+    }
+
+    private static final class Task<V> extends FutureTask<V> implements ScheduledFuture<V> {
+        private final Timeline timeline;
+        private final Duration period;
+        private Instant due;
+        private long sequence;
+
+        Task(Timeline timeline, Callable<V> callable, Instant due, Duration period) {
+            super(callable);
+            this.timeline = timeline;
+            this.due = due;
+            this.period = period;
+        }
+
+        @Override
+        public void run() {
+            if (period.isZero()) {
+                super.run();
+            } else if (runAndReset()) {
+                due = due.plus(period);
+                timeline.reschedule(this);
+            }
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            if (cancelled) {
+                timeline.remove(this);
+            }
+            return cancelled;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(Duration.between(timeline.now(), due));
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            if (other instanceof Task<?> task) {
+                int byDue = due.compareTo(task.due);
+                return byDue != 0 ? byDue : Long.compare(sequence, task.sequence);
+            }
+            return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package dev.stockman.retry.test;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+@DisplayNameGeneration(CamelCaseToSentences.class)
+public class FaultInjectorTest {
+
+    private final VirtualClock clock = new VirtualClock();
+
+    @Test
+    void testNoFaultsByDefault() {
+        var faults = FaultInjector.builder().clock(clock).sleeper(clock).build();
+        var ran = new AtomicInteger();
+
+        for (int i = 0; i < 100; i++) {
+            faults.wrapCall(ran::incrementAndGet).get();
+        }
+
+        Assertions.assertEquals(100, ran.get());
+        Assertions.assertEquals(100, faults.calls());
+        Assertions.assertEquals(0, faults.failures());
+    }
+
+    @Test
+    void testRunActionsWrapped() {
+        var faults = FaultInjector.builder().clock(clock).sleeper(clock).build();
+        var ran = new AtomicInteger();
+
+        faults.wrapRun(ran::incrementAndGet).run();
+
+        Assertions.assertEquals(1, ran.get());
+        Assertions.assertEquals(1, faults.calls());
+    }
+
+    @Test
+    void testFailureRate() {
+        var faults = FaultInjector.builder().failureRate(0.2).clock(clock).sleeper(clock).build();
+
+        int failed = failures(faults.wrapCall(() -> "ok"), 10_000).size();
+
+        Assertions.assertEquals(failed, faults.failures());
+        Assertions.assertTrue(failed > 1_800 && failed < 2_200, () -> failed + " failures");
+    }
+
+    @Test
+    void testExceptionTypesByWeight() {
+        var faults = FaultInjector.builder()
+                .failureRate(1)
+                .failWith(3, () -> new IllegalStateException("Unavailable"))
+                .failWith(1, () -> new UnsupportedOperationException("Timeout"))
+                .clock(clock).sleeper(clock)
+                .build();
+
+        var errors = failures(faults.wrapCall(() -> "ok"), 4_000);
+
+        long unavailable = errors.stream().filter(IllegalStateException.class::isInstance).count();
+        long timeouts = errors.stream().filter(UnsupportedOperationException.class::isInstance).count();
+        Assertions.assertEquals(4_000, unavailable + timeouts);
+        Assertions.assertTrue(unavailable > 2_800 && unavailable < 3_200, () -> unavailable + " unavailable");
+    }
+
+    @Test
+    void testSameSeedSameFailures() {
+        Supplier<FaultInjector> faults = () -> FaultInjector.builder().seed(7).failureRate(0.5).clock(clock).sleeper(clock).build();
+
+        var first = faults.get().wrapCall(() -> "ok");
+        var second = faults.get().wrapCall(() -> "ok");
+
+        for (int i = 0; i < 200; i++) {
+            Assertions.assertEquals(succeeds(first), succeeds(second));
+        }
+    }
+
+    @Test
+    void testLatencyIsSlept() {
+        var faults = FaultInjector.builder()
+                .latency(LatencyDistribution.uniform(Duration.ofMillis(10), Duration.ofMillis(20)))
+                .clock(clock).sleeper(clock)
+                .build();
+
+        for (int i = 0; i < 50; i++) {
+            faults.wrapCall(() -> "ok").get();
+        }
+
+        Assertions.assertEquals(50, clock.sleeps().size());
+        Assertions.assertTrue(clock.sleeps().stream().allMatch(d -> d.toMillis() >= 10 && d.toMillis() <= 20));
+    }
+
+    @Test
+    void testLogNormalLatencyPercentiles() {
+        var latency = LatencyDistribution.logNormal(Duration.ofMillis(10), Duration.ofMillis(100));
+        var random = new SplittableRandom(1);
+        long[] samples = new long[100_000];
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = latency.sampleMillis(random);
+        }
+        Arrays.sort(samples);
+
+        Assertions.assertTrue(Math.abs(samples[50_000] - 10) <= 1, () -> "median " + samples[50_000]);
+        Assertions.assertTrue(Math.abs(samples[99_000] - 100) <= 10, () -> "p99 " + samples[99_000]);
+    }
+
+    @Test
+    void testOutageWindowFailsEveryCall() {
+        var faults = FaultInjector.builder()
+                .outage(Duration.ofSeconds(10), Duration.ofSeconds(5))
+                .outageFault(() -> new IllegalStateException("Outage"))
+                .clock(clock).sleeper(clock)
+                .build();
+        var call = faults.wrapCall(() -> "ok");
+
+        Assertions.assertEquals("ok", call.get());
+        clock.advance(Duration.ofSeconds(10));
+        Assertions.assertTrue(faults.inOutage());
+        Assertions.assertThrows(IllegalStateException.class, call::get);
+        clock.advance(Duration.ofSeconds(5));
+        Assertions.assertFalse(faults.inOutage());
+        Assertions.assertEquals("ok", call.get());
+        Assertions.assertEquals(1, faults.failures());
+    }
+
+    @Test
+    void testRetriesMultiplyCallsDuringOutage() {
+        var faults = FaultInjector.builder().outage(Duration.ZERO, Duration.ofMinutes(1)).clock(clock).sleeper(clock).build();
+        var retry = new FixedAttemptsRetry(3);
+
+        String result = retry.call(faults.wrapCall(() -> "ok")).fallback(_ -> "fallback");
+
+        Assertions.assertEquals("fallback", result);
+        Assertions.assertEquals(3, faults.calls());
+    }
+
+    private static List<RuntimeException> failures(Supplier<?> call, int calls) {
+        List<RuntimeException> errors = new ArrayList<>();
+        for (int i = 0; i < calls; i++) {
+            try {
+                call.get();
+            } catch (RuntimeException e) {
+                errors.add(e);
+            }
+        }
+        return errors;
+    }
+
+    private static boolean succeeds(Supplier<?> call) {
+        try {
+            call.get();
+            return true;
+        } catch (InjectedFaultException e) {
+            return false;
+        }
+    }
+}
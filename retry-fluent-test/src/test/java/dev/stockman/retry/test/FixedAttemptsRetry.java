@@ -0,0 +1,92 @@
+package dev.stockman.retry.test;
+
+import dev.stockman.retry.ResultCondition;
+import dev.stockman.retry.Retry;
+
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Minimal retry specification for the tests: retries every {@link RuntimeException} without backoff.
+ */
+class FixedAttemptsRetry implements Retry.RetrySpec {
+
+    private final int maxAttempts;
+
+    FixedAttemptsRetry(int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+    }
+
+    @Override
+    public <R> Retry.CallSpec<R> call(Supplier<R> action) {
+        return call(action, null);
+    }
+
+    /**
+     * Returns a call that also retries results matching the condition, if any, and returns the last one once the
+     * attempts are used up.
+     */
+    private <R> Retry.CallSpec<R> call(Supplier<R> action, Predicate<? super R> condition) {
+        return new Retry.CallSpec<>() {
+            @Override
+            public R execute() {
+                RuntimeException last = null;
+                R rejected = null;
+                for (int attempt = 0; attempt < maxAttempts; attempt++) {
+                    try {
+                        R result = action.get();
+                        if (condition == null || !condition.test(result)) {
+                            return result;
+                        }
+                        rejected = result;
+                        last = null;
+                    } catch (RuntimeException e) {
+                        last = e;
+                    }
+                }
+                if (last == null) {
+                    return rejected;
+                }
+                throw last;
+            }
+
+            @Override
+            public R fallback(Function<Throwable, R> fallback) {
+                try {
+                    return execute();
+                } catch (RuntimeException e) {
+                    return fallback.apply(e);
+                }
+            }
+
+            @Override
+            public Retry.CallSpec<R> retryIf(Predicate<? super R> next) {
+                return call(action, ResultCondition.or(condition, next));
+            }
+        };
+    }
+
+    @Override
+    public Retry.RunSpec run(Runnable action) {
+        Retry.CallSpec<Object> spec = call(() -> {
+            action.run();
+            return null;
+        });
+        return new Retry.RunSpec() {
+            @Override
+            public void execute() throws Throwable {
+                spec.execute();
+            }
+
+            @Override
+            public void fallback(Consumer<Throwable> fallback) {
+                spec.fallback(e -> {
+                    fallback.accept(e);
+                    return null;
+                });
+            }
+        };
+    }
+}
@@ -0,0 +1,76 @@
+package dev.stockman.retry.test;
+
+import dev.stockman.retry.Retry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@DisplayNameGeneration(CamelCaseToSentences.class)
+public class LoadDriverTest {
+
+    private final LoadDriver driver = new LoadDriver(4, 2_000);
+
+    @Test
+    void testNoFaultsNoAmplification() {
+        var report = driver.run("single", new FixedAttemptsRetry(3), FaultInjector.builder().build(), () -> "ok");
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(2_000, report.operations()),
+                () -> Assertions.assertEquals(0, report.failed()),
+                () -> Assertions.assertEquals(2_000, report.attempts()),
+                () -> Assertions.assertEquals(1.0, report.amplification()),
+                () -> Assertions.assertTrue(report.throughput() > 0)
+        );
+    }
+
+    @Test
+    void testAmplificationPerStrategy() {
+        Map<String, Retry.RetrySpec> strategies = new LinkedHashMap<>();
+        strategies.put("once", new FixedAttemptsRetry(1));
+        strategies.put("five", new FixedAttemptsRetry(5));
+
+        var reports = driver.compare(strategies, () -> FaultInjector.builder().failureRate(1).build(), () -> "ok");
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals("once", reports.get(0).strategy()),
+                () -> Assertions.assertEquals(1.0, reports.get(0).amplification()),
+                () -> Assertions.assertEquals("five", reports.get(1).strategy()),
+                () -> Assertions.assertEquals(5.0, reports.get(1).amplification()),
+                () -> Assertions.assertEquals(1.0, reports.get(1).failureRate())
+        );
+    }
+
+    @Test
+    void testRetriesHideFailuresAtTheCostOfLoad() {
+        var report = driver.run("three", new FixedAttemptsRetry(3), FaultInjector.builder().failureRate(0.3).build(), () -> "ok");
+
+        Assertions.assertTrue(report.failureRate() < 0.05, report::toString);
+        Assertions.assertTrue(report.amplification() > 1.3 && report.amplification() < 1.5, report::toString);
+    }
+
+    @Test
+    void testLatencyPercentiles() {
+        var report = new LoadDriver(8, 200).run("slow", new FixedAttemptsRetry(1),
+                FaultInjector.builder().latency(LatencyDistribution.fixed(Duration.ofMillis(5))).build(), () -> "ok");
+
+        Assertions.assertTrue(report.p50().toMillis() >= 5, report::toString);
+        Assertions.assertTrue(report.p50().compareTo(report.p99()) <= 0);
+        Assertions.assertTrue(report.p99().compareTo(report.p999()) <= 0);
+    }
+
+    @Test
+    void testNearestRankPercentile() {
+        long[] sorted = new long[1_000];
+        for (int i = 0; i < sorted.length; i++) {
+            sorted[i] = i + 1;
+        }
+
+        Assertions.assertEquals(Duration.ofNanos(500), LoadDriver.percentile(sorted, 0.5));
+        Assertions.assertEquals(Duration.ofNanos(990), LoadDriver.percentile(sorted, 0.99));
+        Assertions.assertEquals(Duration.ofNanos(999), LoadDriver.percentile(sorted, 0.999));
+    }
+}
@@ -0,0 +1,89 @@
+package dev.stockman.retry.test;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+@DisplayNameGeneration(CamelCaseToSentences.class)
+public class VirtualClockTest {
+
+    private static final Instant START = Instant.parse("2026-01-01T00:00:00Z");
+
+    private final VirtualClock clock = new VirtualClock(START);
+
+    @Test
+    void testSleepAdvancesTimeWithoutWaiting() throws InterruptedException {
+        long started = System.nanoTime();
+
+        clock.sleep(60_000);
+        clock.sleep(120_000);
+
+        Assertions.assertTrue(System.nanoTime() - started < Duration.ofSeconds(1).toNanos());
+        Assertions.assertEquals(START.plusSeconds(180), clock.instant());
+        Assertions.assertEquals(List.of(Duration.ofMinutes(1), Duration.ofMinutes(2)), clock.sleeps());
+        Assertions.assertEquals(Duration.ofMinutes(3), clock.slept());
+    }
+
+    @Test
+    void testAdvanceNotRecordedAsSleep() {
+        clock.advance(Duration.ofHours(1));
+
+        Assertions.assertEquals(START.plusSeconds(3600), clock.instant());
+        Assertions.assertTrue(clock.sleeps().isEmpty());
+    }
+
+    @Test
+    void testInterruptedSleep() {
+        Thread.currentThread().interrupt();
+
+        Assertions.assertThrows(InterruptedException.class, () -> clock.sleep(100));
+        Assertions.assertEquals(START, clock.instant());
+    }
+
+    @Test
+    void testZoneViewSharesTime() throws InterruptedException {
+        var view = clock.withZone(ZoneId.of("Europe/Berlin"));
+
+        clock.sleep(1_000);
+
+        Assertions.assertEquals(clock.instant(), view.instant());
+        Assertions.assertEquals(ZoneId.of("Europe/Berlin"), view.getZone());
+    }
+
+    @Test
+    void testScheduledTasksRunWhenTimeReachesThem() throws InterruptedException {
+        List<String> ran = new CopyOnWriteArrayList<>();
+        var scheduler = clock.scheduler();
+
+        scheduler.schedule(() -> ran.add("second"), 200, TimeUnit.MILLISECONDS);
+        scheduler.schedule(() -> ran.add("first"), 100, TimeUnit.MILLISECONDS);
+        scheduler.execute(() -> ran.add("now"));
+        clock.advance(Duration.ofMillis(99));
+
+        Assertions.assertEquals(List.of("now"), ran);
+
+        clock.sleep(101);
+
+        Assertions.assertEquals(List.of("now", "first", "second"), ran);
+    }
+
+    @Test
+    void testPeriodicTaskRunsOncePerPeriod() {
+        List<Instant> ran = new CopyOnWriteArrayList<>();
+
+        var task = clock.scheduler().scheduleAtFixedRate(() -> ran.add(clock.instant()), 0, 1, TimeUnit.SECONDS);
+        clock.advance(Duration.ofMillis(2_500));
+        task.cancel(false);
+        clock.advance(Duration.ofSeconds(10));
+
+        Assertions.assertEquals(3, ran.size());
+        Assertions.assertEquals(START, ran.getFirst());
+    }
+}
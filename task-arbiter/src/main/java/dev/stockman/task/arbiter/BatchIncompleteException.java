@@ -0,0 +1,45 @@
+package dev.stockman.task.arbiter;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Thrown by {@link TaskArbiter#runAll} after the claimed tasks ran, if some keys were never settled or some tasks
+ * failed. The cause is the failure that ended the claim rounds: the last {@link ClaimConflictException} if the retry
+ * policy was exhausted, or a non-retryable failure. The failures of the tasks are suppressed, in key order.
+ */
+public class BatchIncompleteException extends RuntimeException {
+
+    private final Map<?, ? extends TaskArbiter.TaskResult<?, ?>> results;
+    private final Set<?> unsettled;
+    private final Map<?, ? extends Throwable> failures;
+
+    public BatchIncompleteException(Map<?, ? extends TaskArbiter.TaskResult<?, ?>> results, Set<?> unsettled, Map<?, ? extends Throwable> failures, Throwable cause) {
+        super(unsettled.size() + " tasks were not claimed and " + failures.size() + " tasks failed", cause, true, false);
+        this.results = results;
+        this.unsettled = unsettled;
+        this.failures = failures;
+        failures.values().forEach(this::addSuppressed);
+    }
+
+    /**
+     * Returns the {@link TaskArbiter.TaskResult} of every key that was found done or whose task succeeded, in key order.
+     */
+    public Map<?, ? extends TaskArbiter.TaskResult<?, ?>> results() {
+        return results;
+    }
+
+    /**
+     * Returns the keys that were neither found done nor claimed. Their tasks did not run and may be submitted again.
+     */
+    public Set<?> unsettled() {
+        return unsettled;
+    }
+
+    /**
+     * Returns the failure of every claimed task that failed, in key order. These tasks are marked done in the store.
+     */
+    public Map<?, ? extends Throwable> failures() {
+        return failures;
+    }
+}
@@ -0,0 +1,17 @@
+package dev.stockman.task.arbiter;
+
+/**
+ * Thrown by {@link TaskArbiter#runAll} when some tasks of a batch could not be claimed in one round, and by the
+ * {@link TaskStateStore} mode of {@link TaskArbiter} when a compare-and-set lost against another claim.
+ * The exception must be retryable in the retry configuration so that the remaining tasks are claimed again.
+ */
+public class ClaimConflictException extends RuntimeException {
+
+    public ClaimConflictException(int unclaimed) {
+        super(unclaimed + " tasks could not be claimed", null, false, false);
+    }
+
+    public ClaimConflictException(Object key) {
+        super("Task " + key + " was changed by a concurrent claim", null, false, false);
+    }
+}
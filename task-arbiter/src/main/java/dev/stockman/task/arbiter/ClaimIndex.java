@@ -0,0 +1,38 @@
+package dev.stockman.task.arbiter;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * SPI for a time-ordered index of claimed tasks, so that the sweeper of a {@link ClaimSupervisor} finds stale claims
+ * by heartbeat instead of scanning all task states. The index may lag behind the state store; the sweeper checks
+ * every candidate against the store. Implementations must be safe for concurrent use.
+ *
+ * @param <K> The type of the task key.
+ */
+public interface ClaimIndex<K> {
+
+    /**
+     * Records the latest heartbeat of a claimed task.
+     *
+     * @param key       The task key.
+     * @param heartbeat The heartbeat of the claim.
+     */
+    void update(K key, Instant heartbeat);
+
+    /**
+     * Removes a task that is no longer claimed. Does nothing if the task is not indexed.
+     *
+     * @param key The task key.
+     */
+    void remove(K key);
+
+    /**
+     * Returns the claimed tasks with the oldest heartbeats before a cutoff.
+     *
+     * @param cutoff The heartbeat before which a claim is a candidate.
+     * @param limit  The maximum number of tasks to return.
+     * @return The task keys, oldest heartbeat first.
+     */
+    List<K> claimedBefore(Instant cutoff, int limit);
+}
@@ -0,0 +1,66 @@
+package dev.stockman.task.arbiter;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Task status managed by a {@link ClaimSupervisor}.
+ *
+ * @param phase     Where the task is in its life cycle.
+ * @param owner     The worker that claimed the task.
+ * @param heartbeat When the owner last confirmed that it is still working on the task.
+ */
+public record ClaimState(Phase phase, String owner, Instant heartbeat) {
+
+    public enum Phase {
+        /**
+         * The owner is executing the task. The claim is stale once its heartbeat is older than the stale timeout.
+         */
+        CLAIMED,
+        /**
+         * The task finished.
+         */
+        COMPLETED,
+        /**
+         * A stale claim was released by the sweeper; the task may be claimed again.
+         */
+        RELEASED
+    }
+
+    public static ClaimState claimed(String owner, Instant now) {
+        return new ClaimState(Phase.CLAIMED, owner, now);
+    }
+
+    /**
+     * Returns true if the task is claimed and the owner has not sent a heartbeat within the stale timeout.
+     */
+    public boolean isStale(Instant now, Duration staleAfter) {
+        return phase == Phase.CLAIMED && !now.isBefore(heartbeat.plus(staleAfter));
+    }
+
+    /**
+     * Returns true if the task may be claimed: it is unknown, released or its claim is stale.
+     */
+    static boolean isClaimable(ClaimState state, Instant now, Duration staleAfter) {
+        return state == null || state.phase() == Phase.RELEASED || state.isStale(now, staleAfter);
+    }
+
+    ClaimState withPhase(Phase phase, Instant now) {
+        return new ClaimState(phase, owner, now);
+    }
+
+    /**
+     * Encodes the state as text, for stores that keep statuses as text.
+     */
+    public String encode() {
+        return phase + "|" + heartbeat.toEpochMilli() + "|" + owner;
+    }
+
+    /**
+     * Decodes a state encoded with {@link #encode()}.
+     */
+    public static ClaimState decode(String text) {
+        String[] fields = text.split("\\|", 3);
+        return new ClaimState(Phase.valueOf(fields[0]), fields[2], Instant.ofEpochMilli(Long.parseLong(fields[1])));
+    }
+}
@@ -0,0 +1,235 @@
+package dev.stockman.task.arbiter;
+
+import dev.stockman.retry.Retry;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs tasks with recoverable claims. A task is first marked {@link ClaimState.Phase#CLAIMED} with the owner and a
+ * heartbeat, and {@link ClaimState.Phase#COMPLETED} only after it finished. While the task runs, a background
+ * heartbeat refreshes the claim. If the worker dies, the heartbeat stops and the claim goes stale: the next
+ * {@code run} for the task takes it over, and {@link #sweep(int)} releases stale claims in bulk so they can be
+ * redelivered.
+ * <p>
+ * Stale claims are found through a {@link ClaimIndex} ordered by heartbeat, so recovery does not scan all tasks.
+ * The stale timeout should span several heartbeat intervals: a worker that misses them all loses its claim, and the
+ * task may then run a second time.
+ *
+ * @param <K> The type of the task key.
+ */
+public class ClaimSupervisor<K> implements AutoCloseable {
+
+    private static final System.Logger log = System.getLogger(ClaimSupervisor.class.getName());
+
+    private final TaskStateStore<K, ClaimState> stateStore;
+    private final ClaimIndex<K> index;
+    private final Duration heartbeatInterval;
+    private final Duration staleAfter;
+    private final Clock clock;
+    private final String owner = UUID.randomUUID().toString();
+    private final ConcurrentMap<K, ActiveClaim> active = new ConcurrentHashMap<>();
+    private final ScheduledFuture<?> heartbeats;
+    private volatile Instant quietUntil = Instant.MIN;
+
+    public ClaimSupervisor(TaskStateStore<K, ClaimState> stateStore, ClaimIndex<K> index, Duration heartbeatInterval, Duration staleAfter, ScheduledExecutorService scheduler) {
+        this(stateStore, index, heartbeatInterval, staleAfter, scheduler, Clock.systemUTC());
+    }
+
+    /**
+     * @param stateStore        The store holding the claim states.
+     * @param index             The index of claimed tasks by heartbeat.
+     * @param heartbeatInterval How often running tasks refresh their claims.
+     * @param staleAfter        How old a heartbeat may get before its claim is stale. Must exceed the interval.
+     * @param scheduler         Runs the heartbeats. Not shut down by {@link #close()}.
+     * @param clock             The source of heartbeat times.
+     */
+    public ClaimSupervisor(TaskStateStore<K, ClaimState> stateStore, ClaimIndex<K> index, Duration heartbeatInterval, Duration staleAfter, ScheduledExecutorService scheduler, Clock clock) {
+        if (heartbeatInterval.compareTo(staleAfter) >= 0) {
+            throw new IllegalArgumentException("Heartbeat interval " + heartbeatInterval + " must be shorter than stale timeout " + staleAfter);
+        }
+        this.stateStore = stateStore;
+        this.index = index;
+        this.heartbeatInterval = heartbeatInterval;
+        this.staleAfter = staleAfter;
+        this.clock = clock;
+        this.heartbeats = scheduler.scheduleAtFixedRate(this::heartbeat, heartbeatInterval.toMillis(), heartbeatInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Returns the identity this supervisor claims tasks with.
+     */
+    public String owner() {
+        return owner;
+    }
+
+    /**
+     * Executes a task that returns a value, unless it is completed or claimed by a live worker. A task that fails
+     * releases its claim.
+     *
+     * @param retry The retry specification. {@link ClaimConflictException} must be retryable.
+     * @param key   The task key.
+     * @param task  The logic to execute if the task can be claimed.
+     * @return A {@link TaskArbiter.TaskResult} containing the task output (if run) and the state read before the claim.
+     * @throws Throwable If retries are exhausted or the task fails.
+     */
+    public <T> TaskArbiter.TaskResult<T, ClaimState> run(Retry.RetrySpec retry, K key, Supplier<T> task) throws Throwable {
+        var state = TaskArbiter.recordClaim(retry, "supervised", key, () -> claim(key));
+        if (state.alreadyDone()) {
+            return new TaskArbiter.TaskResult<>(Optional.empty(), state.currentStatus());
+        }
+        T result;
+        try {
+            result = task.get();
+        } catch (Throwable e) {
+            finish(key, ClaimState.Phase.RELEASED);
+            throw e;
+        }
+        finish(key, ClaimState.Phase.COMPLETED);
+        return new TaskArbiter.TaskResult<>(Optional.ofNullable(result), state.currentStatus());
+    }
+
+    /**
+     * Executes a void task. See {@link #run(Retry.RetrySpec, Object, Supplier)}.
+     *
+     * @return The state read before the claim.
+     * @throws Throwable If retries are exhausted or the task fails.
+     */
+    public ClaimState run(Retry.RetrySpec retry, K key, Runnable task) throws Throwable {
+        return run(retry, key, () -> {
+            task.run();
+            return null;
+        }).status();
+    }
+
+    /**
+     * Releases up to {@code limit} stale claims, oldest heartbeat first. Index entries that no longer belong to a
+     * stale claim are dropped or corrected on the way.
+     *
+     * @param limit The maximum number of index entries to visit.
+     * @return The keys of the released tasks, to be redelivered by the caller.
+     */
+    public List<K> sweep(int limit) {
+        Instant now = clock.instant();
+        List<K> released = new ArrayList<>();
+        for (K key : index.claimedBefore(now.minus(staleAfter), limit)) {
+            ClaimState current = stateStore.get(key).orElse(null);
+            if (current == null || current.phase() != ClaimState.Phase.CLAIMED) {
+                index.remove(key);
+            } else if (!current.isStale(now, staleAfter)) {
+                index.update(key, current.heartbeat());
+            } else if (stateStore.compareAndSet(key, current, current.withPhase(ClaimState.Phase.RELEASED, now))) {
+                index.remove(key);
+                released.add(key);
+            }
+        }
+        return released;
+    }
+
+    /**
+     * Stops the heartbeats. Claims of tasks still running go stale.
+     */
+    @Override
+    public void close() {
+        heartbeats.cancel(false);
+    }
+
+    private TaskArbiter.State<ClaimState> claim(K key) {
+        Instant now = clock.instant();
+        ClaimState current = stateStore.get(key).orElse(null);
+        if (!ClaimState.isClaimable(current, now, staleAfter)) {
+            return new TaskArbiter.State<>(true, current);
+        }
+        ClaimState claim = ClaimState.claimed(owner, now);
+        index.update(key, now);
+        if (!stateStore.compareAndSet(key, current, claim)) {
+            throw new ClaimConflictException(key);
+        }
+        active.put(key, new ActiveClaim(claim));
+        return new TaskArbiter.State<>(false, current);
+    }
+
+    /**
+     * Moves a claim of this worker to its final phase. Does nothing if the claim was taken over meanwhile.
+     */
+    private void finish(K key, ClaimState.Phase phase) {
+        ActiveClaim claim = active.remove(key);
+        if (claim == null) {
+            return;
+        }
+        synchronized (claim) {
+            claim.finished = true;
+            if (stateStore.compareAndSet(key, claim.state, claim.state.withPhase(phase, clock.instant()))) {
+                index.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Refreshes the claims of the running tasks. Claims taken over by another worker are dropped.
+     * A failing store call is retried on the next heartbeat, so that it does not end the schedule. Once the claim
+     * would go stale before the next heartbeat, it is given up: no more heartbeats are sent for it, and the task
+     * may run a second time after a takeover.
+     */
+    void heartbeat() {
+        active.forEach((key, claim) -> {
+            synchronized (claim) {
+                if (claim.finished || claim.abandoned) {
+                    return;
+                }
+                Instant now = clock.instant();
+                try {
+                    ClaimState refreshed = claim.state.withPhase(ClaimState.Phase.CLAIMED, now);
+                    index.update(key, now);
+                    if (stateStore.compareAndSet(key, claim.state, refreshed)) {
+                        claim.state = refreshed;
+                        claim.failures = 0;
+                    } else {
+                        claim.finished = true;
+                        active.remove(key, claim);
+                    }
+                } catch (RuntimeException e) {
+                    heartbeatFailed(key, claim, now, e);
+                }
+            }
+        });
+    }
+
+    private void heartbeatFailed(K key, ActiveClaim claim, Instant now, RuntimeException e) {
+        claim.failures++;
+        if (!now.plus(heartbeatInterval).isBefore(claim.state.heartbeat().plus(staleAfter))) {
+            claim.abandoned = true;
+            log.log(System.Logger.Level.WARNING, () -> "Giving up claim on task " + key + " after " + claim.failures
+                    + " failed heartbeats. It goes stale before the next heartbeat.", e);
+        } else if (!now.isBefore(quietUntil)) {
+            quietUntil = now.plus(staleAfter);
+            log.log(System.Logger.Level.WARNING, () -> "Heartbeat of claim on task " + key + " failed " + claim.failures
+                    + " times in a row. Further failures are not logged for " + staleAfter + ".", e);
+        }
+    }
+
+    /**
+     * The latest claim state written by this worker for a running task. Guarded by its own monitor.
+     */
+    private static final class ActiveClaim {
+        private ClaimState state;
+        private boolean finished;
+        private boolean abandoned;
+        private int failures;
+
+        ActiveClaim(ClaimState state) {
+            this.state = state;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package dev.stockman.task.arbiter;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded local cache of task keys known to be done, together with their status. Lets {@link TaskArbiter}
+ * answer repeated runs of finished tasks, such as redelivered messages, without reading the state store.
+ * Entries expire after a fixed time to live; when the cache is full the oldest entry is evicted.
+ * <p>
+ * Lookups do not lock. Writes append to an insertion queue that eviction drains from the head. Under concurrent
+ * writes the size may briefly exceed the maximum, and entries skipped while the queue is cleared of replaced ones
+ * go back to its tail, so eviction order is approximate.
+ *
+ * @param <K> The type of the task key.
+ * @param <S> The type of the status.
+ */
+public class CompletedTaskCache<K, S> {
+
+    private record Entry<K, S>(K key, S status, long expiresAt) {
+    }
+
+    private final Map<K, Entry<K, S>> entries = new ConcurrentHashMap<>();
+    private final Queue<Entry<K, S>> insertions = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final int maxSize;
+    private final long ttl;
+    private final LongSupplier nanoTime;
+
+    /**
+     * @param maxSize The maximum number of task keys kept.
+     * @param ttl     How long a task is remembered as done.
+     */
+    public CompletedTaskCache(int maxSize, Duration ttl) {
+        this(maxSize, ttl, System::nanoTime);
+    }
+
+    CompletedTaskCache(int maxSize, Duration ttl, LongSupplier nanoTime) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be at least 1");
+        }
+        this.maxSize = maxSize;
+        this.ttl = ttl.toNanos();
+        this.nanoTime = nanoTime;
+    }
+
+    /**
+     * Returns the status of a task known to be done, or empty if the task is unknown or the entry expired.
+     */
+    public Optional<S> get(K key) {
+        Entry<K, S> entry = entries.get(key);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        if (nanoTime.getAsLong() - entry.expiresAt() >= 0) {
+            entries.remove(key, entry);
+            return Optional.empty();
+        }
+        return Optional.ofNullable(entry.status());
+    }
+
+    /**
+     * Remembers a task as done with the given status.
+     */
+    public void put(K key, S status) {
+        Entry<K, S> entry = new Entry<>(key, status, nanoTime.getAsLong() + ttl);
+        entries.put(key, entry);
+        insertions.offer(entry);
+        if (queued.incrementAndGet() > 2 * maxSize || entries.size() > maxSize) {
+            evict();
+        }
+    }
+
+    /**
+     * Forgets a task, e.g. after it was reset in the state store.
+     */
+    public void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    /**
+     * Removes the eldest entries while the cache is full, and drops queue slots of replaced or removed entries
+     * while the queue is more than twice the maximum size.
+     */
+    private void evict() {
+        while (entries.size() > maxSize || queued.get() > 2 * maxSize) {
+            Entry<K, S> eldest = insertions.poll();
+            if (eldest == null) {
+                return;
+            }
+            queued.decrementAndGet();
+            if (entries.get(eldest.key()) != eldest) {
+                continue;
+            }
+            if (entries.size() > maxSize) {
+                entries.remove(eldest.key(), eldest);
+            } else {
+                insertions.offer(eldest);
+                queued.incrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package dev.stockman.task.arbiter;
+
+import dev.stockman.retry.Retry;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Retry policy specialized for claim conflicts (optimistic locking failures, lost compare-and-set). Conflicts are
+ * retried in a tight loop inside each attempt of a generic {@link Retry.RetrySpec}: the first ones after a short
+ * randomized spin, the following ones after an exponential backoff of microseconds to milliseconds. Every retried
+ * claim fetches the status again, so a caller that lost against a worker that already finished returns right away.
+ * <p>
+ * The contention of every key is tracked: keys that keep conflicting start further up the backoff, keys that claim
+ * cleanly cool down again. Only when a claim still conflicts after {@code maxConflicts} tries is the conflict
+ * handed to the generic retry specification with its much longer backoff. Any other error is handed over at once.
+ */
+public final class ConflictRetry {
+
+    private static final int STRIPE_BITS = 10;
+    private static final int STRIPES = 1 << STRIPE_BITS;
+    private static final int MAX_HEAT = 6;
+
+    private final int maxConflicts;
+    private final int spinConflicts;
+    private final long initialBackoffNanos;
+    private final long maxBackoffNanos;
+    private final Predicate<Throwable> isConflict;
+    private final AtomicIntegerArray heat = new AtomicIntegerArray(STRIPES);
+
+    /**
+     * @param maxConflicts   How many conflicts are retried in the inner loop per attempt.
+     * @param spinConflicts  How many of them are retried after a spin instead of a backoff.
+     * @param initialBackoff The first backoff after the spins, for a key without contention.
+     * @param maxBackoff     The longest backoff.
+     * @param isConflict     Decides which errors are conflicts.
+     */
+    public ConflictRetry(int maxConflicts, int spinConflicts, Duration initialBackoff, Duration maxBackoff, Predicate<Throwable> isConflict) {
+        if (maxConflicts < 0 || spinConflicts < 0 || initialBackoff.isNegative() || maxBackoff.compareTo(initialBackoff) < 0) {
+            throw new IllegalArgumentException("Invalid conflict retry settings");
+        }
+        this.maxConflicts = maxConflicts;
+        this.spinConflicts = spinConflicts;
+        this.initialBackoffNanos = initialBackoff.toNanos();
+        this.maxBackoffNanos = maxBackoff.toNanos();
+        this.isConflict = isConflict;
+    }
+
+    /**
+     * Returns a policy retrying up to 8 conflicts per attempt: 2 after a spin, the others after a backoff from
+     * 50 microseconds up to 5 milliseconds. See {@link #isOptimisticLockConflict(Throwable)} for the conflicts.
+     */
+    public static ConflictRetry defaults() {
+        return new ConflictRetry(8, 2, Duration.ofNanos(50_000), Duration.ofMillis(5), ConflictRetry::isOptimisticLockConflict);
+    }
+
+    /**
+     * Returns true for {@link ClaimConflictException} and for exceptions whose class, or a superclass, is named like
+     * an optimistic locking failure, e.g. {@code OptimisticLockingFailureException} or {@code OptimisticLockException}.
+     */
+    public static boolean isOptimisticLockConflict(Throwable throwable) {
+        if (throwable instanceof ClaimConflictException) {
+            return true;
+        }
+        for (Class<?> type = throwable.getClass(); type != null && type != Throwable.class; type = type.getSuperclass()) {
+            if (type.getSimpleName().startsWith("OptimisticLock")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Wraps a retry specification so that conflicts on the given task key are retried by this policy first.
+     *
+     * @param retry The retry specification for errors other than conflicts, and for conflicts that outlast this policy.
+     * @param key   The task key, used to track its contention.
+     */
+    public Retry.RetrySpec around(Retry.RetrySpec retry, Object key) {
+        int stripe = stripe(key);
+        return new Retry.RetrySpec() {
+            @Override
+            public <R> Retry.CallSpec<R> call(Supplier<R> action) {
+                return retry.call(() -> resolve(stripe, action));
+            }
+
+            @Override
+            public Retry.RunSpec run(Runnable action) {
+                return retry.run(() -> resolve(stripe, () -> {
+                    action.run();
+                    return null;
+                }));
+            }
+        };
+    }
+
+    /**
+     * Returns the current contention score of a task key, from 0 (cold) to 6 (hot).
+     */
+    int contention(Object key) {
+        return heat.get(stripe(key));
+    }
+
+    /**
+     * Spreads the hash code of a key over the stripes. The high bits are folded into the low ones before the
+     * Fibonacci multiplication, whose best mixed bits, the top ones, then select the stripe.
+     */
+    static int stripe(Object key) {
+        int h = key.hashCode();
+        h ^= h >>> 16;
+        return (h * 0x9E3779B9) >>> (Integer.SIZE - STRIPE_BITS);
+    }
+
+    /**
+     * Runs the action, retrying conflicts. Rethrows the last conflict once {@code maxConflicts} are used up.
+     */
+    private <R> R resolve(int stripe, Supplier<R> action) {
+        int conflicts = 0;
+        int startHeat = heat.get(stripe);
+        while (true) {
+            try {
+                R result = action.get();
+                cool(stripe, conflicts);
+                return result;
+            } catch (RuntimeException e) {
+                if (!isConflict.test(e)) {
+                    throw e;
+                }
+                conflicts++;
+                heat(stripe);
+                if (conflicts > maxConflicts || !pause(startHeat, conflicts)) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Waits before the next try. Keys that were hot when the claim started begin further up the backoff.
+     * Returns false if the thread was interrupted.
+     */
+    private boolean pause(int startHeat, int conflicts) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (conflicts <= spinConflicts) {
+            for (int i = random.nextInt(16, 128); i > 0; i--) {
+                Thread.onSpinWait();
+            }
+            return true;
+        }
+        int exponent = Math.min(conflicts - spinConflicts - 1 + startHeat, 30);
+        long backoff = Math.min(initialBackoffNanos << exponent, maxBackoffNanos);
+        if (backoff <= 0) {
+            backoff = maxBackoffNanos;
+        }
+        LockSupport.parkNanos(backoff / 2 + random.nextLong(backoff / 2 + 1));
+        return !Thread.currentThread().isInterrupted();
+    }
+
+    private void heat(int stripe) {
+        heat.getAndUpdate(stripe, current -> Math.min(current + 1, MAX_HEAT));
+    }
+
+    /**
+     * A claim without conflicts halves the heat of its key.
+     */
+    private void cool(int stripe, int conflicts) {
+        if (conflicts == 0 && heat.get(stripe) > 0) {
+            heat.getAndUpdate(stripe, current -> current / 2);
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package dev.stockman.task.arbiter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * {@link LeaseStore} shared by all processes on one host. Every leased key has its own small file in a directory;
+ * reads and writes of that file happen under an exclusive {@link FileLock} on one of {@value #STRIPES} lock files,
+ * chosen by the file name, and threads of the same process are serialized on the same stripe because file locks are
+ * held per process.
+ * <p>
+ * Released and compacted leases have their file deleted. Before a file is deleted, its fencing token is written to a
+ * high-water mark file, and new leases start above the mark, so that fencing tokens never go backwards. Every file is
+ * replaced atomically and the directory is forced after each change, so a crash never loses a fencing token.
+ */
+public class FileLeaseStore<K> implements LeaseStore<K> {
+
+    private static final int STRIPES = 64;
+    private static final String LEASE = ".lease";
+    private static final String HIGH_WATER = "fencing-token";
+
+    private final Path directory;
+    private final Clock clock;
+    private final Object[] stripes = new Object[STRIPES];
+    private final Object highWaterStripe = new Object();
+
+    public FileLeaseStore(Path directory) {
+        this(directory, Clock.systemUTC());
+    }
+
+    public FileLeaseStore(Path directory, Clock clock) {
+        this.directory = directory;
+        this.clock = clock;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Object();
+        }
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create lease directory " + directory, e);
+        }
+    }
+
+    @Override
+    public Optional<Lease<K>> tryAcquire(K key, String owner, Duration ttl) {
+        Instant now = clock.instant();
+        return update(key, current -> {
+            if (current != null && !current.isExpired(now)) {
+                return Optional.empty();
+            }
+            long token = Math.max(current == null ? 0 : current.fencingToken(), readHighWater()) + 1;
+            return Optional.of(new Lease<>(key, owner, token, now.plus(ttl)));
+        });
+    }
+
+    @Override
+    public Optional<Lease<K>> renew(Lease<K> lease, Duration ttl) {
+        Instant now = clock.instant();
+        return update(lease.key(), current -> {
+            if (current == null || current.fencingToken() != lease.fencingToken() || current.isExpired(now)) {
+                return Optional.empty();
+            }
+            return Optional.of(new Lease<>(current.key(), current.owner(), current.fencingToken(), now.plus(ttl)));
+        });
+    }
+
+    @Override
+    public void release(Lease<K> lease) {
+        update(lease.key(), current -> current != null && current.fencingToken() == lease.fencingToken() ? null : Optional.empty());
+    }
+
+    /**
+     * Deletes the files of the leases that expired without being released.
+     */
+    @Override
+    public int compact() {
+        Instant now = clock.instant();
+        List<String> fileNames;
+        try (Stream<Path> files = Files.list(directory)) {
+            fileNames = files.map(file -> file.getFileName().toString()).filter(name -> name.endsWith(LEASE)).toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot list lease directory " + directory, e);
+        }
+        int removed = 0;
+        for (String fileName : fileNames) {
+            Optional<Lease<K>> kept = update(fileName, null, current -> current != null && current.isExpired(now) ? null : Optional.empty());
+            if (kept == null) {
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    private Optional<Lease<K>> update(K key, Function<Lease<K>, Optional<Lease<K>>> change) {
+        return update(fileName(key), key, change);
+    }
+
+    /**
+     * Reads the lease of a key and writes the changed lease back, atomically across threads and processes.
+     * The change returns empty to leave the file untouched and null to delete it. Returns the result of the change.
+     */
+    private Optional<Lease<K>> update(String fileName, K key, Function<Lease<K>, Optional<Lease<K>>> change) {
+        int stripe = Math.floorMod(fileName.hashCode(), STRIPES);
+        synchronized (stripes[stripe]) {
+            try (FileChannel channel = FileChannel.open(directory.resolve(stripe + ".lock"), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                 FileLock _ = channel.lock()) {
+                Path file = directory.resolve(fileName);
+                Lease<K> current = read(file, key);
+                Optional<Lease<K>> next = change.apply(current);
+                if (next == null) {
+                    raiseHighWater(current.fencingToken());
+                    Files.delete(file);
+                    forceDirectory();
+                } else if (next.isPresent()) {
+                    write(file, next.get());
+                }
+                return next;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot update lease on task " + (key == null ? fileName : key), e);
+            }
+        }
+    }
+
+    private Lease<K> read(Path file, K key) throws IOException {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        String content = Files.readString(file, StandardCharsets.UTF_8);
+        String[] fields = content.split("\n", -1);
+        if (fields.length != 4 || !fields[3].isEmpty()) {
+            throw new IOException("Corrupt lease file " + file);
+        }
+        try {
+            return new Lease<>(key, fields[1], Long.parseLong(fields[0]), Instant.ofEpochMilli(Long.parseLong(fields[2])));
+        } catch (NumberFormatException e) {
+            throw new IOException("Corrupt lease file " + file, e);
+        }
+    }
+
+    /**
+     * Returns the highest fencing token of a deleted lease file, or 0 if none was deleted yet. The file is replaced
+     * atomically, so it can be read without its lock.
+     */
+    private long readHighWater() {
+        Path file = directory.resolve(HIGH_WATER);
+        try {
+            if (!Files.exists(file)) {
+                return 0;
+            }
+            return Long.parseLong(Files.readString(file, StandardCharsets.UTF_8).strip());
+        } catch (IOException | NumberFormatException e) {
+            throw new IllegalStateException("Cannot read fencing token high-water mark " + file, e);
+        }
+    }
+
+    /**
+     * Raises the high-water mark to the given fencing token, unless it is higher already.
+     */
+    private void raiseHighWater(long token) throws IOException {
+        synchronized (highWaterStripe) {
+            try (FileChannel channel = FileChannel.open(directory.resolve(HIGH_WATER + ".lock"), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                 FileLock _ = channel.lock()) {
+                if (token > readHighWater()) {
+                    write(directory.resolve(HIGH_WATER), token + "\n");
+                }
+            }
+        }
+    }
+
+    private void write(Path file, Lease<K> lease) throws IOException {
+        write(file, lease.fencingToken() + "\n" + lease.owner() + "\n" + lease.expiresAt().toEpochMilli() + "\n");
+    }
+
+    /**
+     * Writes the content to a temporary file, forces it to disk, moves it over the file and forces the directory,
+     * so that a crash leaves either the old or the new content and the move itself is durable.
+     */
+    private void write(Path file, String content) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(content.getBytes(StandardCharsets.UTF_8));
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+        Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        forceDirectory();
+    }
+
+    /**
+     * Forces the directory entries to disk. Skipped on platforms that cannot open a directory as a channel.
+     */
+    private void forceDirectory() throws IOException {
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(directory, StandardOpenOption.READ);
+        } catch (IOException e) {
+            return;
+        }
+        try (channel) {
+            channel.force(true);
+        }
+    }
+
+    private static String fileName(Object key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(String.valueOf(key).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest) + LEASE;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
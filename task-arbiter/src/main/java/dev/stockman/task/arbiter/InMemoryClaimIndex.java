@@ -0,0 +1,58 @@
+package dev.stockman.task.arbiter;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reference {@link ClaimIndex} for a single process. Claims are kept in a {@link ConcurrentSkipListSet} ordered by
+ * heartbeat, so a sweep only visits the claims before the cutoff.
+ */
+public class InMemoryClaimIndex<K> implements ClaimIndex<K> {
+
+    private final ConcurrentMap<K, Entry<K>> entries = new ConcurrentHashMap<>();
+    private final NavigableSet<Entry<K>> byHeartbeat = new ConcurrentSkipListSet<>(
+            Comparator.<Entry<K>>comparingLong(Entry::heartbeat).thenComparingLong(Entry::sequence));
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Override
+    public void update(K key, Instant heartbeat) {
+        entries.compute(key, (_, current) -> {
+            if (current != null) {
+                byHeartbeat.remove(current);
+            }
+            var entry = new Entry<>(key, heartbeat.toEpochMilli(), sequence.incrementAndGet());
+            byHeartbeat.add(entry);
+            return entry;
+        });
+    }
+
+    @Override
+    public void remove(K key) {
+        entries.computeIfPresent(key, (_, current) -> {
+            byHeartbeat.remove(current);
+            return null;
+        });
+    }
+
+    @Override
+    public List<K> claimedBefore(Instant cutoff, int limit) {
+        List<K> keys = new ArrayList<>();
+        for (Entry<K> entry : byHeartbeat.headSet(new Entry<>(null, cutoff.toEpochMilli(), Long.MIN_VALUE))) {
+            if (keys.size() == limit) {
+                break;
+            }
+            keys.add(entry.key());
+        }
+        return keys;
+    }
+
+    private record Entry<K>(K key, long heartbeat, long sequence) {
+    }
+}
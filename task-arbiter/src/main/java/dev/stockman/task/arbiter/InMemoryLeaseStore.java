@@ -0,0 +1,89 @@
+package dev.stockman.task.arbiter;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Reference {@link LeaseStore} for a single process. Leases are kept in a {@link ConcurrentHashMap} and
+ * updated atomically per key. Released and compacted leases are removed; the highest fencing token removed so far is
+ * kept as a high-water mark, and new leases start above it, so that fencing tokens never go backwards.
+ */
+public class InMemoryLeaseStore<K> implements LeaseStore<K> {
+
+    private final ConcurrentMap<K, Lease<K>> leases = new ConcurrentHashMap<>();
+    private final AtomicLong highWater = new AtomicLong();
+    private final Clock clock;
+
+    public InMemoryLeaseStore() {
+        this(Clock.systemUTC());
+    }
+
+    public InMemoryLeaseStore(Clock clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public Optional<Lease<K>> tryAcquire(K key, String owner, Duration ttl) {
+        Instant now = clock.instant();
+        var acquired = new AtomicReference<Lease<K>>();
+        leases.compute(key, (_, current) -> {
+            if (current != null && !current.isExpired(now)) {
+                return current;
+            }
+            long token = Math.max(current == null ? 0 : current.fencingToken(), highWater.get()) + 1;
+            acquired.set(new Lease<>(key, owner, token, now.plus(ttl)));
+            return acquired.get();
+        });
+        return Optional.ofNullable(acquired.get());
+    }
+
+    @Override
+    public Optional<Lease<K>> renew(Lease<K> lease, Duration ttl) {
+        Instant now = clock.instant();
+        var renewed = new AtomicReference<Lease<K>>();
+        leases.computeIfPresent(lease.key(), (_, current) -> {
+            if (current.fencingToken() != lease.fencingToken() || current.isExpired(now)) {
+                return current;
+            }
+            renewed.set(new Lease<>(current.key(), current.owner(), current.fencingToken(), now.plus(ttl)));
+            return renewed.get();
+        });
+        return Optional.ofNullable(renewed.get());
+    }
+
+    @Override
+    public void release(Lease<K> lease) {
+        leases.computeIfPresent(lease.key(), (_, current) -> current.fencingToken() == lease.fencingToken() ? remove(current) : current);
+    }
+
+    @Override
+    public int compact() {
+        Instant now = clock.instant();
+        var removed = new AtomicInteger();
+        for (K key : leases.keySet()) {
+            leases.computeIfPresent(key, (_, current) -> {
+                if (!current.isExpired(now)) {
+                    return current;
+                }
+                removed.incrementAndGet();
+                return remove(current);
+            });
+        }
+        return removed.get();
+    }
+
+    /**
+     * Raises the high-water mark to the token of a lease before its entry is removed. Returns null.
+     */
+    private Lease<K> remove(Lease<K> lease) {
+        highWater.accumulateAndGet(lease.fencingToken(), Math::max);
+        return null;
+    }
+}
@@ -0,0 +1,60 @@
+package dev.stockman.task.arbiter;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link Membership} kept in memory, for tests and single-process setups. Several instances can share one member set
+ * through {@link #as(String)} to simulate a cluster.
+ */
+public class InMemoryMembership implements Membership {
+
+    private final String localMember;
+    private final Set<String> members;
+    private final AtomicLong version;
+
+    public InMemoryMembership(String localMember) {
+        this(localMember, ConcurrentHashMap.newKeySet(), new AtomicLong());
+    }
+
+    private InMemoryMembership(String localMember, Set<String> members, AtomicLong version) {
+        this.localMember = localMember;
+        this.members = members;
+        this.version = version;
+        if (members.add(localMember)) {
+            version.incrementAndGet();
+        }
+    }
+
+    /**
+     * Returns the view of another member of the same cluster, joining it if needed.
+     */
+    public InMemoryMembership as(String member) {
+        return new InMemoryMembership(member, members, version);
+    }
+
+    /**
+     * Removes a member, e.g. to simulate a failed node.
+     */
+    public void leave(String member) {
+        if (members.remove(member)) {
+            version.incrementAndGet();
+        }
+    }
+
+    @Override
+    public String localMember() {
+        return localMember;
+    }
+
+    @Override
+    public Set<String> members() {
+        return Set.copyOf(members);
+    }
+
+    @Override
+    public long version() {
+        return version.get();
+    }
+}
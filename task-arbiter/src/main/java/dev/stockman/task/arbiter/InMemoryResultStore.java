@@ -0,0 +1,90 @@
+package dev.stockman.task.arbiter;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.LongSupplier;
+
+/**
+ * Reference {@link ResultStore} for a single process. Results expire after a time to live, and the oldest results
+ * are evicted once the store is full.
+ * <p>
+ * The results are kept in insertion order, so the entries that expire first are always at the head: every write
+ * removes the expired entries from the head before it adds its own, and a read drops an expired entry it finds.
+ * Access is serialized by the store's monitor, which is cheap next to the execution of the task whose result is
+ * stored.
+ *
+ * @param <K> The type of the task key.
+ * @param <T> The type of the task result.
+ */
+public class InMemoryResultStore<K, T> implements ResultStore<K, T> {
+
+    private record Entry<T>(T result, long expiresAt) {
+    }
+
+    private final Map<K, Entry<T>> results = new LinkedHashMap<>();
+    private final int maxSize;
+    private final long ttl;
+    private final LongSupplier nanoTime;
+
+    /**
+     * @param maxSize The maximum number of results kept.
+     * @param ttl     How long a result is kept.
+     */
+    public InMemoryResultStore(int maxSize, Duration ttl) {
+        this(maxSize, ttl, System::nanoTime);
+    }
+
+    InMemoryResultStore(int maxSize, Duration ttl, LongSupplier nanoTime) {
+        if (maxSize < 1 || ttl.isNegative()) {
+            throw new IllegalArgumentException("Invalid result store settings");
+        }
+        this.maxSize = maxSize;
+        this.ttl = ttl.toNanos();
+        this.nanoTime = nanoTime;
+    }
+
+    @Override
+    public synchronized Optional<T> get(K key) {
+        Entry<T> entry = results.get(key);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        if (nanoTime.getAsLong() - entry.expiresAt() >= 0) {
+            results.remove(key);
+            return Optional.empty();
+        }
+        return Optional.of(entry.result());
+    }
+
+    @Override
+    public synchronized void put(K key, T result) {
+        long now = nanoTime.getAsLong();
+        removeExpired(now);
+        // Removing first moves a replaced result to the tail, keeping the map ordered by expiry.
+        results.remove(key);
+        results.put(key, new Entry<>(Objects.requireNonNull(result), now + ttl));
+        if (results.size() > maxSize) {
+            Iterator<Entry<T>> eldest = results.values().iterator();
+            eldest.next();
+            eldest.remove();
+        }
+    }
+
+    /**
+     * Returns the number of results kept, including expired ones not removed yet.
+     */
+    synchronized int size() {
+        return results.size();
+    }
+
+    private void removeExpired(long now) {
+        Iterator<Entry<T>> entries = results.values().iterator();
+        while (entries.hasNext() && now - entries.next().expiresAt() >= 0) {
+            entries.remove();
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package dev.stockman.task.arbiter;
+
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Reference {@link TaskStateStore} for a single process. Statuses are kept in a {@link ConcurrentHashMap}:
+ * reads never lock, and compare-and-set maps to {@link ConcurrentMap#putIfAbsent} and
+ * {@link ConcurrentMap#replace(Object, Object, Object)}, so statuses are compared with {@code equals}.
+ */
+public class InMemoryTaskStateStore<K, S> implements TaskStateStore<K, S> {
+
+    private final ConcurrentMap<K, S> statuses = new ConcurrentHashMap<>();
+
+    @Override
+    public Optional<S> get(K key) {
+        return Optional.ofNullable(statuses.get(key));
+    }
+
+    @Override
+    public boolean compareAndSet(K key, S expected, S status) {
+        if (expected == null) {
+            return statuses.putIfAbsent(key, status) == null;
+        }
+        return statuses.replace(key, expected, status);
+    }
+}
@@ -0,0 +1,124 @@
+package dev.stockman.task.arbiter;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * {@link ClaimIndex} backed by a relational database table with an index on the heartbeat:
+ * <pre>
+ * CREATE TABLE task_claim (task_key VARCHAR(255) PRIMARY KEY, heartbeat_at BIGINT NOT NULL)
+ * CREATE INDEX task_claim_heartbeat ON task_claim (heartbeat_at)
+ * </pre>
+ * A sweep is a range scan on the heartbeat index, so its cost depends on the number of stale claims rather than
+ * on the number of tasks. Keys are stored as {@link String#valueOf(Object)} and decoded with the given function.
+ * SQL errors are thrown as {@link IllegalStateException}.
+ */
+public class JdbcClaimIndex<K> implements ClaimIndex<K> {
+
+    private static final Pattern TABLE_NAME = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*(\\.[A-Za-z_][A-Za-z0-9_]*)?");
+
+    private final DataSource dataSource;
+    private final String table;
+    private final Function<String, K> keyDecoder;
+
+    /**
+     * @param dataSource The database.
+     * @param table      The name of the index table, optionally qualified by a schema.
+     * @param keyDecoder Decodes a task key from text.
+     */
+    public JdbcClaimIndex(DataSource dataSource, String table, Function<String, K> keyDecoder) {
+        if (!TABLE_NAME.matcher(table).matches()) {
+            throw new IllegalArgumentException("Invalid table name " + table);
+        }
+        this.dataSource = dataSource;
+        this.table = table;
+        this.keyDecoder = keyDecoder;
+    }
+
+    /**
+     * Creates the index table and its heartbeat index unless they exist.
+     */
+    public void createTable() {
+        String index = table.substring(table.lastIndexOf('.') + 1) + "_heartbeat";
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS " + table + " (task_key VARCHAR(255) PRIMARY KEY, heartbeat_at BIGINT NOT NULL)");
+            statement.execute("CREATE INDEX IF NOT EXISTS " + index + " ON " + table + " (heartbeat_at)");
+        } catch (SQLException e) {
+            throw new IllegalStateException("Cannot create claim index table " + table, e);
+        }
+    }
+
+    @Override
+    public void update(K key, Instant heartbeat) {
+        try (Connection connection = dataSource.getConnection()) {
+            if (update(connection, key, heartbeat) == 0 && !insert(connection, key, heartbeat)) {
+                update(connection, key, heartbeat);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Cannot index claim of task " + key, e);
+        }
+    }
+
+    @Override
+    public void remove(K key) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("DELETE FROM " + table + " WHERE task_key = ?")) {
+            statement.setString(1, String.valueOf(key));
+            statement.executeUpdate();
+        } catch (SQLException e) {
+            throw new IllegalStateException("Cannot remove claim of task " + key + " from index", e);
+        }
+    }
+
+    @Override
+    public List<K> claimedBefore(Instant cutoff, int limit) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("SELECT task_key FROM " + table + " WHERE heartbeat_at < ? ORDER BY heartbeat_at")) {
+            statement.setLong(1, cutoff.toEpochMilli());
+            statement.setMaxRows(limit);
+            List<K> keys = new ArrayList<>();
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    keys.add(keyDecoder.apply(resultSet.getString(1)));
+                }
+            }
+            return keys;
+        } catch (SQLException e) {
+            throw new IllegalStateException("Cannot read stale claims", e);
+        }
+    }
+
+    private int update(Connection connection, K key, Instant heartbeat) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("UPDATE " + table + " SET heartbeat_at = ? WHERE task_key = ?")) {
+            statement.setLong(1, heartbeat.toEpochMilli());
+            statement.setString(2, String.valueOf(key));
+            return statement.executeUpdate();
+        }
+    }
+
+    /**
+     * Returns false if a concurrent insert of the same key won.
+     */
+    private boolean insert(Connection connection, K key, Instant heartbeat) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("INSERT INTO " + table + " (task_key, heartbeat_at) VALUES (?, ?)")) {
+            statement.setString(1, String.valueOf(key));
+            statement.setLong(2, heartbeat.toEpochMilli());
+            return statement.executeUpdate() == 1;
+        } catch (SQLException e) {
+            if (e.getSQLState() != null && e.getSQLState().startsWith("23")) {
+                return false;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package dev.stockman.task.arbiter;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * {@link TaskStateStore} backed by a relational database table with a text key and a text status:
+ * <pre>
+ * CREATE TABLE task_state (task_key VARCHAR(255) PRIMARY KEY, status VARCHAR(4000) NOT NULL)
+ * </pre>
+ * Keys are stored as {@link String#valueOf(Object)}, statuses are encoded with the given functions and compared
+ * by their encoded form. Compare-and-set is a single conditional {@code UPDATE}, or an {@code INSERT} for unknown
+ * tasks that loses to a concurrent insert through the primary key, so a conflict costs one round trip.
+ * SQL errors are thrown as {@link IllegalStateException}.
+ */
+public class JdbcTaskStateStore<K, S> implements TaskStateStore<K, S> {
+
+    private static final Pattern TABLE_NAME = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*(\\.[A-Za-z_][A-Za-z0-9_]*)?");
+
+    private final DataSource dataSource;
+    private final String table;
+    private final Function<S, String> encoder;
+    private final Function<String, S> decoder;
+
+    /**
+     * @param dataSource The database.
+     * @param table      The name of the state table, optionally qualified by a schema.
+     * @param encoder    Encodes a status as text.
+     * @param decoder    Decodes a status from text.
+     */
+    public JdbcTaskStateStore(DataSource dataSource, String table, Function<S, String> encoder, Function<String, S> decoder) {
+        if (!TABLE_NAME.matcher(table).matches()) {
+            throw new IllegalArgumentException("Invalid table name " + table);
+        }
+        this.dataSource = dataSource;
+        this.table = table;
+        this.encoder = encoder;
+        this.decoder = decoder;
+    }
+
+    /**
+     * Creates the state table unless it exists.
+     */
+    public void createTable() {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("CREATE TABLE IF NOT EXISTS " + table + " (task_key VARCHAR(255) PRIMARY KEY, status VARCHAR(4000) NOT NULL)")) {
+            statement.execute();
+        } catch (SQLException e) {
+            throw new IllegalStateException("Cannot create state table " + table, e);
+        }
+    }
+
+    @Override
+    public Optional<S> get(K key) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("SELECT status FROM " + table + " WHERE task_key = ?")) {
+            statement.setString(1, String.valueOf(key));
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() ? Optional.of(decoder.apply(resultSet.getString(1))) : Optional.empty();
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Cannot read state of task " + key, e);
+        }
+    }
+
+    @Override
+    public boolean compareAndSet(K key, S expected, S status) {
+        try (Connection connection = dataSource.getConnection()) {
+            return expected == null ? insert(connection, key, status) : update(connection, key, expected, status);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Cannot update state of task " + key, e);
+        }
+    }
+
+    private boolean insert(Connection connection, K key, S status) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("INSERT INTO " + table + " (task_key, status) VALUES (?, ?)")) {
+            statement.setString(1, String.valueOf(key));
+            statement.setString(2, encoder.apply(status));
+            return statement.executeUpdate() == 1;
+        } catch (SQLException e) {
+            if (isConstraintViolation(e)) {
+                return false;
+            }
+            throw e;
+        }
+    }
+
+    private boolean update(Connection connection, K key, S expected, S status) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("UPDATE " + table + " SET status = ? WHERE task_key = ? AND status = ?")) {
+            statement.setString(1, encoder.apply(status));
+            statement.setString(2, String.valueOf(key));
+            statement.setString(3, encoder.apply(expected));
+            return statement.executeUpdate() == 1;
+        }
+    }
+
+    /**
+     * SQL state class 23 is an integrity constraint violation, here a duplicate key.
+     */
+    private static boolean isConstraintViolation(SQLException e) {
+        return e.getSQLState() != null && e.getSQLState().startsWith("23");
+    }
+}
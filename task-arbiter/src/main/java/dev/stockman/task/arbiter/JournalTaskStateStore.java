@@ -0,0 +1,301 @@
+package dev.stockman.task.arbiter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.zip.CRC32;
+
+/**
+ * Durable {@link TaskStateStore} for a single process, backed by an append-only journal file.
+ * <p>
+ * Every successful compare-and-set appends one checksummed record and returns once the record is on disk.
+ * Concurrent claims share fsyncs (group commit): the first waiting caller forces the file for every record written
+ * so far, the others wait for that force instead of issuing their own. The current statuses are kept in memory and
+ * a status is only published there once its record is on disk, so a crash never loses a status that a caller has
+ * seen. While a claim waits for its force, other claims of the same task fail; if the force fails, the claim is
+ * withdrawn and the failure is thrown. Its record may still reach the disk, and then shows up after a restart unless a
+ * later claim of the task superseded it.
+ * <p>
+ * On open the journal is replayed. A torn or corrupt record at the end, left by a crash during a write, is cut off.
+ * {@link #compact()} rewrites the journal with only the latest status per task. Statuses are encoded as text with
+ * the given functions and compared by their encoded form.
+ */
+public class JournalTaskStateStore<K, S> implements TaskStateStore<K, S>, AutoCloseable {
+
+    private static final int RECORD_HEADER = 2 * Integer.BYTES;
+
+    private final Path file;
+    private final Function<S, String> encoder;
+    private final Function<String, S> decoder;
+    private final Map<String, String> statuses = new ConcurrentHashMap<>();
+    private final Map<String, Entry> inFlight = new HashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition flushed = lock.newCondition();
+    private FileChannel channel;
+    private long base;
+    private long written;
+    private long durable;
+    private boolean flushing;
+
+    /**
+     * Opens the journal, replaying it if it exists.
+     *
+     * @param file    The journal file.
+     * @param encoder Encodes a status as text.
+     * @param decoder Decodes a status from text.
+     */
+    public JournalTaskStateStore(Path file, Function<S, String> encoder, Function<String, S> decoder) {
+        this.file = file;
+        this.encoder = encoder;
+        this.decoder = decoder;
+        try {
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.written = replay();
+            channel.truncate(written);
+            channel.force(true);
+            this.durable = written;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open journal " + file, e);
+        }
+    }
+
+    @Override
+    public Optional<S> get(K key) {
+        String status = statuses.get(String.valueOf(key));
+        return status == null ? Optional.empty() : Optional.of(decoder.apply(status));
+    }
+
+    @Override
+    public boolean compareAndSet(K key, S expected, S status) {
+        String keyText = String.valueOf(key);
+        String expectedText = expected == null ? null : encoder.apply(expected);
+        String statusText = encoder.apply(status);
+        Entry entry;
+        lock.lock();
+        try {
+            if (inFlight.containsKey(keyText) || !Objects.equals(statuses.get(keyText), expectedText)) {
+                return false;
+            }
+            entry = new Entry(statusText, append(record(keyText, statusText)));
+            inFlight.put(keyText, entry);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot journal state of task " + key, e);
+        } finally {
+            lock.unlock();
+        }
+        boolean durable = false;
+        try {
+            awaitDurable(entry.position());
+            durable = true;
+        } finally {
+            lock.lock();
+            try {
+                inFlight.remove(keyText);
+                if (durable) {
+                    statuses.put(keyText, statusText);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Rewrites the journal with the latest status of every task, including claims waiting for their force, and
+     * atomically replaces the old journal. Claims wait while the journal is compacted.
+     */
+    public void compact() {
+        lock.lock();
+        try {
+            while (flushing) {
+                flushed.awaitUninterruptibly();
+            }
+            channel.force(false);
+            durable = written;
+            Path compacted = file.resolveSibling(file.getFileName() + ".compact");
+            long position = 0;
+            try (FileChannel target = FileChannel.open(compacted, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                Map<String, String> latest = new HashMap<>(statuses);
+                inFlight.forEach((key, entry) -> latest.put(key, entry.status()));
+                for (Map.Entry<String, String> entry : latest.entrySet()) {
+                    position += write(target, record(entry.getKey(), entry.getValue()), position);
+                }
+                target.force(true);
+            }
+            channel.close();
+            Files.move(compacted, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            base = written - position;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot compact journal " + file, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the size of the journal in bytes.
+     */
+    public long size() {
+        lock.lock();
+        try {
+            return written - base;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            while (flushing) {
+                flushed.awaitUninterruptibly();
+            }
+            channel.force(true);
+            channel.close();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Blocks until the journal is on disk up to the given position. The first caller that finds no force in progress
+     * forces every record written so far; callers arriving meanwhile wait for the next force.
+     */
+    private void awaitDurable(long position) {
+        while (true) {
+            long target;
+            FileChannel current;
+            lock.lock();
+            try {
+                while (durable < position && flushing) {
+                    flushed.awaitUninterruptibly();
+                }
+                if (durable >= position) {
+                    return;
+                }
+                flushing = true;
+                target = written;
+                current = channel;
+            } finally {
+                lock.unlock();
+            }
+            IOException failure = null;
+            try {
+                current.force(false);
+            } catch (IOException e) {
+                failure = e;
+            }
+            lock.lock();
+            try {
+                flushing = false;
+                if (failure == null) {
+                    durable = Math.max(durable, target);
+                }
+                flushed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            if (failure != null) {
+                throw new UncheckedIOException("Cannot force journal " + file, failure);
+            }
+        }
+    }
+
+    /**
+     * Appends a record and returns the journal position after it. Must be called under the lock.
+     * Positions keep growing across compactions; {@code base} is the position of the start of the current file.
+     */
+    private long append(ByteBuffer record) throws IOException {
+        written += write(channel, record, written - base);
+        return written;
+    }
+
+    /**
+     * Reads the records from the start of the journal and returns the position after the last intact record.
+     */
+    private long replay() throws IOException {
+        long position = 0;
+        ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER);
+        while (true) {
+            header.clear();
+            if (!readFully(header, position)) {
+                return position;
+            }
+            int length = header.getInt(0);
+            int checksum = header.getInt(Integer.BYTES);
+            if (length < Integer.BYTES || position + RECORD_HEADER + length > channel.size()) {
+                return position;
+            }
+            ByteBuffer payload = ByteBuffer.allocate(length);
+            if (!readFully(payload, position + RECORD_HEADER) || checksum(payload.array()) != checksum) {
+                return position;
+            }
+            int keyLength = payload.getInt(0);
+            if (keyLength < 0 || keyLength > length - Integer.BYTES) {
+                return position;
+            }
+            String key = new String(payload.array(), Integer.BYTES, keyLength, StandardCharsets.UTF_8);
+            String status = new String(payload.array(), Integer.BYTES + keyLength, length - Integer.BYTES - keyLength, StandardCharsets.UTF_8);
+            statuses.put(key, status);
+            position += RECORD_HEADER + length;
+        }
+    }
+
+    private boolean readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * A record is the payload length, the CRC32 of the payload, and the payload: key length, key and status.
+     */
+    private static ByteBuffer record(String key, String status) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        byte[] statusBytes = status.getBytes(StandardCharsets.UTF_8);
+        byte[] payload = ByteBuffer.allocate(Integer.BYTES + keyBytes.length + statusBytes.length)
+                .putInt(keyBytes.length).put(keyBytes).put(statusBytes).array();
+        return ByteBuffer.allocate(RECORD_HEADER + payload.length)
+                .putInt(payload.length).putInt(checksum(payload)).put(payload).flip();
+    }
+
+    private static int write(FileChannel channel, ByteBuffer record, long position) throws IOException {
+        int length = record.remaining();
+        while (record.hasRemaining()) {
+            channel.write(record, position + record.position());
+        }
+        return length;
+    }
+
+    private static int checksum(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * The encoded status of a claim waiting for its force and the journal position up to which it must be on disk.
+     */
+    private record Entry(String status, long position) {
+    }
+}
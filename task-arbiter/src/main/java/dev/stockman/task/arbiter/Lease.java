@@ -0,0 +1,22 @@
+package dev.stockman.task.arbiter;
+
+import java.time.Instant;
+
+/**
+ * A time-bounded exclusive claim on a key, handed out by a {@link LeaseStore}.
+ *
+ * @param key          The leased key.
+ * @param owner        The identity of the holder.
+ * @param fencingToken Strictly increasing per key. Writes guarded by a lease should carry the token, so that the
+ *                     state store can reject a holder whose lease has already expired and been handed to another.
+ * @param expiresAt    The instant after which the lease may be acquired by someone else.
+ */
+public record Lease<K>(K key, String owner, long fencingToken, Instant expiresAt) {
+
+    /**
+     * Returns true if the lease is no longer valid at the given instant.
+     */
+    public boolean isExpired(Instant now) {
+        return !now.isBefore(expiresAt);
+    }
+}
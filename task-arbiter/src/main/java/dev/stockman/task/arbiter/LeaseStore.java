@@ -0,0 +1,51 @@
+package dev.stockman.task.arbiter;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * SPI for exclusive, expiring leases on task keys. Used by the lease mode of {@link TaskArbiter} so that
+ * contenders wait on a cheap lease check instead of racing through fetch and update of the task state.
+ * Implementations must be safe for concurrent use.
+ *
+ * @param <K> The type of the task key.
+ */
+public interface LeaseStore<K> {
+
+    /**
+     * Acquires the lease on a key if it is free or expired.
+     *
+     * @param key   The key to lease.
+     * @param owner The identity of the caller.
+     * @param ttl   How long the lease is valid unless renewed.
+     * @return The new lease, or empty if another owner holds a valid lease.
+     */
+    Optional<Lease<K>> tryAcquire(K key, String owner, Duration ttl);
+
+    /**
+     * Extends a lease that is still held.
+     *
+     * @param lease The lease to extend.
+     * @param ttl   How long the lease is valid from now.
+     * @return The extended lease with the same fencing token, or empty if the lease expired or was taken over.
+     */
+    Optional<Lease<K>> renew(Lease<K> lease, Duration ttl);
+
+    /**
+     * Releases a lease so the key can be acquired immediately, and removes it from the store. The fencing token of the
+     * next lease on the key is still higher. Does nothing if the lease was taken over.
+     *
+     * @param lease The lease to release.
+     */
+    void release(Lease<K> lease);
+
+    /**
+     * Removes the leases that expired without being released, e.g. because their holder crashed. Their keys can be
+     * acquired afterwards with a higher fencing token. Does nothing by default.
+     *
+     * @return The number of leases removed.
+     */
+    default int compact() {
+        return 0;
+    }
+}
@@ -0,0 +1,12 @@
+package dev.stockman.task.arbiter;
+
+/**
+ * Thrown by the lease mode of {@link TaskArbiter} when another worker holds the lease on a task key.
+ * The exception must be retryable in the retry configuration so that contenders back off and try again.
+ */
+public class LeaseUnavailableException extends RuntimeException {
+
+    public LeaseUnavailableException(Object key) {
+        super("Lease on task " + key + " is held by another worker", null, false, false);
+    }
+}
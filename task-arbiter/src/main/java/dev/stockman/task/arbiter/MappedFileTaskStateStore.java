@@ -0,0 +1,279 @@
+package dev.stockman.task.arbiter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.zip.CRC32;
+
+/**
+ * {@link TaskStateStore} shared by all processes on one host, backed by a memory-mapped file.
+ * <p>
+ * The file is a fixed-size hash table of {@code capacity} slots of {@code slotSize} bytes, probed linearly from the
+ * hash of the key. A slot holds a version, the key and the status as text, encoded with the given functions, and a
+ * CRC32 of its content; statuses are compared by their encoded form. Slots are never freed, so a key stays in the
+ * slot it was first written to, and a lookup stops at the first empty slot.
+ * <p>
+ * Reads take no lock: the version of a slot is odd while it is written, so a reader retries until it read the same
+ * even version before and after the content (a sequence lock). Writes happen under an exclusive {@link FileLock} on
+ * the slot region, and threads of the same process are serialized on a lock stripe because file locks are held per
+ * process. Writes are forced to disk before the lock is released. A slot left odd by a process that died while
+ * writing it is checked against its checksum under the lock: an intact slot is completed, a torn first write is
+ * cleared, and a torn update is reported as corrupt.
+ */
+public class MappedFileTaskStateStore<K, S> implements TaskStateStore<K, S>, AutoCloseable {
+
+    private static final int STRIPES = 64;
+    private static final int EMPTY = 0;
+    private static final int HEADER = 4 * Integer.BYTES;
+    private static final int MAX_SPINS = 1000;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private final int slotSize;
+    private final Function<S, String> encoder;
+    private final Function<String, S> decoder;
+    private final Object[] stripes = new Object[STRIPES];
+
+    /**
+     * Opens or creates the state file.
+     *
+     * @param file     The state file. An existing file must have been created with the same capacity and slot size.
+     * @param capacity The maximum number of tasks.
+     * @param slotSize The bytes per task. Must hold the encoded key and status plus 16 bytes.
+     * @param encoder  Encodes a status as text.
+     * @param decoder  Decodes a status from text.
+     */
+    public MappedFileTaskStateStore(Path file, int capacity, int slotSize, Function<S, String> encoder, Function<String, S> decoder) {
+        if (capacity <= 0 || slotSize <= HEADER || (long) capacity * slotSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid capacity " + capacity + " or slot size " + slotSize);
+        }
+        this.capacity = capacity;
+        this.slotSize = slotSize;
+        this.encoder = encoder;
+        this.decoder = decoder;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Object();
+        }
+        long size = (long) capacity * slotSize;
+        try {
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            long existing = channel.size();
+            if (existing != 0 && existing != size) {
+                channel.close();
+                throw new IllegalArgumentException("State file " + file + " has " + existing + " bytes, expected " + size);
+            }
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open state file " + file, e);
+        }
+    }
+
+    @Override
+    public Optional<S> get(K key) {
+        byte[] keyBytes = encodeKey(key);
+        int home = home(keyBytes);
+        for (int probe = 0; probe < capacity; probe++) {
+            Slot slot = read((home + probe) % capacity);
+            if (slot == null) {
+                return Optional.empty();
+            }
+            if (Arrays.equals(slot.key(), keyBytes)) {
+                return Optional.of(decoder.apply(new String(slot.status(), StandardCharsets.UTF_8)));
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public boolean compareAndSet(K key, S expected, S status) {
+        byte[] keyBytes = encodeKey(key);
+        byte[] expectedBytes = expected == null ? null : encoder.apply(expected).getBytes(StandardCharsets.UTF_8);
+        byte[] statusBytes = encoder.apply(status).getBytes(StandardCharsets.UTF_8);
+        if (HEADER + keyBytes.length + statusBytes.length > slotSize) {
+            throw new IllegalArgumentException("State of task " + key + " does not fit into a slot of " + slotSize + " bytes");
+        }
+        int home = home(keyBytes);
+        for (int probe = 0; probe < capacity; probe++) {
+            int index = (home + probe) % capacity;
+            Slot slot = read(index);
+            if (slot != null && !Arrays.equals(slot.key(), keyBytes)) {
+                continue;
+            }
+            synchronized (stripes[index % STRIPES]) {
+                try (FileLock _ = lock(index)) {
+                    slot = readLocked(index);
+                    if (slot == null) {
+                        if (expectedBytes != null) {
+                            return false;
+                        }
+                        write(index * slotSize, EMPTY, keyBytes, statusBytes);
+                        return true;
+                    }
+                    if (Arrays.equals(slot.key(), keyBytes)) {
+                        if (!Arrays.equals(slot.status(), expectedBytes)) {
+                            return false;
+                        }
+                        write(index * slotSize, slot.version(), keyBytes, statusBytes);
+                        return true;
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Cannot update state of task " + key, e);
+                }
+            }
+        }
+        throw new IllegalStateException("State file is full, cannot add task " + key);
+    }
+
+    @Override
+    public void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+
+    private int home(byte[] keyBytes) {
+        return Math.floorMod(Arrays.hashCode(keyBytes), capacity);
+    }
+
+    private FileLock lock(int index) throws IOException {
+        return channel.lock((long) index * slotSize, slotSize, false);
+    }
+
+    /**
+     * Reads a slot without locking, or returns null if it is empty. Retries while the slot is being written; if a
+     * write takes too long, e.g. because its process died, reads the slot under its lock.
+     */
+    private Slot read(int index) {
+        int offset = index * slotSize;
+        for (int spins = 0; spins < MAX_SPINS; spins++) {
+            int version = buffer.getInt(offset);
+            if (version == EMPTY) {
+                return null;
+            }
+            if ((version & 1) == 0) {
+                VarHandle.acquireFence();
+                Slot slot = decode(offset, version);
+                VarHandle.acquireFence();
+                if (buffer.getInt(offset) == version) {
+                    if (slot == null) {
+                        throw corrupt(index);
+                    }
+                    return slot;
+                }
+            }
+            Thread.onSpinWait();
+        }
+        synchronized (stripes[index % STRIPES]) {
+            try (FileLock _ = lock(index)) {
+                return readLocked(index);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read state slot " + index, e);
+            }
+        }
+    }
+
+    /**
+     * Reads a slot under its lock, or returns null if it is empty. No write is in progress, so an odd version was
+     * left by a process that died while writing the slot.
+     */
+    private Slot readLocked(int index) {
+        int offset = index * slotSize;
+        int version = buffer.getInt(offset);
+        if (version == EMPTY) {
+            return null;
+        }
+        Slot slot = decode(offset, version);
+        if ((version & 1) == 0) {
+            if (slot == null) {
+                throw corrupt(index);
+            }
+            return slot;
+        }
+        if (slot != null) {
+            buffer.putInt(offset, next(version));
+            buffer.force(offset, Integer.BYTES);
+            return new Slot(next(version), slot.key(), slot.status());
+        }
+        if (version == 1) {
+            buffer.putInt(offset, EMPTY);
+            buffer.force(offset, Integer.BYTES);
+            return null;
+        }
+        throw corrupt(index);
+    }
+
+    /**
+     * Decodes the content of a slot, or returns null if the lengths are out of range or the checksum does not match.
+     */
+    private Slot decode(int offset, int version) {
+        int keyLength = buffer.getInt(offset + Integer.BYTES);
+        int statusLength = buffer.getInt(offset + 2 * Integer.BYTES);
+        if (keyLength < 0 || statusLength < 0 || keyLength > slotSize - HEADER || statusLength > slotSize - HEADER - keyLength) {
+            return null;
+        }
+        byte[] key = new byte[keyLength];
+        byte[] status = new byte[statusLength];
+        buffer.get(offset + HEADER, key);
+        buffer.get(offset + HEADER + keyLength, status);
+        if (buffer.getInt(offset + 3 * Integer.BYTES) != checksum(key, status)) {
+            return null;
+        }
+        return new Slot(version, key, status);
+    }
+
+    /**
+     * Makes the version odd, writes the slot content and its checksum, then makes the version even again.
+     */
+    private void write(int offset, int version, byte[] keyBytes, byte[] statusBytes) {
+        buffer.putInt(offset, version + 1);
+        VarHandle.storeStoreFence();
+        buffer.putInt(offset + Integer.BYTES, keyBytes.length);
+        buffer.putInt(offset + 2 * Integer.BYTES, statusBytes.length);
+        buffer.putInt(offset + 3 * Integer.BYTES, checksum(keyBytes, statusBytes));
+        buffer.put(offset + HEADER, keyBytes);
+        buffer.put(offset + HEADER + keyBytes.length, statusBytes);
+        VarHandle.releaseFence();
+        buffer.putInt(offset, next(version + 1));
+        buffer.force(offset, slotSize);
+    }
+
+    /**
+     * Returns the even version after an odd one, skipping {@link #EMPTY} when the version wraps around.
+     */
+    private static int next(int odd) {
+        int next = odd + 1;
+        return next == EMPTY ? 2 : next;
+    }
+
+    private static int checksum(byte[] key, byte[] status) {
+        CRC32 crc = new CRC32();
+        crc.update(ByteBuffer.allocate(2 * Integer.BYTES).putInt(key.length).putInt(status.length).flip());
+        crc.update(key);
+        crc.update(status);
+        return (int) crc.getValue();
+    }
+
+    private static IllegalStateException corrupt(int index) {
+        return new IllegalStateException("State slot " + index + " is corrupt");
+    }
+
+    private static byte[] encodeKey(Object key) {
+        return String.valueOf(key).getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * The content of a used slot.
+     */
+    private record Slot(int version, byte[] key, byte[] status) {
+    }
+}
@@ -0,0 +1,28 @@
+package dev.stockman.task.arbiter;
+
+import java.util.Set;
+
+/**
+ * SPI for the set of nodes sharing the partitions of a {@link PartitionedTaskArbiter}. Implementations typically sit
+ * on top of a discovery or coordination service. All nodes must report the same members for ownership to agree.
+ */
+public interface Membership {
+
+    /**
+     * Returns the identity of this node. It must be one of the {@link #members()}.
+     */
+    String localMember();
+
+    /**
+     * Returns the identities of the live nodes, including this one.
+     */
+    Set<String> members();
+
+    /**
+     * Returns a number that changes whenever the {@link #members()} change, so that callers can skip reading the
+     * members while it stays the same. The default returns -1, meaning the members have to be read every time.
+     */
+    default long version() {
+        return -1;
+    }
+}
@@ -0,0 +1,25 @@
+package dev.stockman.task.arbiter;
+
+/**
+ * Thrown by {@link PartitionedTaskArbiter} for a task whose partition is owned by another node.
+ * The caller should forward the task to {@link #owner()}.
+ */
+public class PartitionNotOwnedException extends RuntimeException {
+
+    private final int partition;
+    private final String owner;
+
+    public PartitionNotOwnedException(Object key, int partition, String owner) {
+        super("Task " + key + " belongs to partition " + partition + " owned by " + owner, null, false, false);
+        this.partition = partition;
+        this.owner = owner;
+    }
+
+    public int partition() {
+        return partition;
+    }
+
+    public String owner() {
+        return owner;
+    }
+}
@@ -0,0 +1,223 @@
+package dev.stockman.task.arbiter;
+
+import dev.stockman.retry.Retry;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Partition-aware {@link TaskArbiter}. Task keys are hashed to a fixed number of partitions and every partition is
+ * owned by exactly one node of the {@link Membership}, chosen by rendezvous hashing: when a node joins or leaves,
+ * only the partitions it gains or loses move. The weight of a member for a partition is derived from the SHA-256 digest
+ * of its id, so similar ids such as {@code node-1} and {@code node-2} get unrelated partitions.
+ * <p>
+ * A node only claims tasks of the partitions it owns, so claims do not contend with other nodes and rarely need a
+ * conflict retry. Claim attempts for the same task key are serialized through lock striping, as in
+ * {@link TaskArbiterExecutor}; keys of the same partition are claimed in parallel. Tasks of other partitions are
+ * rejected with a {@link PartitionNotOwnedException} naming the owner. While the members change, two nodes may briefly claim the
+ * same partition; the claim is still retried through the retry specification, so the state store stays the
+ * arbiter of last resort.
+ *
+ * @param <K> The type of the task key.
+ */
+public class PartitionedTaskArbiter<K> {
+
+    private final Membership membership;
+    private final int partitions;
+    private final ReentrantLock[] stripes;
+    private volatile Assignment assignment = new Assignment(-1, Set.of(), new String[0]);
+
+    /**
+     * Creates an arbiter spreading the keys over 1024 locks.
+     *
+     * @param membership The nodes sharing the partitions.
+     * @param partitions The number of partitions. Must be the same on all nodes and should be much larger than
+     *                   the number of nodes.
+     */
+    public PartitionedTaskArbiter(Membership membership, int partitions) {
+        this(membership, partitions, 1024);
+    }
+
+    /**
+     * @param membership The nodes sharing the partitions.
+     * @param partitions The number of partitions. Must be the same on all nodes and should be much larger than
+     *                   the number of nodes.
+     * @param stripes    The number of locks keys are spread over, rounded up to a power of two.
+     */
+    public PartitionedTaskArbiter(Membership membership, int partitions, int stripes) {
+        if (partitions <= 0) {
+            throw new IllegalArgumentException("partitions must be positive");
+        }
+        if (stripes < 1) {
+            throw new IllegalArgumentException("stripes must be at least 1");
+        }
+        int size = 1;
+        while (size < stripes) {
+            size <<= 1;
+        }
+        this.membership = membership;
+        this.partitions = partitions;
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < this.stripes.length; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Returns the partition of a task key.
+     */
+    public int partitionOf(K key) {
+        return Math.floorMod(mix(key.hashCode()), partitions);
+    }
+
+    /**
+     * Returns the node that owns a partition under the current members.
+     */
+    public String ownerOf(int partition) {
+        return assignment().owners[partition];
+    }
+
+    /**
+     * Returns true if this node owns the partition of the task key.
+     */
+    public boolean owns(K key) {
+        return membership.localMember().equals(ownerOf(partitionOf(key)));
+    }
+
+    /**
+     * Executes a task that returns a value, provided this node owns its partition and the state check passes.
+     *
+     * @param retry       The retry specification used to handle state update conflicts.
+     * @param key         The task key.
+     * @param task        The logic to execute if the state is not "done".
+     * @param fetchStatus A supplier to retrieve the current state from a persistent store.
+     * @param checkState  A predicate that returns true if the status indicates the task is already done.
+     * @param updateState A consumer to mark the status as "done" in the persistent store.
+     * @return A {@link TaskArbiter.TaskResult} containing the task output (if run) and the current status.
+     * @throws PartitionNotOwnedException If another node owns the partition of the key.
+     * @throws Throwable                  If retries are exhausted or the task fails.
+     */
+    public <T, S> TaskArbiter.TaskResult<T, S> run(Retry.RetrySpec retry, K key, Supplier<T> task, Supplier<S> fetchStatus, Function<S, Boolean> checkState, Consumer<S> updateState) throws Throwable {
+        var state = claim(retry, key, fetchStatus, checkState, updateState);
+        if (state.alreadyDone()) {
+            return new TaskArbiter.TaskResult<>(Optional.empty(), state.currentStatus());
+        } else {
+            return new TaskArbiter.TaskResult<>(Optional.ofNullable(task.get()), state.currentStatus());
+        }
+    }
+
+    /**
+     * Executes a void task, provided this node owns its partition and the state check passes.
+     * See {@link #run(Retry.RetrySpec, Object, Supplier, Supplier, Function, Consumer)}.
+     *
+     * @return The current status after the check or task execution.
+     * @throws PartitionNotOwnedException If another node owns the partition of the key.
+     * @throws Throwable                  If retries are exhausted or the task fails.
+     */
+    public <S> S run(Retry.RetrySpec retry, K key, Runnable task, Supplier<S> fetchStatus, Function<S, Boolean> checkState, Consumer<S> updateState) throws Throwable {
+        var state = claim(retry, key, fetchStatus, checkState, updateState);
+        if (!state.alreadyDone()) {
+            task.run();
+        }
+        return state.currentStatus();
+    }
+
+    private <S> TaskArbiter.State<S> claim(Retry.RetrySpec retry, K key, Supplier<S> fetchStatus, Function<S, Boolean> checkState, Consumer<S> updateState) throws Throwable {
+        int partition = partitionOf(key);
+        String owner = ownerOf(partition);
+        if (!membership.localMember().equals(owner)) {
+            throw new PartitionNotOwnedException(key, partition, owner);
+        }
+        return TaskArbiter.claim(retry, stripeOf(key), fetchStatus, checkState, updateState);
+    }
+
+    private ReentrantLock stripeOf(K key) {
+        int hash = key.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+    }
+
+    /**
+     * Returns the owners for the current members, recomputing them only when the members changed. While the
+     * membership reports a version, the members are only read when the version moved.
+     */
+    private Assignment assignment() {
+        long version = membership.version();
+        Assignment current = assignment;
+        if (version >= 0 && current.version == version) {
+            return current;
+        }
+        Set<String> members = membership.members();
+        if (current.members.equals(members)) {
+            assignment = new Assignment(version, members, current.owners);
+            return current;
+        }
+        if (members.isEmpty()) {
+            throw new IllegalStateException("Membership has no members");
+        }
+        Map<String, Long> seeds = new HashMap<>();
+        for (String member : members) {
+            seeds.put(member, seed(member));
+        }
+        String[] owners = new String[partitions];
+        for (int partition = 0; partition < partitions; partition++) {
+            long best = Long.MIN_VALUE;
+            long salt = partition * 0x9E3779B97F4A7C15L;
+            for (Map.Entry<String, Long> entry : seeds.entrySet()) {
+                String member = entry.getKey();
+                long weight = mix(entry.getValue() ^ salt);
+                if (owners[partition] == null || weight > best || (weight == best && member.compareTo(owners[partition]) < 0)) {
+                    best = weight;
+                    owners[partition] = member;
+                }
+            }
+        }
+        Assignment next = new Assignment(version, members, owners);
+        assignment = next;
+        return next;
+    }
+
+    /**
+     * Returns the first 64 bits of the SHA-256 digest of a member id. Unlike {@link String#hashCode()}, it is
+     * uniformly distributed for ids that differ in a single character.
+     */
+    private static long seed(String member) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(member.getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(digest).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Spreads the bits of a hash code (the finalizer of MurmurHash3).
+     */
+    private static int mix(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        return hash ^ hash >>> 16;
+    }
+
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        return hash ^ hash >>> 33;
+    }
+
+    private record Assignment(long version, Set<String> members, String[] owners) {
+    }
+}
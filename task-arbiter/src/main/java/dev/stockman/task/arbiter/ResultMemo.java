@@ -0,0 +1,95 @@
+package dev.stockman.task.arbiter;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Hands the result of a task to its duplicate callers. The winning execution persists its result in a
+ * {@link ResultStore}; duplicates in the same process wait on the running execution instead of claiming the task
+ * themselves, and duplicates elsewhere read the result back from the store.
+ *
+ * @param <K> The type of the task key.
+ * @param <T> The type of the task result.
+ */
+public final class ResultMemo<K, T> {
+
+    private final ResultStore<K, T> store;
+    private final Duration timeout;
+    private final ConcurrentMap<K, CompletableFuture<T>> running = new ConcurrentHashMap<>();
+
+    /**
+     * @param store   The store that persists the results.
+     * @param timeout How long a local duplicate waits for the running execution before giving up on its result.
+     */
+    public ResultMemo(ResultStore<K, T> store, Duration timeout) {
+        this.store = Objects.requireNonNull(store);
+        this.timeout = timeout;
+    }
+
+    /**
+     * Creates a memo that keeps the results in memory.
+     *
+     * @param maxSize The maximum number of results kept.
+     * @param ttl     How long a result is kept.
+     */
+    public static <K, T> ResultMemo<K, T> inMemory(Duration timeout, int maxSize, Duration ttl) {
+        return new ResultMemo<>(new InMemoryResultStore<>(maxSize, ttl), timeout);
+    }
+
+    /**
+     * Registers the execution of a task in this process. Returns null if the caller is the first,
+     * or the future of the execution already running.
+     */
+    CompletableFuture<T> register(K key, CompletableFuture<T> execution) {
+        return running.putIfAbsent(key, execution);
+    }
+
+    /**
+     * Persists the result of the winning execution.
+     */
+    void save(K key, T result) {
+        if (result != null) {
+            store.put(key, result);
+        }
+    }
+
+    /**
+     * Hands the result to the waiting duplicates and unregisters the execution.
+     */
+    void complete(K key, CompletableFuture<T> execution, T result) {
+        running.remove(key, execution);
+        execution.complete(result);
+    }
+
+    /**
+     * Unregisters a failed execution and hands the failure to the waiting duplicates.
+     */
+    void fail(K key, CompletableFuture<T> execution, Throwable throwable) {
+        running.remove(key, execution);
+        execution.completeExceptionally(throwable);
+    }
+
+    /**
+     * Reads the stored result of a task.
+     */
+    Optional<T> stored(K key) {
+        return store.get(key);
+    }
+
+    /**
+     * Waits for the result of a running execution.
+     *
+     * @throws ExecutionException If the execution failed.
+     * @throws TimeoutException   If the execution did not finish in time.
+     */
+    T await(CompletableFuture<T> execution) throws InterruptedException, ExecutionException, TimeoutException {
+        return execution.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,29 @@
+package dev.stockman.task.arbiter;
+
+import java.util.Optional;
+
+/**
+ * SPI for the results of executed tasks, so that duplicate callers can read the result of the winning execution
+ * instead of rebuilding it. Used through a {@link ResultMemo}. Implementations must be safe for concurrent use.
+ *
+ * @param <K> The type of the task key.
+ * @param <T> The type of the task result.
+ */
+public interface ResultStore<K, T> {
+
+    /**
+     * Reads the result of a task.
+     *
+     * @param key The task key.
+     * @return The result, or empty if the task has not finished or returned null.
+     */
+    Optional<T> get(K key);
+
+    /**
+     * Stores the result of a task.
+     *
+     * @param key    The task key.
+     * @param result The result, never null.
+     */
+    void put(K key, T result);
+}
@@ -1,11 +1,28 @@
 package dev.stockman.task.arbiter;
 
 import dev.stockman.retry.Retry;
+import dev.stockman.retry.reactive.ReactiveRetry;
 
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.Lock;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
 
 /**
  * TaskArbiter ensures a task is executed exactly once by coordinating with an external state.
@@ -41,7 +58,7 @@ public final class TaskArbiter {
      * @throws Throwable If retries are exhausted or the task fails.
      */
     public static <T, S> TaskResult<T, S> run(Retry.RetrySpec retry, Supplier<T> task, Supplier<S> fetchStatus, Function<S, Boolean> checkState, Consumer<S> updateState) throws Throwable {
-        var state = retry.call(() -> alreadyDone(fetchStatus, checkState, updateState)).execute();
+        var state = claim(retry, fetchStatus, checkState, updateState);
         if (state.alreadyDone()) {
             return new TaskResult<>(Optional.empty(), state.currentStatus());
         } else {
@@ -61,13 +78,420 @@ public final class TaskArbiter {
      * @throws Throwable If retries are exhausted or the task fails.
      */
     public static <S> S run(Retry.RetrySpec retry, Runnable task, Supplier<S> fetchStatus, Function<S, Boolean> checkState, Consumer<S> updateState) throws Throwable {
-        var state = retry.call(() -> alreadyDone(fetchStatus, checkState, updateState)).execute();
+        var state = claim(retry, fetchStatus, checkState, updateState);
         if (!state.alreadyDone()) {
             task.run();
         }
         return state.currentStatus();
     }
 
+    /**
+     * Executes an asynchronous task, provided the state check passes. No thread is blocked: the state is fetched
+     * and updated through the returned stages, and conflict retries are scheduled by the {@link ReactiveRetry}.
+     * Void tasks can return a {@code CompletionStage<Void>}.
+     *
+     * @param retry       The non-blocking retry specification used to handle state update conflicts.
+     * @param task        Starts the logic to execute if the state is not "done".
+     * @param fetchStatus Starts retrieving the current state from a persistent store.
+     * @param checkState  A predicate that returns true if the status indicates the task is already done.
+     * @param updateState Starts marking the status as "done" in the persistent store. A failed stage is retried.
+     * @return A future completed with the {@link TaskResult}, or exceptionally if retries are exhausted or the task fails.
+     */
+    public static <T, S> CompletableFuture<TaskResult<T, S>> runAsync(ReactiveRetry.RetrySpec retry, Supplier<? extends CompletionStage<T>> task, Supplier<? extends CompletionStage<S>> fetchStatus, Function<S, Boolean> checkState, Function<S, ? extends CompletionStage<?>> updateState) {
+        return recordClaimAsync(retry, "async", null, () -> alreadyDoneAsync(fetchStatus, checkState, updateState))
+                .thenCompose(state -> state.alreadyDone()
+                        ? CompletableFuture.completedFuture(new TaskResult<T, S>(Optional.empty(), state.currentStatus()))
+                        : task.get().thenApply(result -> new TaskResult<>(Optional.ofNullable(result), state.currentStatus())));
+    }
+
+    /**
+     * Executes a task that returns a value, answering from a local cache for tasks already known to be done.
+     * A cache hit returns without calling {@code fetchStatus} or entering the retry. Tasks found to be done in
+     * the state store are added to the cache.
+     *
+     * @param retry       The retry specification used to handle state update conflicts.
+     * @param cache       The cache of tasks known to be done.
+     * @param key         The task key.
+     * @param task        The logic to execute if the state is not "done".
+     * @param fetchStatus A supplier to retrieve the current state from a persistent store.
+     * @param checkState  A predicate that returns true if the status indicates the task is already done.
+     * @param updateState A consumer to mark the status as "done" in the persistent store.
+     * @return A {@link TaskResult} containing the task output (if run) and the current status.
+     * @throws Throwable If retries are exhausted or the task fails.
+     */
+    public static <K, T, S> TaskResult<T, S> run(Retry.RetrySpec retry, CompletedTaskCache<K, S> cache, K key, Supplier<T> task, Supplier<S> fetchStatus, Function<S, Boolean> checkState, Consumer<S> updateState) throws Throwable {
+        Optional<S> cached = cache.get(key);
+        if (cached.isPresent()) {
+            return new TaskResult<>(Optional.empty(), cached.get());
+        }
+        var state = claim(retry, fetchStatus, checkState, updateState);
+        if (state.alreadyDone()) {
+            cache.put(key, state.currentStatus());
+            return new TaskResult<>(Optional.empty(), state.currentStatus());
+        } else {
+            return new TaskResult<>(Optional.ofNullable(task.get()), state.currentStatus());
+        }
+    }
+
+    /**
+     * Executes a void task, answering from a local cache for tasks already known to be done.
+     * See {@link #run(Retry.RetrySpec, CompletedTaskCache, Object, Supplier, Supplier, Function, Consumer)}.
+     *
+     * @return The current status after the check or task execution.
+     * @throws Throwable If retries are exhausted or the task fails.
+     */
+    public static <K, S> S run(Retry.RetrySpec retry, CompletedTaskCache<K, S> cache, K key, Runnable task, Supplier<S> fetchStatus, Function<S, Boolean> checkState, Consumer<S> updateState) throws Throwable {
+        Optional<S> cached = cache.get(key);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        var state = claim(retry, fetchStatus, checkState, updateState);
+        if (state.alreadyDone()) {
+            cache.put(key, state.currentStatus());
+        } else {
+            task.run();
+        }
+        return state.currentStatus();
+    }
+
+    /**
+     * Executes a task that returns a value, claiming it through a {@link TaskStateStore}. The status is read and
+     * replaced with a compare-and-set, so a conflicting claim is detected in the same round trip and retried
+     * through a {@link ClaimConflictException}.
+     *
+     * @param retry      The retry specification. {@link ClaimConflictException} must be retryable.
+     * @param stateStore The store holding the task states.
+     * @param key        The task key.
+     * @param task       The logic to execute if the state is not "done".
+     * @param checkState A predicate that returns true if the status indicates the task is already done.
+     *                   The status is null for tasks unknown to the store.
+     * @param markDone   Returns the "done" status to store in place of the current status (null for unknown tasks).
+     * @return A {@link TaskResult} containing the task output (if run) and the status read before the claim.
+     * @throws Throwable If retries are exhausted or the task fails.
+     */
+    public static <K, T, S> TaskResult<T, S> run(Retry.RetrySpec retry, TaskStateStore<K, S> stateStore, K key, Supplier<T> task, Function<S, Boolean> checkState, UnaryOperator<S> markDone) throws Throwable {
+        var state = recordClaim(retry, "store", key, () -> alreadyDoneInStore(stateStore, key, checkState, markDone));
+        if (state.alreadyDone()) {
+            return new TaskResult<>(Optional.empty(), state.currentStatus());
+        } else {
+            return new TaskResult<>(Optional.ofNullable(task.get()), state.currentStatus());
+        }
+    }
+
+    /**
+     * Executes a void task, claiming it through a {@link TaskStateStore}.
+     * See {@link #run(Retry.RetrySpec, TaskStateStore, Object, Supplier, Function, UnaryOperator)}.
+     *
+     * @return The status read before the claim.
+     * @throws Throwable If retries are exhausted or the task fails.
+     */
+    public static <K, S> S run(Retry.RetrySpec retry, TaskStateStore<K, S> stateStore, K key, Runnable task, Function<S, Boolean> checkState, UnaryOperator<S> markDone) throws Throwable {
+        var state = recordClaim(retry, "store", key, () -> alreadyDoneInStore(stateStore, key, checkState, markDone));
+        if (!state.alreadyDone()) {
+            task.run();
+        }
+        return state.currentStatus();
+    }
+
+    /**
+     * Executes a task that returns a value, claiming it through a {@link TaskStateStore}, and hands the result of the
+     * winning execution to duplicate callers. Duplicates in the same process wait for the running execution without
+     * claiming the task. If the running execution fails or does not finish within the timeout of the memo, a waiting
+     * duplicate claims the task itself while the task is not done yet, and otherwise fails with the failure of the
+     * execution or a {@link TimeoutException}. Duplicates that find the task done read the result from the
+     * {@link ResultMemo}; it is empty if the winner is still running elsewhere or failed.
+     *
+     * @param retry      The retry specification. {@link ClaimConflictException} must be retryable.
+     * @param stateStore The store holding the task states.
+     * @param memo       The memo sharing the task results.
+     * @param key        The task key.
+     * @param task       The logic to execute if the state is not "done".
+     * @param checkState A predicate that returns true if the status indicates the task is already done.
+     *                   The status is null for tasks unknown to the store.
+     * @param markDone   Returns the "done" status to store in place of the current status (null for unknown tasks).
+     * @return A {@link TaskResult} containing the result of the winning execution (if known) and the task status.
+     * @throws Throwable If retries are exhausted or the task fails.
+     */
+    public static <K, T, S> TaskResult<T, S> run(Retry.RetrySpec retry, TaskStateStore<K, S> stateStore, ResultMemo<K, T> memo, K key, Supplier<T> task, Function<S, Boolean> checkState, UnaryOperator<S> markDone) throws Throwable {
+        var execution = new CompletableFuture<T>();
+        var running = memo.register(key, execution);
+        if (running != null) {
+            try {
+                Optional<T> result = Optional.ofNullable(memo.await(running));
+                return new TaskResult<>(result.isPresent() ? result : memo.stored(key), stateStore.get(key).orElse(null));
+            } catch (ExecutionException | TimeoutException e) {
+                if (checkState.apply(stateStore.get(key).orElse(null))) {
+                    throw e instanceof ExecutionException ? e.getCause() : e;
+                }
+            }
+        }
+        try {
+            var state = recordClaim(retry, "store", key, () -> alreadyDoneInStore(stateStore, key, checkState, markDone));
+            T result;
+            if (state.alreadyDone()) {
+                result = memo.stored(key).orElse(null);
+            } else {
+                result = task.get();
+                memo.save(key, result);
+            }
+            memo.complete(key, execution, result);
+            return new TaskResult<>(Optional.ofNullable(result), state.currentStatus());
+        } catch (Throwable e) {
+            memo.fail(key, execution, e);
+            throw e;
+        }
+    }
+
+    private static <K, S> State<S> alreadyDoneInStore(TaskStateStore<K, S> stateStore, K key, Function<S, Boolean> checkState, UnaryOperator<S> markDone) {
+        final S currentStatus = stateStore.get(key).orElse(null);
+        if (checkState.apply(currentStatus)) {
+            return new State<>(true, currentStatus);
+        }
+        if (!stateStore.compareAndSet(key, currentStatus, markDone.apply(currentStatus))) {
+            throw new ClaimConflictException(key);
+        }
+        return new State<>(false, currentStatus);
+    }
+
+    /**
+     * Executes a task that returns a value in lease mode. Each attempt first acquires the lease on the task key,
+     * so only the lease holder fetches and updates the state. Contenders fail fast with a
+     * {@link LeaseUnavailableException} and back off without touching the state store.
+     *
+     * @param retry       The retry specification. {@link LeaseUnavailableException} must be retryable.
+     * @param leaseStore  The store that hands out leases on task keys.
+     * @param key         The task key to lease.
+     * @param ttl         How long a lease is valid. Must cover {@code fetchStatus} and {@code updateState}.
+     * @param task        The logic to execute if the state is not "done".
+     * @param fetchStatus A supplier to retrieve the current state from a persistent store.
+     * @param checkState  A predicate that returns true if the status indicates the task is already done.
+     * @param updateState A consumer to mark the status as "done", given the fencing token of the lease held.
+     * @return A {@link TaskResult} containing the task output (if run) and the current status.
+     * @throws Throwable If retries are exhausted or the task fails.
+     */
+    public static <K, T, S> TaskResult<T, S> run(Retry.RetrySpec retry, LeaseStore<K> leaseStore, K key, Duration ttl, Supplier<T> task, Supplier<S> fetchStatus, Function<S, Boolean> checkState, BiConsumer<S, Long> updateState) throws Throwable {
+        var state = recordClaim(retry, "lease", key, () -> alreadyDoneUnderLease(leaseStore, key, ttl, fetchStatus, checkState, updateState));
+        if (state.alreadyDone()) {
+            return new TaskResult<>(Optional.empty(), state.currentStatus());
+        } else {
+            return new TaskResult<>(Optional.ofNullable(task.get()), state.currentStatus());
+        }
+    }
+
+    /**
+     * Executes a void task in lease mode. See {@link #run(Retry.RetrySpec, LeaseStore, Object, Duration, Supplier, Supplier, Function, BiConsumer)}.
+     *
+     * @return The current status after the check or task execution.
+     * @throws Throwable If retries are exhausted or the task fails.
+     */
+    public static <K, S> S run(Retry.RetrySpec retry, LeaseStore<K> leaseStore, K key, Duration ttl, Runnable task, Supplier<S> fetchStatus, Function<S, Boolean> checkState, BiConsumer<S, Long> updateState) throws Throwable {
+        var state = recordClaim(retry, "lease", key, () -> alreadyDoneUnderLease(leaseStore, key, ttl, fetchStatus, checkState, updateState));
+        if (!state.alreadyDone()) {
+            task.run();
+        }
+        return state.currentStatus();
+    }
+
+    private static <K, S> State<S> alreadyDoneUnderLease(LeaseStore<K> leaseStore, K key, Duration ttl, Supplier<S> fetchStatus, Function<S, Boolean> checkState, BiConsumer<S, Long> updateState) {
+        Lease<K> lease = leaseStore.tryAcquire(key, UUID.randomUUID().toString(), ttl)
+                .orElseThrow(() -> new LeaseUnavailableException(key));
+        try {
+            return alreadyDone(fetchStatus, checkState, status -> updateState.accept(status, lease.fencingToken()));
+        } finally {
+            leaseStore.release(lease);
+        }
+    }
+
+    /**
+     * Executes a batch of tasks that return a value, claiming them in bulk. Each round fetches the statuses of all
+     * unsettled tasks with one call and marks the ones not done with one call. Only the tasks whose claim failed
+     * are retried in the next round. The claimed tasks are executed after the claim rounds, in key order.
+     * <p>
+     * Every claimed task is executed, even if the claim rounds ended early or an earlier task failed, since its key
+     * is already marked done. If the claim rounds end with unsettled keys, because the retry policy was exhausted or
+     * a non-retryable failure occurred, or if a task fails, a {@link BatchIncompleteException} is thrown after all
+     * claimed tasks ran. It reports the results, the unsettled keys and the task failures.
+     *
+     * @param retry         The retry specification. {@link ClaimConflictException} must be retryable.
+     * @param keys          The keys of the tasks to execute.
+     * @param task          The logic to execute for a claimed key. Return null for void tasks.
+     * @param fetchStatuses Retrieves the current status of every given key with one call.
+     * @param checkState    A predicate that returns true if the status indicates the task is already done.
+     * @param updateStates  Marks the given tasks as "done" with one call and returns the keys that were claimed.
+     * @return A {@link TaskResult} per key, in key order.
+     * @throws BatchIncompleteException If some keys were not settled or some tasks failed.
+     */
+    public static <K, T, S> Map<K, TaskResult<T, S>> runAll(Retry.RetrySpec retry, Collection<K> keys, Function<K, T> task, Function<Collection<K>, Map<K, S>> fetchStatuses, Function<S, Boolean> checkState, Function<Map<K, S>, Set<K>> updateStates) {
+        var batch = new Batch<>(keys, fetchStatuses, checkState, updateStates);
+        Throwable failure = batch.claim(retry);
+        Map<K, TaskResult<T, S>> results = new LinkedHashMap<>();
+        Map<K, RuntimeException> failures = new LinkedHashMap<>();
+        for (K key : batch.keys) {
+            if (batch.claimed.containsKey(key)) {
+                try {
+                    results.put(key, new TaskResult<>(Optional.ofNullable(task.apply(key)), batch.claimed.get(key)));
+                } catch (RuntimeException e) {
+                    failures.put(key, e);
+                }
+            } else if (batch.done.containsKey(key)) {
+                results.put(key, new TaskResult<>(Optional.empty(), batch.done.get(key)));
+            }
+        }
+        if (failure != null || !failures.isEmpty()) {
+            throw new BatchIncompleteException(results, new LinkedHashSet<>(batch.pending), failures, failure);
+        }
+        return results;
+    }
+
+    /**
+     * Claim progress of a batch, kept across retry attempts so that each round only handles the unsettled keys.
+     */
+    private static final class Batch<K, S> {
+        private final Set<K> keys;
+        private final Set<K> pending;
+        private final Map<K, S> done = new LinkedHashMap<>();
+        private final Map<K, S> claimed = new LinkedHashMap<>();
+        private final Function<Collection<K>, Map<K, S>> fetchStatuses;
+        private final Function<S, Boolean> checkState;
+        private final Function<Map<K, S>, Set<K>> updateStates;
+
+        Batch(Collection<K> keys, Function<Collection<K>, Map<K, S>> fetchStatuses, Function<S, Boolean> checkState, Function<Map<K, S>, Set<K>> updateStates) {
+            this.keys = new LinkedHashSet<>(keys);
+            this.pending = new LinkedHashSet<>(keys);
+            this.fetchStatuses = fetchStatuses;
+            this.checkState = checkState;
+            this.updateStates = updateStates;
+        }
+
+        /**
+         * Runs claim rounds until every key is settled. Returns the failure that ended the rounds while keys were
+         * still pending, or null.
+         */
+        Throwable claim(Retry.RetrySpec retry) {
+            if (pending.isEmpty()) {
+                return null;
+            }
+            try {
+                recordClaim(retry, "batch", null, this::round);
+                return null;
+            } catch (Throwable e) {
+                return e;
+            }
+        }
+
+        private Boolean round() {
+            Map<K, S> statuses = fetchStatuses.apply(List.copyOf(pending));
+            Map<K, S> notDone = new LinkedHashMap<>();
+            for (K key : pending) {
+                S status = statuses.get(key);
+                if (checkState.apply(status)) {
+                    done.put(key, status);
+                } else {
+                    notDone.put(key, status);
+                }
+            }
+            pending.removeAll(done.keySet());
+            if (!notDone.isEmpty()) {
+                Set<K> claimedKeys = updateStates.apply(notDone);
+                notDone.forEach((key, status) -> {
+                    if (claimedKeys.contains(key)) {
+                        claimed.put(key, status);
+                        pending.remove(key);
+                    }
+                });
+            }
+            if (!pending.isEmpty()) {
+                throw new ClaimConflictException(pending.size());
+            }
+            return Boolean.TRUE;
+        }
+    }
+
+    /**
+     * Checks the state and marks the task as done, retrying conflicts. Does not execute the task.
+     */
+    static <S> State<S> claim(Retry.RetrySpec retry, Supplier<S> fetchStatus, Function<S, Boolean> checkState, Consumer<S> updateState) throws Throwable {
+        return recordClaim(retry, "state", null, () -> alreadyDone(fetchStatus, checkState, updateState));
+    }
+
+    /**
+     * Runs the claim attempts through the retry specification and records the claim as a
+     * {@link TaskArbiterClaimEvent}. While the event is disabled, the attempts run unchanged.
+     *
+     * @param mode The claim mode reported in the event.
+     * @param key  The task key, or null if the claim is not for a single key.
+     */
+    static <R> R recordClaim(Retry.RetrySpec retry, String mode, Object key, Supplier<R> attempt) throws Throwable {
+        var event = new TaskArbiterClaimEvent();
+        if (!event.isEnabled()) {
+            return retry.call(attempt).execute();
+        }
+        event.begin();
+        try {
+            R result = retry.call(() -> {
+                event.attempts++;
+                return attempt.get();
+            }).execute();
+            event.alreadyDone = result instanceof State<?> state && state.alreadyDone();
+            return result;
+        } catch (Throwable e) {
+            event.exceptionClass = e.getClass();
+            throw e;
+        } finally {
+            event.mode = mode;
+            event.key = key == null ? null : String.valueOf(key);
+            event.commit();
+        }
+    }
+
+    /**
+     * Checks the state and marks the task as done under the lock, retrying conflicts. The lock is held for one
+     * attempt at a time and released during the backoff. Does not execute the task.
+     */
+    static <S> State<S> claim(Retry.RetrySpec retry, Lock lock, Supplier<S> fetchStatus, Function<S, Boolean> checkState, Consumer<S> updateState) throws Throwable {
+        return recordClaim(retry, "state", null, () -> {
+            lock.lock();
+            try {
+                return alreadyDone(fetchStatus, checkState, updateState);
+            } finally {
+                lock.unlock();
+            }
+        });
+    }
+
+    /**
+     * Non-blocking counterpart of {@link #recordClaim}: the event begins when the claim starts and is committed
+     * when the returned future completes, on the thread that completes it.
+     *
+     * @param mode The claim mode reported in the event.
+     * @param key  The task key, or null if the claim is not for a single key.
+     */
+    static <R> CompletableFuture<R> recordClaimAsync(ReactiveRetry.RetrySpec retry, String mode, Object key, Supplier<? extends CompletionStage<R>> attempt) {
+        var event = new TaskArbiterClaimEvent();
+        if (!event.isEnabled()) {
+            return retry.<R>stage(attempt).execute();
+        }
+        event.begin();
+        return retry.<R>stage(() -> {
+            event.attempts++;
+            return attempt.get();
+        }).execute().whenComplete((result, failure) -> {
+            event.alreadyDone = result instanceof State<?> state && state.alreadyDone();
+            if (failure != null) {
+                event.exceptionClass = (failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure).getClass();
+            }
+            event.mode = mode;
+            event.key = key == null ? null : String.valueOf(key);
+            event.commit();
+        });
+    }
+
+    private static <S> CompletionStage<State<S>> alreadyDoneAsync(Supplier<? extends CompletionStage<S>> fetchStatus, Function<S, Boolean> checkState, Function<S, ? extends CompletionStage<?>> updateState) {
+        return fetchStatus.get().thenCompose(currentStatus -> checkState.apply(currentStatus)
+                ? CompletableFuture.completedFuture(new State<>(true, currentStatus))
+                : updateState.apply(currentStatus).thenApply(_ -> new State<>(false, currentStatus)));
+    }
+
     private static <S> State<S> alreadyDone(Supplier<S> fetchStatus, Function<S, Boolean> checkState, Consumer<S> updateState) {
         final S currentStatus = fetchStatus.get();
         if (checkState.apply(currentStatus)) {
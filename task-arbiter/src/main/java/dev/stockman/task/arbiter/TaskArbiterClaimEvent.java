@@ -0,0 +1,38 @@
+package dev.stockman.task.arbiter;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The claim of a task by the {@link TaskArbiter}, conflict retries included. The duration of the event is the
+ * duration of the claim; the task itself is not part of it.
+ */
+@Name("dev.stockman.task.arbiter.TaskArbiterClaim")
+@Label("Task Arbiter Claim")
+@Category("Retry")
+@Description("Claim of a task, conflict retries included")
+@StackTrace(false)
+final class TaskArbiterClaimEvent extends Event {
+
+    @Label("Mode")
+    @Description("How the task was claimed: state, async, store, lease, batch or supervised")
+    String mode;
+
+    @Label("Task Key")
+    String key;
+
+    @Label("Attempts")
+    int attempts;
+
+    @Label("Already Done")
+    @Description("True if the task was found done and not claimed")
+    boolean alreadyDone;
+
+    @Label("Exception Class")
+    @Description("The class of the exception the claim failed with, empty if it succeeded")
+    Class<?> exceptionClass;
+}
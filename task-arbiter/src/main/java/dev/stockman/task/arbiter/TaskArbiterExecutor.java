@@ -0,0 +1,120 @@
+package dev.stockman.task.arbiter;
+
+import dev.stockman.retry.Retry;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Runs {@link TaskArbiter} claims in parallel on an executor. Claim attempts for the same task key are serialized
+ * in memory through lock striping, so only one local thread fetches and updates the state of a key at a time
+ * and local callers no longer conflict with each other in the shared store. The lock is released during the
+ * backoff between attempts. Claims for different keys run in
+ * parallel, as do the tasks themselves, which are executed outside the lock.
+ */
+public class TaskArbiterExecutor implements AutoCloseable {
+
+    private final ExecutorService executor;
+    private final ReentrantLock[] stripes;
+
+    /**
+     * @param executor The executor running the submissions. Closed together with this executor.
+     * @param stripes  The number of locks keys are spread over, rounded up to a power of two.
+     */
+    public TaskArbiterExecutor(ExecutorService executor, int stripes) {
+        if (stripes < 1) {
+            throw new IllegalArgumentException("stripes must be at least 1");
+        }
+        int size = 1;
+        while (size < stripes) {
+            size <<= 1;
+        }
+        this.executor = executor;
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < this.stripes.length; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Runs every submission on its own virtual thread.
+     */
+    public static TaskArbiterExecutor virtualThreads() {
+        return new TaskArbiterExecutor(Executors.newVirtualThreadPerTaskExecutor(), 1024);
+    }
+
+    /**
+     * Runs the submissions on a fixed number of platform threads.
+     */
+    public static TaskArbiterExecutor bounded(int threads) {
+        return new TaskArbiterExecutor(Executors.newFixedThreadPool(threads), 1024);
+    }
+
+    /**
+     * Submits a task that returns a value. See {@link TaskArbiter#run(Retry.RetrySpec, Supplier, Supplier, Function, Consumer)}.
+     *
+     * @param key The task key. Claims with equal keys never run concurrently within this executor.
+     * @return A future completed with the {@link TaskArbiter.TaskResult}, or exceptionally if retries are exhausted or the task fails.
+     */
+    public <K, T, S> CompletableFuture<TaskArbiter.TaskResult<T, S>> submit(K key, Retry.RetrySpec retry, Supplier<T> task, Supplier<S> fetchStatus, Function<S, Boolean> checkState, Consumer<S> updateState) {
+        CompletableFuture<TaskArbiter.TaskResult<T, S>> result = new CompletableFuture<>();
+        executor.execute(() -> {
+            try {
+                var state = claim(key, retry, fetchStatus, checkState, updateState);
+                if (state.alreadyDone()) {
+                    result.complete(new TaskArbiter.TaskResult<>(Optional.empty(), state.currentStatus()));
+                } else {
+                    result.complete(new TaskArbiter.TaskResult<>(Optional.ofNullable(task.get()), state.currentStatus()));
+                }
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Submits a void task. See {@link TaskArbiter#run(Retry.RetrySpec, Runnable, Supplier, Function, Consumer)}.
+     *
+     * @param key The task key. Claims with equal keys never run concurrently within this executor.
+     * @return A future completed with the current status, or exceptionally if retries are exhausted or the task fails.
+     */
+    public <K, S> CompletableFuture<S> submit(K key, Retry.RetrySpec retry, Runnable task, Supplier<S> fetchStatus, Function<S, Boolean> checkState, Consumer<S> updateState) {
+        CompletableFuture<S> result = new CompletableFuture<>();
+        executor.execute(() -> {
+            try {
+                var state = claim(key, retry, fetchStatus, checkState, updateState);
+                if (!state.alreadyDone()) {
+                    task.run();
+                }
+                result.complete(state.currentStatus());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Stops accepting submissions and waits for the running ones to finish.
+     */
+    @Override
+    public void close() {
+        executor.close();
+    }
+
+    private <K, S> TaskArbiter.State<S> claim(K key, Retry.RetrySpec retry, Supplier<S> fetchStatus, Function<S, Boolean> checkState, Consumer<S> updateState) throws Throwable {
+        return TaskArbiter.claim(retry, stripeOf(key), fetchStatus, checkState, updateState);
+    }
+
+    private ReentrantLock stripeOf(Object key) {
+        int hash = key.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+    }
+}
@@ -0,0 +1,32 @@
+package dev.stockman.task.arbiter;
+
+import java.util.Optional;
+
+/**
+ * SPI for the persistent task state consulted by {@link TaskArbiter}. The compare-and-set primitive lets the
+ * arbiter detect a conflicting claim in one round trip, without relying on exceptions thrown by an update.
+ * Implementations must be safe for concurrent use.
+ *
+ * @param <K> The type of the task key.
+ * @param <S> The type of the task status.
+ */
+public interface TaskStateStore<K, S> {
+
+    /**
+     * Reads the current status of a task.
+     *
+     * @param key The task key.
+     * @return The current status, or empty if the task is unknown to the store.
+     */
+    Optional<S> get(K key);
+
+    /**
+     * Atomically replaces the status of a task if it still equals the expected status.
+     *
+     * @param key      The task key.
+     * @param expected The status read before, or null if the task was unknown.
+     * @param status   The new status.
+     * @return True if the status was replaced, false if another caller changed it first.
+     */
+    boolean compareAndSet(K key, S expected, S status);
+}
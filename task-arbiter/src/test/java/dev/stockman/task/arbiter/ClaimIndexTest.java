@@ -0,0 +1,80 @@
+package dev.stockman.task.arbiter;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+@DisplayNameGeneration(CamelCaseToSentences.class)
+public class ClaimIndexTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+
+    abstract class ClaimIndexContract {
+
+        abstract ClaimIndex<String> index();
+
+        @Test
+        void testOldestClaimsFirst() {
+            var index = index();
+            index.update("task-2", NOW.plusSeconds(2));
+            index.update("task-1", NOW.plusSeconds(1));
+            index.update("task-3", NOW.plusSeconds(3));
+
+            Assertions.assertEquals(List.of("task-1", "task-2"), index.claimedBefore(NOW.plusSeconds(3), 10));
+            Assertions.assertEquals(List.of("task-1"), index.claimedBefore(NOW.plusSeconds(3), 1));
+        }
+
+        @Test
+        void testUpdateMovesClaim() {
+            var index = index();
+            index.update("task-1", NOW);
+            index.update("task-1", NOW.plusSeconds(10));
+
+            Assertions.assertTrue(index.claimedBefore(NOW.plusSeconds(5), 10).isEmpty());
+            Assertions.assertEquals(List.of("task-1"), index.claimedBefore(NOW.plusSeconds(20), 10));
+        }
+
+        @Test
+        void testRemovedClaimNotReturned() {
+            var index = index();
+            index.update("task-1", NOW);
+            index.remove("task-1");
+            index.remove("task-2");
+
+            Assertions.assertTrue(index.claimedBefore(NOW.plusSeconds(5), 10).isEmpty());
+        }
+    }
+
+    @Nested
+    class InMemory extends ClaimIndexContract {
+        private final ClaimIndex<String> index = new InMemoryClaimIndex<>();
+
+        @Override
+        ClaimIndex<String> index() {
+            return index;
+        }
+    }
+
+    @Nested
+    class Jdbc extends ClaimIndexContract {
+        private JdbcClaimIndex<String> index;
+
+        @Override
+        ClaimIndex<String> index() {
+            if (index == null) {
+                JdbcDataSource dataSource = new JdbcDataSource();
+                dataSource.setURL("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+                index = new JdbcClaimIndex<>(dataSource, "task_claim", Function.identity());
+                index.createTable();
+            }
+            return index;
+        }
+    }
+}
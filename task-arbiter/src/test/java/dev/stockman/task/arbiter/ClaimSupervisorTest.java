@@ -0,0 +1,171 @@
+package dev.stockman.task.arbiter;
+
+import dev.stockman.retry.Retry;
+import dev.stockman.retry.spring7.RetryConfiguration;
+import dev.stockman.retry.spring7.SpringRetryTemplateAdapter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.retry.RetryTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@DisplayNameGeneration(CamelCaseToSentences.class)
+@SpringJUnitConfig(classes = RetryConfiguration.class)
+@TestPropertySource(properties = {
+        "retry.maxAttempts=2",
+        "retry.initialInterval=50",
+        "retry.multiplier=2",
+        "retry.maxInterval=1000",
+        "retry.jitter=10",
+        "retry.retryableExceptions=java.lang.RuntimeException",
+        "retry.nonRetryableExceptions=java.lang.IllegalArgumentException"
+})
+public class ClaimSupervisorTest {
+
+    private static final Duration HEARTBEAT = Duration.ofMinutes(1);
+    private static final Duration STALE_AFTER = Duration.ofMinutes(5);
+
+    @Autowired
+    private RetryTemplate retryTemplate;
+
+    private final LeaseStoreTest.MutableClock clock = new LeaseStoreTest.MutableClock();
+    private final TaskStateStore<String, ClaimState> stateStore = new InMemoryTaskStateStore<>();
+    private final ClaimIndex<String> index = new InMemoryClaimIndex<>();
+    private ScheduledExecutorService scheduler;
+    private ClaimSupervisor<String> supervisor;
+
+    @BeforeEach
+    void setup() {
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        supervisor = new ClaimSupervisor<>(stateStore, index, HEARTBEAT, STALE_AFTER, scheduler, clock);
+    }
+
+    @AfterEach
+    void teardown() {
+        supervisor.close();
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    void testTaskCompletedAfterExecution() throws Throwable {
+        Retry.RetrySpec retrySpec = new SpringRetryTemplateAdapter(retryTemplate).named("testTaskCompletedAfterExecution");
+
+        var result = supervisor.run(retrySpec, "task-1", () -> "Executed task");
+
+        Assertions.assertEquals("Executed task", result.result().get());
+        Assertions.assertEquals(ClaimState.Phase.COMPLETED, stateStore.get("task-1").orElseThrow().phase());
+        Assertions.assertTrue(index.claimedBefore(clock.instant().plus(STALE_AFTER), 10).isEmpty());
+    }
+
+    @Test
+    void testLiveClaimOfOtherWorkerSkipped() throws Throwable {
+        Retry.RetrySpec retrySpec = new SpringRetryTemplateAdapter(retryTemplate).named("testLiveClaimOfOtherWorkerSkipped");
+        stateStore.compareAndSet("task-1", null, ClaimState.claimed("other", clock.instant()));
+
+        var result = supervisor.run(retrySpec, "task-1", () -> "Executed task");
+
+        Assertions.assertTrue(result.result().isEmpty());
+        Assertions.assertEquals("other", result.status().owner());
+    }
+
+    @Test
+    void testStaleClaimTakenOver() throws Throwable {
+        Retry.RetrySpec retrySpec = new SpringRetryTemplateAdapter(retryTemplate).named("testStaleClaimTakenOver");
+        stateStore.compareAndSet("task-1", null, ClaimState.claimed("crashed", clock.instant()));
+        clock.advance(STALE_AFTER);
+
+        var result = supervisor.run(retrySpec, "task-1", () -> "Executed task");
+
+        Assertions.assertEquals("Executed task", result.result().get());
+        Assertions.assertEquals(supervisor.owner(), stateStore.get("task-1").orElseThrow().owner());
+    }
+
+    @Test
+    void testFailedTaskReleasesClaim() {
+        Retry.RetrySpec retrySpec = new SpringRetryTemplateAdapter(retryTemplate).named("testFailedTaskReleasesClaim");
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> supervisor.run(retrySpec, "task-1", () -> {
+            throw new IllegalArgumentException("Test exception");
+        }));
+        Assertions.assertEquals(ClaimState.Phase.RELEASED, stateStore.get("task-1").orElseThrow().phase());
+    }
+
+    @Test
+    void testSweepReleasesOnlyStaleClaims() {
+        stateStore.compareAndSet("task-1", null, ClaimState.claimed("crashed", clock.instant()));
+        index.update("task-1", clock.instant());
+        clock.advance(STALE_AFTER.plus(HEARTBEAT));
+        stateStore.compareAndSet("task-2", null, ClaimState.claimed("alive", clock.instant()));
+        index.update("task-2", clock.instant());
+
+        List<String> released = supervisor.sweep(10);
+
+        Assertions.assertEquals(List.of("task-1"), released);
+        Assertions.assertEquals(ClaimState.Phase.RELEASED, stateStore.get("task-1").orElseThrow().phase());
+        Assertions.assertEquals(ClaimState.Phase.CLAIMED, stateStore.get("task-2").orElseThrow().phase());
+    }
+
+    @Test
+    void testHeartbeatKeepsRunningClaimFresh() throws Throwable {
+        Retry.RetrySpec retrySpec = new SpringRetryTemplateAdapter(retryTemplate).named("testHeartbeatKeepsRunningClaimFresh");
+
+        supervisor.run(retrySpec, "task-1", () -> {
+            clock.advance(STALE_AFTER.minus(HEARTBEAT));
+            supervisor.heartbeat();
+            clock.advance(HEARTBEAT);
+            Assertions.assertTrue(supervisor.sweep(10).isEmpty());
+        });
+
+        Assertions.assertEquals(ClaimState.Phase.COMPLETED, stateStore.get("task-1").orElseThrow().phase());
+    }
+
+    @Test
+    void testClaimGivenUpWhenHeartbeatsCannotKeepItFresh() throws Throwable {
+        Retry.RetrySpec retrySpec = new SpringRetryTemplateAdapter(retryTemplate).named("testClaimGivenUpWhenHeartbeatsCannotKeepItFresh");
+        AtomicBoolean failing = new AtomicBoolean();
+        AtomicInteger failedCalls = new AtomicInteger();
+        TaskStateStore<String, ClaimState> flakyStore = new TaskStateStore<>() {
+            @Override
+            public Optional<ClaimState> get(String key) {
+                return stateStore.get(key);
+            }
+
+            @Override
+            public boolean compareAndSet(String key, ClaimState expected, ClaimState status) {
+                if (failing.get()) {
+                    failedCalls.incrementAndGet();
+                    throw new IllegalStateException("Store unavailable");
+                }
+                return stateStore.compareAndSet(key, expected, status);
+            }
+        };
+
+        try (var flaky = new ClaimSupervisor<>(flakyStore, index, HEARTBEAT, STALE_AFTER, scheduler, clock)) {
+            flaky.run(retrySpec, "task-1", () -> {
+                failing.set(true);
+                clock.advance(HEARTBEAT);
+                flaky.heartbeat();
+                clock.advance(STALE_AFTER.minus(HEARTBEAT.multipliedBy(2)));
+                flaky.heartbeat();
+                clock.advance(HEARTBEAT.dividedBy(2));
+                flaky.heartbeat();
+                failing.set(false);
+            });
+        }
+
+        Assertions.assertEquals(2, failedCalls.get());
+        Assertions.assertEquals(ClaimState.Phase.COMPLETED, stateStore.get("task-1").orElseThrow().phase());
+    }
+}
@@ -0,0 +1,71 @@
+package dev.stockman.task.arbiter;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+@DisplayNameGeneration(CamelCaseToSentences.class)
+public class CompletedTaskCacheTest {
+
+    private final AtomicLong nanoTime = new AtomicLong();
+
+    @Test
+    void testPutThenGet() {
+        var cache = new CompletedTaskCache<String, String>(10, Duration.ofMinutes(1), nanoTime::get);
+
+        cache.put("task-1", "DONE");
+
+        Assertions.assertEquals(Optional.of("DONE"), cache.get("task-1"));
+        Assertions.assertEquals(Optional.empty(), cache.get("task-2"));
+    }
+
+    @Test
+    void testEntriesExpire() {
+        var cache = new CompletedTaskCache<String, String>(10, Duration.ofMinutes(1), nanoTime::get);
+        cache.put("task-1", "DONE");
+
+        nanoTime.addAndGet(Duration.ofMinutes(1).toNanos());
+
+        Assertions.assertEquals(Optional.empty(), cache.get("task-1"));
+    }
+
+    @Test
+    void testOldestEntryEvicted() {
+        var cache = new CompletedTaskCache<String, String>(2, Duration.ofMinutes(1), nanoTime::get);
+
+        cache.put("task-1", "DONE");
+        cache.put("task-2", "DONE");
+        cache.put("task-3", "DONE");
+
+        Assertions.assertEquals(Optional.empty(), cache.get("task-1"));
+        Assertions.assertEquals(Optional.of("DONE"), cache.get("task-2"));
+        Assertions.assertEquals(Optional.of("DONE"), cache.get("task-3"));
+    }
+
+    @Test
+    void testReplacedEntryDoesNotEvictOthers() {
+        var cache = new CompletedTaskCache<String, String>(2, Duration.ofMinutes(1), nanoTime::get);
+
+        cache.put("task-1", "DONE");
+        for (int i = 0; i < 10; i++) {
+            cache.put("task-2", "DONE " + i);
+        }
+
+        Assertions.assertEquals(Optional.of("DONE"), cache.get("task-1"));
+        Assertions.assertEquals(Optional.of("DONE 9"), cache.get("task-2"));
+    }
+
+    @Test
+    void testInvalidate() {
+        var cache = new CompletedTaskCache<String, String>(10, Duration.ofMinutes(1), nanoTime::get);
+        cache.put("task-1", "DONE");
+
+        cache.invalidate("task-1");
+
+        Assertions.assertEquals(Optional.empty(), cache.get("task-1"));
+    }
+}
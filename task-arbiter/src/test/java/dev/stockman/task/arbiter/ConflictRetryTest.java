@@ -0,0 +1,136 @@
+package dev.stockman.task.arbiter;
+
+import dev.stockman.retry.Retry;
+import dev.stockman.retry.spring7.RetryConfiguration;
+import dev.stockman.retry.spring7.SpringRetryTemplateAdapter;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.retry.RetryTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+
+@DisplayNameGeneration(CamelCaseToSentences.class)
+@SpringJUnitConfig(classes = RetryConfiguration.class)
+@TestPropertySource(properties = {
+        "retry.maxAttempts=2",
+        "retry.initialInterval=50",
+        "retry.multiplier=2",
+        "retry.maxInterval=1000",
+        "retry.jitter=10",
+        "retry.retryableExceptions=java.lang.RuntimeException",
+        "retry.nonRetryableExceptions=java.lang.IllegalArgumentException"
+})
+public class ConflictRetryTest {
+
+    @Autowired
+    private RetryTemplate retryTemplate;
+
+    private final ConflictRetry conflictRetry = new ConflictRetry(3, 1, Duration.ofNanos(1_000), Duration.ofMillis(1), ConflictRetry::isOptimisticLockConflict);
+
+    @Test
+    void testConflictsResolvedWithinOneAttempt() throws Throwable {
+        Retry.RetrySpec retrySpec = conflictRetry.around(new SpringRetryTemplateAdapter(retryTemplate).named("testConflictsResolvedWithinOneAttempt"), "task-1");
+        AtomicInteger tries = new AtomicInteger();
+
+        var result = retrySpec.call(() -> {
+            if (tries.incrementAndGet() <= 3) {
+                throw new ClaimConflictException("task-1");
+            }
+            return "Claimed";
+        }).execute();
+
+        Assertions.assertEquals("Claimed", result);
+        Assertions.assertEquals(4, tries.get());
+    }
+
+    @Test
+    void testPersistentConflictHandedToRetrySpec() {
+        Retry.RetrySpec retrySpec = conflictRetry.around(new SpringRetryTemplateAdapter(retryTemplate).named("testPersistentConflictHandedToRetrySpec"), "task-1");
+        AtomicInteger tries = new AtomicInteger();
+
+        Assertions.assertThrows(ClaimConflictException.class, () -> retrySpec.run(() -> {
+            tries.incrementAndGet();
+            throw new ClaimConflictException("task-1");
+        }).execute());
+        Assertions.assertEquals(12, tries.get());
+    }
+
+    @Test
+    void testOtherErrorsHandedToRetrySpec() {
+        Retry.RetrySpec retrySpec = conflictRetry.around(new SpringRetryTemplateAdapter(retryTemplate).named("testOtherErrorsHandedToRetrySpec"), "task-1");
+        AtomicInteger tries = new AtomicInteger();
+
+        Assertions.assertThrows(IllegalStateException.class, () -> retrySpec.call(() -> {
+            tries.incrementAndGet();
+            throw new IllegalStateException("Test exception");
+        }).execute());
+        Assertions.assertEquals(3, tries.get());
+    }
+
+    @Test
+    void testContentionTrackedPerKey() throws Throwable {
+        Retry.RetrySpec retrySpec = conflictRetry.around(new SpringRetryTemplateAdapter(retryTemplate).named("testContentionTrackedPerKey"), "task-1");
+        AtomicInteger tries = new AtomicInteger();
+
+        retrySpec.call(() -> {
+            if (tries.incrementAndGet() <= 2) {
+                throw new ClaimConflictException("task-1");
+            }
+            return "Claimed";
+        }).execute();
+        int hot = conflictRetry.contention("task-1");
+        retrySpec.call(() -> "Claimed").execute();
+
+        Assertions.assertEquals(2, hot);
+        Assertions.assertEquals(1, conflictRetry.contention("task-1"));
+        Assertions.assertEquals(0, conflictRetry.contention("task-2"));
+    }
+
+    @Test
+    void testKeysDifferingInHighBitsUseDifferentStripes() {
+        Set<Integer> stripes = new HashSet<>();
+        for (int i = 0; i < 64; i++) {
+            stripes.add(ConflictRetry.stripe(i << 20));
+        }
+
+        Assertions.assertTrue(stripes.size() > 48, "stripes used: " + stripes.size());
+    }
+
+    @Test
+    void testOptimisticLockExceptionsRecognized() {
+        class OptimisticLockingFailureException extends RuntimeException {
+        }
+        class ObjectOptimisticLockingFailureException extends OptimisticLockingFailureException {
+        }
+
+        Assertions.assertTrue(ConflictRetry.isOptimisticLockConflict(new ObjectOptimisticLockingFailureException()));
+        Assertions.assertTrue(ConflictRetry.isOptimisticLockConflict(new ClaimConflictException("task-1")));
+        Assertions.assertFalse(ConflictRetry.isOptimisticLockConflict(new IllegalStateException()));
+    }
+
+    @Test
+    void testLoserReturnsOnceWinnerFinished() throws Throwable {
+        Retry.RetrySpec retrySpec = conflictRetry.around(new SpringRetryTemplateAdapter(retryTemplate).named("testLoserReturnsOnceWinnerFinished"), "task-1");
+        TaskStateStore<String, String> stateStore = new InMemoryTaskStateStore<>();
+        AtomicInteger executions = new AtomicInteger();
+
+        Runnable taskToExecute = executions::incrementAndGet;
+        UnaryOperator<String> markDone = s -> {
+            stateStore.compareAndSet("task-1", s, "DONE");
+            return "DONE";
+        };
+
+        var status = TaskArbiter.run(retrySpec, stateStore, "task-1", taskToExecute, "DONE"::equals, markDone);
+
+        Assertions.assertEquals("DONE", status);
+        Assertions.assertEquals(0, executions.get());
+    }
+}
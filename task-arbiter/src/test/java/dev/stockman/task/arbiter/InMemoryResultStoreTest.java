@@ -0,0 +1,79 @@
+package dev.stockman.task.arbiter;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+@DisplayNameGeneration(CamelCaseToSentences.class)
+public class InMemoryResultStoreTest {
+
+    private final AtomicLong nanoTime = new AtomicLong();
+
+    @Test
+    void testPutThenGet() {
+        var store = new InMemoryResultStore<String, String>(10, Duration.ofMinutes(1), nanoTime::get);
+
+        store.put("task-1", "Result");
+
+        Assertions.assertEquals(Optional.of("Result"), store.get("task-1"));
+        Assertions.assertEquals(Optional.empty(), store.get("task-2"));
+    }
+
+    @Test
+    void testResultsExpire() {
+        var store = new InMemoryResultStore<String, String>(10, Duration.ofMinutes(1), nanoTime::get);
+        store.put("task-1", "Result");
+
+        nanoTime.addAndGet(Duration.ofMinutes(1).toNanos());
+
+        Assertions.assertEquals(Optional.empty(), store.get("task-1"));
+        Assertions.assertEquals(0, store.size());
+    }
+
+    @Test
+    void testWritesRemoveExpiredResults() {
+        var store = new InMemoryResultStore<String, String>(10, Duration.ofMinutes(1), nanoTime::get);
+        store.put("task-1", "Result");
+        store.put("task-2", "Result");
+        nanoTime.addAndGet(Duration.ofSeconds(30).toNanos());
+        store.put("task-3", "Result");
+
+        nanoTime.addAndGet(Duration.ofSeconds(30).toNanos());
+        store.put("task-4", "Result");
+
+        Assertions.assertEquals(2, store.size());
+        Assertions.assertEquals(Optional.of("Result"), store.get("task-3"));
+    }
+
+    @Test
+    void testOldestResultEvicted() {
+        var store = new InMemoryResultStore<String, String>(2, Duration.ofMinutes(1), nanoTime::get);
+
+        store.put("task-1", "Result");
+        store.put("task-2", "Result");
+        store.put("task-3", "Result");
+
+        Assertions.assertEquals(Optional.empty(), store.get("task-1"));
+        Assertions.assertEquals(Optional.of("Result"), store.get("task-2"));
+        Assertions.assertEquals(Optional.of("Result"), store.get("task-3"));
+    }
+
+    @Test
+    void testReplacedResultMovesToTheEnd() {
+        var store = new InMemoryResultStore<String, String>(2, Duration.ofMinutes(1), nanoTime::get);
+
+        store.put("task-1", "Result");
+        store.put("task-2", "Result");
+        nanoTime.addAndGet(Duration.ofSeconds(30).toNanos());
+        store.put("task-1", "Replaced");
+        store.put("task-3", "Result");
+
+        Assertions.assertEquals(Optional.of("Replaced"), store.get("task-1"));
+        Assertions.assertEquals(Optional.empty(), store.get("task-2"));
+        Assertions.assertEquals(Optional.of("Result"), store.get("task-3"));
+    }
+}
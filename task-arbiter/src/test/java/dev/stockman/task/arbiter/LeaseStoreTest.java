@@ -0,0 +1,192 @@
+package dev.stockman.task.arbiter;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+@DisplayNameGeneration(CamelCaseToSentences.class)
+public class LeaseStoreTest {
+
+    private static final Duration TTL = Duration.ofSeconds(10);
+
+    private final MutableClock clock = new MutableClock();
+
+    abstract class LeaseStoreContract {
+
+        abstract LeaseStore<String> leaseStore();
+
+        @Test
+        void testAcquireFreeKey() {
+            var lease = leaseStore().tryAcquire("task-1", "worker-1", TTL).orElseThrow();
+
+            Assertions.assertEquals("task-1", lease.key());
+            Assertions.assertEquals("worker-1", lease.owner());
+            Assertions.assertEquals(clock.instant().plus(TTL), lease.expiresAt());
+        }
+
+        @Test
+        void testAcquireHeldKey() {
+            var store = leaseStore();
+            store.tryAcquire("task-1", "worker-1", TTL).orElseThrow();
+
+            Assertions.assertTrue(store.tryAcquire("task-1", "worker-2", TTL).isEmpty());
+            Assertions.assertTrue(store.tryAcquire("task-2", "worker-2", TTL).isPresent());
+        }
+
+        @Test
+        void testAcquireExpiredKey() {
+            var store = leaseStore();
+            var first = store.tryAcquire("task-1", "worker-1", TTL).orElseThrow();
+            clock.advance(TTL);
+
+            var second = store.tryAcquire("task-1", "worker-2", TTL).orElseThrow();
+
+            Assertions.assertTrue(second.fencingToken() > first.fencingToken());
+            Assertions.assertTrue(store.renew(first, TTL).isEmpty());
+        }
+
+        @Test
+        void testReleaseThenAcquire() {
+            var store = leaseStore();
+            var first = store.tryAcquire("task-1", "worker-1", TTL).orElseThrow();
+            store.release(first);
+
+            var second = store.tryAcquire("task-1", "worker-2", TTL).orElseThrow();
+
+            Assertions.assertTrue(second.fencingToken() > first.fencingToken());
+        }
+
+        @Test
+        void testReleaseOfTakenOverLeaseIgnored() {
+            var store = leaseStore();
+            var first = store.tryAcquire("task-1", "worker-1", TTL).orElseThrow();
+            clock.advance(TTL);
+            store.tryAcquire("task-1", "worker-2", TTL).orElseThrow();
+
+            store.release(first);
+
+            Assertions.assertTrue(store.tryAcquire("task-1", "worker-3", TTL).isEmpty());
+        }
+
+        @Test
+        void testCompactionRemovesExpiredLeases() {
+            var store = leaseStore();
+            var expired = store.tryAcquire("task-1", "worker-1", TTL).orElseThrow();
+            clock.advance(TTL);
+            store.tryAcquire("task-2", "worker-2", TTL).orElseThrow();
+
+            Assertions.assertEquals(1, store.compact());
+            Assertions.assertTrue(store.tryAcquire("task-2", "worker-3", TTL).isEmpty());
+            Assertions.assertTrue(store.tryAcquire("task-1", "worker-3", TTL).orElseThrow().fencingToken() > expired.fencingToken());
+        }
+
+        @Test
+        void testRenewExtendsLease() {
+            var store = leaseStore();
+            var lease = store.tryAcquire("task-1", "worker-1", TTL).orElseThrow();
+            clock.advance(TTL.dividedBy(2));
+
+            var renewed = store.renew(lease, TTL).orElseThrow();
+            clock.advance(TTL.dividedBy(2));
+
+            Assertions.assertEquals(lease.fencingToken(), renewed.fencingToken());
+            Assertions.assertTrue(store.tryAcquire("task-1", "worker-2", TTL).isEmpty());
+        }
+    }
+
+    @Nested
+    class InMemory extends LeaseStoreContract {
+        private final LeaseStore<String> leaseStore = new InMemoryLeaseStore<>(clock);
+
+        @Override
+        LeaseStore<String> leaseStore() {
+            return leaseStore;
+        }
+    }
+
+    @Nested
+    class FileBacked extends LeaseStoreContract {
+        @TempDir
+        Path directory;
+
+        @Override
+        LeaseStore<String> leaseStore() {
+            return new FileLeaseStore<>(directory, clock);
+        }
+
+        @Test
+        void testInterruptedWriteKeepsFencingToken() throws IOException {
+            var store = leaseStore();
+            var first = store.tryAcquire("task-1", "worker-1", TTL).orElseThrow();
+            var leaseFile = leaseFile();
+            store.release(first);
+            Files.writeString(leaseFile.resolveSibling(leaseFile.getFileName() + ".tmp"), "");
+
+            var second = store.tryAcquire("task-1", "worker-2", TTL).orElseThrow();
+
+            Assertions.assertEquals(first.fencingToken() + 1, second.fencingToken());
+        }
+
+        @Test
+        void testReleaseDeletesLeaseFile() throws IOException {
+            var store = leaseStore();
+            var first = store.tryAcquire("task-1", "worker-1", TTL).orElseThrow();
+            store.release(first);
+
+            try (var files = Files.list(directory)) {
+                Assertions.assertTrue(files.noneMatch(file -> file.toString().endsWith(".lease")));
+            }
+            Assertions.assertEquals(first.fencingToken() + 1, new FileLeaseStore<String>(directory, clock).tryAcquire("task-1", "worker-2", TTL).orElseThrow().fencingToken());
+        }
+
+        @Test
+        void testCorruptLeaseFileRejected() throws IOException {
+            var store = leaseStore();
+            store.tryAcquire("task-1", "worker-1", TTL).orElseThrow();
+            Files.writeString(leaseFile(), "7\nworker-1\n");
+
+            Assertions.assertThrows(UncheckedIOException.class, () -> store.tryAcquire("task-1", "worker-2", TTL));
+        }
+
+        private Path leaseFile() throws IOException {
+            try (var files = Files.list(directory)) {
+                return files.filter(file -> file.toString().endsWith(".lease")).findFirst().orElseThrow();
+            }
+        }
+    }
+
+    static class MutableClock extends Clock {
+        private Instant instant = Instant.parse("2026-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
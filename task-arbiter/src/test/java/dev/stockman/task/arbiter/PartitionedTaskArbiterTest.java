@@ -0,0 +1,141 @@
+package dev.stockman.task.arbiter;
+
+import dev.stockman.retry.Retry;
+import dev.stockman.retry.spring7.RetryConfiguration;
+import dev.stockman.retry.spring7.SpringRetryTemplateAdapter;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.retry.RetryTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+@DisplayNameGeneration(CamelCaseToSentences.class)
+@SpringJUnitConfig(classes = RetryConfiguration.class)
+@TestPropertySource(properties = {
+        "retry.maxAttempts=2",
+        "retry.initialInterval=50",
+        "retry.multiplier=2",
+        "retry.maxInterval=1000",
+        "retry.jitter=10",
+        "retry.retryableExceptions=java.lang.RuntimeException",
+        "retry.nonRetryableExceptions=java.lang.IllegalArgumentException"
+})
+public class PartitionedTaskArbiterTest {
+
+    private static final int PARTITIONS = 256;
+
+    @Autowired
+    private RetryTemplate retryTemplate;
+
+    private final InMemoryMembership node1 = new InMemoryMembership("node-1");
+    private final InMemoryMembership node2 = node1.as("node-2");
+    private final InMemoryMembership node3 = node1.as("node-3");
+
+    @Test
+    void testEveryPartitionOwnedByOneMember() {
+        var arbiter = new PartitionedTaskArbiter<String>(node1, PARTITIONS);
+
+        Set<String> owners = IntStream.range(0, PARTITIONS).mapToObj(arbiter::ownerOf).collect(Collectors.toSet());
+
+        Assertions.assertEquals(Set.of("node-1", "node-2", "node-3"), owners);
+        Assertions.assertEquals(arbiter.ownerOf(7), new PartitionedTaskArbiter<String>(node2, PARTITIONS).ownerOf(7));
+    }
+
+    @Test
+    void testSimilarMemberIdsGetBalancedShares() {
+        var arbiter = new PartitionedTaskArbiter<String>(node1, PARTITIONS);
+
+        var shares = IntStream.range(0, PARTITIONS).mapToObj(arbiter::ownerOf)
+                .collect(Collectors.groupingBy(owner -> owner, Collectors.counting()));
+
+        shares.values().forEach(share -> Assertions.assertTrue(share > PARTITIONS / 5, "Share " + share + " of " + shares));
+    }
+
+    @Test
+    void testOnlyPartitionsOfLeavingMemberMove() {
+        var arbiter = new PartitionedTaskArbiter<String>(node1, PARTITIONS);
+        List<String> before = IntStream.range(0, PARTITIONS).mapToObj(arbiter::ownerOf).toList();
+
+        node1.leave("node-3");
+
+        for (int partition = 0; partition < PARTITIONS; partition++) {
+            if (!before.get(partition).equals("node-3")) {
+                Assertions.assertEquals(before.get(partition), arbiter.ownerOf(partition));
+            }
+        }
+    }
+
+    @Test
+    void testMembersReadOnlyWhenVersionMoves() {
+        AtomicInteger reads = new AtomicInteger();
+        Membership counting = new Membership() {
+            @Override
+            public String localMember() {
+                return node1.localMember();
+            }
+
+            @Override
+            public Set<String> members() {
+                reads.incrementAndGet();
+                return node1.members();
+            }
+
+            @Override
+            public long version() {
+                return node1.version();
+            }
+        };
+        var arbiter = new PartitionedTaskArbiter<String>(counting, PARTITIONS);
+
+        IntStream.range(0, PARTITIONS).forEach(arbiter::ownerOf);
+        node1.leave("node-3");
+        IntStream.range(0, PARTITIONS).forEach(arbiter::ownerOf);
+
+        Assertions.assertEquals(2, reads.get());
+        Assertions.assertNotEquals("node-3", arbiter.ownerOf(0));
+    }
+
+    @Test
+    void testTaskOfOtherPartitionRejected() {
+        Retry.RetrySpec retrySpec = new SpringRetryTemplateAdapter(retryTemplate).named("testTaskOfOtherPartitionRejected");
+        var arbiter = new PartitionedTaskArbiter<String>(node1, PARTITIONS);
+        String key = IntStream.range(0, 100).mapToObj(i -> "task-" + i).filter(k -> !arbiter.owns(k)).findFirst().orElseThrow();
+
+        var exception = Assertions.assertThrows(PartitionNotOwnedException.class,
+                () -> arbiter.run(retrySpec, key, () -> "Executed task", () -> false, s -> s, s -> {}));
+
+        Assertions.assertEquals(arbiter.ownerOf(arbiter.partitionOf(key)), exception.owner());
+    }
+
+    @Test
+    void testTaskExecutedOnceByOwner() throws Throwable {
+        Retry.RetrySpec retrySpec = new SpringRetryTemplateAdapter(retryTemplate).named("testTaskExecutedOnceByOwner");
+        List<PartitionedTaskArbiter<String>> nodes = List.of(
+                new PartitionedTaskArbiter<>(node1, PARTITIONS),
+                new PartitionedTaskArbiter<>(node2, PARTITIONS),
+                new PartitionedTaskArbiter<>(node3, PARTITIONS));
+        List<Integer> list = new ArrayList<>(List.of(1));
+        AtomicInteger executions = new AtomicInteger();
+        AtomicInteger rejections = new AtomicInteger();
+
+        for (var node : nodes) {
+            try {
+                node.run(retrySpec, "task-1", executions::incrementAndGet, () -> list, s -> s.size() == 2, s -> s.add(1));
+            } catch (PartitionNotOwnedException e) {
+                rejections.incrementAndGet();
+            }
+        }
+
+        Assertions.assertEquals(1, executions.get());
+        Assertions.assertEquals(2, rejections.get());
+    }
+}
@@ -0,0 +1,158 @@
+package dev.stockman.task.arbiter;
+
+import dev.stockman.retry.Retry;
+import dev.stockman.retry.spring7.RetryConfiguration;
+import dev.stockman.retry.spring7.SpringRetryTemplateAdapter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.retry.RetryTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+@DisplayNameGeneration(CamelCaseToSentences.class)
+@SpringJUnitConfig(classes = RetryConfiguration.class)
+@TestPropertySource(properties = {
+        "retry.maxAttempts=2",
+        "retry.initialInterval=50",
+        "retry.multiplier=2",
+        "retry.maxInterval=1000",
+        "retry.jitter=10",
+        "retry.retryableExceptions=java.lang.RuntimeException",
+        "retry.nonRetryableExceptions=java.lang.IllegalArgumentException"
+})
+public class TaskArbiterExecutorTest {
+
+    @Autowired
+    private RetryTemplate retryTemplate;
+
+    private TaskArbiterExecutor executor;
+
+    @BeforeEach
+    void setup() {
+        executor = TaskArbiterExecutor.virtualThreads();
+    }
+
+    @AfterEach
+    void teardown() {
+        executor.close();
+    }
+
+    @Test
+    void testSameKeyClaimsSerialized() throws Exception {
+        Retry.RetrySpec retrySpec = new SpringRetryTemplateAdapter(retryTemplate).named("testSameKeyClaimsSerialized");
+
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicInteger inside = new AtomicInteger();
+        AtomicInteger maxInside = new AtomicInteger();
+        AtomicInteger fetches = new AtomicInteger();
+        AtomicInteger executions = new AtomicInteger();
+
+        Supplier<String> taskToExecute = () -> "Executed task " + executions.incrementAndGet();
+        Supplier<Boolean> fetchStatus = () -> {
+            fetches.incrementAndGet();
+            maxInside.accumulateAndGet(inside.incrementAndGet(), Math::max);
+            sleep();
+            inside.decrementAndGet();
+            return done.get();
+        };
+        Function<Boolean, Boolean> checkState = s -> s;
+        Consumer<Boolean> updateState = _ -> {
+            if (!done.compareAndSet(false, true)) {
+                throw new RuntimeException("Optimistic locking failed");
+            }
+        };
+
+        List<CompletableFuture<TaskArbiter.TaskResult<String, Boolean>>> results = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            results.add(executor.submit("task-1", retrySpec, taskToExecute, fetchStatus, checkState, updateState));
+        }
+        CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+
+        Assertions.assertEquals(1, maxInside.get());
+        Assertions.assertEquals(1, executions.get());
+        Assertions.assertEquals(20, fetches.get());
+        Assertions.assertEquals(1, results.stream().filter(result -> result.join().result().isPresent()).count());
+    }
+
+    @Test
+    void testLockReleasedDuringBackoff() throws Exception {
+        Retry.RetrySpec retrySpec = new SpringRetryTemplateAdapter(retryTemplate).named("testLockReleasedDuringBackoff");
+
+        List<String> fetches = new CopyOnWriteArrayList<>();
+        CountDownLatch conflicted = new CountDownLatch(1);
+        var first = executor.submit("task-1", retrySpec, () -> "Executed task", () -> {
+            fetches.add("first");
+            return false;
+        }, s -> s, _ -> {
+            if (conflicted.getCount() > 0) {
+                conflicted.countDown();
+                throw new RuntimeException("Optimistic locking failed");
+            }
+        });
+        Assertions.assertTrue(conflicted.await(5, TimeUnit.SECONDS));
+        var second = executor.submit("task-1", retrySpec, () -> "Executed task", () -> {
+            fetches.add("second");
+            return true;
+        }, s -> s, _ -> {
+        });
+        CompletableFuture.allOf(first, second).get(5, TimeUnit.SECONDS);
+
+        Assertions.assertEquals(List.of("first", "second", "first"), fetches);
+    }
+
+    @Test
+    void testDifferentKeysRunInParallel() throws Exception {
+        Retry.RetrySpec retrySpec = new SpringRetryTemplateAdapter(retryTemplate).named("testDifferentKeysRunInParallel");
+
+        AtomicInteger executions = new AtomicInteger();
+        List<CompletableFuture<Boolean>> results = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int i = 0; i < 20; i++) {
+            AtomicBoolean done = new AtomicBoolean();
+            results.add(executor.submit("task-" + i, retrySpec, (Runnable) executions::incrementAndGet, done::get, s -> s, _ -> {
+                sleep();
+                done.set(true);
+            }));
+        }
+        CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+
+        Assertions.assertEquals(20, executions.get());
+        Assertions.assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 20 * 20);
+    }
+
+    @Test
+    void testFailureCompletesExceptionally() {
+        Retry.RetrySpec retrySpec = new SpringRetryTemplateAdapter(retryTemplate).named("testFailureCompletesExceptionally");
+
+        var result = executor.submit("task-1", retrySpec, () -> "Executed task", () -> false, s -> s, _ -> {
+            throw new IllegalArgumentException("Test exception");
+        });
+
+        var exception = Assertions.assertThrows(Exception.class, () -> result.get(5, TimeUnit.SECONDS));
+        Assertions.assertInstanceOf(IllegalArgumentException.class, exception.getCause());
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(20);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
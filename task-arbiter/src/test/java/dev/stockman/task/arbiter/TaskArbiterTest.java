@@ -1,8 +1,15 @@
 package dev.stockman.task.arbiter;
 
 import dev.stockman.retry.Retry;
+import dev.stockman.retry.reactive.ReactiveRetry;
+import dev.stockman.retry.reactive.ReactiveRetryPolicy;
+import dev.stockman.retry.reactive.ScheduledRetryAdapter;
+import dev.stockman.retry.settings.RetrySettings;
 import dev.stockman.retry.spring7.RetryConfiguration;
 import dev.stockman.retry.spring7.SpringRetryTemplateAdapter;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.DisplayNameGeneration;
 import org.junit.jupiter.api.Nested;
@@ -13,11 +20,32 @@ import org.springframework.core.retry.RetryTemplate;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
 
 
 @DisplayNameGeneration(CamelCaseToSentences.class)
@@ -209,4 +237,535 @@ public class TaskArbiterTest {
 
         }
     }
-}
\ No newline at end of file
+
+    @Nested
+    class LeaseMode {
+
+        @Test
+        void testTaskNotCompletedThenExecute() throws Throwable {
+            Retry.RetrySpec retrySpec = new SpringRetryTemplateAdapter(retryTemplate).named("testTaskNotCompletedThenExecute");
+            LeaseStore<String> leaseStore = new InMemoryLeaseStore<>();
+
+            List<Integer> list = new ArrayList<>(List.of(1));
+            AtomicLong fencingToken = new AtomicLong();
+
+            Supplier<String> taskToExecute = () -> "Executed task";
+            Supplier<List<Integer>> fetchStatus = () -> list;
+            Function<List<Integer>, Boolean> checkState = s -> s.size() == 2;
+            BiConsumer<List<Integer>, Long> updateState = (s, token) -> {
+                fencingToken.set(token);
+                s.add(1);
+            };
+
+            var result = TaskArbiter.run(retrySpec, leaseStore, "task-1", Duration.ofSeconds(10), taskToExecute, fetchStatus, checkState, updateState);
+
+            Assertions.assertEquals(2, result.status().size());
+            Assertions.assertEquals("Executed task", result.result().get());
+            Assertions.assertEquals(1, fencingToken.get());
+            Assertions.assertTrue(leaseStore.tryAcquire("task-1", "other", Duration.ofSeconds(10)).isPresent());
+        }
+
+        @Test
+        void testLeaseHeldByOtherWorker() {
+            Retry.RetrySpec retrySpec = new SpringRetryTemplateAdapter(retryTemplate).named("testLeaseHeldByOtherWorker");
+            LeaseStore<String> leaseStore = new InMemoryLeaseStore<>();
+            leaseStore.tryAcquire("task-1", "other", Duration.ofMinutes(1));
+
+            AtomicInteger fetches = new AtomicInteger();
+
+            Runnable taskToExecute = () -> {};
+            Supplier<List<Integer>> fetchStatus = () -> {
+                fetches.incrementAndGet();
+                return List.of();
+            };
+
+            Assertions.assertThrows(LeaseUnavailableException.class,
+                    () -> TaskArbiter.run(retrySpec, leaseStore, "task-1", Duration.ofSeconds(10), taskToExecute, fetchStatus, s -> false, (s, token) -> {}));
+            Assertions.assertEquals(0, fetches.get());
+        }
+
+        @Test
+        void testTaskExecutesOnlyOnce() throws Throwable {
+            Retry.RetrySpec retrySpec = new SpringRetryTemplateAdapter(retryTemplate).named("testTaskExecutesOnlyOnce");
+            LeaseStore<String> leaseStore = new InMemoryLeaseStore<>();
+
+            List<Integer> list = new ArrayList<>(List.of(1));
+            interface Foobar {
+                void foobar();
+            }
+            Foobar foobar = Mockito.mock(Foobar.class);
+
+            Runnable taskToExecute = foobar::foobar;
+            Supplier<List<Integer>> fetchStatus = () -> list;
+            Function<List<Integer>, Boolean> checkState = s -> s.size() > 1;
+            BiConsumer<List<Integer>, Long> updateState = (s, token) -> s.add(1);
+
+            for (int i = 0; i < 5; i++) {
+                TaskArbiter.run(retrySpec, leaseStore, "task-1", Duration.ofSeconds(10), taskToExecute, fetchStatus, checkState, updateState);
+            }
+
+            Mockito.verify(foobar, Mockito.times(1)).foobar();
+        }
+    }
+
+    @Nested
+    class BatchMode {
+
+        @Test
+        void testAlreadyCompletedTasksSkipped() throws Throwable {
+            Retry.RetrySpec retrySpec = new SpringRetryTemplateAdapter(retryTemplate).named("testAlreadyCompletedTasksSkipped");
+
+            Map<Integer, Boolean> statuses = new HashMap<>(Map.of(1, true, 2, false, 3, false));
+            List<Integer> executed = new ArrayList<>();
+
+            var results = TaskArbiter.runAll(retrySpec, List.of(1, 2, 3), key -> {
+                executed.add(key);
+                return "Executed task " + key;
+            }, keys -> statusesOf(keys, statuses), s -> s, notDone -> {
+                notDone.keySet().forEach(key -> statuses.put(key, true));
+                return notDone.keySet();
+            });
+
+            Assertions.assertEquals(List.of(2, 3), executed);
+            Assertions.assertEquals(List.of(1, 2, 3), List.copyOf(results.keySet()));
+            Assertions.assertTrue(results.get(1).result().isEmpty());
+            Assertions.assertEquals("Executed task 2", results.get(2).result().get());
+            Assertions.assertFalse(results.get(2).status());
+        }
+
+        @Test
+        void testOnlyFailedClaimsRetried() throws Throwable {
+            Retry.RetrySpec retrySpec = new SpringRetryTemplateAdapter(retryTemplate).named("testOnlyFailedClaimsRetried");
+
+            Map<Integer, Boolean> statuses = new HashMap<>(Map.of(1, false, 2, false, 3, false));
+            List<Set<Integer>> fetched = new ArrayList<>();
+            AtomicBoolean conflict = new AtomicBoolean(true);
+
+            var results = TaskArbiter.runAll(retrySpec, List.of(1, 2, 3), key -> key, keys -> {
+                fetched.add(new HashSet<>(keys));
+                return statusesOf(keys, statuses);
+            }, s -> s, notDone -> {
+                Set<Integer> claimed = new HashSet<>(notDone.keySet());
+                if (conflict.getAndSet(false)) {
+                    claimed.remove(2);
+                }
+                claimed.forEach(key -> statuses.put(key, true));
+                return claimed;
+            });
+
+            Assertions.assertEquals(List.of(Set.of(1, 2, 3), Set.of(2)), fetched);
+            Assertions.assertEquals(3, results.size());
+            results.values().forEach(result -> Assertions.assertTrue(result.result().isPresent()));
+        }
+
+        @Test
+        void testUnclaimedTasksReportedWhenExhausted() {
+            Retry.RetrySpec retrySpec = new SpringRetryTemplateAdapter(retryTemplate).named("testUnclaimedTasksReportedWhenExhausted");
+
+            List<Integer> executed = new ArrayList<>();
+
+            var exception = Assertions.assertThrows(BatchIncompleteException.class, () -> TaskArbiter.runAll(retrySpec, List.of(1, 2), key -> {
+                executed.add(key);
+                return key;
+            }, keys -> statusesOf(keys, Map.of(1, false, 2, false)), s -> s, _ -> Set.of(1)));
+
+            Assertions.assertEquals(List.of(1), executed);
+            Assertions.assertEquals(Set.of(1), exception.results().keySet());
+            Assertions.assertEquals(Set.of(2), exception.unsettled());
+            Assertions.assertInstanceOf(ClaimConflictException.class, exception.getCause());
+        }
+
+        @Test
+        void testFailedTaskDoesNotStopTheOthers() {
+            Retry.RetrySpec retrySpec = new SpringRetryTemplateAdapter(retryTemplate).named("testFailedTaskDoesNotStopTheOthers");
+
+            List<Integer> executed = new ArrayList<>();
+            var failure = new IllegalStateException("Task 2 failed");
+
+            var exception = Assertions.assertThrows(BatchIncompleteException.class, () -> TaskArbiter.runAll(retrySpec, List.of(1, 2, 3), key -> {
+                executed.add(key);
+                if (key == 2) {
+                    throw failure;
+                }
+                return key;
+            }, keys -> statusesOf(keys, Map.of(1, false, 2, false, 3, false)), s -> s, Map::keySet));
+
+            Assertions.assertEquals(List.of(1, 2, 3), executed);
+            Assertions.assertEquals(Set.of(1, 3), exception.results().keySet());
+            Assertions.assertEquals(Map.of(2, failure), exception.failures());
+            Assertions.assertEquals(Set.of(), exception.unsettled());
+            Assertions.assertNull(exception.getCause());
+        }
+
+        private static Map<Integer, Boolean> statusesOf(Collection<Integer> keys, Map<Integer, Boolean> statuses) {
+            Map<Integer, Boolean> result = new HashMap<>();
+            keys.forEach(key -> result.put(key, statuses.get(key)));
+            return result;
+        }
+    }
+
+    @Nested
+    class CachedMode {
+
+        @Test
+        void testCompletedTaskAnsweredFromCache() throws Throwable {
+            Retry.RetrySpec retrySpec = new SpringRetryTemplateAdapter(retryTemplate).named("testCompletedTaskAnsweredFromCache");
+            CompletedTaskCache<String, List<Integer>> cache = new CompletedTaskCache<>(100, Duration.ofMinutes(1));
+
+            List<Integer> list = new ArrayList<>(List.of(1, 1));
+            AtomicInteger fetches = new AtomicInteger();
+
+            Supplier<String> taskToExecute = () -> "Executed task";
+            Supplier<List<Integer>> fetchStatus = () -> {
+                fetches.incrementAndGet();
+                return list;
+            };
+            Function<List<Integer>, Boolean> checkState = s -> s.size() == 2;
+            Consumer<List<Integer>> updateState = s -> s.add(1);
+
+            for (int i = 0; i < 5; i++) {
+                var result = TaskArbiter.run(retrySpec, cache, "task-1", taskToExecute, fetchStatus, checkState, updateState);
+                Assertions.assertTrue(result.result().isEmpty());
+                Assertions.assertEquals(2, result.status().size());
+            }
+
+            Assertions.assertEquals(1, fetches.get());
+        }
+
+        @Test
+        void testExecutedTaskNotCached() throws Throwable {
+            Retry.RetrySpec retrySpec = new SpringRetryTemplateAdapter(retryTemplate).named("testExecutedTaskNotCached");
+            CompletedTaskCache<String, List<Integer>> cache = new CompletedTaskCache<>(100, Duration.ofMinutes(1));
+
+            List<Integer> list = new ArrayList<>(List.of(1));
+
+            Runnable taskToExecute = () -> {};
+            Supplier<List<Integer>> fetchStatus = () -> list;
+            Function<List<Integer>, Boolean> checkState = s -> s.size() == 2;
+            Consumer<List<Integer>> updateState = s -> s.add(1);
+
+            TaskArbiter.run(retrySpec, cache, "task-1", taskToExecute, fetchStatus, checkState, updateState);
+
+            Assertions.assertTrue(cache.get("task-1").isEmpty());
+        }
+    }
+
+    @Nested
+    class StateStoreMode {
+
+        @Test
+        void testTaskNotCompletedThenExecute() throws Throwable {
+            Retry.RetrySpec retrySpec = new SpringRetryTemplateAdapter(retryTemplate).named("testTaskNotCompletedThenExecute");
+            TaskStateStore<String, String> stateStore = new InMemoryTaskStateStore<>();
+
+            var result = TaskArbiter.run(retrySpec, stateStore, "task-1", () -> "Executed task", "DONE"::equals, _ -> "DONE");
+
+            Assertions.assertNull(result.status());
+            Assertions.assertEquals("Executed task", result.result().get());
+            Assertions.assertEquals("DONE", stateStore.get("task-1").orElseThrow());
+        }
+
+        @Test
+        void testTaskAlreadyCompleted() throws Throwable {
+            Retry.RetrySpec retrySpec = new SpringRetryTemplateAdapter(retryTemplate).named("testTaskAlreadyCompleted");
+            TaskStateStore<String, String> stateStore = new InMemoryTaskStateStore<>();
+            stateStore.compareAndSet("task-1", null, "DONE");
+
+            var result = TaskArbiter.run(retrySpec, stateStore, "task-1", () -> "Executed task", "DONE"::equals, _ -> "DONE");
+
+            Assertions.assertEquals("DONE", result.status());
+            Assertions.assertTrue(result.result().isEmpty());
+        }
+
+        @Test
+        void testConcurrentClaimThenSkip() throws Throwable {
+            Retry.RetrySpec retrySpec = new SpringRetryTemplateAdapter(retryTemplate).named("testConcurrentClaimThenSkip");
+            TaskStateStore<String, String> stateStore = new InMemoryTaskStateStore<>();
+            AtomicInteger executions = new AtomicInteger();
+
+            Runnable taskToExecute = executions::incrementAndGet;
+            UnaryOperator<String> markDone = s -> {
+                stateStore.compareAndSet("task-1", s, "DONE");
+                return "DONE";
+            };
+
+            var status = TaskArbiter.run(retrySpec, stateStore, "task-1", taskToExecute, "DONE"::equals, markDone);
+
+            Assertions.assertEquals("DONE", status);
+            Assertions.assertEquals(0, executions.get());
+        }
+    }
+
+    @Nested
+    class MemoizedMode {
+
+        @Test
+        void testDuplicateGetsOriginalResult() throws Throwable {
+            Retry.RetrySpec retrySpec = new SpringRetryTemplateAdapter(retryTemplate).named("testDuplicateGetsOriginalResult");
+            TaskStateStore<String, String> stateStore = new InMemoryTaskStateStore<>();
+            ResultMemo<String, String> memo = ResultMemo.inMemory(Duration.ofSeconds(1), 100, Duration.ofMinutes(1));
+
+            var first = TaskArbiter.run(retrySpec, stateStore, memo, "task-1", () -> "First execution", "DONE"::equals, _ -> "DONE");
+            var duplicate = TaskArbiter.run(retrySpec, stateStore, memo, "task-1", () -> "Second execution", "DONE"::equals, _ -> "DONE");
+
+            Assertions.assertEquals("First execution", first.result().get());
+            Assertions.assertEquals("First execution", duplicate.result().get());
+            Assertions.assertEquals("DONE", duplicate.status());
+        }
+
+        @Test
+        void testLocalDuplicatesWaitForRunningExecution() throws Exception {
+            Retry.RetrySpec retrySpec = new SpringRetryTemplateAdapter(retryTemplate).named("testLocalDuplicatesWaitForRunningExecution");
+            TaskStateStore<String, String> stateStore = new InMemoryTaskStateStore<>();
+            ResultMemo<String, String> memo = ResultMemo.inMemory(Duration.ofSeconds(1), 100, Duration.ofMinutes(1));
+            AtomicInteger executions = new AtomicInteger();
+
+            Supplier<String> taskToExecute = () -> {
+                executions.incrementAndGet();
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "Executed task";
+            };
+
+            List<CompletableFuture<TaskArbiter.TaskResult<String, String>>> results = new ArrayList<>();
+            try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < 10; i++) {
+                    results.add(CompletableFuture.supplyAsync(() -> {
+                        try {
+                            return TaskArbiter.run(retrySpec, stateStore, memo, "task-1", taskToExecute, "DONE"::equals, _ -> "DONE");
+                        } catch (Throwable e) {
+                            throw new IllegalStateException(e);
+                        }
+                    }, executor));
+                }
+            }
+
+            Assertions.assertEquals(1, executions.get());
+            for (var result : results) {
+                Assertions.assertEquals("Executed task", result.get().result().get());
+            }
+        }
+
+        @Test
+        void testDuplicateFailsWithFailedWinner() throws Exception {
+            Retry.RetrySpec retrySpec = new SpringRetryTemplateAdapter(retryTemplate).named("testDuplicateFailsWithFailedWinner");
+            TaskStateStore<String, String> stateStore = new InMemoryTaskStateStore<>();
+            ResultMemo<String, String> memo = ResultMemo.inMemory(Duration.ofSeconds(1), 100, Duration.ofMinutes(1));
+            CountDownLatch started = new CountDownLatch(1);
+            CountDownLatch duplicateWaiting = new CountDownLatch(1);
+
+            try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                var winner = executor.submit(memoized(retrySpec, stateStore, memo, () -> {
+                    started.countDown();
+                    awaitDuplicate(duplicateWaiting);
+                    throw new IllegalStateException("Task failed");
+                }));
+                Assertions.assertTrue(started.await(1, TimeUnit.SECONDS));
+                duplicateWaiting.countDown();
+                var duplicate = executor.submit(memoized(retrySpec, stateStore, memo, () -> "Second execution"));
+
+                var exception = Assertions.assertThrows(ExecutionException.class, duplicate::get);
+                Assertions.assertEquals("Task failed", exception.getCause().getMessage());
+                Assertions.assertThrows(ExecutionException.class, winner::get);
+            }
+        }
+
+        @Test
+        void testDuplicateClaimsTaskWhenWinnerFailsBeforeClaim() throws Exception {
+            Retry.RetrySpec retrySpec = new SpringRetryTemplateAdapter(retryTemplate).named("testDuplicateClaimsTaskWhenWinnerFailsBeforeClaim");
+            InMemoryTaskStateStore<String, String> delegate = new InMemoryTaskStateStore<>();
+            CountDownLatch started = new CountDownLatch(1);
+            CountDownLatch duplicateWaiting = new CountDownLatch(1);
+            AtomicBoolean failed = new AtomicBoolean();
+            TaskStateStore<String, String> stateStore = new TaskStateStore<>() {
+                @Override
+                public Optional<String> get(String key) {
+                    return delegate.get(key);
+                }
+
+                @Override
+                public boolean compareAndSet(String key, String expected, String status) {
+                    if (failed.compareAndSet(false, true)) {
+                        started.countDown();
+                        awaitDuplicate(duplicateWaiting);
+                        throw new IllegalArgumentException("Store unavailable");
+                    }
+                    return delegate.compareAndSet(key, expected, status);
+                }
+            };
+            ResultMemo<String, String> memo = ResultMemo.inMemory(Duration.ofSeconds(1), 100, Duration.ofMinutes(1));
+
+            try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                var winner = executor.submit(memoized(retrySpec, stateStore, memo, () -> "First execution"));
+                Assertions.assertTrue(started.await(1, TimeUnit.SECONDS));
+                duplicateWaiting.countDown();
+                var duplicate = executor.submit(memoized(retrySpec, stateStore, memo, () -> "Second execution"));
+
+                Assertions.assertEquals("Second execution", duplicate.get(1, TimeUnit.SECONDS).result().get());
+                Assertions.assertThrows(ExecutionException.class, winner::get);
+            }
+        }
+
+        private static Callable<TaskArbiter.TaskResult<String, String>> memoized(Retry.RetrySpec retrySpec, TaskStateStore<String, String> stateStore, ResultMemo<String, String> memo, Supplier<String> task) {
+            return () -> {
+                try {
+                    return TaskArbiter.run(retrySpec, stateStore, memo, "task-1", task, "DONE"::equals, _ -> "DONE");
+                } catch (Exception | Error e) {
+                    throw e;
+                } catch (Throwable e) {
+                    throw new IllegalStateException(e);
+                }
+            };
+        }
+
+        private static void awaitDuplicate(CountDownLatch submitted) {
+            try {
+                submitted.await(1, TimeUnit.SECONDS);
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Nested
+    class AsyncMode {
+
+        private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        private final ReactiveRetry reactiveRetry = new ScheduledRetryAdapter(
+                ReactiveRetryPolicy.from(new RetrySettings(2, 50, 2, 1000, 0,
+                        List.of("java.lang.RuntimeException"), List.of("java.lang.IllegalArgumentException"), 0)),
+                scheduler);
+
+        @AfterEach
+        void teardown() {
+            scheduler.shutdownNow();
+        }
+
+        @Test
+        void testTaskNotCompletedThenExecute() throws Exception {
+            List<Integer> list = new ArrayList<>(List.of(1));
+
+            var result = TaskArbiter.runAsync(reactiveRetry.named("testTaskNotCompletedThenExecute"),
+                    () -> CompletableFuture.completedFuture("Executed task"),
+                    () -> CompletableFuture.completedFuture(list),
+                    s -> s.size() == 2,
+                    s -> CompletableFuture.runAsync(() -> s.add(1))).get(1, TimeUnit.SECONDS);
+
+            Assertions.assertEquals(2, result.status().size());
+            Assertions.assertEquals("Executed task", result.result().get());
+        }
+
+        @Test
+        void testTaskNotCompletedThenSkip() throws Exception {
+            List<Integer> list = new ArrayList<>(List.of(1));
+
+            var result = TaskArbiter.runAsync(reactiveRetry.named("testTaskNotCompletedThenSkip"),
+                    () -> CompletableFuture.completedFuture("Executed task"),
+                    () -> CompletableFuture.completedFuture(list),
+                    s -> s.size() == 2,
+                    s -> {
+                        s.add(1);
+                        return CompletableFuture.failedFuture(new RuntimeException("Optimistic locking failed"));
+                    }).get(1, TimeUnit.SECONDS);
+
+            Assertions.assertEquals(2, result.status().size());
+            Assertions.assertTrue(result.result().isEmpty());
+        }
+
+        @Test
+        void testNonRetryableFailure() {
+            var result = TaskArbiter.runAsync(reactiveRetry.named("testNonRetryableFailure"),
+                    () -> CompletableFuture.completedFuture("Executed task"),
+                    () -> CompletableFuture.<List<Integer>>failedFuture(new IllegalArgumentException("Test exception")),
+                    s -> s.size() == 2,
+                    _ -> CompletableFuture.completedFuture(null));
+
+            var exception = Assertions.assertThrows(Exception.class, () -> result.get(1, TimeUnit.SECONDS));
+            Assertions.assertInstanceOf(IllegalArgumentException.class, exception.getCause());
+        }
+    }
+
+    @Nested
+    class FlightRecorderEvents {
+
+        @Test
+        void testConflictRetriedClaimIsRecorded() throws Throwable {
+            Retry.RetrySpec retrySpec = new SpringRetryTemplateAdapter(retryTemplate).named("testConflictRetriedClaimIsRecorded");
+            TaskStateStore<String, String> stateStore = new InMemoryTaskStateStore<>();
+            AtomicBoolean conflicted = new AtomicBoolean();
+            UnaryOperator<String> markDone = s -> {
+                if (conflicted.compareAndSet(false, true)) {
+                    stateStore.compareAndSet("task-1", s, "RUNNING");
+                }
+                return "DONE";
+            };
+
+            try (var recording = new Recording()) {
+                recording.enable("dev.stockman.task.arbiter.TaskArbiterClaim").withThreshold(Duration.ZERO);
+                recording.start();
+                TaskArbiter.run(retrySpec, stateStore, "task-1", () -> "Executed task", "DONE"::equals, markDone);
+                recording.stop();
+
+                Path file = Files.createTempFile("task-arbiter", ".jfr");
+                try {
+                    recording.dump(file);
+                    var events = RecordingFile.readAllEvents(file).stream()
+                            .filter(event -> event.getEventType().getName().equals("dev.stockman.task.arbiter.TaskArbiterClaim"))
+                            .toList();
+
+                    Assertions.assertEquals(1, events.size());
+                    Assertions.assertEquals("store", events.getFirst().getString("mode"));
+                    Assertions.assertEquals("task-1", events.getFirst().getString("key"));
+                    Assertions.assertEquals(2, events.getFirst().getInt("attempts"));
+                    Assertions.assertFalse(events.getFirst().getBoolean("alreadyDone"));
+                } finally {
+                    Files.delete(file);
+                }
+            }
+        }
+
+        @Test
+        void testAsyncClaimIsRecordedWhenItCompletes() throws Exception {
+            ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+            ReactiveRetry reactiveRetry = new ScheduledRetryAdapter(
+                    ReactiveRetryPolicy.from(new RetrySettings(2, 50, 2, 1000, 0,
+                        List.of("java.lang.RuntimeException"), List.of("java.lang.IllegalArgumentException"), 0)),
+                    scheduler);
+            AtomicBoolean conflicted = new AtomicBoolean();
+
+            try (var recording = new Recording()) {
+                recording.enable("dev.stockman.task.arbiter.TaskArbiterClaim").withThreshold(Duration.ZERO);
+                recording.start();
+                TaskArbiter.runAsync(reactiveRetry.named("testAsyncClaimIsRecordedWhenItCompletes"),
+                        () -> CompletableFuture.completedFuture("Executed task"),
+                        () -> CompletableFuture.completedFuture("PENDING"),
+                        "DONE"::equals,
+                        _ -> conflicted.compareAndSet(false, true)
+                                ? CompletableFuture.failedFuture(new RuntimeException("Optimistic locking failed"))
+                                : CompletableFuture.completedFuture(null)).get(1, TimeUnit.SECONDS);
+                recording.stop();
+
+                Path file = Files.createTempFile("task-arbiter", ".jfr");
+                try {
+                    recording.dump(file);
+                    var events = RecordingFile.readAllEvents(file).stream()
+                            .filter(event -> event.getEventType().getName().equals("dev.stockman.task.arbiter.TaskArbiterClaim"))
+                            .toList();
+
+                    Assertions.assertEquals(1, events.size());
+                    Assertions.assertEquals("async", events.getFirst().getString("mode"));
+                    Assertions.assertEquals(2, events.getFirst().getInt("attempts"));
+                    Assertions.assertFalse(events.getFirst().getBoolean("alreadyDone"));
+                } finally {
+                    Files.delete(file);
+                }
+            } finally {
+                scheduler.shutdownNow();
+            }
+        }
+    }
+}
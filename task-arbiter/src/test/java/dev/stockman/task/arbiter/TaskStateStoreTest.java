@@ -0,0 +1,246 @@
+package dev.stockman.task.arbiter;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+@DisplayNameGeneration(CamelCaseToSentences.class)
+public class TaskStateStoreTest {
+
+    abstract class TaskStateStoreContract {
+
+        abstract TaskStateStore<String, String> stateStore();
+
+        @Test
+        void testUnknownTask() {
+            Assertions.assertTrue(stateStore().get("task-1").isEmpty());
+        }
+
+        @Test
+        void testInsertUnknownTask() {
+            var store = stateStore();
+
+            Assertions.assertTrue(store.compareAndSet("task-1", null, "DONE"));
+            Assertions.assertFalse(store.compareAndSet("task-1", null, "OTHER"));
+            Assertions.assertEquals("DONE", store.get("task-1").orElseThrow());
+        }
+
+        @Test
+        void testReplaceExpectedStatus() {
+            var store = stateStore();
+            store.compareAndSet("task-1", null, "NEW");
+
+            Assertions.assertTrue(store.compareAndSet("task-1", "NEW", "DONE"));
+            Assertions.assertFalse(store.compareAndSet("task-1", "NEW", "OTHER"));
+            Assertions.assertEquals("DONE", store.get("task-1").orElseThrow());
+        }
+
+        @Test
+        void testReplaceUnknownTaskFails() {
+            var store = stateStore();
+
+            Assertions.assertFalse(store.compareAndSet("task-1", "NEW", "DONE"));
+            Assertions.assertTrue(store.get("task-1").isEmpty());
+        }
+
+        @Test
+        void testConcurrentClaimsHaveOneWinner() {
+            var store = stateStore();
+            AtomicInteger winners = new AtomicInteger();
+
+            try (var executor = Executors.newFixedThreadPool(8)) {
+                for (int i = 0; i < 64; i++) {
+                    executor.submit(() -> {
+                        if (store.compareAndSet("task-1", null, "DONE")) {
+                            winners.incrementAndGet();
+                        }
+                    });
+                }
+            }
+
+            Assertions.assertEquals(1, winners.get());
+        }
+    }
+
+    @Nested
+    class InMemory extends TaskStateStoreContract {
+        private final TaskStateStore<String, String> stateStore = new InMemoryTaskStateStore<>();
+
+        @Override
+        TaskStateStore<String, String> stateStore() {
+            return stateStore;
+        }
+    }
+
+    @Nested
+    class MappedFile extends TaskStateStoreContract {
+        @TempDir
+        Path directory;
+
+        private MappedFileTaskStateStore<String, String> stateStore;
+
+        @Override
+        TaskStateStore<String, String> stateStore() {
+            if (stateStore == null) {
+                stateStore = new MappedFileTaskStateStore<>(directory.resolve("state"), 16, 64, Function.identity(), Function.identity());
+            }
+            return stateStore;
+        }
+
+        @AfterEach
+        void teardown() throws Exception {
+            if (stateStore != null) {
+                stateStore.close();
+            }
+        }
+
+        @Test
+        void testStatusSurvivesReopen() throws Exception {
+            stateStore().compareAndSet("task-1", null, "DONE");
+            stateStore.close();
+
+            stateStore = new MappedFileTaskStateStore<>(directory.resolve("state"), 16, 64, Function.identity(), Function.identity());
+
+            Assertions.assertEquals("DONE", stateStore.get("task-1").orElseThrow());
+        }
+
+        @Test
+        void testTornUpdateDetected() throws Exception {
+            stateStore().compareAndSet("task-1", null, "DONE");
+            stateStore.close();
+            int offset = slotOffset("task-1");
+            try (FileChannel channel = FileChannel.open(directory.resolve("state"), StandardOpenOption.WRITE)) {
+                channel.write(ByteBuffer.allocate(Integer.BYTES).putInt(3).flip(), offset);
+                channel.write(ByteBuffer.wrap("NEW".getBytes(StandardCharsets.UTF_8)), offset + 16 + "task-1".length());
+            }
+
+            stateStore = new MappedFileTaskStateStore<>(directory.resolve("state"), 16, 64, Function.identity(), Function.identity());
+
+            Assertions.assertThrows(IllegalStateException.class, () -> stateStore.get("task-1"));
+        }
+
+        @Test
+        void testTornFirstWriteCleared() throws Exception {
+            stateStore();
+            stateStore.close();
+            try (FileChannel channel = FileChannel.open(directory.resolve("state"), StandardOpenOption.WRITE)) {
+                channel.write(ByteBuffer.allocate(3 * Integer.BYTES).putInt(1).putInt(6).putInt(4).flip(), slotOffset("task-1"));
+            }
+
+            stateStore = new MappedFileTaskStateStore<>(directory.resolve("state"), 16, 64, Function.identity(), Function.identity());
+
+            Assertions.assertTrue(stateStore.get("task-1").isEmpty());
+            Assertions.assertTrue(stateStore.compareAndSet("task-1", null, "DONE"));
+            Assertions.assertEquals("DONE", stateStore.get("task-1").orElseThrow());
+        }
+
+        private static int slotOffset(String key) {
+            return Math.floorMod(Arrays.hashCode(key.getBytes(StandardCharsets.UTF_8)), 16) * 64;
+        }
+
+        @Test
+        void testStatusTooLargeForSlot() {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> stateStore().compareAndSet("task-1", null, "x".repeat(64)));
+        }
+    }
+
+    @Nested
+    class Journal extends TaskStateStoreContract {
+        @TempDir
+        Path directory;
+
+        private JournalTaskStateStore<String, String> stateStore;
+
+        @Override
+        TaskStateStore<String, String> stateStore() {
+            if (stateStore == null) {
+                stateStore = new JournalTaskStateStore<>(directory.resolve("journal"), Function.identity(), Function.identity());
+            }
+            return stateStore;
+        }
+
+        @AfterEach
+        void teardown() throws Exception {
+            if (stateStore != null) {
+                stateStore.close();
+            }
+        }
+
+        @Test
+        void testStatusRecoveredFromJournal() throws Exception {
+            stateStore().compareAndSet("task-1", null, "NEW");
+            stateStore.compareAndSet("task-1", "NEW", "DONE");
+            stateStore.close();
+
+            stateStore = new JournalTaskStateStore<>(directory.resolve("journal"), Function.identity(), Function.identity());
+
+            Assertions.assertEquals("DONE", stateStore.get("task-1").orElseThrow());
+        }
+
+        @Test
+        void testTornRecordCutOff() throws Exception {
+            stateStore().compareAndSet("task-1", null, "DONE");
+            long size = stateStore.size();
+            stateStore.close();
+            Files.write(directory.resolve("journal"), new byte[]{0, 0, 0, 42, 1, 2}, StandardOpenOption.APPEND);
+
+            stateStore = new JournalTaskStateStore<>(directory.resolve("journal"), Function.identity(), Function.identity());
+
+            Assertions.assertEquals("DONE", stateStore.get("task-1").orElseThrow());
+            Assertions.assertEquals(size, Files.size(directory.resolve("journal")));
+            Assertions.assertTrue(stateStore.compareAndSet("task-2", null, "DONE"));
+        }
+
+        @Test
+        void testCompactionKeepsLatestStatus() throws Exception {
+            stateStore().compareAndSet("task-1", null, "NEW");
+            stateStore.compareAndSet("task-1", "NEW", "DONE");
+            long size = stateStore.size();
+
+            stateStore.compact();
+            stateStore.close();
+            stateStore = new JournalTaskStateStore<>(directory.resolve("journal"), Function.identity(), Function.identity());
+
+            Assertions.assertTrue(stateStore.size() < size);
+            Assertions.assertEquals("DONE", stateStore.get("task-1").orElseThrow());
+        }
+    }
+
+    @Nested
+    class Jdbc extends TaskStateStoreContract {
+        private JdbcTaskStateStore<String, String> stateStore;
+
+        @Override
+        TaskStateStore<String, String> stateStore() {
+            if (stateStore == null) {
+                JdbcDataSource dataSource = new JdbcDataSource();
+                dataSource.setURL("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+                stateStore = new JdbcTaskStateStore<>(dataSource, "task_state", Function.identity(), Function.identity());
+                stateStore.createTable();
+            }
+            return stateStore;
+        }
+
+        @Test
+        void testInvalidTableName() {
+            Assertions.assertThrows(IllegalArgumentException.class,
+                    () -> new JdbcTaskStateStore<String, String>(new JdbcDataSource(), "task_state; DROP TABLE x", Function.identity(), Function.identity()));
+        }
+    }
+}